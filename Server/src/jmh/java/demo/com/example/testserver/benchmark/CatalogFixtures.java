@@ -0,0 +1,150 @@
+package demo.com.example.testserver.benchmark;
+
+import demo.com.example.testserver.cart.model.CartItem;
+import demo.com.example.testserver.order.model.Order;
+import demo.com.example.testserver.order.model.OrderDetail;
+import demo.com.example.testserver.product.model.Brand;
+import demo.com.example.testserver.product.model.Category;
+import demo.com.example.testserver.product.model.Product;
+import demo.com.example.testserver.product.model.ProductImage;
+import demo.com.example.testserver.product.model.ProductReview;
+import demo.com.example.testserver.product.model.ProductVariant;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Detached entity graphs shaped like real catalog rows, shared by the mapper benchmarks.
+ */
+public final class CatalogFixtures {
+
+    private CatalogFixtures() {}
+
+    public static Product product(long id, int variantCount, int imageCount) {
+        Date now = new Date();
+
+        Category category = new Category();
+        category.setId(2);
+        category.setName("Áo thun");
+        category.setImageUrl("/images/categories/ao-thun.png");
+
+        Brand brand = new Brand();
+        brand.setId(5);
+        brand.setName("Coolmate");
+
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Áo thun nam cổ tròn Cotton Compact " + id);
+        product.setDescription("Chất liệu 100% cotton compact, thấm hút mồ hôi, giữ form sau nhiều lần giặt.");
+        product.setCategory(category);
+        product.setBrand(brand);
+        product.setMainImageUrl("/images/products/" + id + "/main.jpg");
+        product.setDiscountPercentage(new BigDecimal("10.00"));
+        product.setCreatedDate(now);
+        product.setUpdatedDate(now);
+        product.setMinPrice(new BigDecimal("159000.00"));
+        product.setMaxPrice(new BigDecimal("199000.00"));
+        product.setVariantZeroPrice(new BigDecimal("159000.00"));
+        product.setAverageRating(4.6);
+        product.setReviewCount(128);
+        product.setRatingCount(120);
+        product.setRating1Count(2);
+        product.setRating2Count(3);
+        product.setRating3Count(9);
+        product.setRating4Count(30);
+        product.setRating5Count(76);
+
+        List<ProductVariant> variants = new ArrayList<>();
+        for (int i = 0; i < variantCount; i++) {
+            ProductVariant variant = new ProductVariant();
+            variant.setId((int) (id * 100 + i));
+            variant.setProduct(product);
+            variant.setName("Size " + (char) ('S' + i % 4) + " / Màu " + i);
+            variant.setSku("SKU-" + id + "-" + i);
+            variant.setPrice(new BigDecimal(159000 + i * 10000));
+            variant.setDiscountPercentage(i % 2 == 0 ? BigDecimal.ZERO : new BigDecimal("5.00"));
+            variant.setStockQuantity(50 + i);
+            variant.setVariantImageUrl(i % 3 == 0 ? null : "/images/products/" + id + "/variant-" + i + ".jpg");
+            variant.setCreatedDate(now);
+            variant.setUpdatedDate(now);
+            variants.add(variant);
+        }
+        product.setVariants(variants);
+
+        List<ProductImage> images = new ArrayList<>();
+        for (int i = 0; i < imageCount; i++) {
+            ProductImage image = new ProductImage();
+            image.setId((int) (id * 100 + i));
+            image.setProduct(product);
+            image.setImageUrl("/images/products/" + id + "/" + i + ".jpg");
+            image.setCreatedDate(now);
+            images.add(image);
+        }
+        product.setImages(images);
+        return product;
+    }
+
+    public static List<ProductReview> reviews(Product product, int count) {
+        List<ProductReview> reviews = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ProductReview review = new ProductReview();
+            review.setId(i + 1);
+            review.setProduct(product);
+            review.setReviewerName("Khách " + i);
+            review.setRating((byte) (1 + i % 5));
+            review.setComment("Vải mát, mặc thoải mái, giao hàng nhanh.");
+            review.setReviewTime(new Date());
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    public static Order order(int lineCount) {
+        Order order = new Order();
+        order.setId(1001);
+        order.setRecipientName("Nguyễn Văn A");
+        order.setRecipientPhoneNumber("0901234567");
+        order.setShippingAddress("12 Nguyễn Huệ, Quận 1, TP. Hồ Chí Minh");
+        order.setPaymentMethod("COD");
+        order.setOrderDate(new Date());
+        order.setUpdatedDate(new Date());
+
+        List<OrderDetail> details = new ArrayList<>();
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lineCount; i++) {
+            ProductVariant variant = product(i + 1, 1, 1).getVariants().get(0);
+            OrderDetail detail = new OrderDetail();
+            detail.setId(i + 1);
+            detail.setOrder(order);
+            detail.setProductVariant(variant);
+            detail.setQuantity(1 + i % 3);
+            detail.setPriceAtPurchase(variant.getPrice());
+            detail.setProductDiscountPercentage(BigDecimal.ZERO);
+            detail.setLineTotal(variant.getPrice().multiply(BigDecimal.valueOf(detail.getQuantity())));
+            subtotal = subtotal.add(detail.getLineTotal());
+            details.add(detail);
+        }
+        order.setOrderDetails(details);
+        order.setSubtotal(subtotal);
+        order.setCouponDiscount(BigDecimal.ZERO);
+        order.setPointsDiscount(BigDecimal.ZERO);
+        order.setShippingFee(new BigDecimal("30000"));
+        order.setTax(BigDecimal.ZERO);
+        order.setTotalAmount(subtotal.add(order.getShippingFee()));
+        order.setPointsEarned(BigDecimal.ZERO);
+        return order;
+    }
+
+    public static CartItem cartItem() {
+        CartItem item = new CartItem();
+        item.setId(1);
+        item.setSessionId("benchmark-session");
+        item.setProductVariant(product(1, 2, 1).getVariants().get(1)); // Discounted variant
+        item.setQuantity(2);
+        item.setAddedDate(new Date());
+        item.setUpdatedDate(new Date());
+        return item;
+    }
+}
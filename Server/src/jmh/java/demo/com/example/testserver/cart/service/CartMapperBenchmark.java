@@ -0,0 +1,43 @@
+package demo.com.example.testserver.cart.service;
+
+import demo.com.example.testserver.benchmark.CatalogFixtures;
+import demo.com.example.testserver.cart.dto.CartItemDTO;
+import demo.com.example.testserver.cart.model.CartItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CartMapper.toCartItemDTO on a discounted variant, which takes the price computation path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartMapperBenchmark {
+
+    private CartMapper cartMapper;
+    private CartItem cartItem;
+
+    @Setup
+    public void setUp() {
+        cartMapper = new CartMapper();
+        cartItem = CatalogFixtures.cartItem();
+    }
+
+    @Benchmark
+    public CartItemDTO toCartItemDTO() {
+        return cartMapper.toCartItemDTO(cartItem);
+    }
+}
@@ -0,0 +1,47 @@
+package demo.com.example.testserver.order.service;
+
+import demo.com.example.testserver.benchmark.CatalogFixtures;
+import demo.com.example.testserver.order.dto.OrderDTO;
+import demo.com.example.testserver.order.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderMapper.toOrderDTO for a typical and a large basket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+    @Param({"3", "20"})
+    public int lineCount;
+
+    private OrderMapper orderMapper;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        orderMapper = new OrderMapper();
+        order = CatalogFixtures.order(lineCount);
+    }
+
+    @Benchmark
+    public OrderDTO toOrderDTO() {
+        return orderMapper.toOrderDTO(order);
+    }
+}
@@ -0,0 +1,118 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.dto.BrandDTO;
+import demo.com.example.testserver.product.dto.CategoryDTO;
+import demo.com.example.testserver.product.dto.CreateBrandRequestDTO;
+import demo.com.example.testserver.product.dto.CreateCategoryRequestDTO;
+import demo.com.example.testserver.product.model.Brand;
+import demo.com.example.testserver.product.model.Category;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective ModelMapper (the previous implementation) against the hand-written CategoryMapper / BrandMapper,
+ * per DTO pair. Run with "-prof gc" to get the allocation rate (gc.alloc.rate.norm, bytes per operation).
+ * The ModelMapper type maps are built in setup, as the application bean had them cached after the first call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private CategoryMapper categoryMapper;
+    private BrandMapper brandMapper;
+
+    private Category category;
+    private Brand brand;
+    private CreateCategoryRequestDTO createCategoryRequest;
+    private CreateBrandRequestDTO createBrandRequest;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        categoryMapper = new CategoryMapper();
+        brandMapper = new BrandMapper();
+
+        Date now = new Date();
+        category = new Category();
+        category.setId(7);
+        category.setName("Áo thun");
+        category.setImageUrl("/images/categories/ao-thun.png");
+        category.setCreatedDate(now);
+        category.setUpdatedDate(now);
+
+        brand = new Brand();
+        brand.setId(3);
+        brand.setName("Coolmate");
+        brand.setCreatedDate(now);
+        brand.setUpdatedDate(now);
+
+        createCategoryRequest = new CreateCategoryRequestDTO();
+        createCategoryRequest.setName("Quần jean");
+        createCategoryRequest.setImageUrl("/images/categories/quan-jean.png");
+
+        createBrandRequest = new CreateBrandRequestDTO();
+        createBrandRequest.setName("Routine");
+
+        modelMapper.map(category, CategoryDTO.class);
+        modelMapper.map(brand, BrandDTO.class);
+        modelMapper.map(createCategoryRequest, Category.class);
+        modelMapper.map(createBrandRequest, Brand.class);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToDTO_modelMapper() {
+        return modelMapper.map(category, CategoryDTO.class);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToDTO_mapper() {
+        return categoryMapper.toCategoryDTO(category);
+    }
+
+    @Benchmark
+    public BrandDTO brandToDTO_modelMapper() {
+        return modelMapper.map(brand, BrandDTO.class);
+    }
+
+    @Benchmark
+    public BrandDTO brandToDTO_mapper() {
+        return brandMapper.toBrandDTO(brand);
+    }
+
+    @Benchmark
+    public Category createCategoryRequestToEntity_modelMapper() {
+        return modelMapper.map(createCategoryRequest, Category.class);
+    }
+
+    @Benchmark
+    public Category createCategoryRequestToEntity_mapper() {
+        return categoryMapper.toCategoryEntity(createCategoryRequest);
+    }
+
+    @Benchmark
+    public Brand createBrandRequestToEntity_modelMapper() {
+        return modelMapper.map(createBrandRequest, Brand.class);
+    }
+
+    @Benchmark
+    public Brand createBrandRequestToEntity_mapper() {
+        return brandMapper.toBrandEntity(createBrandRequest);
+    }
+}
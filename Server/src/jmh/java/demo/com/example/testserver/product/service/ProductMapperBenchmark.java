@@ -0,0 +1,59 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.benchmark.CatalogFixtures;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.dto.ProductReviewSummaryDTO;
+import demo.com.example.testserver.product.model.Product;
+import demo.com.example.testserver.product.model.ProductReview;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing (mapToProductDTO) and detail (mapToProductDetailDTO) mapping of one product, for a small and a
+ * large variant list. The detail variant embeds the review preview and the summary like findProductById.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    @Param({"1", "12"})
+    public int variantCount;
+
+    private ProductMapper productMapper;
+    private Product product;
+    private List<ProductReview> latestReviews;
+
+    @Setup
+    public void setUp() {
+        productMapper = new ProductMapper();
+        product = CatalogFixtures.product(42L, variantCount, 5);
+        latestReviews = CatalogFixtures.reviews(product, 5);
+    }
+
+    @Benchmark
+    public ProductDTO mapToProductDTO() {
+        return productMapper.mapToProductDTO(product);
+    }
+
+    @Benchmark
+    public ProductDTO mapToProductDetailDTO() {
+        ProductReviewSummaryDTO summary = productMapper.mapToReviewSummaryDTO(product);
+        return productMapper.mapToProductDetailDTO(product, latestReviews, summary);
+    }
+}
@@ -0,0 +1,111 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.model.Product;
+import demo.com.example.testserver.product.repository.NativeQuerySortHelper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request query construction of the product listing: the filter predicates (the Specification built and applied
+ * to a fresh CriteriaQuery, as Spring Data does per request), the Sort from the API parameters, and its translation
+ * to san_pham columns for the native full-text query.
+ * <p>
+ * The CriteriaBuilder comes from a real Hibernate EntityManagerFactory over all entities. It runs with the MySQL
+ * dialect, so fulltext_match resolves as in the application; an in-memory H2 database only supplies connections,
+ * no schema is created and no query is executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductQueryBuildingBenchmark {
+
+    private EntityManagerFactory entityManagerFactory;
+    private CriteriaBuilder criteriaBuilder;
+    private ProductSpecificationBuilder productSpecificationBuilder;
+    private ProductSortBuilder productSortBuilder;
+    private Sort listingSort;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:query-building;DB_CLOSE_DELAY=-1");
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("demo.com.example.testserver");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.MySQLDialect",
+                "hibernate.boot.allow_jdbc_metadata_access", "false",
+                "hibernate.hbm2ddl.auto", "none"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        criteriaBuilder = entityManagerFactory.getCriteriaBuilder();
+
+        productSpecificationBuilder = new ProductSpecificationBuilder();
+        productSortBuilder = new ProductSortBuilder();
+        listingSort = Sort.by(Sort.Direction.ASC, "variantZeroPrice").and(Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Predicate buildFullTextPredicate() {
+        return toPredicate(productSpecificationBuilder.build("áo thun", 2, 5, new BigDecimal("100000"),
+                new BigDecimal("500000"), 4.0, null, null, null, false, true));
+    }
+
+    @Benchmark
+    public Predicate buildLikePredicate() {
+        return toPredicate(productSpecificationBuilder.build("áo thun", 2, 5, new BigDecimal("100000"),
+                new BigDecimal("500000"), 4.0, null, null, null, false, false));
+    }
+
+    @Benchmark
+    public Sort buildSort() {
+        return productSortBuilder.buildSort("price", "asc");
+    }
+
+    @Benchmark
+    public Sort toNativeSort() {
+        return NativeQuerySortHelper.toNativeSort(listingSort);
+    }
+
+    @Benchmark
+    public String getSortClause() {
+        return NativeQuerySortHelper.getSortClause(listingSort);
+    }
+
+    private Predicate toPredicate(Specification<Product> specification) {
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
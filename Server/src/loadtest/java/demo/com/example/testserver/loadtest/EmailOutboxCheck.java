@@ -0,0 +1,170 @@
+package demo.com.example.testserver.loadtest;
+
+import demo.com.example.testserver.ServerApplication;
+import demo.com.example.testserver.common.service.EmailService;
+import demo.com.example.testserver.order.dto.CreateOrderRequestDTO;
+import demo.com.example.testserver.order.dto.OrderDetailRequestDTO;
+import demo.com.example.testserver.order.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that checkout no longer waits for the mail server: orders are placed against a {@link FakeSmtpServer} that
+ * is slow and rejects part of the messages, then the check waits for the outbox to drain. Passes if the slowest
+ * checkout stayed below the SMTP delay, every order got exactly its confirmation email (retries included), and no
+ * outbox row is left behind. A password reset OTP sent behind the order backlog must arrive before the backlog is
+ * drained, showing it overtakes the queued order emails.
+ * <p>
+ * Run with -Dloadtest.main=demo.com.example.testserver.loadtest.EmailOutboxCheck (see the "loadtest" profile);
+ * -Dloadtest.orders, -Dloadtest.threads, -Dloadtest.smtp-delay-ms and -Dloadtest.smtp-failure-rate size the run.
+ * Exits with status 1 on failure.
+ */
+public class EmailOutboxCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxCheck.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings defaults = LoadTestSettings.fromSystemProperties();
+        int orders = Integer.getInteger("loadtest.orders", 200);
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        long smtpDelayMillis = Long.getLong("loadtest.smtp-delay-ms", 2000);
+        double smtpFailureRate = Double.parseDouble(System.getProperty("loadtest.smtp-failure-rate", "0.3"));
+        LoadTestSettings settings = new LoadTestSettings(defaults.mode(), false, 5, threads, 0, threads, 0, 0,
+                defaults.reportDirectory());
+
+        boolean passed;
+        try (LoadTestEnvironment environment = new LoadTestEnvironment()) {
+            Map<String, Object> properties = environment.start(settings);
+            // Fast retries so the run drains in seconds; enough attempts that the failure rate never dead-letters
+            properties.put("app.email.outbox.initial-backoff-ms", "200");
+            properties.put("app.email.outbox.max-backoff-ms", "2000");
+            properties.put("app.email.outbox.max-attempts", "20");
+            properties.put("app.email.outbox.poll-interval-ms", "250");
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerApplication.class)
+                    .lazyInitialization(true)
+                    .properties(properties)
+                    .run(args)) {
+                String runTag = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+                LoadTestDataSeeder.SeededData data = new LoadTestDataSeeder(context, runTag).seed(settings);
+                JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                jdbcTemplate.update("UPDATE bien_the_san_pham SET so_luong_ton_kho = ? WHERE id = ?",
+                        orders, data.variantIds().get(0));
+
+                FakeSmtpServer smtpServer = environment.getSmtpServer();
+                smtpServer.setDelayMillis(smtpDelayMillis);
+                smtpServer.setFailureRate(smtpFailureRate);
+                passed = placeOrders(context, data, smtpServer, orders, threads, smtpDelayMillis);
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean placeOrders(ConfigurableApplicationContext context, LoadTestDataSeeder.SeededData data,
+                                       FakeSmtpServer smtpServer, int orders, int threads, long smtpDelayMillis)
+            throws InterruptedException {
+        OrderService orderService = context.getBean(OrderService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Integer variantId = data.variantIds().get(0);
+        List<Long> checkoutMillis = Collections.synchronizedList(new ArrayList<>());
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int i = 0; i < orders; i++) {
+            String email = data.userEmails().get(i % data.userEmails().size());
+            Integer addressId = jdbcTemplate.queryForObject("SELECT a.id FROM danh_sach_dia_chi a "
+                    + "JOIN nguoi_dung u ON u.id = a.nguoi_dung_id WHERE u.email = ? LIMIT 1", Integer.class, email);
+            pool.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    orderService.createOrder(email, singleLineOrder(addressId, variantId));
+                    checkoutMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                } catch (RuntimeException e) {
+                    errors.add(e.toString());
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+
+        // Behind the backlog of order emails. Only outbox emails are retried, so the server stops failing first
+        smtpServer.setFailureRate(0);
+        String otpRecipient = data.userEmails().get(0);
+        long otpStart = System.nanoTime();
+        context.getBean(EmailService.class).sendPasswordResetOtp(otpRecipient, "123456");
+
+        long drainStart = System.nanoTime();
+        boolean delivered = smtpServer.awaitMessages(checkoutMillis.size() + 1, 5, TimeUnit.MINUTES);
+        long drainMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - drainStart);
+        long otpQueuedMillis = TimeUnit.NANOSECONDS.toMillis(drainStart - otpStart);
+        Thread.sleep(1000); // Let late duplicates, if any, show up
+        Integer leftover = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class);
+        List<FakeSmtpServer.ReceivedMessage> received = smtpServer.getReceived();
+        int otpPosition = -1;
+        for (int i = 0; i < received.size() && otpPosition < 0; i++) {
+            if (received.get(i).data().contains("Your OTP code for password reset is: 123456")) {
+                otpPosition = i;
+            }
+        }
+        long otpAfterOrders = otpPosition < 0 ? 0 : received.subList(0, otpPosition).stream()
+                .filter(message -> message.data().contains("Subject: Your Order #"))
+                .count();
+        long distinctOrders = received.stream()
+                .filter(message -> message.data().contains("Subject: Your Order #"))
+                .map(message -> message.data().lines().filter(line -> line.startsWith("Subject:")).findFirst().orElse(""))
+                .distinct()
+                .count();
+
+        List<Long> sorted = new ArrayList<>(checkoutMillis);
+        Collections.sort(sorted);
+        long p50 = sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2);
+        long max = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1);
+        logger.info("Placed {} orders ({} errors): checkout p50 {} ms, max {} ms with SMTP delay {} ms. "
+                        + "Emails accepted {}, for {} distinct orders, rejected attempts {}, outbox drained {} ms after "
+                        + "the last checkout, rows left {}.",
+                checkoutMillis.size(), errors.size(), p50, max, smtpDelayMillis, smtpServer.getReceived().size(),
+                distinctOrders, smtpServer.getRejected(), drainMillis, leftover);
+        logger.info("Password reset OTP (queued in {} ms) was accepted as message {} of {}, after {} order emails.",
+                otpQueuedMillis, otpPosition + 1, received.size(), otpAfterOrders);
+        errors.stream().distinct().limit(10).forEach(error -> logger.warn("Unexpected error: {}", error));
+
+        boolean passed = errors.isEmpty()
+                && max < smtpDelayMillis
+                && delivered
+                && distinctOrders == checkoutMillis.size()
+                && otpPosition >= 0 && otpAfterOrders < checkoutMillis.size()
+                && leftover != null && leftover == 0;
+        if (passed) {
+            logger.info("PASSED: checkout is independent of the mail server, every confirmation was delivered and the OTP jumped the queue.");
+        } else {
+            logger.error("FAILED: see the figures above.");
+        }
+        return passed;
+    }
+
+    private static CreateOrderRequestDTO singleLineOrder(Integer addressId, Integer variantId) {
+        OrderDetailRequestDTO line = new OrderDetailRequestDTO();
+        line.setProductVariantId(variantId);
+        line.setQuantity(1);
+        CreateOrderRequestDTO order = new CreateOrderRequestDTO();
+        order.setAddressId(addressId);
+        order.setOrderDetails(List.of(line));
+        order.setPaymentMethod("COD");
+        order.setShippingFee(new BigDecimal("30000"));
+        order.setTax(BigDecimal.ZERO);
+        return order;
+    }
+}
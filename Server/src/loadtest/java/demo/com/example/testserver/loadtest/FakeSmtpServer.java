@@ -0,0 +1,177 @@
+package demo.com.example.testserver.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal SMTP sink on a random local port: speaks just enough of the protocol for JavaMail (no AUTH, no STARTTLS),
+ * keeps every accepted message in memory and never delivers anything. A per-message delay and a failure rate
+ * (answered with a transient 451) simulate a slow or flaky mail server.
+ */
+public class FakeSmtpServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeSmtpServer.class);
+
+    public record ReceivedMessage(String from, List<String> recipients, String data) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "fake-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<ReceivedMessage> received = new CopyOnWriteArrayList<>();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long delayMillis;
+    private volatile double failureRate;
+
+    public FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        connections.execute(this::acceptLoop);
+        logger.info("Fake SMTP server listening on port {}", getPort());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Time the server waits before answering the end of a message's DATA.
+     */
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Share of messages (0 to 1) answered with "451 try again later" instead of being accepted.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public List<ReceivedMessage> getReceived() {
+        return List.copyOf(received);
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Waits until at least the given number of messages has been accepted.
+     *
+     * @return Whether they arrived before the timeout.
+     */
+    public boolean awaitMessages(int count, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (received.size() < count) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                return; // Closed
+            } catch (IOException e) {
+                logger.warn("Fake SMTP accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true)) {
+            reply(out, "220 localhost fake SMTP ready");
+            String from = null;
+            List<String> recipients = new CopyOnWriteArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL" -> {
+                        from = line.substring(line.indexOf(':') + 1).trim();
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(line.substring(line.indexOf(':') + 1).trim());
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data = readData(in);
+                        if (delayMillis > 0) {
+                            Thread.sleep(delayMillis);
+                        }
+                        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                            rejected.incrementAndGet();
+                            reply(out, "451 Temporary failure, try again later");
+                        } else {
+                            received.add(new ReceivedMessage(from, List.copyOf(recipients), data));
+                            reply(out, "250 OK queued");
+                        }
+                    }
+                    case "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Fake SMTP connection closed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            data.append(line.startsWith("..") ? line.substring(1) : line).append('\n'); // Undo dot-stuffing
+        }
+        return data.toString();
+    }
+
+    private static void reply(PrintWriter out, String response) {
+        out.print(response + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+}
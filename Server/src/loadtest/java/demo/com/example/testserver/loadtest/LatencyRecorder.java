@@ -0,0 +1,101 @@
+package demo.com.example.testserver.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the latency of every request per endpoint and turns them into percentiles and throughput.
+ * All samples are kept (a run is minutes long, so a few million longs at most), which keeps the percentiles exact.
+ */
+public class LatencyRecorder {
+
+    /**
+     * Summary of one endpoint over the measured window. Latencies are in milliseconds.
+     */
+    public record EndpointReport(String endpoint, long requests, long errors, double throughputPerSecond,
+                                 double mean, double p50, double p90, double p95, double p99, double max) {}
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long elapsedNanos, boolean error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = elapsedNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long windowStartNanos;
+    private volatile long windowEndNanos;
+
+    /**
+     * Starts the measured window; anything recorded before (warmup) is dropped.
+     */
+    public void startWindow() {
+        samples.clear();
+        windowStartNanos = System.nanoTime();
+        recording = true;
+    }
+
+    public void endWindow() {
+        recording = false;
+        windowEndNanos = System.nanoTime();
+    }
+
+    public void record(String endpoint, long elapsedNanos, boolean error) {
+        if (recording) {
+            samples.computeIfAbsent(endpoint, key -> new Samples()).add(elapsedNanos, error);
+        }
+    }
+
+    public List<EndpointReport> report() {
+        double windowSeconds = Math.max(1, windowEndNanos - windowStartNanos) / 1_000_000_000.0;
+        List<EndpointReport> reports = new ArrayList<>();
+        samples.forEach((endpoint, endpointSamples) -> {
+            long[] sorted = endpointSamples.sorted();
+            if (sorted.length == 0) {
+                return;
+            }
+            reports.add(new EndpointReport(
+                    endpoint,
+                    sorted.length,
+                    endpointSamples.errors(),
+                    sorted.length / windowSeconds,
+                    Arrays.stream(sorted).average().orElse(0) / 1_000_000.0,
+                    percentile(sorted, 0.50) / 1_000_000.0,
+                    percentile(sorted, 0.90) / 1_000_000.0,
+                    percentile(sorted, 0.95) / 1_000_000.0,
+                    percentile(sorted, 0.99) / 1_000_000.0,
+                    sorted[sorted.length - 1] / 1_000_000.0));
+        });
+        reports.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        return reports;
+    }
+
+    // Nearest-rank percentile over sorted samples
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
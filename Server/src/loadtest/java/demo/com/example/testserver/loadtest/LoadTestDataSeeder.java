@@ -0,0 +1,202 @@
+package demo.com.example.testserver.loadtest;
+
+import demo.com.example.testserver.order.dto.CreateOrderRequestDTO;
+import demo.com.example.testserver.order.dto.OrderDetailRequestDTO;
+import demo.com.example.testserver.order.service.OrderService;
+import demo.com.example.testserver.product.dto.BrandDTO;
+import demo.com.example.testserver.product.dto.CategoryDTO;
+import demo.com.example.testserver.product.dto.CreateBrandRequestDTO;
+import demo.com.example.testserver.product.dto.CreateCategoryRequestDTO;
+import demo.com.example.testserver.product.dto.CreateProductRequestDTO;
+import demo.com.example.testserver.product.dto.CreateProductVariantDTO;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.dto.ProductVariantDTO;
+import demo.com.example.testserver.product.service.BrandService;
+import demo.com.example.testserver.product.service.CategoryService;
+import demo.com.example.testserver.product.service.ProductService;
+import demo.com.example.testserver.user.model.Address;
+import demo.com.example.testserver.user.model.User;
+import demo.com.example.testserver.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a catalog, customers and their order history through the application's own services, the way
+ * DataInitializer does, so every row goes through the same validation, denormalization and indexing as
+ * production writes. All names carry the run tag, which keeps repeated runs on one database apart.
+ */
+public class LoadTestDataSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+    public static final String PASSWORD = "loadtest123";
+
+    // Vietnamese product vocabulary, so search, suggest and accent folding see realistic text
+    private static final String[] CATEGORIES = {"Áo thun", "Áo sơ mi", "Quần jean", "Quần short", "Váy đầm",
+            "Giày thể thao", "Túi xách", "Phụ kiện", "Đồ thể thao", "Áo khoác"};
+    private static final String[] BRANDS = {"Coolmate", "Routine", "Yody", "Canifa", "Owen", "Biti's", "Ivy Moda", "Aristino"};
+    private static final String[] NOUNS = {"Áo thun", "Áo polo", "Sơ mi", "Quần jean", "Quần kaki", "Váy", "Giày", "Túi", "Mũ", "Áo khoác"};
+    private static final String[] ADJECTIVES = {"cổ tròn", "cổ bẻ", "dáng rộng", "slim fit", "tay lỡ", "basic", "họa tiết", "thể thao", "công sở", "mùa hè"};
+    private static final String[] MATERIALS = {"cotton", "lụa", "kaki", "nỉ", "denim", "len", "da", "linen"};
+    private static final String[] COLORS = {"Đen", "Trắng", "Xanh navy", "Đỏ đô", "Be", "Xám"};
+    private static final String[] SIZES = {"S", "M", "L", "XL"};
+
+    /**
+     * What the virtual users need to know about the seeded data.
+     */
+    public record SeededData(List<Long> productIds, List<Integer> variantIds, List<Integer> categoryIds,
+                             List<String> keywords, List<String> userEmails) {}
+
+    private final ApplicationContext context;
+    private final String runTag;
+    private final Random random = new Random(42); // Same catalog shape on every run
+
+    public LoadTestDataSeeder(ApplicationContext context, String runTag) {
+        this.context = context;
+        this.runTag = runTag;
+    }
+
+    public SeededData seed(LoadTestSettings settings) {
+        long start = System.currentTimeMillis();
+        List<Integer> categoryIds = seedCategories();
+        List<Integer> brandIds = seedBrands();
+
+        ProductService productService = context.getBean(ProductService.class);
+        List<Long> productIds = new ArrayList<>();
+        List<Integer> variantIds = new ArrayList<>();
+        for (int i = 0; i < settings.products(); i++) {
+            ProductDTO product = productService.createProduct(buildProduct(i, categoryIds, brandIds));
+            productIds.add(product.getId());
+            for (ProductVariantDTO variant : product.getVariants()) {
+                variantIds.add(variant.getId());
+            }
+            if ((i + 1) % 200 == 0) {
+                logger.info("Seeded {}/{} products.", i + 1, settings.products());
+            }
+        }
+
+        List<User> users = seedUsers(settings.users());
+        seedOrderHistory(users, variantIds, settings.ordersPerUser());
+
+        List<String> keywords = new ArrayList<>();
+        Collections.addAll(keywords, "áo thun", "ao thun", "quần jean", "sơ mi", "giày", "cotton", "slim fit", "váy");
+        List<String> userEmails = users.stream().map(User::getEmail).toList();
+        logger.info("Seeded {} categories, {} brands, {} products ({} variants), {} users in {} ms.",
+                categoryIds.size(), brandIds.size(), productIds.size(), variantIds.size(), users.size(),
+                System.currentTimeMillis() - start);
+        return new SeededData(productIds, variantIds, categoryIds, keywords, userEmails);
+    }
+
+    private List<Integer> seedCategories() {
+        CategoryService categoryService = context.getBean(CategoryService.class);
+        List<Integer> ids = new ArrayList<>();
+        for (String name : CATEGORIES) {
+            CreateCategoryRequestDTO request = new CreateCategoryRequestDTO();
+            request.setName(name + " " + runTag);
+            request.setImageUrl("images/categories/loadtest.png");
+            CategoryDTO category = categoryService.createCategory(request);
+            ids.add(category.getId());
+        }
+        return ids;
+    }
+
+    private List<Integer> seedBrands() {
+        BrandService brandService = context.getBean(BrandService.class);
+        List<Integer> ids = new ArrayList<>();
+        for (String name : BRANDS) {
+            CreateBrandRequestDTO request = new CreateBrandRequestDTO();
+            request.setName(name + " " + runTag);
+            BrandDTO brand = brandService.createBrand(request);
+            ids.add(brand.getId());
+        }
+        return ids;
+    }
+
+    private CreateProductRequestDTO buildProduct(int index, List<Integer> categoryIds, List<Integer> brandIds) {
+        String noun = NOUNS[random.nextInt(NOUNS.length)];
+        String material = MATERIALS[random.nextInt(MATERIALS.length)];
+        CreateProductRequestDTO product = new CreateProductRequestDTO();
+        product.setName(noun + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + material + " " + runTag + "-" + index);
+        product.setDescription(noun + " chất liệu " + material + ", đường may chắc chắn, phù hợp đi làm và đi chơi.");
+        product.setCategoryId(categoryIds.get(random.nextInt(categoryIds.size())).longValue());
+        product.setBrandId(brandIds.get(random.nextInt(brandIds.size())).longValue());
+        product.setMainImageUrl("images/products/loadtest_main.png");
+        product.setImageUrls(List.of("images/products/loadtest_1.png", "images/products/loadtest_2.png"));
+        product.setDiscountPercentage(random.nextInt(4) == 0 ? new BigDecimal(5 * (1 + random.nextInt(6))) : null);
+
+        List<CreateProductVariantDTO> variants = new ArrayList<>();
+        int variantCount = 1 + random.nextInt(6);
+        BigDecimal basePrice = new BigDecimal(99_000 + 10_000 * random.nextInt(60));
+        for (int v = 0; v < variantCount; v++) {
+            CreateProductVariantDTO variant = new CreateProductVariantDTO();
+            variant.setName(COLORS[v % COLORS.length] + " / " + SIZES[v % SIZES.length]);
+            variant.setSku("LT-" + runTag + "-" + index + "-" + v);
+            variant.setPrice(basePrice.add(new BigDecimal(10_000 * v)));
+            variant.setStockQuantity(1_000_000); // Checkout traffic must not run the catalog out of stock
+            variants.add(variant);
+        }
+        product.setVariants(variants);
+        return product;
+    }
+
+    private List<User> seedUsers(int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+        String passwordHash = passwordEncoder.encode(PASSWORD); // Same hash for all: BCrypt is deliberately slow
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail("loadtest-" + runTag + "-" + i + "@example.com");
+            user.setFullName("Khách hàng " + i);
+            user.setPassword(passwordHash);
+            user.setRole(User.UserRole.khach_hang);
+            user.setStatus(User.UserStatus.kich_hoat);
+            user.setCustomerPoints(BigDecimal.ZERO);
+
+            Address address = new Address();
+            address.setRecipientName(user.getFullName());
+            address.setPhoneNumber("09" + String.format("%08d", i));
+            address.setSpecificAddress(i + " Lê Lợi, Quận 1, TP. Hồ Chí Minh");
+            address.setDefault(true);
+            user.addAddress(address);
+            users.add(userRepository.save(user));
+        }
+        return users;
+    }
+
+    private void seedOrderHistory(List<User> users, List<Integer> variantIds, int ordersPerUser) {
+        OrderService orderService = context.getBean(OrderService.class);
+        for (User user : users) {
+            Integer addressId = user.getAddresses().get(0).getId();
+            for (int o = 0; o < ordersPerUser; o++) {
+                List<OrderDetailRequestDTO> lines = new ArrayList<>();
+                int lineCount = 1 + random.nextInt(3);
+                for (int l = 0; l < lineCount; l++) {
+                    OrderDetailRequestDTO line = new OrderDetailRequestDTO();
+                    line.setProductVariantId(variantIds.get(random.nextInt(variantIds.size())));
+                    line.setQuantity(1 + random.nextInt(2));
+                    lines.add(line);
+                }
+                CreateOrderRequestDTO order = new CreateOrderRequestDTO();
+                order.setAddressId(addressId);
+                order.setOrderDetails(lines);
+                order.setPaymentMethod("COD");
+                order.setShippingFee(new BigDecimal("30000"));
+                order.setTax(BigDecimal.ZERO);
+                try {
+                    orderService.createOrder(user.getEmail(), order);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not seed an order for {}: {}", user.getEmail(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package demo.com.example.testserver.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The database and search backends the application is booted against, plus the property overrides that point
+ * it there. In containers mode MySQL is initialized from db_setup.sql, the same script production uses.
+ * <p>
+ * There is no H2 stand-in: the catalog relies on MySQL-only SQL (FULLTEXT ... WITH PARSER ngram, MATCH AGAINST,
+ * UNIX_TIMESTAMP), so without Docker the run must use "external" mode against a scratch MySQL instead.
+ * <p>
+ * Mail goes to a {@link FakeSmtpServer} in the same JVM, so email workers run their full SMTP conversation
+ * without anything leaving the machine.
+ */
+public class LoadTestEnvironment implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestEnvironment.class);
+
+    private static final String MYSQL_IMAGE = "mysql:8.0.36";
+    private static final String ELASTICSEARCH_IMAGE = "docker.elastic.co/elasticsearch/elasticsearch:8.13.4";
+
+    private MySQLContainer<?> mysql;
+    private ElasticsearchContainer elasticsearch;
+    private FakeSmtpServer smtpServer;
+
+    public Map<String, Object> start(LoadTestSettings settings) {
+        Map<String, Object> properties = new HashMap<>();
+        if (settings.useContainers()) {
+            if (!DockerClientFactory.instance().isDockerAvailable()) {
+                throw new IllegalStateException("Docker is not available. Run with -Dloadtest.mode=external and "
+                        + "-Dspring.datasource.url=... pointing at a scratch MySQL database initialized with db_setup.sql.");
+            }
+            mysql = new MySQLContainer<>(DockerImageName.parse(MYSQL_IMAGE))
+                    .withDatabaseName("ecommerdb")
+                    .withUsername("loadtest")
+                    .withPassword("loadtest")
+                    .withCommand("--character-set-server=utf8mb4", "--collation-server=utf8mb4_unicode_ci")
+                    .withInitScript("db_setup.sql");
+            mysql.start();
+            logger.info("MySQL container started at {}", mysql.getJdbcUrl());
+            properties.put("spring.datasource.url", mysql.getJdbcUrl() + "?useSSL=false&serverTimezone=Asia/Ho_Chi_Minh");
+            properties.put("spring.datasource.username", mysql.getUsername());
+            properties.put("spring.datasource.password", mysql.getPassword());
+
+            if (settings.elasticsearch()) {
+                elasticsearch = new ElasticsearchContainer(DockerImageName.parse(ELASTICSEARCH_IMAGE))
+                        .withEnv("xpack.security.enabled", "false")
+                        .withEnv("ES_JAVA_OPTS", "-Xms512m -Xmx512m");
+                elasticsearch.start();
+                logger.info("Elasticsearch container started at {}", elasticsearch.getHttpHostAddress());
+                properties.put("spring.elasticsearch.enabled", "true");
+                properties.put("spring.elasticsearch.uris", "http://" + elasticsearch.getHttpHostAddress());
+                properties.put("spring.elasticsearch.username", "");
+                properties.put("spring.elasticsearch.password", "");
+            } else {
+                properties.put("spring.elasticsearch.enabled", "false");
+            }
+        }
+
+        try {
+            smtpServer = new FakeSmtpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the fake SMTP server", e);
+        }
+
+        // Plain HTTP on a random port, quiet SQL logging, and mail to the local fake SMTP server
+        properties.put("server.port", "0");
+        properties.put("server.ssl.enabled", "false");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("logging.level.org.springframework.boot.autoconfigure.condition", "WARN");
+        properties.put("spring.mail.host", "localhost");
+        properties.put("spring.mail.port", String.valueOf(smtpServer.getPort()));
+        properties.put("spring.mail.username", "loadtest@localhost");
+        properties.put("spring.mail.password", "");
+        properties.put("spring.mail.properties.mail.smtp.auth", "false");
+        properties.put("spring.mail.properties.mail.smtp.starttls.enable", "false");
+        return properties;
+    }
+
+    public FakeSmtpServer getSmtpServer() {
+        return smtpServer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (smtpServer != null) {
+            smtpServer.close();
+        }
+        if (elasticsearch != null) {
+            elasticsearch.stop();
+        }
+        if (mysql != null) {
+            mysql.stop();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package demo.com.example.testserver.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.com.example.testserver.ServerApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test: boots the real application against MySQL (and optionally Elasticsearch), seeds a
+ * realistic catalog, users and order history, then drives it over HTTP with concurrent virtual users and reports
+ * per-endpoint latency percentiles and throughput. Run through the "loadtest" Maven profile; see pom.xml.
+ */
+public class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        logger.info("Load test settings: {}", settings);
+
+        try (LoadTestEnvironment environment = new LoadTestEnvironment()) {
+            Map<String, Object> properties = environment.start(settings);
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerApplication.class)
+                    .lazyInitialization(true) // Same as ServerApplication.main
+                    .properties(properties)
+                    .run(args)) {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                String runTag = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+                LoadTestDataSeeder.SeededData data = new LoadTestDataSeeder(context, runTag).seed(settings);
+
+                LatencyRecorder recorder = new LatencyRecorder();
+                run(settings, "http://localhost:" + port, data, recorder);
+
+                List<LatencyRecorder.EndpointReport> reports = recorder.report();
+                printReport(reports);
+                Path csv = writeCsv(settings, runTag, reports);
+                logger.info("Load test report written to {}", csv.toAbsolutePath());
+            }
+        }
+        System.exit(0); // Testcontainers' reaper and the HTTP client leave non-daemon threads behind
+    }
+
+    private static void run(LoadTestSettings settings, String baseUrl, LoadTestDataSeeder.SeededData data,
+                            LatencyRecorder recorder) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(2, settings.concurrency() / 2)))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        long deadline = System.nanoTime()
+                + TimeUnit.SECONDS.toNanos(settings.warmupSeconds() + settings.durationSeconds());
+
+        ExecutorService users = Executors.newFixedThreadPool(settings.concurrency());
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            String email = data.userEmails().get(i % data.userEmails().size());
+            running.add(users.submit(new VirtualUser(httpClient, objectMapper, baseUrl, data, email, recorder, deadline, i)));
+        }
+        logger.info("{} virtual users started: {} s warmup, then {} s measured.",
+                settings.concurrency(), settings.warmupSeconds(), settings.durationSeconds());
+
+        TimeUnit.SECONDS.sleep(settings.warmupSeconds());
+        recorder.startWindow();
+        TimeUnit.SECONDS.sleep(settings.durationSeconds());
+        recorder.endWindow();
+
+        users.shutdown();
+        if (!users.awaitTermination(1, TimeUnit.MINUTES)) {
+            users.shutdownNow();
+        }
+        for (Future<?> user : running) {
+            try {
+                user.get(0, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                logger.warn("Virtual user ended with an error: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void printReport(List<LatencyRecorder.EndpointReport> reports) {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-36s %8s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "mean ms", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        for (LatencyRecorder.EndpointReport r : reports) {
+            table.append(String.format(Locale.ROOT, "%-36s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.requests(), r.errors(), r.throughputPerSecond(),
+                    r.mean(), r.p50(), r.p90(), r.p95(), r.p99(), r.max()));
+        }
+        logger.info("Load test results:{}", table);
+    }
+
+    private static Path writeCsv(LoadTestSettings settings, String runTag,
+                                 List<LatencyRecorder.EndpointReport> reports) throws IOException {
+        Path directory = Path.of(settings.reportDirectory());
+        Files.createDirectories(directory);
+        Path csv = directory.resolve("loadtest-" + runTag + ".csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8))) {
+            out.println("endpoint,requests,errors,throughput_per_s,mean_ms,p50_ms,p90_ms,p95_ms,p99_ms,max_ms");
+            for (LatencyRecorder.EndpointReport r : reports) {
+                out.println(String.format(Locale.ROOT, "\"%s\",%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                        r.endpoint(), r.requests(), r.errors(), r.throughputPerSecond(),
+                        r.mean(), r.p50(), r.p90(), r.p95(), r.p99(), r.max()));
+            }
+        }
+        return csv;
+    }
+}
@@ -0,0 +1,47 @@
+package demo.com.example.testserver.loadtest;
+
+/**
+ * Knobs of one load-test run, read from -Dloadtest.* system properties (see the "loadtest" profile in pom.xml).
+ *
+ * @param mode             "containers" starts MySQL and Elasticsearch with Testcontainers; "external" uses the
+ *                         datasource / Elasticsearch given by the usual spring.* properties (a scratch database:
+ *                         the run seeds its own tagged rows into it).
+ * @param elasticsearch    Whether to run with Elasticsearch (containers mode) or leave search on MySQL.
+ * @param products         Products to seed, spread over the seeded categories and brands.
+ * @param users            Customer accounts to seed; each one is driven by one virtual user thread at most.
+ * @param ordersPerUser    Historical orders placed per seeded user before the measurement starts.
+ * @param concurrency      Virtual users running the scenario mix in parallel.
+ * @param warmupSeconds    Run time before samples are kept (JIT, connection pools, caches).
+ * @param durationSeconds  Measured run time.
+ * @param reportDirectory  Where the CSV report is written.
+ */
+public record LoadTestSettings(
+        String mode,
+        boolean elasticsearch,
+        int products,
+        int users,
+        int ordersPerUser,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        String reportDirectory
+) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.mode", "containers"),
+                Boolean.parseBoolean(System.getProperty("loadtest.elasticsearch", "true")),
+                Integer.getInteger("loadtest.products", 1000),
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.orders-per-user", 3),
+                Integer.getInteger("loadtest.concurrency", 16),
+                Integer.getInteger("loadtest.warmup-seconds", 15),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                System.getProperty("loadtest.report-dir", "target/loadtest")
+        );
+    }
+
+    public boolean useContainers() {
+        return "containers".equalsIgnoreCase(mode);
+    }
+}
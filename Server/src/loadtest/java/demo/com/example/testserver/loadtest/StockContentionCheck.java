@@ -0,0 +1,155 @@
+package demo.com.example.testserver.loadtest;
+
+import demo.com.example.testserver.ServerApplication;
+import demo.com.example.testserver.order.dto.CreateOrderRequestDTO;
+import demo.com.example.testserver.order.dto.OrderDetailRequestDTO;
+import demo.com.example.testserver.order.service.OrderService;
+import demo.com.example.testserver.product.service.HotStockLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency check of checkout stock handling: many threads place single-line orders for the same variant at once,
+ * starting together, until more orders were attempted than there is stock. Passes if exactly the initial stock was
+ * sold, the variant ends at zero, and every rejection was an "insufficient stock" one.
+ * <p>
+ * CheckoutStockContentionTest runs the same check at a small scale with the regular test suite; this harness is
+ * the optional large-scale run.
+ * <p>
+ * Run with -Dloadtest.main=demo.com.example.testserver.loadtest.StockContentionCheck (see the "loadtest" profile);
+ * -Dloadtest.stock, -Dloadtest.threads and -Dloadtest.attempts-per-thread size the run. With -Dloadtest.hot=true the
+ * variant is flagged in the HotStockLedger first, and the ledger is flushed before the database is checked.
+ * Exits with status 1 on failure.
+ */
+public class StockContentionCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockContentionCheck.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings defaults = LoadTestSettings.fromSystemProperties();
+        int stock = Integer.getInteger("loadtest.stock", 200);
+        int threads = Integer.getInteger("loadtest.threads", 32);
+        int attemptsPerThread = Integer.getInteger("loadtest.attempts-per-thread", 20);
+        boolean hot = Boolean.getBoolean("loadtest.hot");
+        // One customer per thread, a tiny catalog, no order history and no Elasticsearch
+        LoadTestSettings settings = new LoadTestSettings(defaults.mode(), false, 5, threads, 0, threads, 0, 0,
+                defaults.reportDirectory());
+
+        boolean passed;
+        try (LoadTestEnvironment environment = new LoadTestEnvironment()) {
+            Map<String, Object> properties = environment.start(settings);
+            properties.put("app.stock.hot-ledger.enabled", String.valueOf(hot));
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerApplication.class)
+                    .lazyInitialization(true)
+                    .properties(properties)
+                    .run(args)) {
+                String runTag = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+                LoadTestDataSeeder.SeededData data = new LoadTestDataSeeder(context, runTag).seed(settings);
+                JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                Integer variantId = data.variantIds().get(0);
+                jdbcTemplate.update("UPDATE bien_the_san_pham SET so_luong_ton_kho = ? WHERE id = ?", stock, variantId);
+                if (hot) {
+                    context.getBean(HotStockLedger.class).flag(variantId);
+                }
+
+                passed = hammer(context, data, variantId, stock, threads, attemptsPerThread);
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean hammer(ConfigurableApplicationContext context, LoadTestDataSeeder.SeededData data,
+                                  Integer variantId, int stock, int threads, int attemptsPerThread) throws InterruptedException {
+        OrderService orderService = context.getBean(OrderService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+        List<String> unexpectedErrors = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        for (int t = 0; t < threads; t++) {
+            String email = data.userEmails().get(t % data.userEmails().size());
+            Integer addressId = jdbcTemplate.queryForObject("SELECT a.id FROM danh_sach_dia_chi a "
+                    + "JOIN nguoi_dung u ON u.id = a.nguoi_dung_id WHERE u.email = ? LIMIT 1", Integer.class, email);
+            pool.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        orderService.createOrder(email, singleLineOrder(addressId, variantId));
+                        sold.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        if (e.getMessage() != null && e.getMessage().startsWith("Insufficient stock")) {
+                            outOfStock.incrementAndGet();
+                        } else {
+                            unexpectedErrors.add(e.toString());
+                        }
+                    } catch (RuntimeException e) {
+                        unexpectedErrors.add(e.toString()); // Deadlocks and lock timeouts end up here
+                    }
+                }
+                return null;
+            });
+        }
+        startSignal.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        context.getBean(HotStockLedger.class).flushAll(); // No-op unless the variant is hot
+
+        Integer remaining = jdbcTemplate.queryForObject(
+                "SELECT so_luong_ton_kho FROM bien_the_san_pham WHERE id = ?", Integer.class, variantId);
+        Integer orderedQuantity = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(so_luong), 0) FROM chi_tiet_don_hang WHERE bien_the_san_pham_id = ?", Integer.class, variantId);
+        int attempts = threads * attemptsPerThread;
+        int expectedSold = Math.min(stock, attempts);
+
+        logger.info("Stock contention on variant {}: {} threads x {} attempts in {} ms -> sold {}, out of stock {}, "
+                        + "unexpected errors {}, remaining stock {}, ordered quantity {}.",
+                variantId, threads, attemptsPerThread, elapsedMillis, sold.get(), outOfStock.get(),
+                unexpectedErrors.size(), remaining, orderedQuantity);
+        unexpectedErrors.stream().distinct().limit(10).forEach(error -> logger.warn("Unexpected error: {}", error));
+
+        boolean passed = sold.get() == expectedSold
+                && remaining != null && remaining == stock - expectedSold
+                && orderedQuantity != null && orderedQuantity == sold.get()
+                && unexpectedErrors.isEmpty();
+        if (passed) {
+            logger.info("PASSED: no overselling, no lost updates.");
+        } else {
+            logger.error("FAILED: expected {} sold and {} remaining.", expectedSold, stock - expectedSold);
+        }
+        return passed;
+    }
+
+    private static CreateOrderRequestDTO singleLineOrder(Integer addressId, Integer variantId) {
+        OrderDetailRequestDTO line = new OrderDetailRequestDTO();
+        line.setProductVariantId(variantId);
+        line.setQuantity(1);
+        CreateOrderRequestDTO order = new CreateOrderRequestDTO();
+        order.setAddressId(addressId);
+        order.setOrderDetails(List.of(line));
+        order.setPaymentMethod("COD");
+        order.setShippingFee(new BigDecimal("30000"));
+        order.setTax(BigDecimal.ZERO);
+        return order;
+    }
+}
@@ -0,0 +1,165 @@
+package demo.com.example.testserver.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One logged-in customer running the scenario mix in a loop: mostly catalog reads, with cart, checkout and chat
+ * writes mixed in at storefront-like ratios. Each request is timed end to end (send to full body received).
+ */
+public class VirtualUser implements Runnable {
+
+    // Cumulative weights out of 100
+    private static final int SEARCH = 30;
+    private static final int BROWSE = SEARCH + 20;
+    private static final int DETAIL = BROWSE + 20;
+    private static final int SUGGEST = DETAIL + 10;
+    private static final int CART = SUGGEST + 10;
+    private static final int CHECKOUT = CART + 5;
+    // Remainder: chat
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final LoadTestDataSeeder.SeededData data;
+    private final String email;
+    private final LatencyRecorder recorder;
+    private final long deadlineNanos;
+    private final Random random;
+
+    private String token;
+    private Integer addressId;
+    private Integer conversationId;
+
+    public VirtualUser(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, LoadTestDataSeeder.SeededData data,
+                       String email, LatencyRecorder recorder, long deadlineNanos, long seed) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.email = email;
+        this.recorder = recorder;
+        this.deadlineNanos = deadlineNanos;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void run() {
+        try {
+            logIn();
+            while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+                int roll = random.nextInt(100);
+                if (roll < SEARCH) {
+                    get("GET /api/products?search", "/api/products?size=20&search=" + encode(pick(data.keywords())));
+                } else if (roll < BROWSE) {
+                    get("GET /api/products?categoryId", "/api/products?size=20&sortBy=price&sortDir=asc&categoryId="
+                            + pick(data.categoryIds()) + "&page=" + random.nextInt(5));
+                } else if (roll < DETAIL) {
+                    get("GET /api/products/{id}", "/api/products/" + pick(data.productIds()));
+                } else if (roll < SUGGEST) {
+                    String keyword = pick(data.keywords());
+                    get("GET /api/products/suggest", "/api/products/suggest?q=" + encode(keyword.substring(0, Math.min(3, keyword.length()))));
+                } else if (roll < CART) {
+                    post("POST /api/cart", "/api/cart",
+                            Map.of("productVariantId", pick(data.variantIds()), "quantity", 1));
+                    get("GET /api/cart", "/api/cart");
+                } else if (roll < CHECKOUT && addressId != null) {
+                    post("POST /api/orders", "/api/orders", Map.of(
+                            "addressId", addressId,
+                            "orderDetails", List.of(Map.of("productVariantId", pick(data.variantIds()), "quantity", 1)),
+                            "paymentMethod", "COD",
+                            "shippingFee", 30000,
+                            "tax", 0));
+                } else if (roll >= CHECKOUT && conversationId != null) {
+                    post("POST /api/chat/messages/send", "/api/chat/messages/send",
+                            Map.of("conversationId", conversationId, "content", "Shop ơi, sản phẩm này còn size M không?"));
+                } else {
+                    get("GET /api/products/{id}", "/api/products/" + pick(data.productIds())); // Session setup failed for this action
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new IllegalStateException("Virtual user " + email + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Session setup, timed like any other request
+    private void logIn() throws IOException, InterruptedException {
+        JsonNode login = post("POST /api/users/login", "/api/users/login",
+                Map.of("email", email, "password", LoadTestDataSeeder.PASSWORD));
+        if (login == null || !login.hasNonNull("token")) {
+            throw new IllegalStateException("Login failed for " + email);
+        }
+        token = login.get("token").asText();
+        JsonNode addresses = get("GET /api/addresses/me", "/api/addresses/me");
+        addressId = addresses != null && addresses.size() > 0 ? addresses.get(0).get("id").asInt() : null;
+        JsonNode conversation = post("POST /api/chat/conversations/start", "/api/chat/conversations/start",
+                Map.of("title", "Tư vấn sản phẩm", "messageContent", "Xin chào shop"));
+        conversationId = conversation != null ? conversation.get("id").asInt() : null;
+    }
+
+    private JsonNode get(String endpoint, String path) throws IOException, InterruptedException {
+        return send(endpoint, authorized(HttpRequest.newBuilder(URI.create(baseUrl + path))).GET().build());
+    }
+
+    private JsonNode post(String endpoint, String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return send(endpoint, request);
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder builder) {
+        builder.timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, true);
+            return null;
+        }
+        long elapsed = System.nanoTime() - start;
+        boolean error = response.statusCode() >= 400;
+        recorder.record(endpoint, elapsed, error);
+        if (error || response.body().length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return null; // Plain-text body
+        }
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,44 @@
+package demo.com.example.testserver.admin.controller;
+
+import demo.com.example.testserver.common.dto.EmailOutboxStatsDTO;
+import demo.com.example.testserver.common.service.EmailOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Email outbox: delivery metrics and replay of dead-lettered emails.
+ */
+@RestController
+@RequestMapping("/api/admin/email-outbox")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminEmailOutboxController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminEmailOutboxController.class);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @GetMapping
+    public ResponseEntity<EmailOutboxStatsDTO> getStats() {
+        return ResponseEntity.ok(emailOutboxService.getStats());
+    }
+
+    /**
+     * Puts every dead-lettered email back in the queue, e.g. after fixing the SMTP credentials.
+     */
+    @PostMapping("/dead/requeue")
+    public ResponseEntity<EmailOutboxStatsDTO> requeueDead() {
+        logger.info("Admin requested requeue of dead-lettered emails");
+        emailOutboxService.requeueDead();
+        return ResponseEntity.ok(emailOutboxService.getStats());
+    }
+}
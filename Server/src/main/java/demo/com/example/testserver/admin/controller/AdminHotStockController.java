@@ -0,0 +1,67 @@
+package demo.com.example.testserver.admin.controller;
+
+import demo.com.example.testserver.product.dto.HotStockStatsDTO;
+import demo.com.example.testserver.product.service.HotStockLedger;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Flash-sale stock: moves variants into and out of the in-memory hot stock ledger.
+ */
+@RestController
+@RequestMapping("/api/admin/hot-stock")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminHotStockController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminHotStockController.class);
+
+    @Autowired
+    private HotStockLedger hotStockLedger;
+
+    @GetMapping
+    public ResponseEntity<List<HotStockStatsDTO>> getHotVariants() {
+        return ResponseEntity.ok(hotStockLedger.getStats());
+    }
+
+    @PostMapping("/{variantId}")
+    public ResponseEntity<?> flagVariant(@PathVariable Integer variantId) {
+        try {
+            logger.info("Admin flagged variant {} as hot", variantId);
+            hotStockLedger.flag(variantId);
+            return ResponseEntity.ok(hotStockLedger.getStats());
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the variant's sold quantities to MySQL and hands its stock back to the database.
+     */
+    @DeleteMapping("/{variantId}")
+    public ResponseEntity<?> unflagVariant(@PathVariable Integer variantId) {
+        try {
+            logger.info("Admin unflagged hot variant {}", variantId);
+            hotStockLedger.unflag(variantId);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+}
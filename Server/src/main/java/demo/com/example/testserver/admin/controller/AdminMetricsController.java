@@ -0,0 +1,96 @@
+package demo.com.example.testserver.admin.controller;
+
+import demo.com.example.testserver.common.dto.CacheStatsDTO;
+import demo.com.example.testserver.common.dto.CircuitBreakerStatsDTO;
+import demo.com.example.testserver.common.dto.EmailDispatchStatsDTO;
+import demo.com.example.testserver.common.service.EmailDispatcher;
+import demo.com.example.testserver.product.dto.CatalogIndexStatsDTO;
+import demo.com.example.testserver.product.dto.SearchEngineStatsDTO;
+import demo.com.example.testserver.product.dto.SearchIndexingStatsDTO;
+import demo.com.example.testserver.product.service.ElasticsearchCircuitBreaker;
+import demo.com.example.testserver.product.service.ProductDetailCache;
+import demo.com.example.testserver.product.service.ProductSearchIndexingService;
+import demo.com.example.testserver.product.service.search.InMemoryProductSearchEngine;
+import demo.com.example.testserver.product.service.search.ProductSearchRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Read-only operational metrics for the in-process caches and background pipelines.
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminMetricsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminMetricsController.class);
+
+    @Autowired
+    private ProductDetailCache productDetailCache;
+
+    @Autowired
+    private ProductSearchIndexingService productSearchIndexingService;
+
+    @Autowired
+    private ElasticsearchCircuitBreaker elasticsearchCircuitBreaker;
+
+    @Autowired
+    private ProductSearchRouter productSearchRouter;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired(required = false) // Only present when app.search.engine.memory.enabled=true
+    private InMemoryProductSearchEngine inMemoryProductSearchEngine;
+
+    @GetMapping("/product-cache")
+    public ResponseEntity<CacheStatsDTO> getProductCacheStats() {
+        logger.debug("Fetching product detail cache statistics");
+        return ResponseEntity.ok(productDetailCache.getStats());
+    }
+
+    @GetMapping("/search-indexing")
+    public ResponseEntity<SearchIndexingStatsDTO> getSearchIndexingStats() {
+        logger.debug("Fetching search indexing queue statistics");
+        return ResponseEntity.ok(productSearchIndexingService.getStats());
+    }
+
+    @GetMapping("/search-breaker")
+    public ResponseEntity<CircuitBreakerStatsDTO> getSearchBreakerStats() {
+        logger.debug("Fetching Elasticsearch circuit breaker statistics");
+        return ResponseEntity.ok(elasticsearchCircuitBreaker.getStats());
+    }
+
+    @GetMapping("/search-engines")
+    public ResponseEntity<List<SearchEngineStatsDTO>> getSearchEngineStats() {
+        logger.debug("Fetching product search engine statistics");
+        return ResponseEntity.ok(productSearchRouter.getStats());
+    }
+
+    @GetMapping("/catalog-index")
+    public ResponseEntity<?> getCatalogIndexStats() {
+        if (inMemoryProductSearchEngine == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("The in-memory catalog engine is disabled.");
+        }
+        logger.debug("Fetching in-memory catalog index statistics");
+        CatalogIndexStatsDTO stats = inMemoryProductSearchEngine.getStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/email-dispatch")
+    public ResponseEntity<EmailDispatchStatsDTO> getEmailDispatchStats() {
+        logger.debug("Fetching email dispatcher queue statistics");
+        return ResponseEntity.ok(emailDispatcher.getStats());
+    }
+}
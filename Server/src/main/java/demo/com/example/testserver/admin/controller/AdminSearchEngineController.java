@@ -0,0 +1,56 @@
+package demo.com.example.testserver.admin.controller;
+
+import demo.com.example.testserver.product.dto.SearchBenchmarkResultDTO;
+import demo.com.example.testserver.product.service.search.ProductSearchBenchmark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Compares the product search engines on the live data set. Routing statistics are under
+ * GET /api/admin/metrics/search-engines.
+ */
+@RestController
+@RequestMapping("/api/admin/search-engines")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSearchEngineController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminSearchEngineController.class);
+
+    private static final int MAX_ITERATIONS = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ProductSearchBenchmark productSearchBenchmark;
+
+    /**
+     * Runs every query against every available engine. Synchronous; keep iterations small on production data.
+     *
+     * @param keywords Keywords to benchmark; defaults to the first word of a few product names.
+     */
+    @PostMapping("/benchmark")
+    public ResponseEntity<?> runBenchmark(
+            @RequestParam(required = false) List<String> keywords,
+            @RequestParam(defaultValue = "20") int iterations,
+            @RequestParam(defaultValue = "20") int size) {
+        if (iterations < 1 || iterations > MAX_ITERATIONS) {
+            return ResponseEntity.badRequest().body("iterations must be between 1 and " + MAX_ITERATIONS + ".");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        logger.info("Admin requested a search engine benchmark (keywords={}, iterations={}, size={})", keywords, iterations, size);
+        List<SearchBenchmarkResultDTO> results = productSearchBenchmark.run(keywords, iterations, size);
+        return ResponseEntity.ok(results);
+    }
+}
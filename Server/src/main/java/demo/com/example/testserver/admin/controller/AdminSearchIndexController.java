@@ -0,0 +1,56 @@
+package demo.com.example.testserver.admin.controller;
+
+import demo.com.example.testserver.product.dto.ReindexStatusDTO;
+import demo.com.example.testserver.product.service.ProductReindexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Maintenance operations on the products search index.
+ */
+@RestController
+@RequestMapping("/api/admin/search-index")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSearchIndexController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminSearchIndexController.class);
+
+    @Autowired(required = false) // Only available when Elasticsearch is enabled and reachable
+    private ProductReindexService productReindexService;
+
+    /**
+     * Starts rebuilding the products index from the database. Progress is reported by GET /reindex.
+     */
+    @PostMapping("/reindex")
+    public ResponseEntity<?> startReindex() {
+        if (productReindexService == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Elasticsearch is disabled or unavailable.");
+        }
+        try {
+            logger.info("Admin requested a full product reindex");
+            ReindexStatusDTO status = productReindexService.startReindex();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalStateException e) {
+            logger.warn("Reindex request rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/reindex")
+    public ResponseEntity<?> getReindexStatus() {
+        if (productReindexService == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Elasticsearch is disabled or unavailable.");
+        }
+        return ResponseEntity.ok(productReindexService.getStatus());
+    }
+}
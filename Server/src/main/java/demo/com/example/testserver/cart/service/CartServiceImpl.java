@@ -7,6 +7,7 @@ import demo.com.example.testserver.cart.model.CartItem;
 import demo.com.example.testserver.cart.repository.CartItemRepository;
 import demo.com.example.testserver.product.model.ProductVariant;
 import demo.com.example.testserver.product.repository.ProductVariantRepository;
+import demo.com.example.testserver.product.service.StockReservationService;
 import demo.com.example.testserver.user.model.User;
 import demo.com.example.testserver.user.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -36,6 +37,9 @@ public class CartServiceImpl implements CartService {
     @Autowired
     private CartMapper cartMapper;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     @Override
     @Transactional(readOnly = true)
     public List<CartItemDTO> getCartItems(String userEmail) {
@@ -55,9 +59,10 @@ public class CartServiceImpl implements CartService {
         ProductVariant productVariant = productVariantRepository.findById(addToCartDTO.getProductVariantId().intValue())
                 .orElseThrow(() -> new EntityNotFoundException("ProductVariant not found with ID: " + addToCartDTO.getProductVariantId()));
 
-        if (productVariant.getStockQuantity() < addToCartDTO.getQuantity()) {
+        int availableStock = stockReservationService.getAvailableStock(productVariant); // Ledger count for hot variants
+        if (availableStock < addToCartDTO.getQuantity()) {
             throw new IllegalArgumentException("Insufficient stock for product variant ID: " + productVariant.getId() +
-                    ". Requested: " + addToCartDTO.getQuantity() + ", Available: " + productVariant.getStockQuantity());
+                    ". Requested: " + addToCartDTO.getQuantity() + ", Available: " + availableStock);
         }
 
         CartItem cartItem = cartItemRepository.findByUserAndProductVariant(user, productVariant)
@@ -70,12 +75,12 @@ public class CartServiceImpl implements CartService {
                 });
 
         int newQuantity = cartItem.getQuantity() + addToCartDTO.getQuantity();
-        if (productVariant.getStockQuantity() < newQuantity) {
+        if (availableStock < newQuantity) {
             throw new IllegalArgumentException("Adding " + addToCartDTO.getQuantity() +
                     " would exceed stock for product variant ID: " + productVariant.getId() +
                     ". Current in cart: " + cartItem.getQuantity() +
                     ", Requested to add: " + addToCartDTO.getQuantity() +
-                    ", Available: " + productVariant.getStockQuantity());
+                    ", Available: " + availableStock);
         }
 
         cartItem.setQuantity(newQuantity);
@@ -94,9 +99,10 @@ public class CartServiceImpl implements CartService {
                 .orElseThrow(() -> new EntityNotFoundException("CartItem not found with ID: " + cartItemId + " for user " + userEmail));
 
         ProductVariant productVariant = cartItem.getProductVariant();
-        if (productVariant.getStockQuantity() < updateCartItemDTO.getQuantity()) {
+        int availableStock = stockReservationService.getAvailableStock(productVariant);
+        if (availableStock < updateCartItemDTO.getQuantity()) {
             throw new IllegalArgumentException("Insufficient stock for product variant ID: " + productVariant.getId() +
-                    ". Requested: " + updateCartItemDTO.getQuantity() + ", Available: " + productVariant.getStockQuantity());
+                    ". Requested: " + updateCartItemDTO.getQuantity() + ", Available: " + availableStock);
         }
 
         cartItem.setQuantity(updateCartItemDTO.getQuantity());
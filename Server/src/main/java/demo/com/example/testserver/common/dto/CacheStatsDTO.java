@@ -0,0 +1,41 @@
+package demo.com.example.testserver.common.dto;
+
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private double averageLoadMillis;
+
+    public CacheStatsDTO() {}
+
+    public CacheStatsDTO(String name, long size, long hitCount, long missCount, double hitRate, long evictionCount, double averageLoadMillis) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+        this.averageLoadMillis = averageLoadMillis;
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public long getSize() { return size; }
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+    public double getHitRate() { return hitRate; }
+    public long getEvictionCount() { return evictionCount; }
+    public double getAverageLoadMillis() { return averageLoadMillis; }
+
+    // Setters
+    public void setName(String name) { this.name = name; }
+    public void setSize(long size) { this.size = size; }
+    public void setHitCount(long hitCount) { this.hitCount = hitCount; }
+    public void setMissCount(long missCount) { this.missCount = missCount; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+    public void setEvictionCount(long evictionCount) { this.evictionCount = evictionCount; }
+    public void setAverageLoadMillis(double averageLoadMillis) { this.averageLoadMillis = averageLoadMillis; }
+}
@@ -0,0 +1,43 @@
+package demo.com.example.testserver.common.dto;
+
+import java.util.Date;
+
+public class CircuitBreakerStatsDTO {
+    private String name;
+    private String state;                // CLOSED, OPEN or HALF_OPEN
+    private int consecutiveFailures;
+    private long successfulCalls;
+    private long failedCalls;            // Exceptions thrown by the call itself
+    private long timedOutCalls;          // Calls abandoned at the deadline
+    private long shortCircuitedCalls;    // Calls answered by the fallback without trying (breaker open or no free slot)
+    private long trips;                  // Transitions to OPEN
+    private int activeCalls;
+    private Date lastTrippedAt;
+    private Date openUntil;              // When the next half-open probe is allowed; null unless OPEN
+
+    // Getters
+    public String getName() { return name; }
+    public String getState() { return state; }
+    public int getConsecutiveFailures() { return consecutiveFailures; }
+    public long getSuccessfulCalls() { return successfulCalls; }
+    public long getFailedCalls() { return failedCalls; }
+    public long getTimedOutCalls() { return timedOutCalls; }
+    public long getShortCircuitedCalls() { return shortCircuitedCalls; }
+    public long getTrips() { return trips; }
+    public int getActiveCalls() { return activeCalls; }
+    public Date getLastTrippedAt() { return lastTrippedAt; }
+    public Date getOpenUntil() { return openUntil; }
+
+    // Setters
+    public void setName(String name) { this.name = name; }
+    public void setState(String state) { this.state = state; }
+    public void setConsecutiveFailures(int consecutiveFailures) { this.consecutiveFailures = consecutiveFailures; }
+    public void setSuccessfulCalls(long successfulCalls) { this.successfulCalls = successfulCalls; }
+    public void setFailedCalls(long failedCalls) { this.failedCalls = failedCalls; }
+    public void setTimedOutCalls(long timedOutCalls) { this.timedOutCalls = timedOutCalls; }
+    public void setShortCircuitedCalls(long shortCircuitedCalls) { this.shortCircuitedCalls = shortCircuitedCalls; }
+    public void setTrips(long trips) { this.trips = trips; }
+    public void setActiveCalls(int activeCalls) { this.activeCalls = activeCalls; }
+    public void setLastTrippedAt(Date lastTrippedAt) { this.lastTrippedAt = lastTrippedAt; }
+    public void setOpenUntil(Date openUntil) { this.openUntil = openUntil; }
+}
@@ -0,0 +1,45 @@
+package demo.com.example.testserver.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A slice of results addressed by an opaque continuation token instead of a page number.
+ * No total count is computed; clients keep requesting with {@code nextCursor} until {@code hasNext} is false.
+ */
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor; // Null when there are no more results
+    private boolean hasNext;
+
+    public CursorPageDTO() {
+        this.content = new ArrayList<>();
+    }
+
+    public CursorPageDTO(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return content == null || content.isEmpty();
+    }
+
+    // Getters
+    public List<T> getContent() { return content; }
+    public int getSize() { return size; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasNext() { return hasNext; }
+
+    // Setters
+    public void setContent(List<T> content) { this.content = content; }
+    public void setSize(int size) { this.size = size; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
@@ -0,0 +1,71 @@
+package demo.com.example.testserver.common.dto;
+
+public class EmailDispatchStatsDTO {
+    private int senders;
+    private int queueDepth;
+    private int otpQueueDepth;
+    private int transactionalQueueDepth;
+    private int bulkQueueDepth;
+    private int queueCapacity;                // Per priority, except OTP
+    private int otpQueueCapacity;
+    private double maxPerSecond;
+    private long submitted;
+    private long sent;
+    private long failed;
+    private long rejected;                    // Queue full at submit time
+    private long coalescedOtps;               // Queued OTPs replaced by a newer one for the same recipient
+    private long batches;                     // SMTP connections opened
+    private double averageBatchSize;
+    private long averageQueueWaitMillis;      // Submit to start of the batch that sent it
+    private long maxQueueWaitMillis;
+    private long averageOtpQueueWaitMillis;
+    private long maxOtpQueueWaitMillis;
+    private long throttledMillis;             // Total time senders waited on the rate limit
+    private long lastBatchDurationMillis;
+
+    // Getters
+    public int getSenders() { return senders; }
+    public int getQueueDepth() { return queueDepth; }
+    public int getOtpQueueDepth() { return otpQueueDepth; }
+    public int getTransactionalQueueDepth() { return transactionalQueueDepth; }
+    public int getBulkQueueDepth() { return bulkQueueDepth; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public int getOtpQueueCapacity() { return otpQueueCapacity; }
+    public double getMaxPerSecond() { return maxPerSecond; }
+    public long getSubmitted() { return submitted; }
+    public long getSent() { return sent; }
+    public long getFailed() { return failed; }
+    public long getRejected() { return rejected; }
+    public long getCoalescedOtps() { return coalescedOtps; }
+    public long getBatches() { return batches; }
+    public double getAverageBatchSize() { return averageBatchSize; }
+    public long getAverageQueueWaitMillis() { return averageQueueWaitMillis; }
+    public long getMaxQueueWaitMillis() { return maxQueueWaitMillis; }
+    public long getAverageOtpQueueWaitMillis() { return averageOtpQueueWaitMillis; }
+    public long getMaxOtpQueueWaitMillis() { return maxOtpQueueWaitMillis; }
+    public long getThrottledMillis() { return throttledMillis; }
+    public long getLastBatchDurationMillis() { return lastBatchDurationMillis; }
+
+    // Setters
+    public void setSenders(int senders) { this.senders = senders; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+    public void setOtpQueueDepth(int otpQueueDepth) { this.otpQueueDepth = otpQueueDepth; }
+    public void setTransactionalQueueDepth(int transactionalQueueDepth) { this.transactionalQueueDepth = transactionalQueueDepth; }
+    public void setBulkQueueDepth(int bulkQueueDepth) { this.bulkQueueDepth = bulkQueueDepth; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public void setOtpQueueCapacity(int otpQueueCapacity) { this.otpQueueCapacity = otpQueueCapacity; }
+    public void setMaxPerSecond(double maxPerSecond) { this.maxPerSecond = maxPerSecond; }
+    public void setSubmitted(long submitted) { this.submitted = submitted; }
+    public void setSent(long sent) { this.sent = sent; }
+    public void setFailed(long failed) { this.failed = failed; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+    public void setCoalescedOtps(long coalescedOtps) { this.coalescedOtps = coalescedOtps; }
+    public void setBatches(long batches) { this.batches = batches; }
+    public void setAverageBatchSize(double averageBatchSize) { this.averageBatchSize = averageBatchSize; }
+    public void setAverageQueueWaitMillis(long averageQueueWaitMillis) { this.averageQueueWaitMillis = averageQueueWaitMillis; }
+    public void setMaxQueueWaitMillis(long maxQueueWaitMillis) { this.maxQueueWaitMillis = maxQueueWaitMillis; }
+    public void setAverageOtpQueueWaitMillis(long averageOtpQueueWaitMillis) { this.averageOtpQueueWaitMillis = averageOtpQueueWaitMillis; }
+    public void setMaxOtpQueueWaitMillis(long maxOtpQueueWaitMillis) { this.maxOtpQueueWaitMillis = maxOtpQueueWaitMillis; }
+    public void setThrottledMillis(long throttledMillis) { this.throttledMillis = throttledMillis; }
+    public void setLastBatchDurationMillis(long lastBatchDurationMillis) { this.lastBatchDurationMillis = lastBatchDurationMillis; }
+}
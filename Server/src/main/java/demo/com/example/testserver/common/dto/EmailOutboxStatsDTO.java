@@ -0,0 +1,49 @@
+package demo.com.example.testserver.common.dto;
+
+import java.util.Date;
+
+public class EmailOutboxStatsDTO {
+    private int workers;
+    private int activeWorkers;
+    private int queuedInMemory;          // Handed to the worker pool, not yet picked up
+    private int queueCapacity;
+    private long pendingRows;            // Outbox rows waiting for a (first or next) attempt
+    private long deadRows;               // Gave up after max-attempts; see POST /api/admin/email-outbox/dead/requeue
+    private long enqueued;
+    private long sent;
+    private long failedAttempts;
+    private long deadLettered;
+    private long rejected;               // Pool full at commit time; the poller delivered them later
+    private long lastDeliveryLagMillis;  // Enqueue to accepted by the SMTP server, for the last sent email
+    private Date lastSentAt;
+
+    // Getters
+    public int getWorkers() { return workers; }
+    public int getActiveWorkers() { return activeWorkers; }
+    public int getQueuedInMemory() { return queuedInMemory; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public long getPendingRows() { return pendingRows; }
+    public long getDeadRows() { return deadRows; }
+    public long getEnqueued() { return enqueued; }
+    public long getSent() { return sent; }
+    public long getFailedAttempts() { return failedAttempts; }
+    public long getDeadLettered() { return deadLettered; }
+    public long getRejected() { return rejected; }
+    public long getLastDeliveryLagMillis() { return lastDeliveryLagMillis; }
+    public Date getLastSentAt() { return lastSentAt; }
+
+    // Setters
+    public void setWorkers(int workers) { this.workers = workers; }
+    public void setActiveWorkers(int activeWorkers) { this.activeWorkers = activeWorkers; }
+    public void setQueuedInMemory(int queuedInMemory) { this.queuedInMemory = queuedInMemory; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public void setPendingRows(long pendingRows) { this.pendingRows = pendingRows; }
+    public void setDeadRows(long deadRows) { this.deadRows = deadRows; }
+    public void setEnqueued(long enqueued) { this.enqueued = enqueued; }
+    public void setSent(long sent) { this.sent = sent; }
+    public void setFailedAttempts(long failedAttempts) { this.failedAttempts = failedAttempts; }
+    public void setDeadLettered(long deadLettered) { this.deadLettered = deadLettered; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+    public void setLastDeliveryLagMillis(long lastDeliveryLagMillis) { this.lastDeliveryLagMillis = lastDeliveryLagMillis; }
+    public void setLastSentAt(Date lastSentAt) { this.lastSentAt = lastSentAt; }
+}
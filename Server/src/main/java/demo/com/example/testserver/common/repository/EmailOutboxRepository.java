@@ -0,0 +1,45 @@
+package demo.com.example.testserver.common.repository;
+
+import demo.com.example.testserver.common.model.EmailOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntry, Long> {
+
+    // Oldest due first; served by idx_eo_status_next_attempt
+    @Query("SELECT e.id FROM EmailOutboxEntry e WHERE e.status = demo.com.example.testserver.common.model.EmailOutboxEntry.Status.PENDING "
+            + "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt ASC")
+    List<Long> findDueIds(@Param("now") Date now, Pageable pageable);
+
+    /**
+     * Claims a due entry for one delivery attempt by pushing its next attempt past the lease. Only one caller
+     * (thread or instance) can win the claim, so an email is not sent twice concurrently.
+     *
+     * @return 1 if claimed, 0 if another worker has it or it is no longer due.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET next_attempt_at = :leaseUntil "
+            + "WHERE id = :id AND status = 'PENDING' AND next_attempt_at <= :now", nativeQuery = true)
+    int claim(@Param("id") Long id, @Param("now") Date now, @Param("leaseUntil") Date leaseUntil);
+
+    long countByStatus(EmailOutboxEntry.Status status);
+
+    /**
+     * Puts every dead-lettered email back in the queue with a fresh attempt budget.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET status = 'PENDING', attempts = 0, next_attempt_at = :now "
+            + "WHERE status = 'DEAD'", nativeQuery = true)
+    int requeueDead(@Param("now") Date now);
+}
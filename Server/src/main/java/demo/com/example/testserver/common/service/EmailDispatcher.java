@@ -0,0 +1,455 @@
+package demo.com.example.testserver.common.service;
+
+import demo.com.example.testserver.common.dto.EmailDispatchStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends emails from a queue on a few dedicated sender threads, so no request thread ever talks to SMTP.
+ * <p>
+ * Each {@link Priority} has its own bounded FIFO queue. A sender takes whatever is queued, up to batch-size messages,
+ * highest priority first, and sends them through one SMTP connection instead of one session per email. OTPs go
+ * first but not unconditionally: after otp-burst OTPs in a row one lower-priority email is let through, so a flood of
+ * password reset requests (the endpoint needs no login) slows other mail down without starving it. A recipient has at
+ * most one OTP queued; a newer one replaces it, since creating an OTP invalidates the previous code anyway.
+ * <p>
+ * Senders share a token bucket (max-per-second, with a burst of batch-size) so the provider's sending limit is never
+ * exceeded. The wait for a token happens before messages are taken from the queues, so an OTP that arrives while a
+ * sender is throttled still goes out ahead of the mail queued before it.
+ * <p>
+ * The queue is in memory: what is still queued at shutdown is lost. Emails that must survive a restart go through
+ * the {@link EmailOutboxService}, which retries on top of this dispatcher.
+ */
+@Component
+@Lazy(false) // Sender threads start on startup, not on the first email
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    /**
+     * Highest first. OTP codes expire within minutes and the user is waiting for them.
+     */
+    public enum Priority {
+        OTP,
+        TRANSACTIONAL,
+        BULK
+    }
+
+    private record QueuedEmail(SimpleMailMessage message, Priority priority, long enqueuedAt,
+                               CompletableFuture<Void> result) {
+    }
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.email.dispatch.senders:2}")
+    private int senders;
+
+    @Value("${app.email.dispatch.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.email.dispatch.max-per-second:10}")
+    private double maxPerSecond;
+
+    @Value("${app.email.dispatch.queue-capacity:2000}")
+    private int queueCapacity;
+
+    @Value("${app.email.dispatch.otp-queue-capacity:200}")
+    private int otpQueueCapacity;
+
+    @Value("${app.email.dispatch.otp-burst:4}")
+    private int otpBurst;
+
+    // One FIFO per priority, plus the queued OTP of each recipient; all guarded by queueLock
+    private final List<ArrayDeque<QueuedEmail>> queues = new ArrayList<>();
+    private final Map<String, QueuedEmail> queuedOtpByRecipient = new HashMap<>();
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final Condition notEmpty = queueLock.newCondition();
+    private int otpStreak;
+    private ExecutorService senderPool;
+    private TokenBucket rateLimiter;
+    private volatile boolean running = true;
+
+    // Metrics
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong throttledMillis = new AtomicLong();
+    private final AtomicLongArray waitTotalMillis = new AtomicLongArray(Priority.values().length);
+    private final AtomicLongArray waitCount = new AtomicLongArray(Priority.values().length);
+    private final AtomicLongArray waitMaxMillis = new AtomicLongArray(Priority.values().length);
+    private volatile long lastBatchDurationMillis;
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < Priority.values().length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+        rateLimiter = new TokenBucket(maxPerSecond, batchSize);
+        AtomicInteger threadNumber = new AtomicInteger();
+        senderPool = Executors.newFixedThreadPool(senders, r -> {
+            Thread thread = new Thread(r, "email-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < senders; i++) {
+            senderPool.execute(this::sendLoop);
+        }
+    }
+
+    /**
+     * Queues an email from the configured sender address.
+     *
+     * @return Completes once the SMTP server accepted the message, or exceptionally with the {@link MailException}
+     * it failed with. A full queue fails it at once with a {@link RejectedExecutionException}, and an OTP replaced
+     * by a newer one for the same recipient fails with a {@link CancellationException}.
+     */
+    public CompletableFuture<Void> submit(String to, String subject, String text, Priority priority) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        QueuedEmail email = new QueuedEmail(message, priority, System.currentTimeMillis(), result);
+        QueuedEmail superseded = null;
+        queueLock.lock();
+        try {
+            ArrayDeque<QueuedEmail> target = queues.get(priority.ordinal());
+            if (priority == Priority.OTP) {
+                String recipient = to.toLowerCase(Locale.ROOT);
+                superseded = queuedOtpByRecipient.remove(recipient);
+                if (superseded != null) {
+                    target.removeFirstOccurrence(superseded);
+                }
+                queuedOtpByRecipient.put(recipient, email);
+            }
+            int capacity = priority == Priority.OTP ? otpQueueCapacity : queueCapacity;
+            if (!running || target.size() >= capacity) {
+                if (priority == Priority.OTP) {
+                    queuedOtpByRecipient.remove(to.toLowerCase(Locale.ROOT));
+                }
+                rejected.incrementAndGet();
+                logger.warn("{} email queue full ({} messages), dropping email to {}", priority, target.size(), to);
+                result.completeExceptionally(new RejectedExecutionException("Email queue is full"));
+                return result;
+            }
+            target.addLast(email);
+            submitted.incrementAndGet();
+            notEmpty.signal();
+        } finally {
+            queueLock.unlock();
+        }
+        if (superseded != null) {
+            coalesced.incrementAndGet();
+            superseded.result().completeExceptionally(new CancellationException("Superseded by a newer OTP"));
+        }
+        return result;
+    }
+
+    /**
+     * Takes an email off the queue before a sender picks it up; its future fails with a {@link CancellationException}.
+     *
+     * @param result The future {@link #submit} returned for the email.
+     * @return False if the email is no longer queued: a sender already has it, or it is done.
+     */
+    public boolean cancel(CompletableFuture<Void> result) {
+        QueuedEmail cancelled = null;
+        queueLock.lock();
+        try {
+            for (ArrayDeque<QueuedEmail> queue : queues) {
+                for (QueuedEmail email : queue) {
+                    if (email.result() == result) {
+                        cancelled = email;
+                        break;
+                    }
+                }
+                if (cancelled != null) {
+                    queue.removeFirstOccurrence(cancelled);
+                    break;
+                }
+            }
+            if (cancelled != null && cancelled.priority() == Priority.OTP) {
+                queuedOtpByRecipient.remove(cancelled.message().getTo()[0].toLowerCase(Locale.ROOT), cancelled);
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        if (cancelled == null) {
+            return false;
+        }
+        result.completeExceptionally(new CancellationException("Cancelled before it was sent"));
+        return true;
+    }
+
+    /**
+     * Waits up to the timeout for mail and takes at most max messages, highest priority first, except that after
+     * otp-burst consecutive OTPs the next message comes from the lower priorities if any is waiting.
+     */
+    private List<QueuedEmail> takeBatch(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        List<QueuedEmail> batch = new ArrayList<>(max);
+        queueLock.lockInterruptibly();
+        try {
+            long nanos = unit.toNanos(timeout);
+            while (queuedCount() == 0) {
+                if (nanos <= 0) {
+                    return batch;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            ArrayDeque<QueuedEmail> otpQueue = queues.get(Priority.OTP.ordinal());
+            while (batch.size() < max) {
+                ArrayDeque<QueuedEmail> lower = firstNonEmpty(Priority.OTP.ordinal() + 1);
+                ArrayDeque<QueuedEmail> source;
+                if (!otpQueue.isEmpty() && (otpStreak < otpBurst || lower == null)) {
+                    source = otpQueue;
+                    otpStreak++;
+                } else if (lower != null) {
+                    source = lower;
+                    otpStreak = 0;
+                } else {
+                    break;
+                }
+                QueuedEmail email = source.pollFirst();
+                if (email.priority() == Priority.OTP) {
+                    queuedOtpByRecipient.remove(email.message().getTo()[0].toLowerCase(Locale.ROOT));
+                }
+                batch.add(email);
+            }
+            return batch;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private ArrayDeque<QueuedEmail> firstNonEmpty(int fromOrdinal) {
+        for (int i = fromOrdinal; i < queues.size(); i++) {
+            if (!queues.get(i).isEmpty()) {
+                return queues.get(i);
+            }
+        }
+        return null;
+    }
+
+    // Caller holds queueLock
+    private int queuedCount() {
+        int count = 0;
+        for (ArrayDeque<QueuedEmail> q : queues) {
+            count += q.size();
+        }
+        return count;
+    }
+
+    private void sendLoop() {
+        while (running) {
+            try {
+                int permits = acquirePermits();
+                List<QueuedEmail> batch = takeBatch(permits, 500, TimeUnit.MILLISECONDS);
+                rateLimiter.giveBack(permits - batch.size());
+                if (!batch.isEmpty()) {
+                    sendBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Email sender loop failed: {}", e.getMessage(), e); // Keep the thread alive
+            }
+        }
+    }
+
+    // Blocks until at least one token is available and takes up to batch-size of them
+    private int acquirePermits() throws InterruptedException {
+        long throttleStart = System.currentTimeMillis();
+        int permits;
+        while ((permits = rateLimiter.tryTake(batchSize)) == 0) {
+            TimeUnit.NANOSECONDS.sleep(Math.max(rateLimiter.nanosUntilAvailable(), TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        throttledMillis.addAndGet(System.currentTimeMillis() - throttleStart);
+        return permits;
+    }
+
+    private void sendBatch(List<QueuedEmail> batch) {
+        long start = System.currentTimeMillis();
+        for (QueuedEmail email : batch) {
+            recordWait(email.priority(), start - email.enqueuedAt());
+        }
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        try {
+            // One connection for the whole batch
+            mailSender.send(batch.stream().map(QueuedEmail::message).toArray(SimpleMailMessage[]::new));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages(); // Keyed by the original SimpleMailMessage
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e; // e.g. authentication: nothing was sent
+        }
+        for (QueuedEmail email : batch) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(email.message());
+            if (failure == null) {
+                sent.incrementAndGet();
+                email.result().complete(null);
+            } else {
+                failed.incrementAndGet();
+                logger.error("Error sending {} email \"{}\" to {}: {}", email.priority(), email.message().getSubject(),
+                        String.join(",", email.message().getTo()), failure.getMessage());
+                email.result().completeExceptionally(failure);
+            }
+        }
+        batches.incrementAndGet();
+        lastBatchDurationMillis = System.currentTimeMillis() - start;
+        logger.debug("Sent a batch of {} emails in {} ms.", batch.size(), lastBatchDurationMillis);
+    }
+
+    private void recordWait(Priority priority, long waitMillis) {
+        int i = priority.ordinal();
+        waitTotalMillis.addAndGet(i, waitMillis);
+        waitCount.incrementAndGet(i);
+        waitMaxMillis.accumulateAndGet(i, waitMillis, Math::max);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        senderPool.shutdown();
+        try {
+            if (!senderPool.awaitTermination(5, TimeUnit.SECONDS)) {
+                senderPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int unsent = queueDepths()[Priority.values().length];
+        if (unsent > 0) {
+            logger.warn("Shutting down with {} unsent emails in the queue.", unsent);
+        }
+    }
+
+    public EmailDispatchStatsDTO getStats() {
+        EmailDispatchStatsDTO stats = new EmailDispatchStatsDTO();
+        int[] depth = queueDepths();
+        int otp = Priority.OTP.ordinal();
+        long otpCount = waitCount.get(otp);
+        long totalWait = 0;
+        long totalCount = 0;
+        long maxWait = 0;
+        for (int i = 0; i < Priority.values().length; i++) {
+            totalWait += waitTotalMillis.get(i);
+            totalCount += waitCount.get(i);
+            maxWait = Math.max(maxWait, waitMaxMillis.get(i));
+        }
+        stats.setSenders(senders);
+        stats.setQueueDepth(depth[Priority.values().length]);
+        stats.setOtpQueueDepth(depth[otp]);
+        stats.setTransactionalQueueDepth(depth[Priority.TRANSACTIONAL.ordinal()]);
+        stats.setBulkQueueDepth(depth[Priority.BULK.ordinal()]);
+        stats.setQueueCapacity(queueCapacity);
+        stats.setOtpQueueCapacity(otpQueueCapacity);
+        stats.setMaxPerSecond(maxPerSecond);
+        stats.setSubmitted(submitted.get());
+        stats.setSent(sent.get());
+        stats.setFailed(failed.get());
+        stats.setRejected(rejected.get());
+        stats.setCoalescedOtps(coalesced.get());
+        stats.setBatches(batches.get());
+        stats.setAverageBatchSize(batches.get() == 0 ? 0 : (double) (sent.get() + failed.get()) / batches.get());
+        stats.setAverageQueueWaitMillis(totalCount == 0 ? 0 : totalWait / totalCount);
+        stats.setMaxQueueWaitMillis(maxWait);
+        stats.setAverageOtpQueueWaitMillis(otpCount == 0 ? 0 : waitTotalMillis.get(otp) / otpCount);
+        stats.setMaxOtpQueueWaitMillis(waitMaxMillis.get(otp));
+        stats.setThrottledMillis(throttledMillis.get());
+        stats.setLastBatchDurationMillis(lastBatchDurationMillis);
+        return stats;
+    }
+
+    // Depth per priority, followed by the total
+    private int[] queueDepths() {
+        int[] depth = new int[Priority.values().length + 1];
+        queueLock.lock();
+        try {
+            for (int i = 0; i < queues.size(); i++) {
+                depth[i] = queues.get(i).size();
+                depth[depth.length - 1] += depth[i];
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        return depth;
+    }
+
+    /**
+     * Classic token bucket: refills continuously at the given rate up to the capacity.
+     */
+    private static final class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(double perSecond, int capacity) {
+            this.tokensPerNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(1, capacity);
+            this.tokens = this.capacity;
+        }
+
+        synchronized int tryTake(int max) {
+            refill();
+            int taken = (int) Math.min(max, Math.floor(tokens));
+            tokens -= taken;
+            return taken;
+        }
+
+        synchronized void giveBack(int unused) {
+            tokens = Math.min(capacity, tokens + unused);
+        }
+
+        synchronized long nanosUntilAvailable() {
+            refill();
+            return tokens >= 1 ? 0 : (long) ((1 - tokens) / tokensPerNano);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package demo.com.example.testserver.common.service;
+
+import demo.com.example.testserver.common.dto.EmailOutboxStatsDTO;
+import demo.com.example.testserver.common.model.EmailOutboxEntry;
+import demo.com.example.testserver.common.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends emails outside the transaction that triggers them, so a slow or unreachable SMTP server can neither delay
+ * nor fail the write it reports on.
+ * <p>
+ * Callers enqueue inside their transaction: the rendered email is saved to email_outbox and, once the transaction
+ * commits, its ID is handed to a bounded worker pool. A worker claims the row (a short lease, so no other worker or
+ * instance sends it at the same time), sends it through the {@link EmailDispatcher} and deletes it. A failed send is
+ * retried with exponential backoff and moved to DEAD after max-attempts. A scheduled poller picks up whatever is
+ * due and not in memory: retries, emails the pool had no room for, and rows left over by a crash or restart.
+ * <p>
+ * Delivery is at least once: an email accepted by the server just before a crash is sent again.
+ */
+@Service
+@Lazy(false) // Owns the @Scheduled poller, so it must be created eagerly
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Value("${app.email.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.email.outbox.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${app.email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff-ms:10000}")
+    private long initialBackoffMillis;
+
+    @Value("${app.email.outbox.max-backoff-ms:1800000}")
+    private long maxBackoffMillis;
+
+    @Value("${app.email.outbox.lease-ms:120000}")
+    private long leaseMillis;
+
+    @Value("${app.email.outbox.send-timeout-ms:60000}") // Keep below lease-ms
+    private long sendTimeoutMillis;
+
+    @Value("${app.email.outbox.poll-batch-size:100}")
+    private int pollBatchSize;
+
+    private ThreadPoolExecutor workerPool;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet(); // Queued or being sent by this instance
+
+    // Metrics
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long lastDeliveryLagMillis;
+    private volatile Date lastSentAt;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "email-outbox-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues the order confirmation email. Call inside the order's transaction: on rollback nothing is sent.
+     */
+    public void enqueueOrderConfirmation(String recipientEmail, String fullName, Integer orderId, BigDecimal totalAmount) {
+        enqueue(new EmailOutboxEntry(EmailTemplates.ORDER_CONFIRMATION, recipientEmail,
+                EmailTemplates.orderConfirmationSubject(orderId),
+                EmailTemplates.orderConfirmationBody(fullName, orderId, totalAmount)));
+    }
+
+    private void enqueue(EmailOutboxEntry entry) {
+        Long id = outboxRepository.save(entry).getId();
+        enqueued.incrementAndGet();
+        runAfterCommit(() -> dispatch(id));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Never blocks: with the pool full the row simply waits for the poller
+    private boolean dispatch(Long id) {
+        if (!inFlight.add(id)) {
+            return true;
+        }
+        try {
+            workerPool.execute(() -> {
+                try {
+                    deliver(id);
+                } finally {
+                    inFlight.remove(id);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+            rejected.incrementAndGet();
+            return false;
+        }
+    }
+
+    private void deliver(Long id) {
+        Date now = new Date();
+        if (outboxRepository.claim(id, now, new Date(now.getTime() + leaseMillis)) == 0) {
+            return; // Sent, dead, not due yet or claimed elsewhere
+        }
+        EmailOutboxEntry entry = outboxRepository.findById(id).orElse(null);
+        if (entry == null) {
+            return;
+        }
+        CompletableFuture<Void> result = emailDispatcher.submit(entry.getRecipient(), entry.getSubject(), entry.getBody(),
+                EmailDispatcher.Priority.TRANSACTIONAL);
+        try {
+            try {
+                result.get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Only a retry of an email that never left the dispatcher's queue is safe
+                if (emailDispatcher.cancel(result)) {
+                    recordFailure(entry, e);
+                    return;
+                }
+                // A sender is already talking to SMTP (bounded by the mail timeouts): wait for its outcome
+                result.get(Math.max(leaseMillis - sendTimeoutMillis, 0), TimeUnit.MILLISECONDS);
+            }
+        } catch (ExecutionException e) {
+            recordFailure(entry, e.getCause());
+            return;
+        } catch (TimeoutException e) {
+            // Outcome unknown: leave the row claimed, the poller retries it once the lease runs out
+            logger.warn("No outcome for {} email {} to {} within its lease; it may be sent twice.",
+                    entry.getEmailType(), id, entry.getRecipient());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return; // Shutting down; the row is picked up again once its lease runs out
+        }
+        outboxRepository.deleteById(id);
+        sent.incrementAndGet();
+        lastSentAt = new Date();
+        lastDeliveryLagMillis = lastSentAt.getTime() - entry.getCreatedAt().getTime();
+        logger.info("{} email {} sent to {} after {} attempt(s).",
+                entry.getEmailType(), id, entry.getRecipient(), entry.getAttempts() + 1);
+    }
+
+    private void recordFailure(EmailOutboxEntry entry, Throwable e) {
+        failedAttempts.incrementAndGet();
+        int attempts = entry.getAttempts() + 1;
+        String error = e.getMessage() != null ? e.getMessage() : e.toString();
+        entry.setAttempts(attempts);
+        entry.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (attempts >= maxAttempts) {
+            entry.setStatus(EmailOutboxEntry.Status.DEAD);
+            deadLettered.incrementAndGet();
+            logger.error("Giving up on {} email {} to {} after {} attempts: {}",
+                    entry.getEmailType(), entry.getId(), entry.getRecipient(), attempts, error);
+        } else {
+            long backoff = backoffMillis(attempts);
+            entry.setNextAttemptAt(new Date(System.currentTimeMillis() + backoff));
+            logger.warn("Failed to send {} email {} to {} (attempt {}/{}), retrying in {} ms: {}",
+                    entry.getEmailType(), entry.getId(), entry.getRecipient(), attempts, maxAttempts, backoff, error);
+        }
+        outboxRepository.save(entry);
+    }
+
+    // initial-backoff doubled per failed attempt, capped, with +/-20% jitter so a burst of failures spreads out
+    private long backoffMillis(int attempts) {
+        long backoff = initialBackoffMillis << Math.min(attempts - 1, 20);
+        backoff = Math.min(backoff, maxBackoffMillis);
+        return (long) (backoff * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    /**
+     * Hands due rows to the workers: retries whose backoff has elapsed, emails the pool rejected, and rows left
+     * over by a previous run. Stops early once the pool's queue is full.
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:5000}")
+    public void pollDue() {
+        if (workerPool.getQueue().remainingCapacity() == 0) {
+            return;
+        }
+        List<Long> dueIds;
+        try {
+            dueIds = outboxRepository.findDueIds(new Date(), PageRequest.of(0, pollBatchSize));
+        } catch (Exception e) {
+            logger.error("Failed to poll the email outbox: {}", e.getMessage(), e);
+            return;
+        }
+        for (Long id : dueIds) {
+            if (!dispatch(id)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gives every dead-lettered email a new attempt budget; they are picked up by the next poll.
+     *
+     * @return The number of emails requeued.
+     */
+    public int requeueDead() {
+        int requeued = outboxRepository.requeueDead(new Date());
+        logger.info("Requeued {} dead-lettered emails.", requeued);
+        return requeued;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unsent rows stay in the outbox; claimed ones are picked up again once their lease runs out
+        workerPool.shutdown();
+    }
+
+    public EmailOutboxStatsDTO getStats() {
+        EmailOutboxStatsDTO stats = new EmailOutboxStatsDTO();
+        stats.setWorkers(workers);
+        stats.setActiveWorkers(workerPool.getActiveCount());
+        stats.setQueuedInMemory(workerPool.getQueue().size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setPendingRows(outboxRepository.countByStatus(EmailOutboxEntry.Status.PENDING));
+        stats.setDeadRows(outboxRepository.countByStatus(EmailOutboxEntry.Status.DEAD));
+        stats.setEnqueued(enqueued.get());
+        stats.setSent(sent.get());
+        stats.setFailedAttempts(failedAttempts.get());
+        stats.setDeadLettered(deadLettered.get());
+        stats.setRejected(rejected.get());
+        stats.setLastDeliveryLagMillis(lastDeliveryLagMillis);
+        stats.setLastSentAt(lastSentAt);
+        return stats;
+    }
+}
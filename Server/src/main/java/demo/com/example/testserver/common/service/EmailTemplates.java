@@ -0,0 +1,61 @@
+package demo.com.example.testserver.common.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Subjects and bodies of the emails the application sends, shared by the direct senders and the email outbox
+ * so a message reads the same whichever path delivers it.
+ */
+public final class EmailTemplates {
+
+    public static final String ORDER_CONFIRMATION = "ORDER_CONFIRMATION";
+
+    private EmailTemplates() {
+    }
+
+    public static String passwordResetLinkSubject() {
+        return "Password Reset Request";
+    }
+
+    public static String passwordResetLinkBody(String resetLink) {
+        return "To reset your password, click the link below:\n" + resetLink +
+                "\nIf you did not request a password reset, please ignore this email.";
+    }
+
+    public static String passwordResetOtpSubject() {
+        return "Your Password Reset OTP";
+    }
+
+    public static String passwordResetOtpBody(String otpCode) {
+        return "Your OTP code for password reset is: " + otpCode +
+                "\nThis OTP is valid for a limited time." +
+                "\nIf you did not request this, please ignore this email.";
+    }
+
+    public static String registrationSubject() {
+        return "Welcome to Our Service! Your Account Details";
+    }
+
+    public static String registrationBody(String recipientEmail, String fullName, String password) {
+        return "Hello " + fullName + ",\n\n" +
+                "Welcome! Your account has been successfully created.\n\n" +
+                "Here are your login details:\n" +
+                "Email: " + recipientEmail + "\n" +
+                "Password: " + password + "\n\n" +
+                "We strongly recommend that you change your password after your first login for security reasons.\n\n" +
+                "Thank you for joining us!";
+    }
+
+    public static String orderConfirmationSubject(Integer orderId) {
+        return "Your Order #" + orderId + " has been Confirmed!";
+    }
+
+    public static String orderConfirmationBody(String fullName, Integer orderId, BigDecimal totalAmount) {
+        return "Hello " + fullName + ",\n\n" +
+                "Thank you for your order!\n\n" +
+                "Your Order ID: " + orderId + "\n" +
+                "Total Amount: " + totalAmount.toString() + "\n\n" +
+                "We will notify you once your order has been shipped.\n\n" +
+                "Thank you for shopping with us!";
+    }
+}
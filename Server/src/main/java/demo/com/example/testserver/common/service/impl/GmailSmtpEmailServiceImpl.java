@@ -1,16 +1,23 @@
 package demo.com.example.testserver.common.service.impl;
 
 import demo.com.example.testserver.common.service.EmailService;
+import demo.com.example.testserver.common.service.EmailTemplates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+/**
+ * Sends every email synchronously on the caller's thread, one SMTP session each.
+ * Only used with app.email.dispatch.async=false; see {@link PooledEmailServiceImpl}.
+ */
 @Service
+@ConditionalOnProperty(name = "app.email.dispatch.async", havingValue = "false")
 public class GmailSmtpEmailServiceImpl implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(GmailSmtpEmailServiceImpl.class);
@@ -30,9 +37,8 @@ public class GmailSmtpEmailServiceImpl implements EmailService {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(fromEmail);
         message.setTo(recipientEmail);
-        message.setSubject("Password Reset Request");
-        message.setText("To reset your password, click the link below:\n" + resetLink +
-                        "\nIf you did not request a password reset, please ignore this email.");
+        message.setSubject(EmailTemplates.passwordResetLinkSubject());
+        message.setText(EmailTemplates.passwordResetLinkBody(resetLink));
         try {
             mailSender.send(message);
             logger.info("Password reset link email sent successfully to {}", recipientEmail);
@@ -47,10 +53,8 @@ public class GmailSmtpEmailServiceImpl implements EmailService {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(fromEmail);
         message.setTo(to);
-        message.setSubject("Your Password Reset OTP");
-        message.setText("Your OTP code for password reset is: " + otpCode +
-                        "\nThis OTP is valid for a limited time." +
-                        "\nIf you did not request this, please ignore this email.");
+        message.setSubject(EmailTemplates.passwordResetOtpSubject());
+        message.setText(EmailTemplates.passwordResetOtpBody(otpCode));
         try {
             mailSender.send(message);
             logger.info("Password reset OTP sent successfully to {}", to);
@@ -65,14 +69,8 @@ public class GmailSmtpEmailServiceImpl implements EmailService {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(fromEmail);
         message.setTo(recipientEmail);
-        message.setSubject("Welcome to Our Service! Your Account Details");
-        message.setText("Hello " + fullName + ",\n\n" +
-                        "Welcome! Your account has been successfully created.\n\n" +
-                        "Here are your login details:\n" +
-                        "Email: " + recipientEmail + "\n" +
-                        "Password: " + password + "\n\n" +
-                        "We strongly recommend that you change your password after your first login for security reasons.\n\n" +
-                        "Thank you for joining us!");
+        message.setSubject(EmailTemplates.registrationSubject());
+        message.setText(EmailTemplates.registrationBody(recipientEmail, fullName, password));
         try {
             mailSender.send(message);
             logger.info("Registration email sent successfully to {}", recipientEmail);
@@ -87,13 +85,8 @@ public class GmailSmtpEmailServiceImpl implements EmailService {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(fromEmail);
         message.setTo(recipientEmail);
-        message.setSubject("Your Order #" + orderId + " has been Confirmed!");
-        message.setText("Hello " + fullName + ",\n\n" +
-                        "Thank you for your order!\n\n" +
-                        "Your Order ID: " + orderId + "\n" +
-                        "Total Amount: " + totalAmount.toString() + "\n\n" +
-                        "We will notify you once your order has been shipped.\n\n" +
-                        "Thank you for shopping with us!");
+        message.setSubject(EmailTemplates.orderConfirmationSubject(orderId));
+        message.setText(EmailTemplates.orderConfirmationBody(fullName, orderId, totalAmount));
         try {
             mailSender.send(message);
             logger.info("Order confirmation email sent successfully to {} for order ID {}", recipientEmail, orderId);
@@ -0,0 +1,56 @@
+package demo.com.example.testserver.common.service.impl;
+
+import demo.com.example.testserver.common.service.EmailDispatcher;
+import demo.com.example.testserver.common.service.EmailDispatcher.Priority;
+import demo.com.example.testserver.common.service.EmailService;
+import demo.com.example.testserver.common.service.EmailTemplates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+/**
+ * Default {@link EmailService}: every method only queues the email on the {@link EmailDispatcher} and returns,
+ * so callers no longer wait for SMTP. Delivery failures are logged by the dispatcher, as they were before.
+ */
+@Service
+@ConditionalOnProperty(name = "app.email.dispatch.async", havingValue = "true", matchIfMissing = true)
+public class PooledEmailServiceImpl implements EmailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledEmailServiceImpl.class);
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    // Not OTP: the dispatcher keeps one queued OTP per recipient, and a link must not replace a code or vice versa
+    @Override
+    public void sendPasswordResetEmail(String recipientEmail, String plainToken, String resetLinkBase) {
+        emailDispatcher.submit(recipientEmail, EmailTemplates.passwordResetLinkSubject(),
+                EmailTemplates.passwordResetLinkBody(resetLinkBase + plainToken), Priority.TRANSACTIONAL);
+        logger.info("Password reset link email queued for {}", recipientEmail);
+    }
+
+    @Override
+    public void sendPasswordResetOtp(String to, String otpCode) {
+        emailDispatcher.submit(to, EmailTemplates.passwordResetOtpSubject(),
+                EmailTemplates.passwordResetOtpBody(otpCode), Priority.OTP);
+        logger.info("Password reset OTP queued for {}", to);
+    }
+
+    @Override
+    public void sendRegistrationEmail(String recipientEmail, String fullName, String password) {
+        emailDispatcher.submit(recipientEmail, EmailTemplates.registrationSubject(),
+                EmailTemplates.registrationBody(recipientEmail, fullName, password), Priority.TRANSACTIONAL);
+        logger.info("Registration email queued for {}", recipientEmail);
+    }
+
+    @Override
+    public void sendOrderConfirmationEmail(String recipientEmail, String fullName, Integer orderId, BigDecimal totalAmount) {
+        emailDispatcher.submit(recipientEmail, EmailTemplates.orderConfirmationSubject(orderId),
+                EmailTemplates.orderConfirmationBody(fullName, orderId, totalAmount), Priority.TRANSACTIONAL);
+        logger.info("Order confirmation email queued for {} for order ID {}", recipientEmail, orderId);
+    }
+}
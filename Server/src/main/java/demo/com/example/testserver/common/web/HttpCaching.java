@@ -0,0 +1,61 @@
+package demo.com.example.testserver.common.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Conditional GET handling for controllers that can compute a ResourceVersion before building their response,
+ * so a revalidation is answered with 304 without running the query or the mapper.
+ */
+public final class HttpCaching {
+
+    private HttpCaching() {}
+
+    /**
+     * True if the client's copy is current. If-None-Match takes precedence over If-Modified-Since (RFC 9110).
+     *
+     * @param version Null when the version is unknown; the request is then never considered fresh.
+     */
+    public static boolean isNotModified(HttpHeaders requestHeaders, ResourceVersion version) {
+        if (version == null) {
+            return false;
+        }
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            // Weak comparison, as required for If-None-Match: a W/ prefix added by a proxy still matches
+            return ifNoneMatch.stream()
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(version.etag()));
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince >= 0 && version.lastModified() > 0
+                && version.lastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    public static ResponseEntity<Void> notModified(ResourceVersion version, String cacheControl) {
+        return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version, cacheControl).build();
+    }
+
+    /**
+     * 200 builder carrying the validators and the endpoint's Cache-Control.
+     */
+    public static ResponseEntity.BodyBuilder ok(ResourceVersion version, String cacheControl) {
+        return withValidators(ResponseEntity.ok(), version, cacheControl);
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, ResourceVersion version, String cacheControl) {
+        if (cacheControl != null && !cacheControl.isBlank()) {
+            builder.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        if (version != null) {
+            builder.eTag(version.etag());
+            if (version.lastModified() > 0) {
+                builder.lastModified(version.lastModified());
+            }
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,25 @@
+package demo.com.example.testserver.common.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Validators of one cacheable response: a strong ETag and the Last-Modified time.
+ * <p>
+ * The ETag carries the microsecond ngay_cap_nhat, so writes within the same second get distinct tags.
+ * Last-Modified is an HTTP date and only has whole seconds: If-Modified-Since alone can still miss such a write,
+ * which is why clients that send If-None-Match are matched on the ETag only.
+ *
+ * @param etag         Quoted entity tag, e.g. "product-42-6650f1a2c3d4e-1c2b3d4e".
+ * @param lastModified Epoch millis (whole seconds), or 0 if unknown.
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    public static ResourceVersion of(String resource, ResourceVersionRow row) {
+        long lastModifiedMicros = row.getLastModified() != null ? row.getLastModified() : 0;
+        CRC32 fingerprint = new CRC32();
+        fingerprint.update(String.valueOf(row.getFingerprint()).getBytes(StandardCharsets.UTF_8));
+        String etag = "\"" + resource + "-" + Long.toHexString(lastModifiedMicros) + "-" + Long.toHexString(fingerprint.getValue()) + "\"";
+        return new ResourceVersion(etag, lastModifiedMicros / 1_000_000 * 1000);
+    }
+}
@@ -0,0 +1,17 @@
+package demo.com.example.testserver.common.web;
+
+/**
+ * Projection of the validator queries behind HTTP caching (e.g. ProductRepository.findDetailVersion).
+ */
+public interface ResourceVersionRow {
+
+    /**
+     * Newest ngay_cap_nhat of the rows the response is built from, in epoch microseconds (0 if unknown).
+     */
+    Long getLastModified();
+
+    /**
+     * Counters that also change when rows are added or removed, which ngay_cap_nhat alone does not show.
+     */
+    String getFingerprint();
+}
@@ -24,6 +24,7 @@ import org.springframework.util.StringUtils;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -48,6 +49,14 @@ public class ElasticsearchConfig {
     @Value("${spring.elasticsearch.password:#{null}}")
     private String password;
 
+    // This RestClient is built by hand, so Spring Boot's own timeout properties are applied here explicitly.
+    // The per-call search deadline is enforced separately by ElasticsearchCircuitBreaker.
+    @Value("${spring.elasticsearch.connection-timeout:1s}")
+    private Duration connectionTimeout;
+
+    @Value("${spring.elasticsearch.socket-timeout:30s}")
+    private Duration socketTimeout;
+
     public ElasticsearchConfig() {
         logger.info("ElasticsearchConfig bean is being created (condition met).");
     }
@@ -67,7 +76,10 @@ public class ElasticsearchConfig {
                 })
                 .collect(Collectors.toList());
 
-        RestClientBuilder builder = RestClient.builder(httpHosts.toArray(new HttpHost[0]));
+        RestClientBuilder builder = RestClient.builder(httpHosts.toArray(new HttpHost[0]))
+                .setRequestConfigCallback(requestConfigBuilder -> requestConfigBuilder
+                        .setConnectTimeout((int) connectionTimeout.toMillis())
+                        .setSocketTimeout((int) socketTimeout.toMillis()));
 
         if (StringUtils.hasText(username) && StringUtils.hasText(password)) {
             final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
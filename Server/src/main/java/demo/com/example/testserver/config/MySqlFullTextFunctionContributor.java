@@ -0,0 +1,26 @@
+package demo.com.example.testserver.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code fulltext_match(column1, column2, query)} so Criteria/JPQL queries can use MySQL's FULLTEXT index
+ * on two columns (san_pham's folded name and description; MATCH must name exactly the index's columns)
+ * (MATCH ... AGAINST in BOOLEAN MODE) instead of a LIKE scan. The function returns the relevance score,
+ * which is greater than 0 for matching rows.
+ * <p>
+ * Picked up by Hibernate through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class MySqlFullTextFunctionContributor implements FunctionContributor {
+
+    public static final String FULLTEXT_MATCH = "fulltext_match";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                FULLTEXT_MATCH,
+                "match(?1, ?2) against(?3 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
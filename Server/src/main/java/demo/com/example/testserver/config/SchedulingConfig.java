@@ -0,0 +1,14 @@
+package demo.com.example.testserver.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs.
+ * Note: the application starts with lazy initialization, so beans that own @Scheduled methods
+ * must be annotated with @Lazy(false) to be created (and scheduled) at startup.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,516 @@
+package demo.com.example.testserver.config;
+
+import demo.com.example.testserver.product.service.SearchTextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the database with a production-sized synthetic shop (categories, brands, users with addresses, products
+ * with variants, images and reviews, orders with details and status history, support chats) for query tuning and
+ * load testing. Enabled with app.datagen.enabled=true; sizes come from the app.datagen.* properties.
+ * <p>
+ * Rows are written with JDBC batch inserts in one transaction per chunk, bypassing JPA. IDs are assigned here,
+ * continuing after the current maximum of each table, so run it against a scratch database with no other writers.
+ * Denormalized product columns (price range, review counters) are filled in consistently, but the search outbox is
+ * bypassed: rebuild the Elasticsearch index afterwards with POST /api/admin/search-index/reindex.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datagen.enabled", havingValue = "true")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String USER_PASSWORD = "datagen123";
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal POINTS_EARNED_RATE = new BigDecimal("0.0001"); // Same rate as OrderServiceImpl
+    private static final BigDecimal SHIPPING_FEE = new BigDecimal("30000.00");
+
+    private static final String[] CATEGORY_NAMES = {"Điện thoại", "Laptop", "Máy tính bảng", "Đồng hồ thông minh",
+            "Tai nghe", "Loa", "Phụ kiện", "Màn hình", "Bàn phím", "Chuột", "Linh kiện PC", "Máy ảnh", "Tivi",
+            "Đồ gia dụng", "Thời trang nam", "Thời trang nữ", "Giày dép", "Balo túi xách", "Sách", "Đồ chơi"};
+    private static final String[] BRAND_NAMES = {"Samsung", "Apple", "Xiaomi", "Oppo", "Dell", "Asus", "Lenovo",
+            "HP", "Acer", "MSI", "Logitech", "Sony", "LG", "Anker", "Baseus", "Corsair", "Razer", "Philips",
+            "Panasonic", "Sharp", "Canon", "Nikon", "JBL", "Bose", "Adidas", "Nike", "Uniqlo", "Biti's"};
+    private static final String[] PRODUCT_NOUNS = {"Điện thoại", "Laptop", "Tai nghe không dây", "Bàn phím cơ",
+            "Chuột gaming", "Màn hình", "Loa bluetooth", "Sạc dự phòng", "Ốp lưng", "Đồng hồ", "Máy ảnh", "Balo",
+            "Áo thun", "Giày chạy bộ", "Nồi chiên không dầu", "Quạt điện", "Bình giữ nhiệt", "Tai nghe gaming"};
+    private static final String[] PRODUCT_ADJECTIVES = {"cao cấp", "chính hãng", "siêu mỏng", "chống nước",
+            "phiên bản mới", "giá rẻ", "pin trâu", "không dây", "mini", "Pro", "Ultra", "Plus", "Lite"};
+    private static final String[] VARIANT_OPTIONS = {"Màu Đen", "Màu Trắng", "Màu Xanh", "Màu Đỏ", "Bản 64GB",
+            "Bản 128GB", "Bản 256GB", "RAM 8GB", "RAM 16GB", "Size S", "Size M", "Size L", "Size XL"};
+    private static final String[] FAMILY_NAMES = {"Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Huỳnh", "Phan", "Vũ",
+            "Võ", "Đặng", "Bùi", "Đỗ", "Hồ", "Ngô", "Dương", "Lý"};
+    private static final String[] MIDDLE_NAMES = {"Văn", "Thị", "Minh", "Thanh", "Ngọc", "Đức", "Hoài", "Quốc", "Gia"};
+    private static final String[] GIVEN_NAMES = {"An", "Bình", "Chi", "Dũng", "Hà", "Hải", "Hùng", "Lan", "Linh",
+            "Long", "Mai", "Nam", "Phương", "Quân", "Sơn", "Tâm", "Thảo", "Trang", "Tuấn", "Vy"};
+    private static final String[] STREETS = {"Lê Lợi", "Nguyễn Huệ", "Trần Hưng Đạo", "Hai Bà Trưng", "Lý Thường Kiệt",
+            "Điện Biên Phủ", "Cách Mạng Tháng Tám", "Võ Văn Tần", "Pasteur", "Nguyễn Trãi"};
+    private static final String[] CITIES = {"Quận 1, TP. Hồ Chí Minh", "Quận 3, TP. Hồ Chí Minh",
+            "Quận Bình Thạnh, TP. Hồ Chí Minh", "Quận Hoàn Kiếm, Hà Nội", "Quận Cầu Giấy, Hà Nội",
+            "Quận Hải Châu, Đà Nẵng", "TP. Cần Thơ", "TP. Hải Phòng"};
+    private static final String[] REVIEW_COMMENTS = {"Sản phẩm tốt, đúng mô tả.", "Giao hàng nhanh, đóng gói cẩn thận.",
+            "Chất lượng tạm ổn so với giá tiền.", "Dùng được vài tuần thì bị lỗi, hơi thất vọng.",
+            "Rất hài lòng, sẽ ủng hộ shop tiếp.", "Màu sắc hơi khác so với hình.", "Pin dùng khá lâu."};
+    private static final String[] CUSTOMER_MESSAGES = {"Shop ơi, sản phẩm này còn hàng không?",
+            "Đơn hàng của mình khi nào được giao vậy shop?", "Mình muốn đổi sang màu khác được không?",
+            "Sản phẩm có bảo hành bao lâu ạ?", "Cảm ơn shop nhé!"};
+    private static final String[] ADMIN_MESSAGES = {"Chào bạn, sản phẩm vẫn còn hàng ạ.",
+            "Đơn hàng đang được giao, dự kiến 2-3 ngày nữa bạn nhận được.", "Bạn vui lòng gửi mã đơn hàng giúp shop nhé.",
+            "Sản phẩm được bảo hành 12 tháng chính hãng ạ."};
+    private static final String[] ORDER_FLOW = {"cho_xu_ly", "da_xac_nhan", "dang_giao", "da_giao"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.datagen.categories:20}")
+    private int categoryCount;
+
+    @Value("${app.datagen.brands:30}")
+    private int brandCount;
+
+    @Value("${app.datagen.users:10000}")
+    private int userCount;
+
+    @Value("${app.datagen.products:10000}")
+    private int productCount;
+
+    @Value("${app.datagen.variants-per-product:4}")
+    private int maxVariantsPerProduct;
+
+    @Value("${app.datagen.images-per-product:3}")
+    private int imagesPerProduct;
+
+    @Value("${app.datagen.reviews-per-product:5}")
+    private int averageReviewsPerProduct;
+
+    @Value("${app.datagen.orders:100000}")
+    private int orderCount;
+
+    @Value("${app.datagen.lines-per-order:5}")
+    private int maxLinesPerOrder;
+
+    @Value("${app.datagen.conversations:2000}")
+    private int conversationCount;
+
+    @Value("${app.datagen.messages-per-conversation:8}")
+    private int maxMessagesPerConversation;
+
+    @Value("${app.datagen.history-days:365}")
+    private int historyDays;
+
+    @Value("${app.datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.datagen.seed:42}")
+    private long seed;
+
+    private Random random;
+    private long now;
+
+    // ID ranges of the rows generated in this run (IDs are contiguous: assigned here)
+    private long firstCategoryId;
+    private long firstBrandId;
+    private long firstUserId;
+    private long firstVariantId;
+    private int variantCount;
+
+    // Per generated variant, indexed by (variantId - firstVariantId); what an order line needs
+    private BigDecimal[] variantPrices;
+    private BigDecimal[] variantDiscounts;
+
+    @Override
+    public void run(String... args) {
+        if (categoryCount <= 0 || brandCount <= 0 || userCount <= 0) {
+            throw new IllegalArgumentException("app.datagen.categories, brands and users must be positive.");
+        }
+        long start = System.currentTimeMillis();
+        random = new Random(seed);
+        now = System.currentTimeMillis();
+        warnIfBatchesAreNotRewritten();
+
+        generateCategories();
+        generateBrands();
+        generateUsers();
+        generateProducts();
+        generateOrders();
+        generateConversations();
+
+        logger.info("Synthetic data generated in {} s. Users log in with password '{}'. "
+                        + "Rebuild the search index with POST /api/admin/search-index/reindex if Elasticsearch is used.",
+                (System.currentTimeMillis() - start) / 1000, USER_PASSWORD);
+    }
+
+    // Without rewriteBatchedStatements the MySQL driver sends a batch as one statement per row
+    private void warnIfBatchesAreNotRewritten() {
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+        if (url != null && url.startsWith("jdbc:mysql") && !url.contains("rewriteBatchedStatements=true")) {
+            logger.warn("Add rewriteBatchedStatements=true to spring.datasource.url: batch inserts are much slower without it.");
+        }
+    }
+
+    private void generateCategories() {
+        firstCategoryId = nextId("danh_muc");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < categoryCount; i++) {
+            long id = firstCategoryId + i;
+            Timestamp created = pastTimestamp();
+            rows.add(new Object[]{id, CATEGORY_NAMES[i % CATEGORY_NAMES.length] + " " + id,
+                    "images/categories/" + id + ".png", created, created});
+        }
+        insert("INSERT INTO danh_muc (id, ten_danh_muc, hinh_anh, ngay_tao, ngay_cap_nhat) VALUES (?, ?, ?, ?, ?)", rows);
+        logger.info("Generated {} categories.", categoryCount);
+    }
+
+    private void generateBrands() {
+        firstBrandId = nextId("thuong_hieu");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < brandCount; i++) {
+            long id = firstBrandId + i;
+            Timestamp created = pastTimestamp();
+            rows.add(new Object[]{id, BRAND_NAMES[i % BRAND_NAMES.length] + " " + id, created, created});
+        }
+        insert("INSERT INTO thuong_hieu (id, ten_thuong_hieu, ngay_tao, ngay_cap_nhat) VALUES (?, ?, ?, ?)", rows);
+        logger.info("Generated {} brands.", brandCount);
+    }
+
+    private void generateUsers() {
+        firstUserId = nextId("nguoi_dung");
+        long firstAddressId = nextId("danh_sach_dia_chi");
+        String passwordHash = passwordEncoder.encode(USER_PASSWORD); // Shared: BCrypt per user would dominate the run
+
+        for (int from = 0; from < userCount; from += batchSize) {
+            List<Object[]> users = new ArrayList<>();
+            List<Object[]> addresses = new ArrayList<>();
+            for (int i = from; i < Math.min(from + batchSize, userCount); i++) {
+                long id = firstUserId + i;
+                Timestamp created = pastTimestamp();
+                users.add(new Object[]{id, "user" + id + "@datagen.local", fullName(i), passwordHash,
+                        "khach_hang", "kich_hoat", BigDecimal.ZERO, created, created});
+                addresses.add(new Object[]{firstAddressId + i, id, fullName(i), phoneNumber(i), address(i),
+                        true, created, created});
+            }
+            inTransaction(() -> {
+                insert("INSERT INTO nguoi_dung (id, email, ho_ten, mat_khau, vai_tro, trang_thai, "
+                        + "diem_khach_hang_than_thiet, ngay_tao, ngay_cap_nhat) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", users);
+                insert("INSERT INTO danh_sach_dia_chi (id, nguoi_dung_id, ho_ten_nguoi_nhan, so_dien_thoai, "
+                        + "dia_chi_cu_the, la_mac_dinh, ngay_tao, ngay_cap_nhat) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", addresses);
+            });
+        }
+        logger.info("Generated {} users with addresses.", userCount);
+    }
+
+    private void generateProducts() {
+        long firstProductId = nextId("san_pham");
+        long nextImageId = nextId("hinh_anh_san_pham");
+        long nextReviewId = nextId("danh_gia_san_pham");
+        firstVariantId = nextId("bien_the_san_pham");
+        variantPrices = new BigDecimal[productCount * Math.max(1, maxVariantsPerProduct)];
+        variantDiscounts = new BigDecimal[variantPrices.length];
+        variantCount = 0;
+        long reviewTotal = 0;
+
+        for (int from = 0; from < productCount; from += batchSize) {
+            List<Object[]> products = new ArrayList<>();
+            List<Object[]> images = new ArrayList<>();
+            List<Object[]> variants = new ArrayList<>();
+            List<Object[]> reviews = new ArrayList<>();
+            for (int i = from; i < Math.min(from + batchSize, productCount); i++) {
+                long productId = firstProductId + i;
+                Timestamp created = pastTimestamp();
+                int brandIndex = random.nextInt(brandCount);
+                String name = PRODUCT_NOUNS[random.nextInt(PRODUCT_NOUNS.length)] + " "
+                        + BRAND_NAMES[brandIndex % BRAND_NAMES.length] + " "
+                        + PRODUCT_ADJECTIVES[random.nextInt(PRODUCT_ADJECTIVES.length)] + " " + productId;
+                BigDecimal productDiscount = random.nextInt(4) == 0 ? new BigDecimal(5 * (1 + random.nextInt(6))) : null;
+
+                // Variants: the first one's price is the listing's variantZeroPrice
+                int variantsOfProduct = 1 + random.nextInt(Math.max(1, maxVariantsPerProduct));
+                BigDecimal basePrice = new BigDecimal(100 + random.nextInt(30_000)).multiply(new BigDecimal(1000));
+                BigDecimal minPrice = null;
+                BigDecimal maxPrice = null;
+                for (int v = 0; v < variantsOfProduct; v++) {
+                    long variantId = firstVariantId + variantCount;
+                    BigDecimal price = basePrice.add(basePrice.multiply(new BigDecimal(v)).divide(BigDecimal.TEN))
+                            .setScale(2, RoundingMode.HALF_UP);
+                    minPrice = minPrice == null || price.compareTo(minPrice) < 0 ? price : minPrice;
+                    maxPrice = maxPrice == null || price.compareTo(maxPrice) > 0 ? price : maxPrice;
+                    variants.add(new Object[]{variantId, productId, VARIANT_OPTIONS[(i + v) % VARIANT_OPTIONS.length],
+                            "GEN-" + productId + "-" + (v + 1), price, random.nextInt(500), created, created});
+                    variantPrices[variantCount] = price;
+                    variantDiscounts[variantCount] = productDiscount;
+                    variantCount++;
+                }
+                for (int m = 0; m < imagesPerProduct; m++) {
+                    images.add(new Object[]{nextImageId++, productId, "images/products/" + productId + "_" + (m + 1) + ".png", created});
+                }
+
+                // Reviews, with the denormalized counters kept consistent with them
+                int reviewsOfProduct = random.nextInt(2 * averageReviewsPerProduct + 1);
+                int[] starCounts = new int[6];
+                int ratingCount = 0;
+                long ratingSum = 0;
+                for (int r = 0; r < reviewsOfProduct; r++) {
+                    Integer stars = random.nextInt(10) == 0 ? null : starRating();
+                    String comment = stars != null && random.nextInt(5) == 0
+                            ? null : REVIEW_COMMENTS[random.nextInt(REVIEW_COMMENTS.length)];
+                    if (stars != null) {
+                        starCounts[stars]++;
+                        ratingCount++;
+                        ratingSum += stars;
+                    }
+                    reviews.add(new Object[]{nextReviewId++, productId, firstUserId + random.nextInt(userCount),
+                            stars, comment, timestampAfter(created.getTime())});
+                }
+                reviewTotal += reviewsOfProduct;
+
+                String description = description(name);
+                products.add(new Object[]{productId, name, SearchTextNormalizer.normalize(name),
+                        description, SearchTextNormalizer.normalize(description), firstCategoryId + random.nextInt(categoryCount), firstBrandId + brandIndex,
+                        "images/products/" + productId + "_main.png", productDiscount, created, created,
+                        minPrice, maxPrice, ratingCount > 0 ? (double) ratingSum / ratingCount : null, basePrice.setScale(2),
+                        reviewsOfProduct, ratingCount, ratingSum,
+                        starCounts[1], starCounts[2], starCounts[3], starCounts[4], starCounts[5]});
+            }
+            inTransaction(() -> {
+                insert("INSERT INTO san_pham (id, ten_san_pham, ten_khong_dau, mo_ta, mo_ta_khong_dau, danh_muc_id, thuong_hieu_id, "
+                        + "anh_chinh_url, phan_tram_giam_gia, ngay_tao, ngay_cap_nhat, min_price, max_price, average_rating, "
+                        + "variant_zero_price, review_count, rating_count, rating_sum, rating_1_count, rating_2_count, "
+                        + "rating_3_count, rating_4_count, rating_5_count) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", products);
+                insert("INSERT INTO hinh_anh_san_pham (id, san_pham_id, url_hinh_anh, ngay_tao) VALUES (?, ?, ?, ?)", images);
+                insert("INSERT INTO bien_the_san_pham (id, san_pham_id, ten_bien_the, sku, gia, so_luong_ton_kho, "
+                        + "ngay_tao, ngay_cap_nhat) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", variants);
+                insert("INSERT INTO danh_gia_san_pham (id, san_pham_id, nguoi_dung_id, diem_sao, binh_luan, "
+                        + "thoi_gian_danh_gia) VALUES (?, ?, ?, ?, ?, ?)", reviews);
+            });
+            logger.info("Generated {} / {} products.", Math.min(from + batchSize, productCount), productCount);
+        }
+        logger.info("Generated {} products, {} variants, {} reviews.", productCount, variantCount, reviewTotal);
+    }
+
+    private void generateOrders() {
+        long firstOrderId = nextId("don_hang");
+        long nextDetailId = nextId("chi_tiet_don_hang");
+        long nextHistoryId = nextId("lich_su_trang_thai_don_hang");
+        long lineTotal = 0;
+
+        for (int from = 0; from < orderCount; from += batchSize) {
+            List<Object[]> orders = new ArrayList<>();
+            List<Object[]> details = new ArrayList<>();
+            List<Object[]> history = new ArrayList<>();
+            for (int i = from; i < Math.min(from + batchSize, orderCount); i++) {
+                long orderId = firstOrderId + i;
+                int userIndex = skewedIndex(userCount); // Some customers order far more than others
+                long placedAt = pastTimestamp().getTime();
+
+                BigDecimal originalTotal = BigDecimal.ZERO;
+                BigDecimal subtotal = BigDecimal.ZERO;
+                for (int variantIndex : distinctVariants(1 + random.nextInt(Math.max(1, maxLinesPerOrder)))) {
+                    int quantity = 1 + random.nextInt(3);
+                    BigDecimal price = variantPrices[variantIndex];
+                    BigDecimal discount = variantDiscounts[variantIndex];
+                    BigDecimal unitPrice = discount != null
+                            ? price.multiply(BigDecimal.ONE.subtract(discount.divide(HUNDRED, 4, RoundingMode.HALF_UP)))
+                            : price;
+                    BigDecimal line = unitPrice.multiply(new BigDecimal(quantity)).setScale(2, RoundingMode.HALF_UP);
+                    originalTotal = originalTotal.add(price.multiply(new BigDecimal(quantity)));
+                    subtotal = subtotal.add(line);
+                    details.add(new Object[]{nextDetailId++, orderId, firstVariantId + variantIndex, quantity, price,
+                            discount != null ? discount : BigDecimal.ZERO, line});
+                    lineTotal++;
+                }
+
+                String status = orderStatus(placedAt);
+                long changedAt = placedAt;
+                for (String step : statusHistory(status)) {
+                    history.add(new Object[]{nextHistoryId++, orderId, step,
+                            "da_huy".equals(step) ? "Khách hàng hủy đơn" : null, new Timestamp(changedAt)});
+                    changedAt += TimeUnit.HOURS.toMillis(2 + random.nextInt(30));
+                }
+
+                orders.add(new Object[]{orderId, firstUserId + userIndex, fullName(userIndex), phoneNumber(userIndex),
+                        address(userIndex), originalTotal.setScale(2, RoundingMode.HALF_UP), SHIPPING_FEE,
+                        subtotal.add(SHIPPING_FEE), random.nextInt(5) == 0 ? "BANK_TRANSFER" : "COD",
+                        "da_giao".equals(status) ? "da_thanh_toan" : "chua_thanh_toan", status,
+                        subtotal.multiply(POINTS_EARNED_RATE).setScale(0, RoundingMode.DOWN),
+                        new Timestamp(placedAt), new Timestamp(Math.min(changedAt, now))});
+            }
+            inTransaction(() -> {
+                insert("INSERT INTO don_hang (id, nguoi_dung_id, ten_nguoi_nhan, so_dien_thoai_nguoi_nhan, "
+                        + "dia_chi_giao_hang, tong_tien_hang_goc, phi_van_chuyen, tong_thanh_toan, phuong_thuc_thanh_toan, "
+                        + "trang_thai_thanh_toan, trang_thai_don_hang, diem_tich_luy, ngay_dat_hang, ngay_cap_nhat) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", orders);
+                insert("INSERT INTO chi_tiet_don_hang (id, don_hang_id, bien_the_san_pham_id, so_luong, "
+                        + "gia_tai_thoi_diem_mua, phan_tram_giam_gia_san_pham, thanh_tien) VALUES (?, ?, ?, ?, ?, ?, ?)", details);
+                insert("INSERT INTO lich_su_trang_thai_don_hang (id, don_hang_id, trang_thai, ghi_chu, thoi_gian_cap_nhat) "
+                        + "VALUES (?, ?, ?, ?, ?)", history);
+            });
+            if ((from / batchSize) % 10 == 9) {
+                logger.info("Generated {} / {} orders.", Math.min(from + batchSize, orderCount), orderCount);
+            }
+        }
+        logger.info("Generated {} orders with {} lines.", orderCount, lineTotal);
+    }
+
+    private void generateConversations() {
+        List<Long> admins = jdbcTemplate.queryForList(
+                "SELECT id FROM nguoi_dung WHERE vai_tro = 'quan_tri' ORDER BY id LIMIT 1", Long.class);
+        Long adminId = admins.isEmpty() ? null : admins.get(0); // Without an admin only customers write
+        long firstConversationId = nextId("cuoc_hoi_thoai");
+        long nextMessageId = nextId("tin_nhan");
+        String[] statuses = {"moi", "dang_xu_ly", "da_dong"};
+
+        for (int from = 0; from < conversationCount; from += batchSize) {
+            List<Object[]> conversations = new ArrayList<>();
+            List<Object[]> messages = new ArrayList<>();
+            for (int i = from; i < Math.min(from + batchSize, conversationCount); i++) {
+                long conversationId = firstConversationId + i;
+                long customerId = firstUserId + random.nextInt(userCount);
+                long sentAt = pastTimestamp().getTime();
+                Timestamp created = new Timestamp(sentAt);
+                int messageCount = 1 + random.nextInt(Math.max(1, maxMessagesPerConversation));
+                for (int m = 0; m < messageCount; m++) {
+                    boolean fromAdmin = adminId != null && m % 2 == 1;
+                    messages.add(new Object[]{nextMessageId++, conversationId, fromAdmin ? adminId : customerId,
+                            fromAdmin ? ADMIN_MESSAGES[random.nextInt(ADMIN_MESSAGES.length)]
+                                    : CUSTOMER_MESSAGES[random.nextInt(CUSTOMER_MESSAGES.length)],
+                            new Timestamp(sentAt)});
+                    sentAt += TimeUnit.MINUTES.toMillis(1 + random.nextInt(120));
+                }
+                conversations.add(new Object[]{conversationId, customerId, "Hỗ trợ đơn hàng",
+                        statuses[random.nextInt(statuses.length)], created, new Timestamp(Math.min(sentAt, now))});
+            }
+            inTransaction(() -> {
+                insert("INSERT INTO cuoc_hoi_thoai (id, nguoi_dung_id, tieu_de, trang_thai, ngay_tao, ngay_cap_nhat) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", conversations);
+                insert("INSERT INTO tin_nhan (id, cuoc_hoi_thoai_id, nguoi_gui_id, noi_dung, thoi_gian_gui) "
+                        + "VALUES (?, ?, ?, ?, ?)", messages);
+            });
+        }
+        logger.info("Generated {} support conversations.", conversationCount);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+
+    // Uniform over the last history-days
+    private Timestamp pastTimestamp() {
+        return new Timestamp(now - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(historyDays)));
+    }
+
+    private Timestamp timestampAfter(long time) {
+        return new Timestamp(time + (long) (random.nextDouble() * (now - time)));
+    }
+
+    // Mostly good ratings, like a real shop
+    private int starRating() {
+        int roll = random.nextInt(100);
+        return roll < 45 ? 5 : roll < 75 ? 4 : roll < 88 ? 3 : roll < 94 ? 2 : 1;
+    }
+
+    // Index in [0, bound) biased towards the low end
+    private int skewedIndex(int bound) {
+        double r = random.nextDouble();
+        return (int) (r * r * bound);
+    }
+
+    private Set<Integer> distinctVariants(int count) {
+        Set<Integer> indexes = new HashSet<>(); // chi_tiet_don_hang allows each variant once per order
+        int wanted = Math.min(count, variantCount);
+        while (indexes.size() < wanted) {
+            indexes.add(skewedIndex(variantCount)); // Best sellers
+        }
+        return indexes;
+    }
+
+    // Older orders are mostly delivered; recent ones are still moving through the flow
+    private String orderStatus(long placedAt) {
+        int roll = random.nextInt(100);
+        if (roll < 8) {
+            return "da_huy";
+        }
+        long ageDays = TimeUnit.MILLISECONDS.toDays(now - placedAt);
+        if (ageDays > 7) {
+            return "da_giao";
+        }
+        return ORDER_FLOW[random.nextInt(ORDER_FLOW.length)];
+    }
+
+    private List<String> statusHistory(String finalStatus) {
+        List<String> steps = new ArrayList<>();
+        if ("da_huy".equals(finalStatus)) {
+            steps.add("cho_xu_ly");
+            steps.add("da_huy");
+            return steps;
+        }
+        for (String step : ORDER_FLOW) {
+            steps.add(step);
+            if (step.equals(finalStatus)) {
+                break;
+            }
+        }
+        return steps;
+    }
+
+    // Customer details are derived from the index, so orders can snapshot them without keeping users in memory
+    private static String fullName(int userIndex) {
+        return FAMILY_NAMES[userIndex % FAMILY_NAMES.length] + " "
+                + MIDDLE_NAMES[(userIndex / FAMILY_NAMES.length) % MIDDLE_NAMES.length] + " "
+                + GIVEN_NAMES[(userIndex / 7) % GIVEN_NAMES.length];
+    }
+
+    private static String phoneNumber(int userIndex) {
+        return String.format("09%08d", userIndex % 100_000_000);
+    }
+
+    private static String address(int userIndex) {
+        return (1 + userIndex % 299) + " " + STREETS[userIndex % STREETS.length] + ", " + CITIES[(userIndex / 3) % CITIES.length];
+    }
+
+    private static String description(String name) {
+        return name + " chính hãng, bảo hành 12 tháng.\n"
+                + "Thiết kế hiện đại, chất liệu bền bỉ.\n"
+                + "Hiệu năng ổn định cho nhu cầu hằng ngày.\n"
+                + "Đổi trả miễn phí trong 7 ngày nếu có lỗi từ nhà sản xuất.\n"
+                + "Giao hàng toàn quốc, thanh toán khi nhận hàng.";
+    }
+}
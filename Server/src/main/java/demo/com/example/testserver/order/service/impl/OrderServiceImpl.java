@@ -15,13 +15,14 @@ import demo.com.example.testserver.order.service.OrderService;
 import demo.com.example.testserver.product.model.Product;
 import demo.com.example.testserver.product.model.ProductVariant;
 import demo.com.example.testserver.product.repository.ProductVariantRepository;
+import demo.com.example.testserver.product.service.ProductDetailCache;
+import demo.com.example.testserver.product.service.StockReservationService;
 import demo.com.example.testserver.user.model.Address;
 import demo.com.example.testserver.user.model.User;
 import demo.com.example.testserver.user.repository.AddressRepository;
 import demo.com.example.testserver.user.repository.UserRepository;
-import demo.com.example.testserver.common.service.EmailService;
+import demo.com.example.testserver.common.service.EmailOutboxService;
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,7 +35,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Calendar;
 import java.util.TimeZone;
@@ -62,13 +66,16 @@ public class OrderServiceImpl implements OrderService {
     private CouponRepository couponRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private EmailOutboxService emailOutboxService;
 
     @Autowired
-    private EmailService emailService;
+    private OrderMapper orderMapper; // Add the OrderMapper
 
     @Autowired
-    private OrderMapper orderMapper; // Add the OrderMapper
+    private ProductDetailCache productDetailCache;
+
+    @Autowired
+    private StockReservationService stockReservationService;
 
     @Override
     @Transactional
@@ -93,14 +100,19 @@ public class OrderServiceImpl implements OrderService {
 
         BigDecimal subtotal = BigDecimal.ZERO;
 
-        // Step 1: Calculate subtotal based on product prices, quantities, and individual product discounts
+        // Step 1: Reserve the stock of all lines up front (guarded UPDATEs, fails before anything else is written)
+        Map<Integer, Integer> quantitiesByVariantId = new LinkedHashMap<>();
         for (OrderDetailRequestDTO itemDTO : requestDTO.getOrderDetails()) {
-            ProductVariant variant = productVariantRepository.findById(itemDTO.getProductVariantId())
-                    .orElseThrow(() -> new EntityNotFoundException("ProductVariant not found with ID: " + itemDTO.getProductVariantId()));
+            quantitiesByVariantId.merge(itemDTO.getProductVariantId(), itemDTO.getQuantity(), Integer::sum);
+        }
+        stockReservationService.reserve(quantitiesByVariantId);
+        // All variants and their products in one query, after the reservation so the stock read is current
+        Map<Integer, ProductVariant> variantsById = productVariantRepository.findWithProductByIdIn(quantitiesByVariantId.keySet()).stream()
+                .collect(Collectors.toMap(ProductVariant::getId, Function.identity()));
 
-            if (variant.getStockQuantity() < itemDTO.getQuantity()) {
-                throw new IllegalArgumentException("Insufficient stock for ProductVariant ID: " + variant.getId() + ". Requested: " + itemDTO.getQuantity() + ", Available: " + variant.getStockQuantity());
-            }
+        // Step 2: Calculate subtotal based on product prices, quantities, and individual product discounts
+        for (OrderDetailRequestDTO itemDTO : requestDTO.getOrderDetails()) {
+            ProductVariant variant = variantsById.get(itemDTO.getProductVariantId());
 
             Product product = variant.getProduct();
             if (product == null) {
@@ -140,12 +152,11 @@ public class OrderServiceImpl implements OrderService {
             subtotal = subtotal.add(lineTotal);
             order.getOrderDetails().add(orderDetail);
 
-            variant.setStockQuantity(variant.getStockQuantity() - itemDTO.getQuantity());
-            productVariantRepository.save(variant);
+            productDetailCache.invalidate(product.getId()); // Cached detail carries variant stock
         }
         order.setSubtotal(subtotal);
 
-        // Step 2: Apply coupon discount, if any
+        // Step 3: Apply coupon discount, if any
         BigDecimal couponDiscountValue = BigDecimal.ZERO;
         if (requestDTO.getCouponCode() != null && !requestDTO.getCouponCode().trim().isEmpty()) {
             Coupon coupon = couponRepository.findByCode(requestDTO.getCouponCode())
@@ -160,7 +171,7 @@ public class OrderServiceImpl implements OrderService {
             couponRepository.save(coupon);
         }
 
-        // Step 3: Apply points discount, if any
+        // Step 4: Apply points discount, if any
         BigDecimal numPointsToUse = requestDTO.getPointsToUse() != null ? requestDTO.getPointsToUse() : BigDecimal.ZERO;
         numPointsToUse = numPointsToUse.setScale(0, RoundingMode.DOWN);
 
@@ -206,19 +217,9 @@ public class OrderServiceImpl implements OrderService {
         order.getStatusHistory().add(initialHistory);
         
         Order savedOrder = orderRepository.save(order);
-// Gửi email xác nhận đơn hàng
-        try {
-            emailService.sendOrderConfirmationEmail(
-                user.getEmail(), // recipientEmail
-                user.getFullName(), // fullName (assuming User entity has getFullName())
-                savedOrder.getId(), // orderId
-                savedOrder.getTotalAmount() // totalAmount
-            );
-            logger.info("Order confirmation email sent to user: {}", user.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send order confirmation email to user: {}", user.getEmail(), e);
-            // Xử lý lỗi gửi email (ví dụ: log lỗi, không ném exception để không ảnh hưởng đến việc tạo đơn hàng)
-        }
+        // Order confirmation email: only written to the outbox here, sent by a worker once the order commits
+        emailOutboxService.enqueueOrderConfirmation(
+                user.getEmail(), user.getFullName(), savedOrder.getId(), savedOrder.getTotalAmount());
 
         logger.info("Order created successfully with ID: {}", savedOrder.getId());
 
@@ -1,14 +1,19 @@
 package demo.com.example.testserver.product.controller;
 
+import demo.com.example.testserver.common.web.HttpCaching;
+import demo.com.example.testserver.common.web.ResourceVersion;
 import demo.com.example.testserver.product.dto.BrandDTO;
 import demo.com.example.testserver.product.dto.CreateBrandRequestDTO;
 import demo.com.example.testserver.product.dto.UpdateBrandRequestDTO;
+import demo.com.example.testserver.product.service.CatalogVersionService;
 import demo.com.example.testserver.product.service.BrandService; // Assuming this service exists
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -27,14 +32,24 @@ public class BrandController {
     @Autowired
     private BrandService brandService; // Inject BrandService
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Value("${app.http.cache-control.brands:public, max-age=300}")
+    private String brandsCacheControl;
+
     @GetMapping
-    public ResponseEntity<List<BrandDTO>> getAllBrands() {
+    public ResponseEntity<?> getAllBrands(@RequestHeader HttpHeaders requestHeaders) {
         try {
+            ResourceVersion version = catalogVersionService.getBrandsVersion();
+            if (HttpCaching.isNotModified(requestHeaders, version)) {
+                return HttpCaching.notModified(version, brandsCacheControl);
+            }
             List<BrandDTO> brands = brandService.findAllBrands();
             if (brands.isEmpty()) {
                 return ResponseEntity.noContent().build();
             }
-            return ResponseEntity.ok(brands);
+            return HttpCaching.ok(version, brandsCacheControl).body(brands);
         } catch (Exception e) {
             logger.error("Error fetching all brands", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -42,11 +57,16 @@ public class BrandController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBrandById(@PathVariable Integer id) {
+    public ResponseEntity<?> getBrandById(@PathVariable Integer id, @RequestHeader HttpHeaders requestHeaders) {
         try {
             logger.info("Received request to get brand by ID: {}", id);
+            // Same table-wide version as the brand list
+            ResourceVersion version = catalogVersionService.getBrandsVersion();
+            if (HttpCaching.isNotModified(requestHeaders, version)) {
+                return HttpCaching.notModified(version, brandsCacheControl);
+            }
             BrandDTO brandDTO = brandService.findBrandById(id);
-            return ResponseEntity.ok(brandDTO);
+            return HttpCaching.ok(version, brandsCacheControl).body(brandDTO);
         } catch (EntityNotFoundException e) {
             logger.warn("Brand not found for ID {}: {}", id, e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -1,18 +1,23 @@
 package demo.com.example.testserver.product.controller;
 
+import demo.com.example.testserver.common.web.HttpCaching;
+import demo.com.example.testserver.common.web.ResourceVersion;
 import demo.com.example.testserver.product.dto.CategoryDTO;
 import demo.com.example.testserver.product.dto.CreateCategoryRequestDTO;
 import demo.com.example.testserver.product.dto.UpdateCategoryRequestDTO;
+import demo.com.example.testserver.product.service.CatalogVersionService;
 import demo.com.example.testserver.product.service.CategoryService; // Assuming this service exists
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page; // Import Page
 import org.springframework.data.domain.Pageable; // Import Pageable
 import org.springframework.data.web.PageableDefault; // Import PageableDefault
 import org.springframework.format.annotation.DateTimeFormat; // Import DateTimeFormat
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -32,22 +37,33 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService; // Inject CategoryService
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Value("${app.http.cache-control.categories:public, max-age=300}")
+    private String categoriesCacheControl;
+
     @GetMapping
-    public ResponseEntity<Page<CategoryDTO>> getAllCategories(
+    public ResponseEntity<?> getAllCategories(
             @PageableDefault(size = 10, sort = "createdDate,desc") Pageable pageable, // Add Pageable parameter
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date startDate, // Add startDate
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate // Add endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date endDate, // Add endDate
+            @RequestHeader HttpHeaders requestHeaders
     ) {
         try {
             logger.info("Received request to get categories with pageable: {}, startDate: {}, endDate: {}", pageable, startDate, endDate);
+            ResourceVersion version = catalogVersionService.getCategoriesVersion();
+            if (HttpCaching.isNotModified(requestHeaders, version)) {
+                return HttpCaching.notModified(version, categoriesCacheControl);
+            }
             Page<CategoryDTO> categoriesPage = categoryService.findCategories(pageable, startDate, endDate);
             if (categoriesPage.isEmpty()) {
                 logger.info("No categories found for the given criteria.");
                 // Return empty page instead of noContent for consistency with pagination
-                return ResponseEntity.ok(categoriesPage);
+                return HttpCaching.ok(version, categoriesCacheControl).body(categoriesPage);
             }
             logger.info("Returning page {} of categories.", categoriesPage.getNumber());
-            return ResponseEntity.ok(categoriesPage);
+            return HttpCaching.ok(version, categoriesCacheControl).body(categoriesPage);
         } catch (Exception e) {
             logger.error("Error fetching categories with pagination", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -55,11 +71,16 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCategoryById(@PathVariable Integer id) {
+    public ResponseEntity<?> getCategoryById(@PathVariable Integer id, @RequestHeader HttpHeaders requestHeaders) {
         try {
             logger.info("Received request to get category by ID: {}", id);
+            // Categories are few and rarely edited: one version covers the whole table
+            ResourceVersion version = catalogVersionService.getCategoriesVersion();
+            if (HttpCaching.isNotModified(requestHeaders, version)) {
+                return HttpCaching.notModified(version, categoriesCacheControl);
+            }
             CategoryDTO categoryDTO = categoryService.findCategoryById(id);
-            return ResponseEntity.ok(categoryDTO);
+            return HttpCaching.ok(version, categoriesCacheControl).body(categoryDTO);
         } catch (EntityNotFoundException e) {
             logger.warn("Category not found for ID {}: {}", id, e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
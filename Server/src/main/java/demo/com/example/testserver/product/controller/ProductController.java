@@ -1,21 +1,32 @@
 package demo.com.example.testserver.product.controller;
 
+import demo.com.example.testserver.common.dto.CursorPageDTO;
+import demo.com.example.testserver.common.web.HttpCaching;
+import demo.com.example.testserver.common.web.ResourceVersion;
 import demo.com.example.testserver.product.dto.CreateProductRequestDTO; // Import new DTO
+import demo.com.example.testserver.product.dto.FacetedProductPageDTO;
+import demo.com.example.testserver.product.dto.ProductCursorPageDTO;
 import demo.com.example.testserver.product.dto.ProductDTO;
 import demo.com.example.testserver.product.dto.UpdateProductRequestDTO; // Import Update DTO
 import demo.com.example.testserver.product.dto.CreateProductReviewRequestDTO; // Import for reviews
 import demo.com.example.testserver.product.dto.ProductReviewDTO; // Import for reviews
+import demo.com.example.testserver.product.dto.ProductReviewPageDTO;
+import demo.com.example.testserver.product.dto.ProductSuggestionsDTO;
 import org.springframework.security.core.userdetails.UserDetails; // Import UserDetails
+import demo.com.example.testserver.product.service.CatalogVersionService;
 import demo.com.example.testserver.product.service.ProductService;
+import demo.com.example.testserver.product.service.ProductSuggestionService;
 import jakarta.persistence.EntityNotFoundException; // Import
 import jakarta.validation.Valid; // Import for validation
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal; // Import for authentication
@@ -26,6 +37,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -45,8 +57,20 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSuggestionService productSuggestionService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Value("${app.http.cache-control.product-list:public, max-age=30}")
+    private String productListCacheControl;
+
+    @Value("${app.http.cache-control.product-detail:public, max-age=60}")
+    private String productDetailCacheControl;
+
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> getProducts(
+    public ResponseEntity<?> getProducts(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Integer categoryId,
             @RequestParam(required = false) Integer brandId,
@@ -56,9 +80,34 @@ public class ProductController {
             @RequestParam(defaultValue = "createdDate") String sortBy, // Default sort: newest
             @RequestParam(defaultValue = "desc") String sortDir,      // Default direction: descending
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean keyset, // Cursor-based listing for infinite scroll
+            @RequestParam(required = false) String cursor,        // Continuation token from the previous keyset response
+            @RequestParam(defaultValue = "false") boolean facets, // Attach filter sidebar counts to the response
+            @RequestHeader HttpHeaders requestHeaders
     ) {
         try {
+            // Any catalog write changes the listing version, so a revalidation is answered before searching
+            ResourceVersion version = catalogVersionService.getProductListingVersion();
+            if (HttpCaching.isNotModified(requestHeaders, version)) {
+                return HttpCaching.notModified(version, productListCacheControl);
+            }
+
+            if (keyset || (cursor != null && !cursor.isBlank())) {
+                // Keyset mode ignores 'page': position is carried by the cursor and no total count is computed
+                CursorPageDTO<ProductDTO> productSlice = productService.findProductsByCursor(
+                        size, cursor, search, categoryId, brandId, minPrice, maxPrice, minRating, sortBy, sortDir
+                );
+                if (productSlice.isEmpty()) {
+                    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+                }
+                if (facets && (cursor == null || cursor.isBlank())) { // First slice only
+                    return HttpCaching.ok(version, productListCacheControl).body(new ProductCursorPageDTO(productSlice,
+                            productService.findProductFacets(search, categoryId, brandId, minPrice, maxPrice, minRating)));
+                }
+                return HttpCaching.ok(version, productListCacheControl).body(productSlice);
+            }
+
             Pageable pageable = PageRequest.of(page, size); // Sort will be handled by the service
 
             Page<ProductDTO> productPage = productService.findProducts(
@@ -68,7 +117,11 @@ public class ProductController {
             if (productPage.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return ResponseEntity.ok(productPage);
+            if (facets) {
+                return HttpCaching.ok(version, productListCacheControl).body(new FacetedProductPageDTO(productPage,
+                        productService.findProductFacets(search, categoryId, brandId, minPrice, maxPrice, minRating)));
+            }
+            return HttpCaching.ok(version, productListCacheControl).body(productPage);
 
         } catch (IllegalArgumentException e) {
              logger.warn("Invalid request parameter: {}", e.getMessage());
@@ -109,12 +162,26 @@ public class ProductController {
         }
     }
     
+    // Typeahead for the search box: top product and category names for the text typed so far
+    @GetMapping("/suggest")
+    public ResponseEntity<ProductSuggestionsDTO> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "8") int size
+    ) {
+        logger.debug("Suggest request for '{}' (size {})", query, size);
+        return ResponseEntity.ok(productSuggestionService.suggest(query, size));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id, @RequestHeader HttpHeaders requestHeaders) {
         try {
             logger.info("Received request to get product by ID: {}", id);
+            ResourceVersion version = catalogVersionService.getProductVersion(id);
+            if (HttpCaching.isNotModified(requestHeaders, version)) {
+                return HttpCaching.notModified(version, productDetailCacheControl);
+            }
             ProductDTO productDTO = productService.findProductById(id);
-            return ResponseEntity.ok(productDTO);
+            return HttpCaching.ok(version, productDetailCacheControl).body(productDTO);
         } catch (EntityNotFoundException e) {
             logger.warn("Product not found for ID {}: {}", id, e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -217,6 +284,26 @@ public class ProductController {
         }
     }
 
+    @GetMapping("/{productId}/reviews")
+    public ResponseEntity<?> getProductReviews(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            ProductReviewPageDTO reviewPage = productService.findReviews(productId, cursor, size);
+            return ResponseEntity.ok(reviewPage);
+        } catch (EntityNotFoundException e) {
+            logger.warn("Cannot list reviews: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid review listing request: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error fetching reviews for product ID {}: {}", productId, e.getMessage(), e);
+            return new ResponseEntity<>("Error fetching reviews.", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @PostMapping("/{productId}/reviews")
     public ResponseEntity<?> addProductReview(
             @PathVariable Long productId,
@@ -0,0 +1,43 @@
+package demo.com.example.testserver.product.dto;
+
+import java.util.Date;
+
+public class CatalogIndexStatsDTO {
+    private boolean loaded;
+    private int productCount;
+    private int categoryCount;
+    private int brandCount;
+    private int pendingChanges;          // Committed product changes not yet applied to the snapshot
+    private long appliedChanges;
+    private long failedRefreshes;
+    private long lastReloadDurationMillis;
+    private Date lastReloadAt;           // Last full load from the database
+    private Date lastRefreshAt;          // Last incremental apply of pending changes
+    private Date snapshotBuiltAt;
+
+    // Getters
+    public boolean isLoaded() { return loaded; }
+    public int getProductCount() { return productCount; }
+    public int getCategoryCount() { return categoryCount; }
+    public int getBrandCount() { return brandCount; }
+    public int getPendingChanges() { return pendingChanges; }
+    public long getAppliedChanges() { return appliedChanges; }
+    public long getFailedRefreshes() { return failedRefreshes; }
+    public long getLastReloadDurationMillis() { return lastReloadDurationMillis; }
+    public Date getLastReloadAt() { return lastReloadAt; }
+    public Date getLastRefreshAt() { return lastRefreshAt; }
+    public Date getSnapshotBuiltAt() { return snapshotBuiltAt; }
+
+    // Setters
+    public void setLoaded(boolean loaded) { this.loaded = loaded; }
+    public void setProductCount(int productCount) { this.productCount = productCount; }
+    public void setCategoryCount(int categoryCount) { this.categoryCount = categoryCount; }
+    public void setBrandCount(int brandCount) { this.brandCount = brandCount; }
+    public void setPendingChanges(int pendingChanges) { this.pendingChanges = pendingChanges; }
+    public void setAppliedChanges(long appliedChanges) { this.appliedChanges = appliedChanges; }
+    public void setFailedRefreshes(long failedRefreshes) { this.failedRefreshes = failedRefreshes; }
+    public void setLastReloadDurationMillis(long lastReloadDurationMillis) { this.lastReloadDurationMillis = lastReloadDurationMillis; }
+    public void setLastReloadAt(Date lastReloadAt) { this.lastReloadAt = lastReloadAt; }
+    public void setLastRefreshAt(Date lastRefreshAt) { this.lastRefreshAt = lastRefreshAt; }
+    public void setSnapshotBuiltAt(Date snapshotBuiltAt) { this.snapshotBuiltAt = snapshotBuiltAt; }
+}
@@ -0,0 +1,35 @@
+package demo.com.example.testserver.product.dto;
+
+import java.math.BigDecimal;
+
+public class FacetBucketDTO {
+    private Integer id;       // Category/brand ID to pass back as categoryId/brandId (null for range buckets)
+    private String label;
+    private BigDecimal from;  // Inclusive lower bound for price and rating buckets
+    private BigDecimal to;    // Exclusive upper bound for price buckets; null when open-ended
+    private long count;
+
+    public FacetBucketDTO() {}
+
+    public FacetBucketDTO(Integer id, String label, BigDecimal from, BigDecimal to, long count) {
+        this.id = id;
+        this.label = label;
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+
+    // Getters
+    public Integer getId() { return id; }
+    public String getLabel() { return label; }
+    public BigDecimal getFrom() { return from; }
+    public BigDecimal getTo() { return to; }
+    public long getCount() { return count; }
+
+    // Setters
+    public void setId(Integer id) { this.id = id; }
+    public void setLabel(String label) { this.label = label; }
+    public void setFrom(BigDecimal from) { this.from = from; }
+    public void setTo(BigDecimal to) { this.to = to; }
+    public void setCount(long count) { this.count = count; }
+}
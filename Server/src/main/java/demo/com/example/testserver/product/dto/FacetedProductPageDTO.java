@@ -0,0 +1,19 @@
+package demo.com.example.testserver.product.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * A product listing page with the filter sidebar counts attached (GET /api/products?facets=true).
+ * Serializes like a regular page plus a "facets" property, so existing clients are unaffected.
+ */
+public class FacetedProductPageDTO extends PageImpl<ProductDTO> {
+    private final ProductFacetsDTO facets;
+
+    public FacetedProductPageDTO(Page<ProductDTO> page, ProductFacetsDTO facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public ProductFacetsDTO getFacets() { return facets; }
+}
@@ -0,0 +1,32 @@
+package demo.com.example.testserver.product.dto;
+
+public class HotStockStatsDTO {
+    private Integer variantId;
+    private Long productId;
+    private int available;             // Stock left in the ledger
+    private int reserved;              // Held by orders that have not committed yet
+    private int unflushedSold;         // Sold but not yet written to so_luong_ton_kho
+    private int stripes;
+    private long expiredReservations;  // Ledger-wide: reservations handed back by the TTL
+    private long oversoldUnits;        // Ledger-wide: units sold beyond so_luong_ton_kho at flush; should stay 0
+
+    // Getters
+    public Integer getVariantId() { return variantId; }
+    public Long getProductId() { return productId; }
+    public int getAvailable() { return available; }
+    public int getReserved() { return reserved; }
+    public int getUnflushedSold() { return unflushedSold; }
+    public int getStripes() { return stripes; }
+    public long getExpiredReservations() { return expiredReservations; }
+    public long getOversoldUnits() { return oversoldUnits; }
+
+    // Setters
+    public void setVariantId(Integer variantId) { this.variantId = variantId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    public void setAvailable(int available) { this.available = available; }
+    public void setReserved(int reserved) { this.reserved = reserved; }
+    public void setUnflushedSold(int unflushedSold) { this.unflushedSold = unflushedSold; }
+    public void setStripes(int stripes) { this.stripes = stripes; }
+    public void setExpiredReservations(long expiredReservations) { this.expiredReservations = expiredReservations; }
+    public void setOversoldUnits(long oversoldUnits) { this.oversoldUnits = oversoldUnits; }
+}
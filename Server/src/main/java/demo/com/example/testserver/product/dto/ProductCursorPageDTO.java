@@ -0,0 +1,23 @@
+package demo.com.example.testserver.product.dto;
+
+import demo.com.example.testserver.common.dto.CursorPageDTO;
+
+/**
+ * A keyset slice of the product listing with the filter sidebar counts attached.
+ * Facets are only computed for the first slice, since they do not change while the client scrolls.
+ */
+public class ProductCursorPageDTO extends CursorPageDTO<ProductDTO> {
+    private ProductFacetsDTO facets; // Null on follow-up slices
+
+    public ProductCursorPageDTO() {
+        super();
+    }
+
+    public ProductCursorPageDTO(CursorPageDTO<ProductDTO> slice, ProductFacetsDTO facets) {
+        super(slice.getContent(), slice.getSize(), slice.getNextCursor());
+        this.facets = facets;
+    }
+
+    public ProductFacetsDTO getFacets() { return facets; }
+    public void setFacets(ProductFacetsDTO facets) { this.facets = facets; }
+}
@@ -27,7 +27,8 @@ public class ProductDTO {
     private BigDecimal maxPrice; // Calculated max price from variants
     private Integer variantCount; // Added: Number of variants
     private List<ProductVariantDTO> variants; // Added: List of variants
-    private List<ProductReviewDTO> reviews; // Added: List of reviews
+    private List<ProductReviewDTO> reviews; // Added: List of reviews (detail view carries only the newest few)
+    private ProductReviewSummaryDTO reviewSummary; // Aggregate review counts and rating histogram (detail view only)
 
     // Explicit No-Argument Constructor
     public ProductDTO() {
@@ -109,6 +110,7 @@ public class ProductDTO {
     public Integer getVariantCount() { return variantCount; } // Getter for variantCount
     public List<ProductVariantDTO> getVariants() { return variants; } // Getter for variants
     public List<ProductReviewDTO> getReviews() { return reviews; } // Getter for reviews
+    public ProductReviewSummaryDTO getReviewSummary() { return reviewSummary; }
 
     // --- Setters ---
     public void setId(Long id) { this.id = id; }
@@ -127,4 +129,5 @@ public class ProductDTO {
     public void setVariantCount(Integer variantCount) { this.variantCount = variantCount; } // Setter for variantCount
     public void setVariants(List<ProductVariantDTO> variants) { this.variants = variants; } // Setter for variants
     public void setReviews(List<ProductReviewDTO> reviews) { this.reviews = reviews; } // Setter for reviews
+    public void setReviewSummary(ProductReviewSummaryDTO reviewSummary) { this.reviewSummary = reviewSummary; }
 }
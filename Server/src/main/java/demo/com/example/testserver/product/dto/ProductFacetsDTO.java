@@ -0,0 +1,27 @@
+package demo.com.example.testserver.product.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filter sidebar counts for the current product search. Every count is taken over the products
+ * matching the full set of active filters.
+ */
+public class ProductFacetsDTO {
+    private List<FacetBucketDTO> categories = new ArrayList<>(); // Most populated first
+    private List<FacetBucketDTO> brands = new ArrayList<>();     // Most populated first
+    private List<FacetBucketDTO> priceRanges = new ArrayList<>(); // Fixed-width buckets over minPrice, ascending
+    private List<FacetBucketDTO> ratings = new ArrayList<>();     // "N stars and up", highest first
+
+    // Getters
+    public List<FacetBucketDTO> getCategories() { return categories; }
+    public List<FacetBucketDTO> getBrands() { return brands; }
+    public List<FacetBucketDTO> getPriceRanges() { return priceRanges; }
+    public List<FacetBucketDTO> getRatings() { return ratings; }
+
+    // Setters
+    public void setCategories(List<FacetBucketDTO> categories) { this.categories = categories; }
+    public void setBrands(List<FacetBucketDTO> brands) { this.brands = brands; }
+    public void setPriceRanges(List<FacetBucketDTO> priceRanges) { this.priceRanges = priceRanges; }
+    public void setRatings(List<FacetBucketDTO> ratings) { this.ratings = ratings; }
+}
@@ -0,0 +1,25 @@
+package demo.com.example.testserver.product.dto;
+
+import demo.com.example.testserver.common.dto.CursorPageDTO;
+
+import java.util.List;
+
+/**
+ * One keyset page of a product's reviews (newest first). The rating summary is only
+ * attached to the first page, since it does not change while the client scrolls.
+ */
+public class ProductReviewPageDTO extends CursorPageDTO<ProductReviewDTO> {
+    private ProductReviewSummaryDTO summary; // Null on follow-up pages
+
+    public ProductReviewPageDTO() {
+        super();
+    }
+
+    public ProductReviewPageDTO(List<ProductReviewDTO> content, int size, String nextCursor, ProductReviewSummaryDTO summary) {
+        super(content, size, nextCursor);
+        this.summary = summary;
+    }
+
+    public ProductReviewSummaryDTO getSummary() { return summary; }
+    public void setSummary(ProductReviewSummaryDTO summary) { this.summary = summary; }
+}
@@ -0,0 +1,30 @@
+package demo.com.example.testserver.product.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ProductReviewSummaryDTO {
+    private long totalReviews;   // All reviews, including comment-only ones
+    private long ratingCount;    // Reviews that carry a star rating
+    private Double averageRating;
+    private Map<Integer, Long> ratingHistogram; // Star (1-5) -> number of reviews
+
+    public ProductReviewSummaryDTO() {
+        this.ratingHistogram = new LinkedHashMap<>();
+        for (int star = 1; star <= 5; star++) {
+            this.ratingHistogram.put(star, 0L);
+        }
+    }
+
+    // Getters
+    public long getTotalReviews() { return totalReviews; }
+    public long getRatingCount() { return ratingCount; }
+    public Double getAverageRating() { return averageRating; }
+    public Map<Integer, Long> getRatingHistogram() { return ratingHistogram; }
+
+    // Setters
+    public void setTotalReviews(long totalReviews) { this.totalReviews = totalReviews; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+    public void setAverageRating(Double averageRating) { this.averageRating = averageRating; }
+    public void setRatingHistogram(Map<Integer, Long> ratingHistogram) { this.ratingHistogram = ratingHistogram; }
+}
@@ -0,0 +1,27 @@
+package demo.com.example.testserver.product.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typeahead response for GET /api/products/suggest.
+ */
+public class ProductSuggestionsDTO {
+    private List<SuggestionDTO> products = new ArrayList<>();
+    private List<SuggestionDTO> categories = new ArrayList<>();
+
+    public ProductSuggestionsDTO() {}
+
+    public ProductSuggestionsDTO(List<SuggestionDTO> products, List<SuggestionDTO> categories) {
+        this.products = products;
+        this.categories = categories;
+    }
+
+    // Getters
+    public List<SuggestionDTO> getProducts() { return products; }
+    public List<SuggestionDTO> getCategories() { return categories; }
+
+    // Setters
+    public void setProducts(List<SuggestionDTO> products) { this.products = products; }
+    public void setCategories(List<SuggestionDTO> categories) { this.categories = categories; }
+}
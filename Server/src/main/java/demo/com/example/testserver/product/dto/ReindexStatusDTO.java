@@ -0,0 +1,43 @@
+package demo.com.example.testserver.product.dto;
+
+import java.util.Date;
+
+public class ReindexStatusDTO {
+    private String state;               // IDLE, RUNNING, COMPLETED or FAILED
+    private String targetIndex;         // Versioned index being built, e.g. products_20240101120000
+    private Date startedAt;
+    private Date finishedAt;
+    private long totalProducts;         // Row count of san_pham when the job started
+    private long indexedProducts;
+    private double percentComplete;
+    private long elapsedMillis;
+    private double documentsPerSecond;
+    private int catchUpProducts;        // Products changed during the run and re-queued after the alias swap
+    private String errorMessage;
+
+    // Getters
+    public String getState() { return state; }
+    public String getTargetIndex() { return targetIndex; }
+    public Date getStartedAt() { return startedAt; }
+    public Date getFinishedAt() { return finishedAt; }
+    public long getTotalProducts() { return totalProducts; }
+    public long getIndexedProducts() { return indexedProducts; }
+    public double getPercentComplete() { return percentComplete; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public double getDocumentsPerSecond() { return documentsPerSecond; }
+    public int getCatchUpProducts() { return catchUpProducts; }
+    public String getErrorMessage() { return errorMessage; }
+
+    // Setters
+    public void setState(String state) { this.state = state; }
+    public void setTargetIndex(String targetIndex) { this.targetIndex = targetIndex; }
+    public void setStartedAt(Date startedAt) { this.startedAt = startedAt; }
+    public void setFinishedAt(Date finishedAt) { this.finishedAt = finishedAt; }
+    public void setTotalProducts(long totalProducts) { this.totalProducts = totalProducts; }
+    public void setIndexedProducts(long indexedProducts) { this.indexedProducts = indexedProducts; }
+    public void setPercentComplete(double percentComplete) { this.percentComplete = percentComplete; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    public void setDocumentsPerSecond(double documentsPerSecond) { this.documentsPerSecond = documentsPerSecond; }
+    public void setCatchUpProducts(int catchUpProducts) { this.catchUpProducts = catchUpProducts; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+}
@@ -0,0 +1,41 @@
+package demo.com.example.testserver.product.dto;
+
+public class SearchBenchmarkResultDTO {
+    private String engine;
+    private String query;                // ProductSearchCriteria.describe()
+    private int estimatedCost;
+    private boolean routedFirst;         // Whether the router would currently try this engine first for the query
+    private int iterations;
+    private int failures;
+    private long totalHits;              // Total elements reported by the last successful run
+    private double meanMillis;
+    private double p50Millis;
+    private double p95Millis;
+    private double maxMillis;
+
+    // Getters
+    public String getEngine() { return engine; }
+    public String getQuery() { return query; }
+    public int getEstimatedCost() { return estimatedCost; }
+    public boolean isRoutedFirst() { return routedFirst; }
+    public int getIterations() { return iterations; }
+    public int getFailures() { return failures; }
+    public long getTotalHits() { return totalHits; }
+    public double getMeanMillis() { return meanMillis; }
+    public double getP50Millis() { return p50Millis; }
+    public double getP95Millis() { return p95Millis; }
+    public double getMaxMillis() { return maxMillis; }
+
+    // Setters
+    public void setEngine(String engine) { this.engine = engine; }
+    public void setQuery(String query) { this.query = query; }
+    public void setEstimatedCost(int estimatedCost) { this.estimatedCost = estimatedCost; }
+    public void setRoutedFirst(boolean routedFirst) { this.routedFirst = routedFirst; }
+    public void setIterations(int iterations) { this.iterations = iterations; }
+    public void setFailures(int failures) { this.failures = failures; }
+    public void setTotalHits(long totalHits) { this.totalHits = totalHits; }
+    public void setMeanMillis(double meanMillis) { this.meanMillis = meanMillis; }
+    public void setP50Millis(double p50Millis) { this.p50Millis = p50Millis; }
+    public void setP95Millis(double p95Millis) { this.p95Millis = p95Millis; }
+    public void setMaxMillis(double maxMillis) { this.maxMillis = maxMillis; }
+}
@@ -0,0 +1,39 @@
+package demo.com.example.testserver.product.dto;
+
+public class SearchEngineStatsDTO {
+    private String engine;
+    private boolean available;
+    private long calls;
+    private long answered;               // Calls whose result was returned to the client
+    private long failures;               // Null results and exceptions; the next engine was tried
+    private long emptyFallthroughs;      // Empty first keyword pages handed on to the next engine
+    private double averageLatencyMillis;
+    private long maxLatencyMillis;
+
+    public SearchEngineStatsDTO() {}
+
+    public SearchEngineStatsDTO(String engine, boolean available) {
+        this.engine = engine;
+        this.available = available;
+    }
+
+    // Getters
+    public String getEngine() { return engine; }
+    public boolean isAvailable() { return available; }
+    public long getCalls() { return calls; }
+    public long getAnswered() { return answered; }
+    public long getFailures() { return failures; }
+    public long getEmptyFallthroughs() { return emptyFallthroughs; }
+    public double getAverageLatencyMillis() { return averageLatencyMillis; }
+    public long getMaxLatencyMillis() { return maxLatencyMillis; }
+
+    // Setters
+    public void setEngine(String engine) { this.engine = engine; }
+    public void setAvailable(boolean available) { this.available = available; }
+    public void setCalls(long calls) { this.calls = calls; }
+    public void setAnswered(long answered) { this.answered = answered; }
+    public void setFailures(long failures) { this.failures = failures; }
+    public void setEmptyFallthroughs(long emptyFallthroughs) { this.emptyFallthroughs = emptyFallthroughs; }
+    public void setAverageLatencyMillis(double averageLatencyMillis) { this.averageLatencyMillis = averageLatencyMillis; }
+    public void setMaxLatencyMillis(long maxLatencyMillis) { this.maxLatencyMillis = maxLatencyMillis; }
+}
@@ -0,0 +1,37 @@
+package demo.com.example.testserver.product.dto;
+
+import java.util.Date;
+
+public class SearchIndexingStatsDTO {
+    private boolean elasticsearchEnabled;
+    private int queueDepth;              // Distinct products waiting to be flushed
+    private long oldestPendingLagMillis; // Age of the oldest change still waiting
+    private long indexedDocuments;
+    private long deletedDocuments;
+    private long coalescedChanges;       // Changes absorbed by an already pending change for the same product
+    private long failedFlushes;
+    private long lastFlushDurationMillis;
+    private Date lastFlushAt;
+
+    // Getters
+    public boolean isElasticsearchEnabled() { return elasticsearchEnabled; }
+    public int getQueueDepth() { return queueDepth; }
+    public long getOldestPendingLagMillis() { return oldestPendingLagMillis; }
+    public long getIndexedDocuments() { return indexedDocuments; }
+    public long getDeletedDocuments() { return deletedDocuments; }
+    public long getCoalescedChanges() { return coalescedChanges; }
+    public long getFailedFlushes() { return failedFlushes; }
+    public long getLastFlushDurationMillis() { return lastFlushDurationMillis; }
+    public Date getLastFlushAt() { return lastFlushAt; }
+
+    // Setters
+    public void setElasticsearchEnabled(boolean elasticsearchEnabled) { this.elasticsearchEnabled = elasticsearchEnabled; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+    public void setOldestPendingLagMillis(long oldestPendingLagMillis) { this.oldestPendingLagMillis = oldestPendingLagMillis; }
+    public void setIndexedDocuments(long indexedDocuments) { this.indexedDocuments = indexedDocuments; }
+    public void setDeletedDocuments(long deletedDocuments) { this.deletedDocuments = deletedDocuments; }
+    public void setCoalescedChanges(long coalescedChanges) { this.coalescedChanges = coalescedChanges; }
+    public void setFailedFlushes(long failedFlushes) { this.failedFlushes = failedFlushes; }
+    public void setLastFlushDurationMillis(long lastFlushDurationMillis) { this.lastFlushDurationMillis = lastFlushDurationMillis; }
+    public void setLastFlushAt(Date lastFlushAt) { this.lastFlushAt = lastFlushAt; }
+}
@@ -0,0 +1,29 @@
+package demo.com.example.testserver.product.dto;
+
+public class SuggestionDTO {
+    private Long id;             // Product ID, or category ID for category suggestions
+    private String text;         // Product or category name to show in the dropdown
+    private String categoryName; // Product suggestions only
+    private String imageUrl;     // Product main image or category image
+
+    public SuggestionDTO() {}
+
+    public SuggestionDTO(Long id, String text, String categoryName, String imageUrl) {
+        this.id = id;
+        this.text = text;
+        this.categoryName = categoryName;
+        this.imageUrl = imageUrl;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getText() { return text; }
+    public String getCategoryName() { return categoryName; }
+    public String getImageUrl() { return imageUrl; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setText(String text) { this.text = text; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+}
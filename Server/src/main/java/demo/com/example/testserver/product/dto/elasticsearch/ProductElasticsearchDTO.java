@@ -1,31 +1,48 @@
 package demo.com.example.testserver.product.dto.elasticsearch;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
 import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 
 @Document(indexName = "products")
-// Optional: if you have custom analyzers. Ensure 'elasticsearch/analyzer-settings.json' exists if uncommented.
+@Setting(settingPath = "elasticsearch/analyzer-settings.json") // Defines vn_folding (lowercase + asciifolding), same folding as SearchTextNormalizer
 public class ProductElasticsearchDTO {
 
     @Id
+    @Field(type = FieldType.Long) // Explicitly mapped so it can serve as the sort tie-breaker (_id has no doc values)
     private Long id;
 
-    @Field(type = FieldType.Text, analyzer = "standard", fielddata = true) // fielddata=true for sorting/aggregations on text
+    @MultiField(
+            mainField = @Field(type = FieldType.Text, analyzer = "vn_folding", fielddata = true), // "ao thun" matches "Áo thun"; fielddata=true for sorting/aggregations on text
+            otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword) // Exact value for name sorting
+    )
     private String name;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "vn_folding")
     private String description;
 
+    @CompletionField(analyzer = "vn_folding", searchAnalyzer = "vn_folding", maxInputLength = 100)
+    private Completion suggest; // Typeahead inputs: the name and each of its word suffixes
+
+    @Field(type = FieldType.Integer)
+    private Integer categoryId; // Filter keys for the ES-native listing search
+
     @Field(type = FieldType.Keyword)
     private String categoryName;
 
+    @Field(type = FieldType.Integer)
+    private Integer brandId;
+
     @Field(type = FieldType.Keyword)
     private String brandName;
 
@@ -53,6 +70,9 @@ public class ProductElasticsearchDTO {
     @Field(type = FieldType.Double)
     private BigDecimal maxPrice;
 
+    @Field(type = FieldType.Double)
+    private BigDecimal variantZeroPrice; // Price sort key, same as san_pham.variant_zero_price
+
     @Field(type = FieldType.Nested) // Use Nested for lists of objects to query them independently
     private List<ProductVariantElasticsearchDTO> variants;
     
@@ -88,6 +108,38 @@ public class ProductElasticsearchDTO {
         this.description = description;
     }
 
+    public Completion getSuggest() {
+        return suggest;
+    }
+
+    public void setSuggest(Completion suggest) {
+        this.suggest = suggest;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Integer getBrandId() {
+        return brandId;
+    }
+
+    public void setBrandId(Integer brandId) {
+        this.brandId = brandId;
+    }
+
+    public BigDecimal getVariantZeroPrice() {
+        return variantZeroPrice;
+    }
+
+    public void setVariantZeroPrice(BigDecimal variantZeroPrice) {
+        this.variantZeroPrice = variantZeroPrice;
+    }
+
     public String getCategoryName() {
         return categoryName;
     }
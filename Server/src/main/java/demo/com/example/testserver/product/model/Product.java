@@ -1,5 +1,6 @@
 package demo.com.example.testserver.product.model;
 
+import demo.com.example.testserver.product.service.SearchTextNormalizer;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.util.Date;
@@ -16,9 +17,17 @@ public class Product {
     @Column(name = "ten_san_pham", nullable = false)
     private String name;
 
+    // Accent-folded, lowercased name (SearchTextNormalizer), backing the FULLTEXT keyword search; derived, never set directly
+    @Column(name = "ten_khong_dau")
+    private String searchName;
+
     @Column(name = "mo_ta", nullable = false, columnDefinition = "TEXT")
     private String description;
 
+    // Accent-folded, lowercased description, indexed with searchName; derived, never set directly
+    @Column(name = "mo_ta_khong_dau", columnDefinition = "TEXT")
+    private String searchDescription;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "danh_muc_id", nullable = false)
     private Category category;
@@ -57,7 +66,7 @@ public class Product {
     @Column(name = "max_price", precision = 12, scale = 2)
     private BigDecimal maxPrice;
 
-    @Column(name = "average_rating")
+    @Column(name = "average_rating", updatable = false) // Written only by the review aggregate UPDATEs
     private Double averageRating;
 
     @Column(name = "variant_zero_price", precision = 12, scale = 2) // New field for the price of the first variant
@@ -66,16 +75,46 @@ public class Product {
     @Column(name = "is_enabled", nullable = false)
     private boolean isEnabled = true;
 
+    // Running review aggregates, maintained by single-statement UPDATEs in ProductRepository.
+    // Not updatable through the entity so that saving a stale Product can never overwrite them.
+    @Column(name = "review_count", nullable = false, updatable = false)
+    private Integer reviewCount = 0;
+
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private Integer ratingCount = 0;
+
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_1_count", nullable = false, updatable = false)
+    private Integer rating1Count = 0;
+
+    @Column(name = "rating_2_count", nullable = false, updatable = false)
+    private Integer rating2Count = 0;
+
+    @Column(name = "rating_3_count", nullable = false, updatable = false)
+    private Integer rating3Count = 0;
+
+    @Column(name = "rating_4_count", nullable = false, updatable = false)
+    private Integer rating4Count = 0;
+
+    @Column(name = "rating_5_count", nullable = false, updatable = false)
+    private Integer rating5Count = 0;
+
     // Lifecycle Callbacks
     @PrePersist
     protected void onCreate() {
         createdDate = new Date();
         updatedDate = new Date();
+        searchName = SearchTextNormalizer.normalize(name);
+        searchDescription = SearchTextNormalizer.normalize(description);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedDate = new Date();
+        searchName = SearchTextNormalizer.normalize(name);
+        searchDescription = SearchTextNormalizer.normalize(description);
     }
 
     // Constructors
@@ -98,6 +137,14 @@ public class Product {
         this.name = name;
     }
 
+    public String getSearchName() {
+        return searchName;
+    }
+
+    public String getSearchDescription() {
+        return searchDescription;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -217,4 +264,68 @@ public class Product {
     public void setEnabled(boolean enabled) {
         isEnabled = enabled;
     }
+
+    public Integer getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(Integer reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public Integer getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(Integer ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(Long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public Integer getRating1Count() {
+        return rating1Count;
+    }
+
+    public void setRating1Count(Integer rating1Count) {
+        this.rating1Count = rating1Count;
+    }
+
+    public Integer getRating2Count() {
+        return rating2Count;
+    }
+
+    public void setRating2Count(Integer rating2Count) {
+        this.rating2Count = rating2Count;
+    }
+
+    public Integer getRating3Count() {
+        return rating3Count;
+    }
+
+    public void setRating3Count(Integer rating3Count) {
+        this.rating3Count = rating3Count;
+    }
+
+    public Integer getRating4Count() {
+        return rating4Count;
+    }
+
+    public void setRating4Count(Integer rating4Count) {
+        this.rating4Count = rating4Count;
+    }
+
+    public Integer getRating5Count() {
+        return rating5Count;
+    }
+
+    public void setRating5Count(Integer rating5Count) {
+        this.rating5Count = rating5Count;
+    }
 }
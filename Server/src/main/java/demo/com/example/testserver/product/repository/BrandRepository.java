@@ -1,7 +1,9 @@
 package demo.com.example.testserver.product.repository;
 
+import demo.com.example.testserver.common.web.ResourceVersionRow;
 import demo.com.example.testserver.product.model.Brand;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +12,12 @@ import java.util.Optional;
 public interface BrandRepository extends JpaRepository<Brand, Integer> {
     Optional<Brand> findByName(String name); // Find by name for uniqueness checks
     boolean existsByName(String name); // Check if name exists
+
+    /**
+     * Validator of the brand responses (HTTP caching): newest ngay_cap_nhat, plus count and max ID for deletes.
+     */
+    @Query(value = "SELECT COALESCE(CAST(UNIX_TIMESTAMP(MAX(ngay_cap_nhat)) * 1000000 AS UNSIGNED), 0) AS lastModified, "
+            + "CONCAT_WS(':', COUNT(*), COALESCE(MAX(id), 0)) AS fingerprint FROM thuong_hieu",
+           nativeQuery = true)
+    ResourceVersionRow findVersion();
 }
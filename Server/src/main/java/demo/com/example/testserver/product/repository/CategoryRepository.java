@@ -1,8 +1,10 @@
 package demo.com.example.testserver.product.repository;
 
+import demo.com.example.testserver.common.web.ResourceVersionRow;
 import demo.com.example.testserver.product.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor; // Import this
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +14,12 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Integer>, JpaSpecificationExecutor<Category> {
     Optional<Category> findByName(String name); // Find by name for uniqueness checks
     boolean existsByName(String name); // Check if name exists
+
+    /**
+     * Validator of the category responses (HTTP caching): newest ngay_cap_nhat, plus count and max ID for deletes.
+     */
+    @Query(value = "SELECT COALESCE(CAST(UNIX_TIMESTAMP(MAX(ngay_cap_nhat)) * 1000000 AS UNSIGNED), 0) AS lastModified, "
+            + "CONCAT_WS(':', COUNT(*), COALESCE(MAX(id), 0)) AS fingerprint FROM danh_muc",
+           nativeQuery = true)
+    ResourceVersionRow findVersion();
 }
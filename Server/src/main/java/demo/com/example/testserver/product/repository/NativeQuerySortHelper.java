@@ -5,39 +5,47 @@ import java.util.stream.Collectors;
 
 public class NativeQuerySortHelper {
 
-    public static String getSortClause(Sort sort) {
+    private static final String DEFAULT_COLUMN = "ngay_tao"; // Default sort for san_pham table
+
+    /**
+     * Maps an entity sort property (or its API alias) to the san_pham column. Unknown properties map to
+     * ngay_tao rather than being passed through into SQL.
+     */
+    public static String toColumn(String property) {
+        switch (property.toLowerCase()) {
+            case "createddate":
+            case "newest": // "newest" is an alias for createdDate
+                return "ngay_tao";
+            case "name":
+                return "ten_san_pham";
+            case "averagerating":
+            case "rating": // "rating" is an alias for averageRating
+                return "average_rating";
+            case "variantzeroprice": // This is used by ProductSortBuilder for "price"
+            case "price":
+                return "variant_zero_price";
+            case "id":
+                return "ma_san_pham";
+            default:
+                return DEFAULT_COLUMN;
+        }
+    }
+
+    /**
+     * Same orders with column names, for the Pageable of a native query (e.g. ProductRepository.findByFullTextSearch).
+     */
+    public static Sort toNativeSort(Sort sort) {
         if (sort == null || sort.isUnsorted()) {
-            return "ngay_tao DESC"; // Default sort for san_pham table
+            return Sort.by(Sort.Direction.DESC, DEFAULT_COLUMN);
         }
-        return sort.get()
-            .map(order -> {
-                String property = order.getProperty();
-                String sqlColumn;
-                // Map entity property names to actual SQL column names
-                switch (property.toLowerCase()) {
-                    case "createddate":
-                    case "newest": // "newest" is an alias for createdDate
-                        sqlColumn = "ngay_tao";
-                        break;
-                    case "name":
-                        sqlColumn = "ten_san_pham";
-                        break;
-                    case "averagerating":
-                    case "rating": // "rating" is an alias for averageRating
-                        sqlColumn = "average_rating";
-                        break;
-                    case "variantzeroprice": // This is used by ProductSortBuilder for "price"
-                    case "price":
-                        sqlColumn = "variant_zero_price"; // Assuming this column exists and is suitable for general price sort
-                        break;
-                    // Add other property-to-column mappings as needed
-                    default:
-                        // Fallback to property name if no specific mapping, or default to a known column
-                        // For safety, default to a known sortable column if property is unrecognized
-                        sqlColumn = "ngay_tao"; // Default fallback column
-                }
-                return sqlColumn + " " + (order.isAscending() ? "ASC" : "DESC");
-            })
+        return Sort.by(sort.stream()
+            .map(order -> new Sort.Order(order.getDirection(), toColumn(order.getProperty())))
+            .collect(Collectors.toList()));
+    }
+
+    public static String getSortClause(Sort sort) {
+        return toNativeSort(sort).get()
+            .map(order -> order.getProperty() + " " + (order.isAscending() ? "ASC" : "DESC"))
             .collect(Collectors.joining(", "));
     }
 }
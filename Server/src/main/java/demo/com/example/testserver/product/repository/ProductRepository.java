@@ -1,7 +1,10 @@
 package demo.com.example.testserver.product.repository;
 
+import demo.com.example.testserver.common.web.ResourceVersionRow;
 import demo.com.example.testserver.product.model.Product;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Optional;
 
@@ -9,9 +12,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -20,18 +25,242 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     Optional<Product> findByName(String name);
 
     /**
-     * Find products using MySQL's MATCH AGAINST for full-text search
+     * Find products using MySQL's MATCH AGAINST for full-text search on the accent-folded name and description
+     * (ngram FULLTEXT index ft_sp_khong_dau). Build the term with SearchTextNormalizer.toFullTextQuery.
      */
-    @Query(value = "SELECT * FROM san_pham WHERE MATCH(ten_san_pham, mo_ta) AGAINST(:searchTerm IN BOOLEAN MODE)",
+    @Query(value = "SELECT * FROM san_pham WHERE MATCH(ten_khong_dau, mo_ta_khong_dau) AGAINST(:searchTerm IN BOOLEAN MODE)",
            nativeQuery = true)
     List<Product> findByFullTextSearch(@Param("searchTerm") String searchTerm);
 
     /**
      * Paged version of the full-text search.
-     * Spring Data JPA will append the ORDER BY clause based on the Pageable's Sort object.
+     * Spring Data JPA will append the ORDER BY clause based on the Pageable's Sort object, which must use column
+     * names (see NativeQuerySortHelper.toNativeSort). Listings use the fulltext_match Specification instead.
      */
-    @Query(value = "SELECT * FROM san_pham WHERE MATCH(ten_san_pham, mo_ta) AGAINST(:searchTerm IN BOOLEAN MODE)",
-           countQuery = "SELECT count(*) FROM san_pham WHERE MATCH(ten_san_pham, mo_ta) AGAINST(:searchTerm IN BOOLEAN MODE)",
+    @Query(value = "SELECT * FROM san_pham WHERE MATCH(ten_khong_dau, mo_ta_khong_dau) AGAINST(:searchTerm IN BOOLEAN MODE)",
+           countQuery = "SELECT count(*) FROM san_pham WHERE MATCH(ten_khong_dau, mo_ta_khong_dau) AGAINST(:searchTerm IN BOOLEAN MODE)",
            nativeQuery = true)
     Page<Product> findByFullTextSearch(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    /**
+     * Listing fetch path, step 1: loads category, brand and variants for a page of products in one query.
+     * Images are fetched by a second query because Hibernate cannot join-fetch two bags at once.
+     */
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.brand LEFT JOIN FETCH p.variants WHERE p.id IN :ids")
+    List<Product> findWithCategoryBrandAndVariantsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Listing fetch path, step 2: loads the additional images for a page of products in one query.
+     */
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.images WHERE p.id IN :ids")
+    List<Product> findWithImagesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Initializes every association that ProductMapper.mapToProductDTO walks (category, brand, variants, images)
+     * for a whole page with the two queries above, instead of letting the mapper lazy-load them row by row.
+     * Must run inside a transaction: the fetched rows land in the persistence context, so the given instances
+     * become fully loaded.
+     */
+    default void fetchListingAssociations(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        List<Long> ids = products.stream().map(Product::getId).toList();
+        findWithCategoryBrandAndVariantsByIdIn(ids);
+        findWithImagesByIdIn(ids);
+    }
+
+    /**
+     * One group of the facet query: products sharing a category, brand, price bucket and whole-star rating.
+     */
+    interface FacetRow {
+        Integer getCategoryId();
+        String getCategoryName();
+        Integer getBrandId();
+        String getBrandName();
+        Long getPriceBucket();  // FLOOR(min_price / interval); null when the product has no price
+        Integer getRatingFloor(); // FLOOR(average_rating); null when the product is unrated
+        Long getProductCount();
+    }
+
+    String FACET_SELECT = "SELECT p.danh_muc_id AS categoryId, c.ten_danh_muc AS categoryName, "
+            + "p.thuong_hieu_id AS brandId, b.ten_thuong_hieu AS brandName, "
+            + "FLOOR(p.min_price / :priceInterval) AS priceBucket, FLOOR(p.average_rating) AS ratingFloor, COUNT(*) AS productCount "
+            + "FROM san_pham p JOIN danh_muc c ON c.id = p.danh_muc_id JOIN thuong_hieu b ON b.id = p.thuong_hieu_id "
+            + "WHERE (:categoryId IS NULL OR p.danh_muc_id = :categoryId) "
+            + "AND (:brandId IS NULL OR p.thuong_hieu_id = :brandId) "
+            + "AND (:minPrice IS NULL OR p.min_price >= :minPrice) "
+            + "AND (:maxPrice IS NULL OR p.max_price <= :maxPrice) "
+            + "AND (:minRating IS NULL OR p.average_rating >= :minRating) ";
+    String FACET_GROUP_BY = " GROUP BY p.danh_muc_id, c.ten_danh_muc, p.thuong_hieu_id, b.ten_thuong_hieu, priceBucket, ratingFloor";
+
+    /**
+     * Facet counts for the sidebar in one grouped query (fallback when Elasticsearch is unavailable).
+     * Keyword filter is the LIKE match used by ProductSpecificationBuilder: the folded pattern against
+     * ten_khong_dau and mo_ta_khong_dau. Pass a null pattern for no keyword.
+     */
+    @Query(value = FACET_SELECT
+            + "AND (:keywordPattern IS NULL OR p.ten_khong_dau LIKE :keywordPattern OR p.mo_ta_khong_dau LIKE :keywordPattern)"
+            + FACET_GROUP_BY, nativeQuery = true)
+    List<FacetRow> countFacets(@Param("keywordPattern") String keywordPattern,
+                               @Param("categoryId") Integer categoryId,
+                               @Param("brandId") Integer brandId,
+                               @Param("minPrice") BigDecimal minPrice,
+                               @Param("maxPrice") BigDecimal maxPrice,
+                               @Param("minRating") Double minRating,
+                               @Param("priceInterval") BigDecimal priceInterval);
+
+    /**
+     * Same as countFacets, with the keyword matched by MySQL full-text search like findByFullTextSearch.
+     */
+    @Query(value = FACET_SELECT
+            + "AND MATCH(p.ten_khong_dau, p.mo_ta_khong_dau) AGAINST(:searchTerm IN BOOLEAN MODE)"
+            + FACET_GROUP_BY, nativeQuery = true)
+    List<FacetRow> countFacetsByFullTextSearch(@Param("searchTerm") String searchTerm,
+                                               @Param("categoryId") Integer categoryId,
+                                               @Param("brandId") Integer brandId,
+                                               @Param("minPrice") BigDecimal minPrice,
+                                               @Param("maxPrice") BigDecimal maxPrice,
+                                               @Param("minRating") Double minRating,
+                                               @Param("priceInterval") BigDecimal priceInterval);
+
+    /**
+     * Minimal product row for the in-memory typeahead index.
+     */
+    interface SuggestionRow {
+        Long getId();
+        String getName();
+        String getCategoryName();
+        String getMainImageUrl();
+    }
+
+    // Most reviewed first, so the typeahead trie keeps the most popular products for each prefix
+    @Query("SELECT p.id AS id, p.name AS name, c.name AS categoryName, p.mainImageUrl AS mainImageUrl "
+            + "FROM Product p JOIN p.category c ORDER BY p.reviewCount DESC, p.name ASC")
+    List<SuggestionRow> findSuggestionRows();
+
+    // Same order as findSuggestionRows, names only and one page of them
+    @Query("SELECT p.name FROM Product p ORDER BY p.reviewCount DESC, p.name ASC")
+    List<String> findMostReviewedNames(Pageable pageable);
+
+    /**
+     * Streams product IDs in ascending order, one chunk at a time (keyset on the primary key, no OFFSET scan).
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Products whose ten_khong_dau or mo_ta_khong_dau has not been computed yet (rows written before the column existed).
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description FROM Product p "
+            + "WHERE (p.searchName IS NULL OR p.searchDescription IS NULL) AND p.id > :afterId ORDER BY p.id ASC")
+    List<SearchTextRow> findWithoutSearchTextAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface SearchTextRow {
+        Long getId();
+        String getName();
+        String getDescription();
+    }
+
+    /**
+     * Writes the folded name and description without touching ngay_cap_nhat (which would otherwise bump ON UPDATE).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE san_pham SET ten_khong_dau = :searchName, mo_ta_khong_dau = :searchDescription, "
+            + "ngay_cap_nhat = ngay_cap_nhat WHERE id = :productId",
+           nativeQuery = true)
+    int updateSearchText(@Param("productId") Long productId, @Param("searchName") String searchName,
+                         @Param("searchDescription") String searchDescription);
+
+    /**
+     * Folds one new review into the running aggregates of a product in a single atomic UPDATE.
+     * MySQL evaluates SET assignments left to right, so average_rating sees the incremented sum and count.
+     *
+     * @param rating The review's star rating (1-5), or 0 for a comment-only review.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE san_pham SET " +
+                   "review_count = review_count + 1, " +
+                   "rating_count = rating_count + (:rating > 0), " +
+                   "rating_sum = rating_sum + :rating, " +
+                   "rating_1_count = rating_1_count + (:rating = 1), " +
+                   "rating_2_count = rating_2_count + (:rating = 2), " +
+                   "rating_3_count = rating_3_count + (:rating = 3), " +
+                   "rating_4_count = rating_4_count + (:rating = 4), " +
+                   "rating_5_count = rating_5_count + (:rating = 5), " +
+                   "average_rating = rating_sum / NULLIF(rating_count, 0) " +
+                   "WHERE id = :productId",
+           nativeQuery = true)
+    int applyReviewAggregate(@Param("productId") Long productId, @Param("rating") int rating);
+
+    /**
+     * Validator of one product's detail response. Every table it is built from bumps ngay_cap_nhat ON UPDATE
+     * (the review aggregate UPDATE included, stock changes through the variant row) with microsecond precision,
+     * so two writes within the same second still change it; the counters catch inserts, deletes and image
+     * replacements. Empty if the product does not exist.
+     */
+    @Query(value = "SELECT GREATEST("
+            + "    COALESCE(CAST(UNIX_TIMESTAMP(p.ngay_cap_nhat) * 1000000 AS UNSIGNED), 0), "
+            + "    COALESCE(CAST(UNIX_TIMESTAMP(c.ngay_cap_nhat) * 1000000 AS UNSIGNED), 0), "
+            + "    COALESCE(CAST(UNIX_TIMESTAMP(b.ngay_cap_nhat) * 1000000 AS UNSIGNED), 0), "
+            + "    COALESCE(CAST(UNIX_TIMESTAMP(v.updated) * 1000000 AS UNSIGNED), 0)) AS lastModified, "
+            + "CONCAT_WS(':', p.review_count, COALESCE(v.cnt, 0), COALESCE(v.stock, 0), "
+            + "    (SELECT COALESCE(MAX(i.id), 0) FROM hinh_anh_san_pham i WHERE i.san_pham_id = p.id)) AS fingerprint "
+            + "FROM san_pham p "
+            + "LEFT JOIN danh_muc c ON c.id = p.danh_muc_id "
+            + "LEFT JOIN thuong_hieu b ON b.id = p.thuong_hieu_id "
+            + "LEFT JOIN (SELECT san_pham_id, MAX(ngay_cap_nhat) AS updated, COUNT(*) AS cnt, SUM(so_luong_ton_kho) AS stock "
+            + "    FROM bien_the_san_pham WHERE san_pham_id = :productId GROUP BY san_pham_id) v ON v.san_pham_id = p.id "
+            + "WHERE p.id = :productId",
+           nativeQuery = true)
+    Optional<ResourceVersionRow> findDetailVersion(@Param("productId") Long productId);
+
+    /**
+     * Validator of the product listings: the newest change to any product, variant, category or brand, plus row
+     * counts for deletes. MAX(ngay_cap_nhat) is an index lookup (idx_sp_ngay_cap_nhat, idx_btsp_ngay_cap_nhat).
+     */
+    @Query(value = "SELECT GREATEST("
+            + "    COALESCE((SELECT CAST(UNIX_TIMESTAMP(MAX(ngay_cap_nhat)) * 1000000 AS UNSIGNED) FROM san_pham), 0), "
+            + "    COALESCE((SELECT CAST(UNIX_TIMESTAMP(MAX(ngay_cap_nhat)) * 1000000 AS UNSIGNED) FROM bien_the_san_pham), 0), "
+            + "    COALESCE((SELECT CAST(UNIX_TIMESTAMP(MAX(ngay_cap_nhat)) * 1000000 AS UNSIGNED) FROM danh_muc), 0), "
+            + "    COALESCE((SELECT CAST(UNIX_TIMESTAMP(MAX(ngay_cap_nhat)) * 1000000 AS UNSIGNED) FROM thuong_hieu), 0)) AS lastModified, "
+            + "CONCAT_WS(':', (SELECT COUNT(*) FROM san_pham), (SELECT COUNT(*) FROM bien_the_san_pham), "
+            + "    (SELECT COALESCE(MAX(id), 0) FROM hinh_anh_san_pham)) AS fingerprint",
+           nativeQuery = true)
+    ResourceVersionRow findCatalogVersion();
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM san_pham", nativeQuery = true)
+    long findMaxId();
+
+    /**
+     * Recomputes the review aggregates of every product in [fromId, toId] from danh_gia_san_pham
+     * and rewrites only the rows that drifted.
+     *
+     * @return The number of products whose aggregates were repaired.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE san_pham p " +
+                   "LEFT JOIN (SELECT san_pham_id, COUNT(*) AS c, COUNT(diem_sao) AS rc, COALESCE(SUM(diem_sao), 0) AS rs, " +
+                   "    SUM(diem_sao = 1) AS r1, SUM(diem_sao = 2) AS r2, SUM(diem_sao = 3) AS r3, SUM(diem_sao = 4) AS r4, SUM(diem_sao = 5) AS r5 " +
+                   "    FROM danh_gia_san_pham WHERE san_pham_id BETWEEN :fromId AND :toId GROUP BY san_pham_id) a " +
+                   "ON a.san_pham_id = p.id " +
+                   "SET p.review_count = COALESCE(a.c, 0), " +
+                   "    p.rating_count = COALESCE(a.rc, 0), " +
+                   "    p.rating_sum = COALESCE(a.rs, 0), " +
+                   "    p.rating_1_count = COALESCE(a.r1, 0), " +
+                   "    p.rating_2_count = COALESCE(a.r2, 0), " +
+                   "    p.rating_3_count = COALESCE(a.r3, 0), " +
+                   "    p.rating_4_count = COALESCE(a.r4, 0), " +
+                   "    p.rating_5_count = COALESCE(a.r5, 0), " +
+                   "    p.average_rating = COALESCE(a.rs, 0) / NULLIF(COALESCE(a.rc, 0), 0) " +
+                   "WHERE p.id BETWEEN :fromId AND :toId AND (" +
+                   "    p.review_count <> COALESCE(a.c, 0) OR p.rating_count <> COALESCE(a.rc, 0) OR p.rating_sum <> COALESCE(a.rs, 0) " +
+                   "    OR p.rating_1_count <> COALESCE(a.r1, 0) OR p.rating_2_count <> COALESCE(a.r2, 0) OR p.rating_3_count <> COALESCE(a.r3, 0) " +
+                   "    OR p.rating_4_count <> COALESCE(a.r4, 0) OR p.rating_5_count <> COALESCE(a.r5, 0) " +
+                   "    OR NOT (p.average_rating <=> COALESCE(a.rs, 0) / NULLIF(COALESCE(a.rc, 0), 0)))",
+           nativeQuery = true)
+    int reconcileReviewAggregates(@Param("fromId") long fromId, @Param("toId") long toId);
 }
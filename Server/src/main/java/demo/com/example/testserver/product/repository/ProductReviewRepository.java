@@ -1,9 +1,27 @@
 package demo.com.example.testserver.product.repository;
 
 import demo.com.example.testserver.product.model.ProductReview;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ProductReviewRepository extends JpaRepository<ProductReview, Integer> {
+
+    /**
+     * Newest reviews of a product. The Pageable only limits the result; no count query is executed.
+     */
+    @Query("SELECT r FROM ProductReview r LEFT JOIN FETCH r.user WHERE r.product.id = :productId ORDER BY r.id DESC")
+    List<ProductReview> findLatestByProductId(@Param("productId") Long productId, Pageable limit);
+
+    /**
+     * Keyset continuation of findLatestByProductId: reviews older than the given review ID.
+     * Served by idx_dgsp_sanpham, whose InnoDB entries are ordered by (san_pham_id, id).
+     */
+    @Query("SELECT r FROM ProductReview r LEFT JOIN FETCH r.user WHERE r.product.id = :productId AND r.id < :beforeId ORDER BY r.id DESC")
+    List<ProductReview> findByProductIdBefore(@Param("productId") Long productId, @Param("beforeId") Integer beforeId, Pageable limit);
 }
@@ -0,0 +1,14 @@
+package demo.com.example.testserver.product.repository;
+
+import demo.com.example.testserver.product.model.ProductSearchOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductSearchOutboxRepository extends JpaRepository<ProductSearchOutboxEntry, Long> {
+
+    // Replay order after a restart: oldest change first, so later changes win when coalesced
+    List<ProductSearchOutboxEntry> findAllByOrderByIdAsc();
+}
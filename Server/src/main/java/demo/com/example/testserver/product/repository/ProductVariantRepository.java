@@ -2,10 +2,20 @@ package demo.com.example.testserver.product.repository;
 
 import demo.com.example.testserver.product.model.ProductVariant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, Integer> {
     // Basic CRUD methods are inherited from JpaRepository
-    // Add custom query methods here if needed in the future
+
+    /**
+     * Loads the variants of an order with their products in one query (checkout reads the product's discount).
+     */
+    @Query("SELECT v FROM ProductVariant v JOIN FETCH v.product WHERE v.id IN :ids")
+    List<ProductVariant> findWithProductByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,34 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.dto.BrandDTO;
+import demo.com.example.testserver.product.dto.CreateBrandRequestDTO;
+import demo.com.example.testserver.product.model.Brand;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BrandMapper {
+
+    public BrandDTO toBrandDTO(Brand brand) {
+        if (brand == null) {
+            return null;
+        }
+        return new BrandDTO(
+                brand.getId(),
+                brand.getName(),
+                brand.getCreatedDate(),
+                brand.getUpdatedDate()
+        );
+    }
+
+    /**
+     * New, unsaved Brand from a create request. Dates are set by the entity's @PrePersist.
+     */
+    public Brand toBrandEntity(CreateBrandRequestDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        Brand brand = new Brand();
+        brand.setName(dto.getName());
+        return brand;
+    }
+}
@@ -6,7 +6,6 @@ import demo.com.example.testserver.product.dto.UpdateBrandRequestDTO;
 import demo.com.example.testserver.product.model.Brand;
 import demo.com.example.testserver.product.repository.BrandRepository;
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +14,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class BrandServiceImpl implements BrandService {
@@ -26,24 +24,21 @@ public class BrandServiceImpl implements BrandService {
     private BrandRepository brandRepository;
 
     @Autowired
-    private ModelMapper modelMapper; // Ensure ModelMapper bean is configured
+    private BrandMapper brandMapper;
+
+    @Autowired
+    private CatalogReferenceCache catalogReferenceCache;
 
     @Override
-    @Transactional(readOnly = true)
     public List<BrandDTO> findAllBrands() {
         logger.info("Fetching all brands");
-        return brandRepository.findAll().stream()
-                .map(brand -> modelMapper.map(brand, BrandDTO.class))
-                .collect(Collectors.toList());
+        return catalogReferenceCache.getBrands();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public BrandDTO findBrandById(Integer id) throws EntityNotFoundException {
         logger.info("Fetching brand by ID: {}", id);
-        Brand brand = brandRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Brand not found with ID: " + id));
-        return modelMapper.map(brand, BrandDTO.class);
+        return catalogReferenceCache.getBrand(id);
     }
 
     @Override
@@ -54,11 +49,12 @@ public class BrandServiceImpl implements BrandService {
             logger.warn("Brand creation failed: Name '{}' already exists", requestDTO.getName());
             throw new IllegalArgumentException("Brand name '" + requestDTO.getName() + "' already exists.");
         }
-        Brand brand = modelMapper.map(requestDTO, Brand.class);
+        Brand brand = brandMapper.toBrandEntity(requestDTO);
         try {
             Brand savedBrand = brandRepository.save(brand);
             logger.info("Successfully created brand with ID: {}", savedBrand.getId());
-            return modelMapper.map(savedBrand, BrandDTO.class);
+            catalogReferenceCache.refreshBrandsAfterCommit();
+            return brandMapper.toBrandDTO(savedBrand);
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation during brand creation for name: {}", requestDTO.getName(), e);
             throw new IllegalArgumentException("Could not create brand due to data constraint.", e);
@@ -90,7 +86,8 @@ public class BrandServiceImpl implements BrandService {
         try {
             Brand updatedBrand = brandRepository.save(existingBrand);
             logger.info("Successfully updated brand with ID: {}", updatedBrand.getId());
-            return modelMapper.map(updatedBrand, BrandDTO.class);
+            catalogReferenceCache.refreshBrandsAfterCommit();
+            return brandMapper.toBrandDTO(updatedBrand);
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation during brand update for ID: {}", id, e);
             throw new IllegalArgumentException("Could not update brand due to data constraint.", e);
@@ -112,6 +109,7 @@ public class BrandServiceImpl implements BrandService {
             // }
             brandRepository.deleteById(id);
             logger.info("Successfully deleted brand with ID: {}", id);
+            catalogReferenceCache.refreshBrandsAfterCommit();
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation during brand deletion for ID: {}. It might be linked to other entities.", id, e);
             throw new DataIntegrityViolationException("Cannot delete brand with ID " + id + " as it is linked to other data.", e);
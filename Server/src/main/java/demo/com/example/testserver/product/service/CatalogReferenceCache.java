@@ -0,0 +1,242 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.common.web.ResourceVersion;
+import demo.com.example.testserver.product.dto.BrandDTO;
+import demo.com.example.testserver.product.dto.CategoryDTO;
+import demo.com.example.testserver.product.model.Brand;
+import demo.com.example.testserver.product.model.Category;
+import demo.com.example.testserver.product.repository.BrandRepository;
+import demo.com.example.testserver.product.repository.CategoryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Warm in-memory copy of the category and brand tables: small, rarely written, and read by almost every screen.
+ * Each table is held as an immutable snapshot (ID order) that is loaded on startup and replaced as a whole after a
+ * category or brand write commits, so readers never see a half-applied change and never touch JPA.
+ * <p>
+ * Writes that bypass CategoryService/BrandService (another instance, SQL run by hand) are caught by a scheduled
+ * check of each table's version (newest ngay_cap_nhat, row count and max ID), which reloads only the table that
+ * changed. Such a write is therefore visible here within app.cache.catalog-reference.check-interval-ms; writes
+ * through the services on this instance are visible as soon as they commit.
+ * <p>
+ * The cached DTOs are shared between requests and must not be modified by callers.
+ */
+@Component
+@Lazy(false) // Warmed on startup
+public class CatalogReferenceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogReferenceCache.class);
+
+    private record Snapshot<T>(List<T> all, Map<Integer, T> byId) {
+
+        static <T> Snapshot<T> of(List<T> rows, Function<T, Integer> idOf) {
+            Map<Integer, T> byId = new LinkedHashMap<>();
+            rows.forEach(row -> byId.put(idOf.apply(row), row));
+            return new Snapshot<>(Collections.unmodifiableList(rows), Collections.unmodifiableMap(byId));
+        }
+    }
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private BrandMapper brandMapper;
+
+    private volatile Snapshot<CategoryDTO> categories; // Null until loaded
+    private volatile Snapshot<BrandDTO> brands;
+
+    // Version of each table as of the last load, read before its rows so a concurrent write triggers the next check
+    private volatile String categoriesVersion;
+    private volatile String brandsVersion;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reloadCategories();
+            reloadBrands();
+        } catch (Exception e) {
+            // Not fatal: the first read retries the load
+            logger.error("Failed to warm the category/brand cache: {}", e.getMessage(), e);
+        }
+    }
+
+    public synchronized void reloadCategories() {
+        String version = ResourceVersion.of("categories", categoryRepository.findVersion()).etag();
+        List<CategoryDTO> rows = categoryRepository.findAll(Sort.by("id")).stream()
+                .map(categoryMapper::toCategoryDTO)
+                .collect(Collectors.toList());
+        categories = Snapshot.of(rows, CategoryDTO::getId);
+        categoriesVersion = version;
+        logger.info("Category cache loaded: {} categories.", rows.size());
+    }
+
+    public synchronized void reloadBrands() {
+        String version = ResourceVersion.of("brands", brandRepository.findVersion()).etag();
+        List<BrandDTO> rows = brandRepository.findAll(Sort.by("id")).stream()
+                .map(brandMapper::toBrandDTO)
+                .collect(Collectors.toList());
+        brands = Snapshot.of(rows, BrandDTO::getId);
+        brandsVersion = version;
+        logger.info("Brand cache loaded: {} brands.", rows.size());
+    }
+
+    /**
+     * Reloads a table whose version no longer matches the loaded snapshot. One aggregate query per table when
+     * nothing changed.
+     */
+    @Scheduled(initialDelayString = "${app.cache.catalog-reference.check-interval-ms:30000}",
+               fixedDelayString = "${app.cache.catalog-reference.check-interval-ms:30000}")
+    public void reloadIfChanged() {
+        try {
+            if (!ResourceVersion.of("categories", categoryRepository.findVersion()).etag().equals(categoriesVersion)) {
+                reloadCategories();
+            }
+            if (!ResourceVersion.of("brands", brandRepository.findVersion()).etag().equals(brandsVersion)) {
+                reloadBrands();
+            }
+        } catch (Exception e) {
+            // Keep serving the current snapshot; the next check retries
+            logger.warn("Failed to check the category/brand cache for changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the categories once the current transaction commits (immediately when there is none),
+     * so the new snapshot is read from committed data.
+     */
+    public void refreshCategoriesAfterCommit() {
+        runAfterCommit(() -> {
+            try {
+                reloadCategories();
+            } catch (Exception e) {
+                categories = null; // Never serve the stale snapshot: the next read loads again
+                logger.error("Failed to reload the category cache: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    public void refreshBrandsAfterCommit() {
+        runAfterCommit(() -> {
+            try {
+                reloadBrands();
+            } catch (Exception e) {
+                brands = null;
+                logger.error("Failed to reload the brand cache: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * All categories in ID order.
+     */
+    public List<CategoryDTO> getCategories() {
+        return categorySnapshot().all();
+    }
+
+    public CategoryDTO getCategory(Integer id) throws EntityNotFoundException {
+        CategoryDTO category = id != null ? categorySnapshot().byId().get(id) : null;
+        if (category == null) {
+            throw new EntityNotFoundException("Category not found with ID: " + id);
+        }
+        return category;
+    }
+
+    /**
+     * All brands in ID order.
+     */
+    public List<BrandDTO> getBrands() {
+        return brandSnapshot().all();
+    }
+
+    public BrandDTO getBrand(Integer id) throws EntityNotFoundException {
+        BrandDTO brand = id != null ? brandSnapshot().byId().get(id) : null;
+        if (brand == null) {
+            throw new EntityNotFoundException("Brand not found with ID: " + id);
+        }
+        return brand;
+    }
+
+    /**
+     * A new detached Category carrying the cached state, for use as the target of a product's association.
+     * Product.category has no cascade, so Hibernate only writes its ID as the foreign key, and reading the name
+     * back for the response needs no query. A fresh instance per call keeps persistence contexts apart.
+     */
+    public Category getCategoryReference(Integer id) throws EntityNotFoundException {
+        CategoryDTO cached = getCategory(id);
+        Category category = new Category();
+        category.setId(cached.getId());
+        category.setName(cached.getName());
+        category.setImageUrl(cached.getImageUrl());
+        category.setCreatedDate(cached.getCreatedDate());
+        category.setUpdatedDate(cached.getUpdatedDate());
+        return category;
+    }
+
+    /**
+     * Brand counterpart of {@link #getCategoryReference(Integer)}.
+     */
+    public Brand getBrandReference(Integer id) throws EntityNotFoundException {
+        BrandDTO cached = getBrand(id);
+        Brand brand = new Brand();
+        brand.setId(cached.getId());
+        brand.setName(cached.getName());
+        brand.setCreatedDate(cached.getCreatedDate());
+        brand.setUpdatedDate(cached.getUpdatedDate());
+        return brand;
+    }
+
+    private Snapshot<CategoryDTO> categorySnapshot() {
+        Snapshot<CategoryDTO> current = categories;
+        if (current == null) {
+            reloadCategories(); // Warmup failed or has not run yet
+            current = categories;
+        }
+        return current;
+    }
+
+    private Snapshot<BrandDTO> brandSnapshot() {
+        Snapshot<BrandDTO> current = brands;
+        if (current == null) {
+            reloadBrands();
+            current = brands;
+        }
+        return current;
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
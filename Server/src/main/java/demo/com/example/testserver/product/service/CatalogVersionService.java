@@ -0,0 +1,84 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.common.web.ResourceVersion;
+import demo.com.example.testserver.common.web.ResourceVersionRow;
+import demo.com.example.testserver.product.repository.BrandRepository;
+import demo.com.example.testserver.product.repository.CategoryRepository;
+import demo.com.example.testserver.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Computes the HTTP validators (ETag / Last-Modified) of the public catalog responses from the database, so they
+ * agree across instances and behind a CDN. Catalog-wide versions are reused for a short TTL, which bounds how long
+ * a 304 can be served after a write.
+ * <p>
+ * Every method returns null instead of failing: the response is then served without validators.
+ */
+@Service
+public class CatalogVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersionService.class);
+
+    private record CachedVersion(ResourceVersion version, long expiresAt) {}
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Value("${app.http.cache.version-ttl-ms:1000}")
+    private long versionTtlMillis;
+
+    private final Map<String, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    public ResourceVersion getProductVersion(Long productId) {
+        try {
+            return productRepository.findDetailVersion(productId)
+                    .map(row -> ResourceVersion.of("product-" + productId, row))
+                    .orElse(null); // Unknown product: let the controller answer 404 as usual
+        } catch (Exception e) {
+            logger.warn("Could not compute the version of product {}: {}", productId, e.getMessage());
+            return null;
+        }
+    }
+
+    public ResourceVersion getProductListingVersion() {
+        return cached("products", productRepository::findCatalogVersion);
+    }
+
+    public ResourceVersion getCategoriesVersion() {
+        return cached("categories", categoryRepository::findVersion);
+    }
+
+    public ResourceVersion getBrandsVersion() {
+        return cached("brands", brandRepository::findVersion);
+    }
+
+    private ResourceVersion cached(String resource, Supplier<ResourceVersionRow> query) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(resource);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.version();
+        }
+        try {
+            ResourceVersion version = ResourceVersion.of(resource, query.get());
+            versions.put(resource, new CachedVersion(version, now + versionTtlMillis));
+            return version;
+        } catch (Exception e) {
+            logger.warn("Could not compute the version of {}: {}", resource, e.getMessage());
+            return null;
+        }
+    }
+}
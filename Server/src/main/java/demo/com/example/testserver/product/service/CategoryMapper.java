@@ -0,0 +1,36 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.dto.CategoryDTO;
+import demo.com.example.testserver.product.dto.CreateCategoryRequestDTO;
+import demo.com.example.testserver.product.model.Category;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CategoryMapper {
+
+    public CategoryDTO toCategoryDTO(Category category) {
+        if (category == null) {
+            return null;
+        }
+        return new CategoryDTO(
+                category.getId(),
+                category.getName(),
+                category.getImageUrl(),
+                category.getCreatedDate(),
+                category.getUpdatedDate()
+        );
+    }
+
+    /**
+     * New, unsaved Category from a create request. Dates are set by the entity's @PrePersist.
+     */
+    public Category toCategoryEntity(CreateCategoryRequestDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        Category category = new Category();
+        category.setName(dto.getName());
+        category.setImageUrl(dto.getImageUrl());
+        return category;
+    }
+}
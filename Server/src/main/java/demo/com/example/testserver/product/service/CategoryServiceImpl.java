@@ -7,19 +7,22 @@ import demo.com.example.testserver.product.model.Category;
 import demo.com.example.testserver.product.repository.CategoryRepository;
 import demo.com.example.testserver.product.specification.CategorySpecification; // Import Specification
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page; // Import Page
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable; // Import Pageable
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification; // Import Specification
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.Date; // Import Date
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,41 +30,91 @@ public class CategoryServiceImpl implements CategoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(CategoryServiceImpl.class);
 
+    // Sort properties the cached listing can order by; any other falls back to the database query
+    private static final Set<String> CACHED_SORT_PROPERTIES = Set.of("id", "name", "imageUrl", "createdDate", "updatedDate");
+
     @Autowired
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private ModelMapper modelMapper; // Ensure ModelMapper bean is configured
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private CatalogReferenceCache catalogReferenceCache;
 
     // Implement the new findCategories method
     @Override
-    @Transactional(readOnly = true)
     public Page<CategoryDTO> findCategories(Pageable pageable, Date startDate, Date endDate) {
         logger.info("Fetching categories with pagination: {}, startDate: {}, endDate: {}", pageable, startDate, endDate);
+        // Add 1 day to endDate to make it inclusive of the end date
+        Date inclusiveEndDate = endDate != null ? new Date(endDate.getTime() + 24 * 60 * 60 * 1000L) : null;
+
+        Comparator<CategoryDTO> order = toComparator(pageable.getSort());
+        if (order == null) {
+            return findCategoriesInDatabase(pageable, startDate, inclusiveEndDate);
+        }
+        List<CategoryDTO> matching = catalogReferenceCache.getCategories().stream()
+                .filter(category -> startDate == null
+                        || (category.getCreatedDate() != null && !category.getCreatedDate().before(startDate)))
+                .filter(category -> inclusiveEndDate == null
+                        || (category.getCreatedDate() != null && category.getCreatedDate().before(inclusiveEndDate)))
+                .sorted(order)
+                .collect(Collectors.toList());
+        logger.info("Found {} categories matching criteria.", matching.size());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matching, pageable, matching.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        int to = Math.min(from + pageable.getPageSize(), matching.size());
+        return new PageImpl<>(matching.subList(from, to), pageable, matching.size());
+    }
+
+    /**
+     * Orders cached rows the way the database query would (nulls first ascending, names compared
+     * case- and accent-insensitively like utf8mb4_unicode_ci), with the ID as the final tie-breaker.
+     * Returns null if the sort uses a property the cache cannot order by.
+     */
+    private static Comparator<CategoryDTO> toComparator(Sort sort) {
+        Comparator<CategoryDTO> order = null;
+        for (Sort.Order sortOrder : sort) {
+            if (!CACHED_SORT_PROPERTIES.contains(sortOrder.getProperty())) {
+                return null;
+            }
+            Comparator<CategoryDTO> next = switch (sortOrder.getProperty()) {
+                case "id" -> Comparator.comparing(CategoryDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "name" -> Comparator.comparing(category -> SearchTextNormalizer.normalize(category.getName()));
+                case "imageUrl" -> Comparator.comparing(CategoryDTO::getImageUrl, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "createdDate" -> Comparator.comparing(CategoryDTO::getCreatedDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> Comparator.comparing(CategoryDTO::getUpdatedDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+            };
+            if (sortOrder.isDescending()) {
+                next = next.reversed();
+            }
+            order = order == null ? next : order.thenComparing(next);
+        }
+        Comparator<CategoryDTO> byId = Comparator.comparing(CategoryDTO::getId);
+        return order == null ? byId : order.thenComparing(byId);
+    }
+
+    private Page<CategoryDTO> findCategoriesInDatabase(Pageable pageable, Date startDate, Date inclusiveEndDate) {
         Specification<Category> spec = Specification.where(null); // Start with empty spec
 
         if (startDate != null) {
             spec = spec.and(CategorySpecification.createdDateGreaterThanOrEqual(startDate));
         }
-        if (endDate != null) {
-            // Add 1 day to endDate to make it inclusive of the end date
-            long oneDayInMillis = 24 * 60 * 60 * 1000L;
-            Date inclusiveEndDate = new Date(endDate.getTime() + oneDayInMillis);
+        if (inclusiveEndDate != null) {
             spec = spec.and(CategorySpecification.createdDateLessThan(inclusiveEndDate));
         }
 
         Page<Category> categoryPage = categoryRepository.findAll(spec, pageable);
         logger.info("Found {} categories matching criteria.", categoryPage.getTotalElements());
-        return categoryPage.map(category -> modelMapper.map(category, CategoryDTO.class));
+        return categoryPage.map(category -> categoryMapper.toCategoryDTO(category));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public CategoryDTO findCategoryById(Integer id) throws EntityNotFoundException {
         logger.info("Fetching category by ID: {}", id);
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + id));
-        return modelMapper.map(category, CategoryDTO.class);
+        return catalogReferenceCache.getCategory(id);
     }
 
     @Override
@@ -72,11 +125,12 @@ public class CategoryServiceImpl implements CategoryService {
             logger.warn("Category creation failed: Name '{}' already exists", requestDTO.getName());
             throw new IllegalArgumentException("Category name '" + requestDTO.getName() + "' already exists.");
         }
-        Category category = modelMapper.map(requestDTO, Category.class);
+        Category category = categoryMapper.toCategoryEntity(requestDTO);
         try {
             Category savedCategory = categoryRepository.save(category);
             logger.info("Successfully created category with ID: {}", savedCategory.getId());
-            return modelMapper.map(savedCategory, CategoryDTO.class);
+            catalogReferenceCache.refreshCategoriesAfterCommit();
+            return categoryMapper.toCategoryDTO(savedCategory);
         } catch (DataIntegrityViolationException e) {
             // Catch potential constraint violations not caught by existsByName (though less likely with check)
             logger.error("Data integrity violation during category creation for name: {}", requestDTO.getName(), e);
@@ -110,7 +164,8 @@ public class CategoryServiceImpl implements CategoryService {
         try {
             Category updatedCategory = categoryRepository.save(existingCategory);
             logger.info("Successfully updated category with ID: {}", updatedCategory.getId());
-            return modelMapper.map(updatedCategory, CategoryDTO.class);
+            catalogReferenceCache.refreshCategoriesAfterCommit();
+            return categoryMapper.toCategoryDTO(updatedCategory);
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation during category update for ID: {}", id, e);
             throw new IllegalArgumentException("Could not update category due to data constraint.", e);
@@ -132,6 +187,7 @@ public class CategoryServiceImpl implements CategoryService {
             // }
             categoryRepository.deleteById(id);
             logger.info("Successfully deleted category with ID: {}", id);
+            catalogReferenceCache.refreshCategoriesAfterCommit();
         } catch (DataIntegrityViolationException e) {
             // Catch cases where deletion violates constraints (e.g., foreign key if not checked above)
             logger.error("Data integrity violation during category deletion for ID: {}. It might be linked to other entities.", id, e);
@@ -0,0 +1,220 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.common.dto.CircuitBreakerStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runtime circuit breaker and latency budget for the Elasticsearch read path.
+ * <p>
+ * Every protected call runs on a small bounded pool and the request thread waits at most the call deadline, so a
+ * slow cluster costs each request a bounded delay instead of the client's socket timeout, and can never tie up more
+ * than max-concurrent-calls threads. After failure-threshold consecutive failures or timeouts the breaker opens and
+ * calls return null immediately, which sends callers down their MySQL fallback. Once open-duration has passed, one
+ * request is let through as a probe: success closes the breaker, failure opens it for another period.
+ */
+@Component
+public class ElasticsearchCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Permit { CALL, PROBE, REJECTED }
+
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final Duration callTimeout;
+    private final ThreadPoolExecutor executor;
+
+    // Guarded by "this"
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private Date lastTrippedAt;
+
+    // Metrics
+    private final AtomicLong successfulCalls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong timedOutCalls = new AtomicLong();
+    private final AtomicLong shortCircuitedCalls = new AtomicLong();
+    private final AtomicLong trips = new AtomicLong();
+
+    public ElasticsearchCircuitBreaker(
+            @Value("${app.search.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${app.search.breaker.open-duration-ms:30000}") long openDurationMillis,
+            @Value("${app.search.breaker.call-timeout-ms:1000}") long callTimeoutMillis,
+            @Value("${app.search.breaker.max-concurrent-calls:32}") int maxConcurrentCalls) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.callTimeout = Duration.ofMillis(callTimeoutMillis);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // No queue: when every slot is busy the call is short-circuited rather than waiting behind slow ones
+        this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "es-call-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        logger.info("Elasticsearch circuit breaker initialized (failureThreshold={}, openDuration={}ms, callTimeout={}ms, maxConcurrentCalls={}).",
+                failureThreshold, openDurationMillis, callTimeoutMillis, maxConcurrentCalls);
+    }
+
+    /**
+     * Runs the call with the default deadline (app.search.breaker.call-timeout-ms).
+     *
+     * @return The call's result, or null if it failed, missed its deadline or was short-circuited.
+     */
+    public <T> T call(String operation, Callable<T> call) {
+        return call(operation, callTimeout, call);
+    }
+
+    /**
+     * Runs the call with its own deadline, e.g. the tighter budget of the typeahead.
+     *
+     * @return The call's result, or null if it failed, missed its deadline or was short-circuited.
+     */
+    public <T> T call(String operation, Duration timeout, Callable<T> call) {
+        Permit permit = acquirePermit();
+        if (permit == Permit.REJECTED) {
+            shortCircuitedCalls.incrementAndGet();
+            logger.debug("Elasticsearch circuit is open, skipping {}.", operation);
+            return null;
+        }
+        boolean probe = permit == Permit.PROBE;
+
+        Future<T> future;
+        try {
+            future = executor.submit(call);
+        } catch (RejectedExecutionException e) {
+            shortCircuitedCalls.incrementAndGet();
+            releaseProbe(probe);
+            logger.warn("All {} Elasticsearch call slots are busy, skipping {}.", executor.getMaximumPoolSize(), operation);
+            return null;
+        }
+
+        try {
+            T result = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            onSuccess(probe);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutCalls.incrementAndGet();
+            logger.warn("Elasticsearch {} exceeded its {} ms deadline. Returning null to allow fallback.", operation, timeout.toMillis());
+            onFailure(probe);
+            return null;
+        } catch (ExecutionException e) {
+            failedCalls.incrementAndGet();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.error("Elasticsearch {} failed: {}. Returning null to allow fallback.", operation, cause.getMessage(), cause);
+            onFailure(probe);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            releaseProbe(probe);
+            return null;
+        }
+    }
+
+    /**
+     * True while the breaker is rejecting calls. Does not consume the half-open probe.
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openDurationMillis;
+    }
+
+    private synchronized Permit acquirePermit() {
+        switch (state) {
+            case CLOSED:
+                return Permit.CALL;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                    return Permit.REJECTED;
+                }
+                state = State.HALF_OPEN;
+                logger.info("Elasticsearch circuit half-open, probing with the next call.");
+                // fall through
+            case HALF_OPEN:
+            default:
+                if (probeInFlight) {
+                    return Permit.REJECTED;
+                }
+                probeInFlight = true;
+                return Permit.PROBE;
+        }
+    }
+
+    private synchronized void releaseProbe(boolean probe) {
+        if (probe) {
+            probeInFlight = false;
+        }
+    }
+
+    private synchronized void onSuccess(boolean probe) {
+        successfulCalls.incrementAndGet();
+        consecutiveFailures = 0;
+        if (probe) {
+            probeInFlight = false;
+            state = State.CLOSED;
+            logger.info("Elasticsearch probe succeeded, circuit closed.");
+        }
+    }
+
+    private synchronized void onFailure(boolean probe) {
+        consecutiveFailures++;
+        if (probe) {
+            trip("probe failed");
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            trip(consecutiveFailures + " consecutive failures");
+        }
+    }
+
+    private void trip(String reason) {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        probeInFlight = false;
+        lastTrippedAt = new Date(openedAt);
+        trips.incrementAndGet();
+        logger.warn("Elasticsearch circuit opened ({}). Searches use MySQL for the next {} ms.", reason, openDurationMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public synchronized CircuitBreakerStatsDTO getStats() {
+        CircuitBreakerStatsDTO stats = new CircuitBreakerStatsDTO();
+        stats.setName("elasticsearch");
+        stats.setState(state.name());
+        stats.setConsecutiveFailures(consecutiveFailures);
+        stats.setSuccessfulCalls(successfulCalls.get());
+        stats.setFailedCalls(failedCalls.get());
+        stats.setTimedOutCalls(timedOutCalls.get());
+        stats.setShortCircuitedCalls(shortCircuitedCalls.get());
+        stats.setTrips(trips.get());
+        stats.setActiveCalls(executor.getActiveCount());
+        stats.setLastTrippedAt(lastTrippedAt);
+        stats.setOpenUntil(state == State.OPEN ? new Date(openedAt + openDurationMillis) : null);
+        return stats;
+    }
+}
@@ -0,0 +1,462 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.dto.HotStockStatsDTO;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-process stock of flash-sale ("hot") variants, so checkouts of the same few SKUs stop queueing on one
+ * bien_the_san_pham row. Enabled with app.stock.hot-ledger.enabled=true; variants are flagged from
+ * app.stock.hot-ledger.variant-ids on startup or at runtime through /api/admin/hot-stock.
+ * <p>
+ * Flagging a variant loads its stock and spreads it over a few striped counters. A reservation CASes quantity off a
+ * random stripe (borrowing from the others when it runs low), with no lock. A reservation is confirmed once its
+ * order commits, or handed back on rollback or after the TTL. Confirmed quantities are written back to
+ * so_luong_ton_kho in one batch per flush interval, so the database lags the ledger by at most that interval.
+ * <p>
+ * Flagging cannot lose a concurrent checkout. Checkouts hold {@link #routingLock()} from their hot-or-not decision
+ * until their guarded UPDATEs have run. The flag marker is published under the write side, so every later checkout
+ * of the variant waits for the ledger instead of writing MySQL. The stock is then read with SELECT ... FOR UPDATE,
+ * which waits for the UPDATEs already sent to commit or roll back.
+ * <p>
+ * The ledger owns the stock of a hot variant: it is only correct with a single instance taking orders, and product
+ * edits that change a hot variant's stock are rejected until it is unflagged.
+ */
+@Component
+@Lazy(false) // Flags the configured variants on startup and flushes on a schedule
+public class HotStockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockLedger.class);
+
+    private static final int PADDING = 16; // One stripe per 64-byte cache line
+
+    /**
+     * Stock taken from the ledger for an order that has not committed yet.
+     */
+    public record Reservation(long id, Integer variantId, int quantity, long expiresAt) {}
+
+    private static final class Entry {
+        final Integer variantId;
+        final Long productId;
+        final int stripeCount;
+        final AtomicIntegerArray stripes;
+        final AtomicInteger unflushedSold = new AtomicInteger(); // Confirmed, not yet written to MySQL
+        volatile boolean retired;
+
+        Entry(Integer variantId, Long productId, int stock, int stripeCount) {
+            this.variantId = variantId;
+            this.productId = productId;
+            this.stripeCount = stripeCount;
+            this.stripes = new AtomicIntegerArray(stripeCount * PADDING);
+            for (int i = 0; i < stripeCount; i++) {
+                stripes.set(i * PADDING, stock / stripeCount + (i < stock % stripeCount ? 1 : 0));
+            }
+        }
+
+        int available() {
+            int total = 0;
+            for (int i = 0; i < stripeCount; i++) {
+                total += stripes.get(i * PADDING);
+            }
+            return total;
+        }
+
+        // Takes from one stripe if it can, otherwise gathers from all of them; all or nothing
+        boolean take(int quantity) {
+            int start = ThreadLocalRandom.current().nextInt(stripeCount);
+            int slot = start * PADDING;
+            for (int current = stripes.get(slot); current >= quantity; current = stripes.get(slot)) {
+                if (stripes.compareAndSet(slot, current, current - quantity)) {
+                    return true;
+                }
+            }
+            int remaining = quantity;
+            for (int n = 0; n < stripeCount && remaining > 0; n++) {
+                int s = ((start + n) % stripeCount) * PADDING;
+                for (int current = stripes.get(s); current > 0 && remaining > 0; current = stripes.get(s)) {
+                    int taken = Math.min(current, remaining);
+                    if (stripes.compareAndSet(s, current, current - taken)) {
+                        remaining -= taken;
+                    }
+                }
+            }
+            if (remaining > 0) {
+                give(quantity - remaining);
+                return false;
+            }
+            return true;
+        }
+
+        void give(int quantity) {
+            if (quantity != 0) {
+                stripes.addAndGet(ThreadLocalRandom.current().nextInt(stripeCount) * PADDING, quantity);
+            }
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductDetailCache productDetailCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.stock.hot-ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.stock.hot-ledger.variant-ids:}")
+    private List<Integer> configuredVariantIds;
+
+    @Value("${app.stock.hot-ledger.stripes:16}")
+    private int stripeCount;
+
+    @Value("${app.stock.hot-ledger.reservation-ttl-ms:120000}")
+    private long reservationTtlMillis;
+
+    @Value("${app.stock.hot-ledger.flag-wait-ms:30000}")
+    private long flagWaitMillis;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Integer, CountDownLatch> flagging = new ConcurrentHashMap<>(); // Released once the entry exists
+    private final ReentrantReadWriteLock routingLock = new ReentrantReadWriteLock();
+    private final AtomicLong oversoldUnits = new AtomicLong();
+    private final Map<Long, Reservation> outstanding = new ConcurrentHashMap<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final AtomicLong expiredReservations = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void flagConfiguredVariants() {
+        if (!enabled || configuredVariantIds == null) {
+            return;
+        }
+        for (Integer variantId : configuredVariantIds) {
+            try {
+                flag(variantId);
+            } catch (RuntimeException e) {
+                logger.error("Could not flag variant {} as hot: {}", variantId, e.getMessage());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * True for flagged variants and for variants being flagged: their stock must be taken through {@link #reserve}.
+     */
+    public boolean isHot(Integer variantId) {
+        return variantId != null && (entries.containsKey(variantId) || flagging.containsKey(variantId));
+    }
+
+    /**
+     * Shared lock a checkout holds from its first {@link #isHot} check until its guarded stock UPDATEs have been
+     * executed (not committed), so a variant cannot be flagged in between.
+     */
+    public Lock routingLock() {
+        return routingLock.readLock();
+    }
+
+    /**
+     * Stock left in the ledger for a hot variant, or null when the variant is not hot.
+     */
+    public Integer getAvailable(Integer variantId) {
+        Entry entry = variantId != null ? entries.get(variantId) : null;
+        return entry != null ? entry.available() : null;
+    }
+
+    /**
+     * Moves a variant's stock into the ledger. Its so_luong_ton_kho, once every checkout already writing it has
+     * finished, becomes the ledger's starting stock.
+     */
+    public synchronized void flag(Integer variantId) throws EntityNotFoundException {
+        if (!enabled) {
+            throw new IllegalStateException("The hot stock ledger is disabled (app.stock.hot-ledger.enabled).");
+        }
+        if (entries.containsKey(variantId)) {
+            return;
+        }
+        CountDownLatch flagged = new CountDownLatch(1);
+        // Waits for checkouts between their routing decision and their UPDATE; later ones see the marker
+        routingLock.writeLock().lock();
+        try {
+            flagging.put(variantId, flagged);
+        } finally {
+            routingLock.writeLock().unlock();
+        }
+        try {
+            // The locking read waits for in-flight UPDATEs of the row to commit and sees their result
+            List<Map<String, Object>> rows = new TransactionTemplate(transactionManager).execute(status ->
+                    jdbcTemplate.queryForList(
+                            "SELECT san_pham_id, so_luong_ton_kho FROM bien_the_san_pham WHERE id = ? FOR UPDATE", variantId));
+            if (rows == null || rows.isEmpty()) {
+                throw new EntityNotFoundException("ProductVariant not found with ID: " + variantId);
+            }
+            Long productId = ((Number) rows.get(0).get("san_pham_id")).longValue();
+            int stock = ((Number) rows.get(0).get("so_luong_ton_kho")).intValue();
+            entries.put(variantId, new Entry(variantId, productId, stock, Math.max(1, stripeCount)));
+            logger.info("Variant {} is now hot: {} in stock over {} stripes.", variantId, stock, stripeCount);
+        } finally {
+            flagging.remove(variantId);
+            flagged.countDown();
+        }
+    }
+
+    /**
+     * Hands a variant's stock back to MySQL. Reservations still outstanding are written through when they confirm.
+     */
+    public synchronized void unflag(Integer variantId) throws EntityNotFoundException {
+        Entry entry = entries.remove(variantId);
+        if (entry == null) {
+            throw new EntityNotFoundException("Variant is not hot: " + variantId);
+        }
+        entry.retired = true;
+        flush(List.of(entry));
+        logger.info("Variant {} is no longer hot; {} left in the ledger.", variantId, entry.available());
+    }
+
+    /**
+     * Takes stock for one order line.
+     *
+     * @return The reservation, or null if the variant has less than the quantity left.
+     * @throws IllegalStateException    If the variant is not hot (any more, or flagging it failed).
+     * @throws IllegalArgumentException If the variant is still being flagged after flag-wait-ms.
+     */
+    public Reservation reserve(Integer variantId, int quantity) {
+        Entry entry = entries.get(variantId);
+        if (entry == null) {
+            entry = awaitFlagged(variantId);
+        }
+        if (entry == null) {
+            throw new IllegalStateException("Variant is not hot: " + variantId);
+        }
+        if (!entry.take(quantity)) {
+            return null;
+        }
+        Reservation reservation = new Reservation(reservationIds.incrementAndGet(), variantId, quantity,
+                System.currentTimeMillis() + reservationTtlMillis);
+        outstanding.put(reservation.id(), reservation);
+        return reservation;
+    }
+
+    // A checkout that routed to the ledger while the variant was being flagged must not fall back to MySQL
+    private Entry awaitFlagged(Integer variantId) {
+        CountDownLatch flagged = flagging.get(variantId);
+        if (flagged == null) {
+            return null;
+        }
+        try {
+            if (!flagged.await(flagWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalArgumentException("Stock of ProductVariant ID: " + variantId
+                        + " is being moved to the hot stock ledger, please try again.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalArgumentException("Interrupted while waiting for ProductVariant ID: " + variantId);
+        }
+        return entries.get(variantId);
+    }
+
+    /**
+     * The order holding the reservation committed: the quantity is sold and queued for the next flush.
+     */
+    public void confirm(Reservation reservation) {
+        Entry entry = entries.get(reservation.variantId());
+        if (outstanding.remove(reservation.id()) == null && entry != null) {
+            // Expired meanwhile and handed back: take it again, even below zero, since the order exists
+            entry.stripes.addAndGet(0, -reservation.quantity());
+            logger.warn("Reservation {} of variant {} confirmed after it expired; raise app.stock.hot-ledger.reservation-ttl-ms.",
+                    reservation.id(), reservation.variantId());
+        }
+        if (entry == null) {
+            writeThrough(reservation.variantId(), reservation.quantity());
+            return;
+        }
+        entry.unflushedSold.addAndGet(reservation.quantity());
+        if (entry.retired) {
+            flush(List.of(entry)); // Unflagged meanwhile: do not wait for a flush that no longer sees it
+        }
+    }
+
+    /**
+     * The order holding the reservation rolled back: the quantity goes back on sale.
+     */
+    public void release(Reservation reservation) {
+        if (outstanding.remove(reservation.id()) != null) {
+            Entry entry = entries.get(reservation.variantId());
+            if (entry != null) {
+                entry.give(reservation.quantity());
+            }
+        }
+    }
+
+    /**
+     * Hands back the stock of reservations whose order neither committed nor rolled back within the TTL.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.hot-ledger.expiry-interval-ms:10000}")
+    public void expireReservations() {
+        long now = System.currentTimeMillis();
+        for (Reservation reservation : outstanding.values()) {
+            if (reservation.expiresAt() <= now && outstanding.remove(reservation.id()) != null) {
+                Entry entry = entries.get(reservation.variantId());
+                if (entry != null) {
+                    entry.give(reservation.quantity());
+                }
+                expiredReservations.incrementAndGet();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.hot-ledger.flush-interval-ms:500}")
+    public void flushAll() {
+        if (!entries.isEmpty()) {
+            flush(new ArrayList<>(entries.values()));
+        }
+    }
+
+    // One batch for every variant with sold quantities, committed as a whole; if it fails, nothing was written and
+    // the quantities wait for the next flush
+    private void flush(List<Entry> candidates) {
+        List<Entry> flushed = new ArrayList<>();
+        List<Integer> quantities = new ArrayList<>();
+        for (Entry entry : candidates) {
+            int sold = entry.unflushedSold.getAndSet(0);
+            if (sold > 0) {
+                flushed.add(entry);
+                quantities.add(sold);
+            }
+        }
+        if (flushed.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(flushed.size());
+        for (int i = 0; i < flushed.size(); i++) {
+            batch.add(new Object[]{quantities.get(i), flushed.get(i).variantId, quantities.get(i)});
+        }
+        // Its own transaction: confirm() flushes from the afterCompletion of the order's transaction
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int[] updated;
+        try {
+            updated = transaction.execute(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE bien_the_san_pham SET so_luong_ton_kho = so_luong_ton_kho - ? WHERE id = ? AND so_luong_ton_kho >= ?",
+                    batch));
+        } catch (RuntimeException e) {
+            for (int i = 0; i < flushed.size(); i++) {
+                flushed.get(i).unflushedSold.addAndGet(quantities.get(i));
+            }
+            logger.error("Failed to flush hot stock of {} variants, will retry: {}", flushed.size(), e.getMessage(), e);
+            return;
+        }
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 0) {
+                continue;
+            }
+            try {
+                writeOversold(flushed.get(i).variantId, quantities.get(i));
+            } catch (RuntimeException e) {
+                // The guarded UPDATE left this row alone, so only its own quantity is retried
+                flushed.get(i).unflushedSold.addAndGet(quantities.get(i));
+                logger.error("Failed to record oversold stock of variant {}, will retry: {}",
+                        flushed.get(i).variantId, e.getMessage(), e);
+            }
+        }
+        // Cached detail and the in-memory search snapshot carry variant stock
+        flushed.stream().map(entry -> entry.productId).distinct().forEach(this::stockChanged);
+    }
+
+    private void writeThrough(Integer variantId, int quantity) {
+        int updated = jdbcTemplate.update(
+                "UPDATE bien_the_san_pham SET so_luong_ton_kho = so_luong_ton_kho - ? WHERE id = ? AND so_luong_ton_kho >= ?",
+                quantity, variantId, quantity);
+        if (updated == 0) {
+            writeOversold(variantId, quantity);
+        }
+        jdbcTemplate.queryForList("SELECT san_pham_id FROM bien_the_san_pham WHERE id = ?", Long.class, variantId)
+                .forEach(this::stockChanged);
+    }
+
+    // Called once the stock UPDATEs have committed, so the listeners read the new stock; a failing listener is
+    // only logged, the stock is already written
+    private void stockChanged(Long productId) {
+        try {
+            productDetailCache.invalidate(productId);
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, false));
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish the stock change of product {}: {}", productId, e.getMessage());
+        }
+    }
+
+    /**
+     * The ledger sold more than the row has left: orders exist for stock that is gone, so this needs a human.
+     * The row is set to zero (it cannot go negative) and the shortfall is logged and counted in the stats.
+     */
+    private void writeOversold(Integer variantId, int sold) {
+        List<Integer> current = jdbcTemplate.queryForList(
+                "SELECT so_luong_ton_kho FROM bien_the_san_pham WHERE id = ?", Integer.class, variantId);
+        if (current.isEmpty()) {
+            logger.error("OVERSOLD: {} units of variant {} were sold from the hot stock ledger, but the variant no longer exists.",
+                    sold, variantId);
+            oversoldUnits.addAndGet(sold);
+            return;
+        }
+        int shortfall = sold - current.get(0);
+        jdbcTemplate.update("UPDATE bien_the_san_pham SET so_luong_ton_kho = 0 WHERE id = ?", variantId);
+        oversoldUnits.addAndGet(Math.max(shortfall, 0)); // After the write: a failed attempt is retried and must not count twice
+        logger.error("OVERSOLD: variant {} sold {} units from the hot stock ledger but only {} were left in so_luong_ton_kho; "
+                + "{} units short. Stock set to 0.", variantId, sold, current.get(0), shortfall);
+    }
+
+    public List<HotStockStatsDTO> getStats() {
+        Map<Integer, Integer> reservedByVariant = outstanding.values().stream()
+                .collect(Collectors.groupingBy(Reservation::variantId, Collectors.summingInt(Reservation::quantity)));
+        return entries.values().stream()
+                .sorted(Comparator.comparing(entry -> entry.variantId))
+                .map(entry -> {
+                    HotStockStatsDTO stats = new HotStockStatsDTO();
+                    stats.setVariantId(entry.variantId);
+                    stats.setProductId(entry.productId);
+                    stats.setAvailable(entry.available());
+                    stats.setReserved(reservedByVariant.getOrDefault(entry.variantId, 0));
+                    stats.setUnflushedSold(entry.unflushedSold.get());
+                    stats.setStripes(entry.stripeCount);
+                    stats.setExpiredReservations(expiredReservations.get());
+                    stats.setOversoldUnits(oversoldUnits.get());
+                    return stats;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,10 @@
+package demo.com.example.testserver.product.service;
+
+/**
+ * Published once a transaction that created, updated or deleted a product, or took stock off its variants, has
+ * committed, for in-process read models that mirror the catalog (e.g. the in-memory search engine).
+ *
+ * @param productId The changed product.
+ * @param deleted   True if the product was deleted; listeners that reload by ID may ignore it.
+ */
+public record ProductChangedEvent(Long productId, boolean deleted) {}
@@ -0,0 +1,135 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.dto.elasticsearch.ProductElasticsearchDTO;
+import demo.com.example.testserver.product.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Encodes and decodes the opaque continuation tokens used by keyset (seek) pagination on the product listing.
+ * A token captures the sort field, its direction, and the sort key + ID of the last row that was returned,
+ * so the next page can be fetched with a "WHERE (key, id) > (lastKey, lastId)" seek instead of an OFFSET.
+ * <p>
+ * Name order is the one sort that differs between engines (MySQL's utf8mb4_unicode_ci collation vs. the byte order
+ * of Elasticsearch's name.keyword), so a name cursor also records the engine that issued it and may only be
+ * continued there. Cursors on the other sort fields are interchangeable between engines.
+ */
+@Component
+public class ProductCursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_MARKER = "~";
+    private static final String VALUE_MARKER = "=";
+    private static final String ISSUER_MARKER = "@";
+
+    /**
+     * Decoded form of a continuation token.
+     *
+     * @param sortField Entity property the listing is sorted by (as produced by ProductSortBuilder).
+     * @param ascending Sort direction of the listing.
+     * @param lastId    ID of the last product on the previous page (the tie-breaker).
+     * @param lastValue Sort key of the last product on the previous page; may be null for nullable keys.
+     * @param issuer    Name of the search engine that must continue the listing, or null if any engine may.
+     */
+    public record ProductCursor(String sortField, boolean ascending, Long lastId, Comparable<?> lastValue, String issuer) {}
+
+    /**
+     * @param issuer Name of the engine issuing the token (ProductSearchEngine.getName()).
+     */
+    public String encode(String issuer, String sortField, boolean ascending, Product lastProduct) {
+        return encode(issuer, sortField, ascending, lastProduct.getId(), extractSortValue(sortField, lastProduct));
+    }
+
+    /**
+     * Encodes a token from an Elasticsearch hit.
+     */
+    public String encode(String issuer, String sortField, boolean ascending, ProductElasticsearchDTO lastDocument) {
+        Object value = switch (sortField) {
+            case "createdDate" -> lastDocument.getCreatedDate() != null ? lastDocument.getCreatedDate().getTime() : null;
+            case "variantZeroPrice" -> lastDocument.getVariantZeroPrice() != null ? lastDocument.getVariantZeroPrice().toPlainString() : null;
+            case "averageRating" -> lastDocument.getAverageRating();
+            case "name" -> lastDocument.getName();
+            default -> throw new IllegalArgumentException("Keyset pagination is not supported for sort field: " + sortField);
+        };
+        return encode(issuer, sortField, ascending, lastDocument.getId(), value);
+    }
+
+    /**
+     * Encodes a token from an already extracted sort key, in the form {@link #decode} returns it
+     * (Date, BigDecimal, Double or String; null for a NULL key).
+     */
+    public String encode(String issuer, String sortField, boolean ascending, Long lastId, Comparable<?> sortValue) {
+        Object value = sortValue;
+        if (sortValue instanceof Date date) {
+            value = date.getTime();
+        } else if (sortValue instanceof BigDecimal price) {
+            value = price.toPlainString();
+        }
+        return encode(issuer, sortField, ascending, lastId, value);
+    }
+
+    private String encode(String issuer, String sortField, boolean ascending, Long lastId, Object value) {
+        String raw = sortField + SEPARATOR + (ascending ? "a" : "d") + SEPARATOR + lastId + SEPARATOR
+                + (isEngineSpecific(sortField) ? ISSUER_MARKER + issuer + SEPARATOR : "")
+                + (value == null ? NULL_MARKER : VALUE_MARKER + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // Limit the split so that a product name containing the separator stays intact
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor.");
+            }
+            String sortField = parts[0];
+            boolean ascending = "a".equals(parts[1]);
+            Long lastId = Long.valueOf(parts[2]);
+            String rest = parts[3];
+            String issuer = null;
+            if (rest.startsWith(ISSUER_MARKER)) {
+                int end = rest.indexOf(SEPARATOR);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Malformed cursor.");
+                }
+                issuer = rest.substring(ISSUER_MARKER.length(), end);
+                rest = rest.substring(end + SEPARATOR.length());
+            }
+            Comparable<?> lastValue = rest.startsWith(VALUE_MARKER)
+                    ? parseSortValue(sortField, rest.substring(VALUE_MARKER.length()))
+                    : null;
+            return new ProductCursor(sortField, ascending, lastId, lastValue, issuer);
+        } catch (IllegalArgumentException e) { // Also covers NumberFormatException and Base64 decoding errors
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    private static boolean isEngineSpecific(String sortField) {
+        return "name".equals(sortField);
+    }
+
+    private Object extractSortValue(String sortField, Product product) {
+        return switch (sortField) {
+            case "createdDate" -> product.getCreatedDate() != null ? product.getCreatedDate().getTime() : null;
+            case "variantZeroPrice" -> product.getVariantZeroPrice() != null ? product.getVariantZeroPrice().toPlainString() : null;
+            case "averageRating" -> product.getAverageRating();
+            case "name" -> product.getName();
+            default -> throw new IllegalArgumentException("Keyset pagination is not supported for sort field: " + sortField);
+        };
+    }
+
+    private Comparable<?> parseSortValue(String sortField, String value) {
+        return switch (sortField) {
+            case "createdDate" -> new Date(Long.parseLong(value));
+            case "variantZeroPrice" -> new BigDecimal(value);
+            case "averageRating" -> Double.valueOf(value);
+            case "name" -> value;
+            default -> throw new IllegalArgumentException("Keyset pagination is not supported for sort field: " + sortField);
+        };
+    }
+}
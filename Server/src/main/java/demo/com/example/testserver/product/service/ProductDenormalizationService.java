@@ -1,22 +1,30 @@
 package demo.com.example.testserver.product.service;
 
 import demo.com.example.testserver.product.model.Product;
-import demo.com.example.testserver.product.model.ProductReview;
 import demo.com.example.testserver.product.model.ProductVariant;
 import demo.com.example.testserver.product.repository.ProductRepository;
 import jakarta.persistence.EntityNotFoundException; // Import EntityNotFoundException
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.OptionalDouble;
 
 @Service
+@Lazy(false) // Owns a @Scheduled job, so it must be created at startup despite lazy initialization
 public class ProductDenormalizationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductDenormalizationService.class);
@@ -24,6 +32,86 @@ public class ProductDenormalizationService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reviews.reconcile.chunk-size:1000}")
+    private long reconcileChunkSize;
+
+    /**
+     * Folds a newly saved review into the product's running aggregates (review count, rating sum,
+     * per-star counts and average rating) with one UPDATE, instead of re-reading every review.
+     *
+     * @param productId The reviewed product.
+     * @param rating    The review's star rating, or null for a comment-only review.
+     */
+    public void applyNewReview(Long productId, Byte rating) {
+        int updated = productRepository.applyReviewAggregate(productId, rating != null ? rating : 0);
+        if (updated == 0) {
+            throw new EntityNotFoundException("Product not found with ID: " + productId);
+        }
+        logger.debug("Applied review (rating: {}) to aggregates of product ID: {}", rating, productId);
+    }
+
+    /**
+     * Background check that recomputes the review aggregates from danh_gia_san_pham in ID-ordered
+     * chunks and repairs any product whose stored values drifted (e.g. reviews deleted directly in SQL).
+     * Each chunk runs in its own short transaction.
+     */
+    @Scheduled(initialDelayString = "${app.reviews.reconcile.initial-delay-ms:60000}",
+               fixedDelayString = "${app.reviews.reconcile.interval-ms:3600000}")
+    public void reconcileReviewAggregates() {
+        long maxId = productRepository.findMaxId();
+        long repaired = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += reconcileChunkSize) {
+            long toId = fromId + reconcileChunkSize - 1;
+            try {
+                repaired += productRepository.reconcileReviewAggregates(fromId, toId);
+            } catch (Exception e) {
+                logger.error("Review aggregate reconciliation failed for product IDs {}-{}: {}", fromId, toId, e.getMessage(), e);
+            }
+        }
+        if (repaired > 0) {
+            logger.warn("Review aggregate reconciliation repaired {} product(s) with drifted values.", repaired);
+        } else {
+            logger.info("Review aggregate reconciliation found no drift (scanned product IDs up to {}).", maxId);
+        }
+    }
+
+    /**
+     * Fills san_pham.ten_khong_dau and mo_ta_khong_dau for rows written before the columns existed. New and updated products get it
+     * from Product's lifecycle callbacks, so after the first run this finds nothing. Each chunk is one transaction.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSearchText() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long afterId = 0;
+        long filled = 0;
+        try {
+            while (true) {
+                List<ProductRepository.SearchTextRow> rows = productRepository.findWithoutSearchTextAfter(
+                        afterId, PageRequest.of(0, (int) reconcileChunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                afterId = rows.get(rows.size() - 1).getId();
+                tx.executeWithoutResult(status -> rows.forEach(row ->
+                        productRepository.updateSearchText(row.getId(), SearchTextNormalizer.normalize(row.getName()),
+                                SearchTextNormalizer.normalize(row.getDescription()))));
+                filled += rows.size();
+            }
+        } catch (Exception e) {
+            logger.error("Search text backfill stopped after {} product(s): {}", filled, e.getMessage(), e);
+            return;
+        }
+        if (filled > 0) {
+            logger.info("Backfilled the folded search name and description of {} product(s).", filled);
+        }
+    }
+
+    /**
+     * Recomputes the variant-derived price fields (minPrice, maxPrice, variantZeroPrice) of a product.
+     */
     @Transactional // Ensure this method runs in a transaction
     public void updateDenormalizedFields(Long productId) { // Changed parameter type to Long
         logger.debug("Updating denormalized fields for product ID: {}", productId);
@@ -61,19 +149,8 @@ public class ProductDenormalizationService {
         product.setVariantZeroPrice(variantZeroPrice);
         logger.debug("Calculated variantZeroPrice: {} for product ID: {}", variantZeroPrice, productId);
 
-        // Calculate average rating from reviews
-        Double averageRating = null;
-        if (product.getReviews() != null && !product.getReviews().isEmpty()) {
-            OptionalDouble calculatedAverageRating = product.getReviews().stream()
-                    .map(ProductReview::getRating)
-                    .filter(Objects::nonNull) // Filter out null ratings
-                    .mapToDouble(Byte::doubleValue) // Convert Byte to double
-                    .average();
-
-            averageRating = calculatedAverageRating.isPresent() ? calculatedAverageRating.getAsDouble() : null;
-        }
-        product.setAverageRating(averageRating);
-        logger.debug("Calculated averageRating: {} for product ID: {}", averageRating, productId);
+        // averageRating is not touched here: it is maintained together with the other review
+        // aggregates by applyNewReview and reconcileReviewAggregates
 
         // Save the updated product
         productRepository.save(product);
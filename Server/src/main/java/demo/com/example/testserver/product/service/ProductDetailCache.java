@@ -0,0 +1,85 @@
+package demo.com.example.testserver.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import demo.com.example.testserver.common.dto.CacheStatsDTO;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache of mapped product detail DTOs (GET /api/products/{id}).
+ * Entries are bounded by size and expire after a fixed TTL; writers invalidate the affected IDs explicitly.
+ */
+@Component
+public class ProductDetailCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductDetailCache.class);
+
+    private final Cache<Long, ProductDTO> cache;
+
+    public ProductDetailCache(
+            @Value("${app.cache.product-detail.max-size:10000}") long maxSize,
+            @Value("${app.cache.product-detail.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        logger.info("Product detail cache initialized (maxSize={}, ttl={}s).", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Returns the cached DTO for the product, loading it with the given function on a miss.
+     * Exceptions thrown by the loader (e.g. EntityNotFoundException) propagate and nothing is cached.
+     */
+    public ProductDTO get(Long productId, Function<Long, ProductDTO> loader) {
+        return cache.get(productId, loader);
+    }
+
+    /**
+     * Evicts the product now and, when called inside a transaction, once more after commit.
+     * The second eviction drops any entry a concurrent reader loaded from the pre-commit state.
+     */
+    public void invalidate(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        cache.invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(productId);
+                }
+            });
+        }
+        logger.debug("Invalidated product detail cache entry for product ID: {}", productId);
+    }
+
+    public void invalidateAll(Collection<Long> productIds) {
+        productIds.forEach(this::invalidate);
+    }
+
+    public CacheStatsDTO getStats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(
+                "productDetail",
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.averageLoadPenalty() / 1_000_000.0
+        );
+    }
+}
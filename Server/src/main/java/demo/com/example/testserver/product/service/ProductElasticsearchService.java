@@ -16,9 +16,36 @@ import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery; // For new Elasticsearch client
 import co.elastic.clients.elasticsearch._types.query_dsl.Operator; // For MatchQuery Operator
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.HistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.LongTermsBucket;
+import demo.com.example.testserver.product.dto.FacetBucketDTO;
+import demo.com.example.testserver.product.dto.ProductFacetsDTO;
+import demo.com.example.testserver.product.dto.SuggestionDTO;
+import demo.com.example.testserver.product.service.search.ProductSearchCriteria;
+import co.elastic.clients.elasticsearch.core.search.Suggester;
+import org.springframework.data.elasticsearch.core.suggest.response.CompletionSuggestion;
+import org.springframework.data.elasticsearch.core.suggest.response.Suggest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.json.JsonData;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.Collections;
 
@@ -28,18 +55,32 @@ public class ProductElasticsearchService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductElasticsearchService.class);
 
+    private static final String PRODUCT_SUGGESTER = "product-suggest";
+
+    // Sort properties buildListingSort can reproduce with MySQL's ordering
+    public static final Set<String> LISTING_SORT_FIELDS = Set.of("createdDate", "variantZeroPrice", "averageRating", "name");
+
     private final ProductElasticsearchRepository productElasticsearchRepository;
     private final ProductMapper productMapper;
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductFacetBuilder productFacetBuilder;
+    private final ElasticsearchCircuitBreaker circuitBreaker;
+    private final CatalogReferenceCache catalogReferenceCache;
 
     @Autowired
     public ProductElasticsearchService(
             ProductElasticsearchRepository productElasticsearchRepository,
             ProductMapper productMapper, // Added ProductMapper
-            ElasticsearchOperations elasticsearchOperations) {
+            ElasticsearchOperations elasticsearchOperations,
+            ProductFacetBuilder productFacetBuilder,
+            ElasticsearchCircuitBreaker circuitBreaker,
+            CatalogReferenceCache catalogReferenceCache) {
         this.productElasticsearchRepository = productElasticsearchRepository;
         this.productMapper = productMapper; // Initialize ProductMapper
         this.elasticsearchOperations = elasticsearchOperations;
+        this.productFacetBuilder = productFacetBuilder;
+        this.circuitBreaker = circuitBreaker;
+        this.catalogReferenceCache = catalogReferenceCache;
         logger.info("ProductElasticsearchService activated as Elasticsearch is enabled and reachable.");
     }
 
@@ -70,6 +111,29 @@ public class ProductElasticsearchService {
         }
     }
 
+    /**
+     * Indexes a batch of already mapped documents with a single bulk request.
+     * Unlike saveProduct, failures are rethrown so the indexing pipeline can keep the batch queued and retry it.
+     */
+    public void indexDocuments(List<ProductElasticsearchDTO> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        elasticsearchOperations.save(documents);
+        logger.debug("Bulk indexed {} product documents in Elasticsearch.", documents.size());
+    }
+
+    /**
+     * Removes a batch of product documents in one request. Failures are rethrown, as with indexDocuments.
+     */
+    public void deleteDocuments(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        productElasticsearchRepository.deleteAllById(productIds);
+        logger.debug("Bulk deleted {} product documents from Elasticsearch.", productIds.size());
+    }
+
     public ProductElasticsearchDTO findById(Long productId) {
         return productElasticsearchRepository.findById(productId).orElse(null);
     }
@@ -83,6 +147,232 @@ public class ProductElasticsearchService {
         return new PageImpl<>(dtos, pageable, searchHits.getTotalHits());
     }
 
+    /**
+     * ES-native listing search: keyword match, filters, sort and from/size paging all run inside Elasticsearch,
+     * and the page is read from _source (reviews excluded), so no MySQL round-trip is needed.
+     *
+     * @param criteria Keyword, filters and sort; the sort field must be one of LISTING_SORT_FIELDS.
+     * @return The page of documents, or null if the search failed, timed out or the circuit is open,
+     *         so the caller can fall back to MySQL.
+     */
+    public Page<ProductElasticsearchDTO> searchListing(ProductSearchCriteria criteria, Pageable pageable) {
+        return circuitBreaker.call("listing search " + criteria.describe(), () -> {
+            NativeQuery query = NativeQuery.builder()
+                    .withQuery(buildListingQuery(criteria))
+                    .withSort(buildListingSort(criteria.sortField(), criteria.ascending()))
+                    .withPageable(pageable)
+                    .withTrackTotalHits(true)
+                    .withSourceFilter(new FetchSourceFilterBuilder().withExcludes("reviews").build())
+                    .build();
+            return searchProducts(query, pageable);
+        });
+    }
+
+    /**
+     * Keyset variant of searchListing using search_after, for cursor (infinite scroll) listings.
+     *
+     * @param lastValue Sort key of the last row of the previous slice (null for a missing key), or ignored when lastId is null.
+     * @param lastId    ID of the last row of the previous slice, or null for the first slice.
+     * @return Up to {@code limit} documents, or null if the search failed, timed out or the circuit is open.
+     */
+    public List<ProductElasticsearchDTO> searchListingAfter(ProductSearchCriteria criteria,
+                                                            Comparable<?> lastValue, Long lastId, int limit) {
+        return circuitBreaker.call("keyset listing search " + criteria.describe(), () -> {
+            var builder = NativeQuery.builder()
+                    .withQuery(buildListingQuery(criteria))
+                    .withSort(buildListingSort(criteria.sortField(), criteria.ascending()))
+                    .withMaxResults(limit)
+                    .withSourceFilter(new FetchSourceFilterBuilder().withExcludes("reviews").build());
+            if (lastId != null) {
+                builder.withSearchAfter(List.of(toSearchAfterValue(criteria.sortField(), lastValue), lastId));
+            }
+            SearchHits<ProductElasticsearchDTO> searchHits = elasticsearchOperations.search(builder.build(), ProductElasticsearchDTO.class);
+            return searchHits.getSearchHits().stream()
+                    .map(SearchHit::getContent)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Filter sidebar counts as aggregations over the same query as searchListing, in one size-0 request.
+     * The category and brand terms are sized from the number of categories and brands, so every one gets a bucket.
+     *
+     * @return The facets, or null if the search failed, timed out, the circuit is open, or a terms aggregation
+     *         still left documents out (index ahead of the category/brand cache), so the caller can fall back to MySQL.
+     */
+    public ProductFacetsDTO searchFacets(String search, Integer categoryId, Integer brandId,
+                                         BigDecimal minPrice, BigDecimal maxPrice, Double minRating) {
+        return circuitBreaker.call("facet aggregation for '" + search + "'", () -> {
+            double priceInterval = productFacetBuilder.getPriceInterval().doubleValue();
+            NativeQuery query = NativeQuery.builder()
+                    .withQuery(buildListingQuery(ProductSearchCriteria.listing(search, categoryId, brandId, minPrice, maxPrice, minRating, null, false)))
+                    .withMaxResults(0)
+                    .withAggregation("categories", namedTermsAggregation("categoryId", "categoryName",
+                            catalogReferenceCache.getCategories().size()))
+                    .withAggregation("brands", namedTermsAggregation("brandId", "brandName",
+                            catalogReferenceCache.getBrands().size()))
+                    .withAggregation("prices", Aggregation.of(a -> a.histogram(h -> h.field("minPrice").interval(priceInterval).minDocCount(1))))
+                    .withAggregation("ratings", Aggregation.of(a -> a.histogram(h -> h.field("averageRating").interval(1.0).minDocCount(1))))
+                    .build();
+            SearchHits<ProductElasticsearchDTO> searchHits = elasticsearchOperations.search(query, ProductElasticsearchDTO.class);
+            Map<String, ElasticsearchAggregation> aggregations = ((ElasticsearchAggregations) searchHits.getAggregations()).aggregationsAsMap();
+            if (isTruncated(aggregations, "categories") || isTruncated(aggregations, "brands")) {
+                return null;
+            }
+
+            Map<Long, Long> priceBucketCounts = new HashMap<>();
+            for (HistogramBucket bucket : aggregate(aggregations, "prices").histogram().buckets().array()) {
+                priceBucketCounts.put(Math.round(bucket.key() / priceInterval), bucket.docCount());
+            }
+            Map<Integer, Long> ratingFloorCounts = new HashMap<>();
+            for (HistogramBucket bucket : aggregate(aggregations, "ratings").histogram().buckets().array()) {
+                ratingFloorCounts.put((int) bucket.key(), bucket.docCount());
+            }
+            return productFacetBuilder.build(
+                    toNamedBuckets(aggregate(aggregations, "categories")),
+                    toNamedBuckets(aggregate(aggregations, "brands")),
+                    priceBucketCounts,
+                    ratingFloorCounts);
+        });
+    }
+
+    /**
+     * Typeahead through the completion suggester on the "suggest" field (name and its word suffixes).
+     * Only the fields needed for the dropdown are read from _source.
+     *
+     * @return Up to {@code size} distinct products, or null if the request failed, timed out or the circuit is open.
+     */
+    public List<SuggestionDTO> suggestProducts(String prefix, int size, Duration timeout) {
+        return circuitBreaker.call("suggest for '" + prefix + "'", timeout, () -> {
+            NativeQuery query = NativeQuery.builder()
+                    .withSuggester(Suggester.of(s -> s.suggesters(PRODUCT_SUGGESTER, fs -> fs
+                            .prefix(prefix)
+                            .completion(c -> c.field("suggest").size(size).skipDuplicates(true)))))
+                    .withSourceFilter(new FetchSourceFilterBuilder().withIncludes("id", "name", "categoryName", "mainImageUrl").build())
+                    .withMaxResults(0)
+                    .withTimeout(timeout)
+                    .build();
+            SearchHits<ProductElasticsearchDTO> searchHits = elasticsearchOperations.search(query, ProductElasticsearchDTO.class);
+
+            List<SuggestionDTO> suggestions = new ArrayList<>();
+            Suggest suggest = searchHits.getSuggest();
+            if (suggest == null || suggest.getSuggestion(PRODUCT_SUGGESTER) == null) {
+                return suggestions;
+            }
+            for (var entry : suggest.getSuggestion(PRODUCT_SUGGESTER).getEntries()) {
+                for (var option : entry.getOptions()) {
+                    if (option instanceof CompletionSuggestion.Entry.Option<?> completion
+                            && completion.getSearchHit() != null
+                            && completion.getSearchHit().getContent() instanceof ProductElasticsearchDTO document) {
+                        suggestions.add(new SuggestionDTO(document.getId(), document.getName(), document.getCategoryName(), document.getMainImageUrl()));
+                    }
+                }
+            }
+            return suggestions;
+        });
+    }
+
+    // Terms on the ID field, with the display name taken from a one-bucket sub-aggregation
+    private Aggregation namedTermsAggregation(String idField, String nameField, int expectedTerms) {
+        int size = Math.max(expectedTerms, 1);
+        return Aggregation.of(a -> a
+                .terms(t -> t.field(idField).size(size))
+                .aggregations("name", sub -> sub.terms(t -> t.field(nameField).size(1))));
+    }
+
+    // Documents in terms beyond the requested size would silently drop from the sidebar
+    private boolean isTruncated(Map<String, ElasticsearchAggregation> aggregations, String name) {
+        Long otherDocs = aggregate(aggregations, name).lterms().sumOtherDocCount();
+        if (otherDocs != null && otherDocs > 0) {
+            logger.warn("The '{}' facet aggregation left out {} products; answering facets from MySQL.", name, otherDocs);
+            return true;
+        }
+        return false;
+    }
+
+    private Aggregate aggregate(Map<String, ElasticsearchAggregation> aggregations, String name) {
+        return aggregations.get(name).aggregation().getAggregate();
+    }
+
+    private List<FacetBucketDTO> toNamedBuckets(Aggregate aggregate) {
+        List<FacetBucketDTO> buckets = new ArrayList<>();
+        for (LongTermsBucket bucket : aggregate.lterms().buckets().array()) {
+            var names = bucket.aggregations().get("name").sterms().buckets().array();
+            String label = names.isEmpty() ? null : names.get(0).key().stringValue();
+            buckets.add(new FacetBucketDTO((int) bucket.key(), label, null, null, bucket.docCount()));
+        }
+        return buckets;
+    }
+
+    private co.elastic.clients.elasticsearch._types.query_dsl.Query buildListingQuery(ProductSearchCriteria criteria) {
+        BoolQuery.Builder bool = new BoolQuery.Builder();
+        if (criteria.hasKeyword()) {
+            // Same matching rules as searchProductIds
+            bool.must(m -> m.match(mq -> mq.field("name").query(criteria.search()).operator(Operator.And).fuzziness("AUTO")));
+        }
+        // Filters mirror ProductSpecificationBuilder.build; they run in filter context (cached, no scoring)
+        if (criteria.categoryId() != null) {
+            bool.filter(f -> f.term(t -> t.field("categoryId").value(criteria.categoryId())));
+        }
+        if (criteria.brandId() != null) {
+            bool.filter(f -> f.term(t -> t.field("brandId").value(criteria.brandId())));
+        }
+        if (criteria.minPrice() != null) {
+            bool.filter(f -> f.range(r -> r.field("minPrice").gte(JsonData.of(criteria.minPrice()))));
+        }
+        if (criteria.maxPrice() != null) {
+            bool.filter(f -> f.range(r -> r.field("maxPrice").lte(JsonData.of(criteria.maxPrice()))));
+        }
+        if (criteria.minRating() != null) {
+            bool.filter(f -> f.range(r -> r.field("averageRating").gte(JsonData.of(criteria.minRating()))));
+        }
+        if (criteria.startDate() != null) {
+            bool.filter(f -> f.range(r -> r.field("createdDate").gte(JsonData.of(criteria.startDate().getTime()))));
+        }
+        if (criteria.endDate() != null) {
+            bool.filter(f -> f.range(r -> r.field("createdDate").lte(JsonData.of(criteria.endDate().getTime()))));
+        }
+        return co.elastic.clients.elasticsearch._types.query_dsl.Query.of(q -> q.bool(bool.build()));
+    }
+
+    /**
+     * Sort on the requested field with the product ID as tie-breaker, matching the MySQL keyset order.
+     * Missing keys are replaced by a value below every real one, which reproduces MySQL's NULL ordering
+     * (first in ASC, last in DESC) and gives search_after a concrete value to resume from.
+     * name.keyword sorts by bytes rather than MySQL's utf8mb4_unicode_ci, so name cursors are not portable.
+     */
+    private List<SortOptions> buildListingSort(String sortField, boolean ascending) {
+        SortOrder order = ascending ? SortOrder.Asc : SortOrder.Desc;
+        List<SortOptions> sortOptions = new ArrayList<>();
+        switch (sortField) {
+            case "name" -> sortOptions.add(SortOptions.of(s -> s.field(f -> f.field("name.keyword").order(order))));
+            case "createdDate", "variantZeroPrice", "averageRating" -> sortOptions.add(SortOptions.of(s -> s.field(f -> f
+                    .field(sortField)
+                    .order(order)
+                    .missing(missingSortValue(sortField)))));
+            default -> throw new IllegalArgumentException("Unsupported sort field for Elasticsearch listing: " + sortField);
+        }
+        sortOptions.add(SortOptions.of(s -> s.field(f -> f.field("id").order(order))));
+        return sortOptions;
+    }
+
+    private FieldValue missingSortValue(String sortField) {
+        return "createdDate".equals(sortField) ? FieldValue.of(0L) : FieldValue.of(-1.0);
+    }
+
+    private Object toSearchAfterValue(String sortField, Comparable<?> lastValue) {
+        if (lastValue == null) {
+            return "createdDate".equals(sortField) ? 0L : -1.0;
+        }
+        if (lastValue instanceof Date date) {
+            return date.getTime();
+        }
+        if (lastValue instanceof BigDecimal decimal) {
+            return decimal.doubleValue();
+        }
+        return lastValue;
+    }
+
     public void updateProductEnabledStatus(Long productId, boolean isEnabled) {
         productElasticsearchRepository.findById(productId).ifPresent(dto -> {
             dto.setIsEnabled(isEnabled);
@@ -97,7 +387,7 @@ public class ProductElasticsearchService {
             logger.warn("Search term is empty, returning no results.");
             return Collections.emptyList();
         }
-        try {
+        return circuitBreaker.call("product ID search for '" + search + "'", () -> {
             var esMatchQuery = co.elastic.clients.elasticsearch._types.query_dsl.MatchQuery.of(m -> m
                     .field("name")
                     .query(search)
@@ -119,11 +409,7 @@ public class ProductElasticsearchService {
                     .map(SearchHit::getContent)
                     .map(ProductElasticsearchDTO::getId)
                     .collect(Collectors.toList());
-
-        } catch (Exception e) {
-            logger.error("Error searching for products with term {}: {}. Returning null to allow fallback.", search, e.getMessage(), e);
-            return null;
-        }
+        });
     }
 
     public void deleteProductById(Long productId) {
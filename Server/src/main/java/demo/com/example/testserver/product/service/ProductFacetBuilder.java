@@ -0,0 +1,98 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.dto.FacetBucketDTO;
+import demo.com.example.testserver.product.dto.ProductFacetsDTO;
+import demo.com.example.testserver.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assembles ProductFacetsDTO from raw counts, so the Elasticsearch aggregation path and the
+ * grouped SQL fallback produce identical buckets.
+ */
+@Component
+public class ProductFacetBuilder {
+
+    private static final int MAX_RATING_THRESHOLD = 4; // Sidebar offers "4 stars and up" down to "1 star and up"
+
+    @Value("${app.search.facets.price-interval:500000}")
+    private BigDecimal priceInterval;
+
+    public BigDecimal getPriceInterval() {
+        return priceInterval;
+    }
+
+    /**
+     * @param categories        Category buckets (id, name, count) in any order.
+     * @param brands            Brand buckets (id, name, count) in any order.
+     * @param priceBucketCounts Product count per price bucket index (FLOOR(minPrice / interval)).
+     * @param ratingFloorCounts Product count per whole-star rating (FLOOR(averageRating)).
+     */
+    public ProductFacetsDTO build(List<FacetBucketDTO> categories, List<FacetBucketDTO> brands,
+                                  Map<Long, Long> priceBucketCounts, Map<Integer, Long> ratingFloorCounts) {
+        ProductFacetsDTO facets = new ProductFacetsDTO();
+        Comparator<FacetBucketDTO> byCountDesc = Comparator.comparingLong(FacetBucketDTO::getCount).reversed()
+                .thenComparing(FacetBucketDTO::getLabel, Comparator.nullsLast(Comparator.naturalOrder()));
+        categories.sort(byCountDesc);
+        brands.sort(byCountDesc);
+        facets.setCategories(categories);
+        facets.setBrands(brands);
+
+        List<FacetBucketDTO> priceRanges = new ArrayList<>();
+        new TreeMap<>(priceBucketCounts).forEach((bucket, count) -> {
+            BigDecimal from = priceInterval.multiply(BigDecimal.valueOf(bucket));
+            BigDecimal to = from.add(priceInterval);
+            priceRanges.add(new FacetBucketDTO(null, from.toPlainString() + " - " + to.toPlainString(), from, to, count));
+        });
+        facets.setPriceRanges(priceRanges);
+
+        // Cumulative, to match the minRating filter: "N and up" counts every product rated N or higher
+        List<FacetBucketDTO> ratings = new ArrayList<>();
+        for (int threshold = MAX_RATING_THRESHOLD; threshold >= 1; threshold--) {
+            int min = threshold;
+            long count = ratingFloorCounts.entrySet().stream()
+                    .filter(e -> e.getKey() >= min)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            ratings.add(new FacetBucketDTO(null, threshold + "+", BigDecimal.valueOf(threshold), null, count));
+        }
+        facets.setRatings(ratings);
+        return facets;
+    }
+
+    /**
+     * Folds the rows of ProductRepository.countFacets (one per category/brand/price/rating combination)
+     * into per-dimension counts.
+     */
+    public ProductFacetsDTO fromRows(List<ProductRepository.FacetRow> rows) {
+        Map<Integer, FacetBucketDTO> categories = new LinkedHashMap<>();
+        Map<Integer, FacetBucketDTO> brands = new LinkedHashMap<>();
+        Map<Long, Long> priceBucketCounts = new TreeMap<>();
+        Map<Integer, Long> ratingFloorCounts = new TreeMap<>();
+
+        for (ProductRepository.FacetRow row : rows) {
+            long count = row.getProductCount();
+            FacetBucketDTO category = categories.computeIfAbsent(row.getCategoryId(),
+                    id -> new FacetBucketDTO(id, row.getCategoryName(), null, null, 0));
+            category.setCount(category.getCount() + count);
+            FacetBucketDTO brand = brands.computeIfAbsent(row.getBrandId(),
+                    id -> new FacetBucketDTO(id, row.getBrandName(), null, null, 0));
+            brand.setCount(brand.getCount() + count);
+            if (row.getPriceBucket() != null) {
+                priceBucketCounts.merge(row.getPriceBucket(), count, Long::sum);
+            }
+            if (row.getRatingFloor() != null) {
+                ratingFloorCounts.merge(row.getRatingFloor(), count, Long::sum);
+            }
+        }
+        return build(new ArrayList<>(categories.values()), new ArrayList<>(brands.values()), priceBucketCounts, ratingFloorCounts);
+    }
+}
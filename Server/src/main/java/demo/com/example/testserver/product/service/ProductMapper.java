@@ -8,6 +8,7 @@ import demo.com.example.testserver.product.dto.elasticsearch.ProductVariantElast
 import demo.com.example.testserver.product.model.Brand;
 import demo.com.example.testserver.product.model.Category;
 import demo.com.example.testserver.product.model.Product;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 import org.springframework.stereotype.Component;
 import demo.com.example.testserver.product.model.ProductImage;
 import demo.com.example.testserver.product.model.ProductReview;
@@ -17,6 +18,7 @@ import demo.com.example.testserver.product.dto.ProductVariantDTO; // Import Prod
 import demo.com.example.testserver.product.dto.UpdateProductRequestDTO; // Import Update DTOs
 import demo.com.example.testserver.product.dto.UpdateProductVariantDTO;
 import demo.com.example.testserver.product.dto.ProductReviewDTO;
+import demo.com.example.testserver.product.dto.ProductReviewSummaryDTO;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -63,24 +65,43 @@ public class ProductMapper {
         return dto;
     }
 
-    public ProductDTO mapToProductDetailDTO(Product product) {
+    /**
+     * Maps a product for the detail view. Only the given newest reviews are embedded;
+     * the full review list is served page by page from GET /api/products/{id}/reviews.
+     */
+    public ProductDTO mapToProductDetailDTO(Product product, List<ProductReview> latestReviews, ProductReviewSummaryDTO reviewSummary) {
         if (product == null) {
             return null;
         }
         // Start with the base mapping (which excludes reviews by default now)
         ProductDTO dto = this.mapToProductDTO(product);
 
-        // Explicitly map reviews for the detail DTO
-        if (product.getReviews() != null) {
-            dto.setReviews(product.getReviews().stream()
+        if (latestReviews != null) {
+            dto.setReviews(latestReviews.stream()
                                   .map(this::toProductReviewDTO) // Use existing helper to map ProductReview to ProductReviewDTO
                                   .collect(Collectors.toList()));
         } else {
             dto.setReviews(new ArrayList<>()); // Ensure it's an empty list if no reviews
         }
+        dto.setReviewSummary(reviewSummary);
         return dto;
     }
 
+    // Review summary from the running aggregates persisted on san_pham
+    public ProductReviewSummaryDTO mapToReviewSummaryDTO(Product product) {
+        ProductReviewSummaryDTO summary = new ProductReviewSummaryDTO();
+        summary.setTotalReviews(product.getReviewCount() != null ? product.getReviewCount() : 0);
+        summary.setRatingCount(product.getRatingCount() != null ? product.getRatingCount() : 0);
+        summary.setAverageRating(product.getAverageRating());
+        Map<Integer, Long> histogram = summary.getRatingHistogram();
+        histogram.put(1, product.getRating1Count() != null ? product.getRating1Count().longValue() : 0L);
+        histogram.put(2, product.getRating2Count() != null ? product.getRating2Count().longValue() : 0L);
+        histogram.put(3, product.getRating3Count() != null ? product.getRating3Count().longValue() : 0L);
+        histogram.put(4, product.getRating4Count() != null ? product.getRating4Count().longValue() : 0L);
+        histogram.put(5, product.getRating5Count() != null ? product.getRating5Count().longValue() : 0L);
+        return summary;
+    }
+
     public Product mapToProductEntity(CreateProductRequestDTO dto, Category category, Brand brand) {
         if (dto == null || category == null || brand == null) {
             // Consider throwing an exception or returning null based on desired error handling
@@ -284,11 +305,14 @@ public class ProductMapper {
         ProductElasticsearchDTO dto = new ProductElasticsearchDTO();
         dto.setId(product.getId());
         dto.setName(product.getName());
+        dto.setSuggest(new Completion(SearchTextNormalizer.wordSuffixes(product.getName()).toArray(new String[0])));
         dto.setDescription(product.getDescription());
         if (product.getCategory() != null) {
+            dto.setCategoryId(product.getCategory().getId());
             dto.setCategoryName(product.getCategory().getName());
         }
         if (product.getBrand() != null) {
+            dto.setBrandId(product.getBrand().getId());
             dto.setBrandName(product.getBrand().getName());
         }
         dto.setMainImageUrl(product.getMainImageUrl());
@@ -305,6 +329,7 @@ public class ProductMapper {
         dto.setAverageRating(product.getAverageRating());
         dto.setMinPrice(product.getMinPrice());
         dto.setMaxPrice(product.getMaxPrice());
+        dto.setVariantZeroPrice(product.getVariantZeroPrice());
         dto.setIsEnabled(product.isEnabled());
 
         if (product.getVariants() != null) {
@@ -326,6 +351,55 @@ public class ProductMapper {
         return dto;
     }
 
+    /**
+     * Maps an indexed document (from _source) to the listing DTO, so keyword searches can be answered
+     * by Elasticsearch alone. Produces the same shape as mapToProductDTO(Product).
+     */
+    public ProductDTO mapToProductDTO(ProductElasticsearchDTO document) {
+        if (document == null) {
+            return null;
+        }
+        ProductDTO dto = new ProductDTO();
+        dto.setId(document.getId());
+        dto.setName(document.getName());
+        dto.setDescription(document.getDescription());
+        dto.setCategoryName(document.getCategoryName());
+        dto.setBrandName(document.getBrandName());
+        dto.setMainImageUrl(document.getMainImageUrl());
+        dto.setImageUrls(document.getImageUrls() != null ? document.getImageUrls() : new ArrayList<>());
+        dto.setDiscountPercentage(document.getDiscountPercentage());
+        dto.setCreatedDate(document.getCreatedDate() != null ?
+                new java.sql.Timestamp(document.getCreatedDate().getTime()).toLocalDateTime() : null);
+        dto.setUpdatedDate(document.getUpdatedDate() != null ?
+                new java.sql.Timestamp(document.getUpdatedDate().getTime()).toLocalDateTime() : null);
+        dto.setAverageRating(document.getAverageRating());
+        dto.setMinPrice(document.getMinPrice());
+        dto.setMaxPrice(document.getMaxPrice());
+        if (document.getVariants() != null) {
+            dto.setVariants(document.getVariants().stream()
+                    .map(this::mapToProductVariantDTO)
+                    .collect(Collectors.toList()));
+        } else {
+            dto.setVariants(new ArrayList<>());
+        }
+        dto.setVariantCount(dto.getVariants().size());
+        return dto;
+    }
+
+    private ProductVariantDTO mapToProductVariantDTO(ProductVariantElasticsearchDTO variant) {
+        if (variant == null) {
+            return null;
+        }
+        ProductVariantDTO dto = new ProductVariantDTO();
+        dto.setId(variant.getId());
+        dto.setName(variant.getName());
+        dto.setSku(variant.getSku());
+        dto.setPrice(variant.getPrice());
+        dto.setStockQuantity(variant.getStockQuantity());
+        dto.setVariantImageUrl(variant.getVariantImageUrl());
+        return dto;
+    }
+
     private ProductVariantElasticsearchDTO mapToProductVariantElasticsearchDTO(ProductVariant variant) {
         if (variant == null) {
             return null;
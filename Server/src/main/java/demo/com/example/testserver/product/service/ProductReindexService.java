@@ -0,0 +1,262 @@
+package demo.com.example.testserver.product.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import demo.com.example.testserver.config.ElasticsearchConnectionCondition;
+import demo.com.example.testserver.product.dto.ReindexStatusDTO;
+import demo.com.example.testserver.product.dto.elasticsearch.ProductElasticsearchDTO;
+import demo.com.example.testserver.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rebuilds the products search index from MySQL.
+ * <p>
+ * The job creates a new versioned index (products_yyyyMMddHHmmss) with the mapping of ProductElasticsearchDTO,
+ * streams san_pham in ID-ordered chunks, and writes each chunk with a bulk request, keeping at most
+ * {@code parallelism} bulk requests in flight. When every chunk is written, the "products" alias is moved to the
+ * new index in a single atomic request, so searches never see a half-built index. Products that changed while the
+ * job was running are re-queued through ProductSearchIndexingService after the swap.
+ */
+@Service
+@Conditional(ElasticsearchConnectionCondition.class)
+public class ProductReindexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductReindexService.class);
+
+    public static final String PRODUCTS_ALIAS = "products";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndexingService productSearchIndexingService;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.reindex.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.search.reindex.parallelism:4}")
+    private int parallelism;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "product-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Progress of the current (or last) run
+    private final AtomicLong indexedProducts = new AtomicLong();
+    private volatile String state = "IDLE";
+    private volatile String targetIndex;
+    private volatile Date startedAt;
+    private volatile Date finishedAt;
+    private volatile long totalProducts;
+    private volatile int catchUpProducts;
+    private volatile String errorMessage;
+
+    /**
+     * Starts a full reindex in the background and returns its initial status.
+     *
+     * @throws IllegalStateException if a reindex is already running.
+     */
+    public ReindexStatusDTO startReindex() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reindex is already running (target index: " + targetIndex + ").");
+        }
+        targetIndex = PRODUCTS_ALIAS + "_" + new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
+        indexedProducts.set(0);
+        state = "RUNNING";
+        startedAt = new Date();
+        finishedAt = null;
+        totalProducts = 0;
+        catchUpProducts = 0;
+        errorMessage = null;
+
+        String target = targetIndex;
+        jobExecutor.execute(() -> runReindex(target));
+        logger.info("Full reindex into {} started.", target);
+        return getStatus();
+    }
+
+    private void runReindex(String target) {
+        ExecutorService bulkExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "product-reindex-bulk");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicReference<Exception> bulkFailure = new AtomicReference<>();
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        productSearchIndexingService.startCapturingChanges();
+        try {
+            createTargetIndex(target);
+            totalProducts = productRepository.count();
+            IndexCoordinates coordinates = IndexCoordinates.of(target);
+
+            long afterId = 0;
+            while (bulkFailure.get() == null) {
+                List<Long> ids = productRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                List<ProductElasticsearchDTO> documents = readOnlyTx.execute(status -> productSearchIndexingService.loadDocuments(ids));
+
+                inFlight.acquire(); // Back-pressure: reading waits while the bulk writers are saturated
+                bulkExecutor.execute(() -> {
+                    try {
+                        elasticsearchOperations.save(documents, coordinates);
+                        indexedProducts.addAndGet(documents.size());
+                    } catch (Exception e) {
+                        bulkFailure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquire(parallelism); // Wait for the remaining bulk requests
+            inFlight.release(parallelism);
+            if (bulkFailure.get() != null) {
+                throw bulkFailure.get();
+            }
+
+            finalizeTargetIndex(target);
+            List<String> previousIndices = swapAlias(target);
+            deletePreviousIndices(previousIndices);
+
+            Set<Long> changed = productSearchIndexingService.stopCapturingChanges();
+            changed.forEach(productSearchIndexingService::enqueueUpsert); // Missing products become deletes on flush
+            catchUpProducts = changed.size();
+
+            state = "COMPLETED";
+            logger.info("Full reindex into {} completed: {} products in {} ms, {} re-queued for catch-up.",
+                    target, indexedProducts.get(), System.currentTimeMillis() - startedAt.getTime(), catchUpProducts);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            productSearchIndexingService.stopCapturingChanges();
+            state = "FAILED";
+            errorMessage = e.getMessage();
+            logger.error("Full reindex into {} failed after {} products: {}", target, indexedProducts.get(), e.getMessage(), e);
+            deleteQuietly(target);
+        } finally {
+            bulkExecutor.shutdown();
+            finishedAt = new Date();
+            running.set(false);
+        }
+    }
+
+    private void createTargetIndex(String target) throws IOException {
+        IndexOperations templateOps = elasticsearchOperations.indexOps(ProductElasticsearchDTO.class);
+        elasticsearchOperations.indexOps(IndexCoordinates.of(target))
+                .create(templateOps.createSettings(), templateOps.createMapping());
+        // No periodic refreshes while bulk loading; the index is not searchable until the swap anyway
+        elasticsearchClient.indices().putSettings(p -> p
+                .index(target)
+                .settings(s -> s.refreshInterval(t -> t.time("-1"))));
+    }
+
+    private void finalizeTargetIndex(String target) throws IOException {
+        elasticsearchClient.indices().putSettings(p -> p
+                .index(target)
+                .settings(s -> s.refreshInterval(t -> t.time("1s"))));
+        elasticsearchClient.indices().refresh(r -> r.index(target));
+    }
+
+    /**
+     * Points the products alias at the new index in one atomic update and returns the indices it pointed to before.
+     * A concrete index named "products" (created before aliases were used) is dropped in the same request.
+     */
+    private List<String> swapAlias(String target) throws IOException {
+        List<Action> actions = new ArrayList<>();
+        List<String> previousIndices = new ArrayList<>();
+        if (elasticsearchClient.indices().existsAlias(e -> e.name(PRODUCTS_ALIAS)).value()) {
+            previousIndices.addAll(elasticsearchClient.indices().getAlias(g -> g.name(PRODUCTS_ALIAS)).result().keySet());
+            for (String index : previousIndices) {
+                actions.add(Action.of(a -> a.remove(r -> r.index(index).alias(PRODUCTS_ALIAS))));
+            }
+        } else if (elasticsearchClient.indices().exists(e -> e.index(PRODUCTS_ALIAS)).value()) {
+            actions.add(Action.of(a -> a.removeIndex(r -> r.index(PRODUCTS_ALIAS))));
+        }
+        actions.add(Action.of(a -> a.add(add -> add.index(target).alias(PRODUCTS_ALIAS))));
+        elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        logger.info("Alias '{}' now points to {} (previously: {}).", PRODUCTS_ALIAS, target, previousIndices);
+        return previousIndices;
+    }
+
+    private void deletePreviousIndices(List<String> previousIndices) {
+        previousIndices.forEach(this::deleteQuietly);
+    }
+
+    private void deleteQuietly(String index) {
+        try {
+            elasticsearchClient.indices().delete(d -> d.index(index).ignoreUnavailable(true));
+        } catch (Exception e) {
+            logger.warn("Could not delete index {}: {}", index, e.getMessage());
+        }
+    }
+
+    public ReindexStatusDTO getStatus() {
+        ReindexStatusDTO status = new ReindexStatusDTO();
+        long indexed = indexedProducts.get();
+        long total = totalProducts;
+        Date start = startedAt;
+        Date end = finishedAt;
+        long elapsed = start == null ? 0 : (end != null ? end.getTime() : System.currentTimeMillis()) - start.getTime();
+
+        status.setState(state);
+        status.setTargetIndex(targetIndex);
+        status.setStartedAt(start);
+        status.setFinishedAt(end);
+        status.setTotalProducts(total);
+        status.setIndexedProducts(indexed);
+        status.setPercentComplete(total > 0 ? Math.min(100.0, indexed * 100.0 / total) : 0);
+        status.setElapsedMillis(elapsed);
+        status.setDocumentsPerSecond(elapsed > 0 ? indexed * 1000.0 / elapsed : 0);
+        status.setCatchUpProducts(catchUpProducts);
+        status.setErrorMessage(errorMessage);
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+}
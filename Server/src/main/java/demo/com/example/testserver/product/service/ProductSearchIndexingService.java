@@ -0,0 +1,337 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.dto.SearchIndexingStatsDTO;
+import demo.com.example.testserver.product.dto.elasticsearch.ProductElasticsearchDTO;
+import demo.com.example.testserver.product.model.Product;
+import demo.com.example.testserver.product.model.ProductSearchOutboxEntry;
+import demo.com.example.testserver.product.model.ProductSearchOutboxEntry.Operation;
+import demo.com.example.testserver.product.repository.ProductRepository;
+import demo.com.example.testserver.product.repository.ProductSearchOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the Elasticsearch product index in sync with MySQL without putting ES on the write path.
+ * <p>
+ * Writers call {@link #enqueueUpsert(Long)} / {@link #enqueueDelete(Long)} inside their transaction. That persists
+ * a row in product_search_outbox alongside the product change, and only once the transaction commits is the change
+ * handed to an in-memory queue keyed by product ID, so repeated updates of the same product collapse into one
+ * document write. The queue is flushed through the ES bulk API when it reaches the batch size or on a fixed interval,
+ * whichever comes first. Outbox rows are deleted after a successful flush; anything left over (crash, ES outage)
+ * is replayed from the table on the next startup.
+ * <p>
+ * Every committed change is also published as a {@link ProductChangedEvent}, whether or not Elasticsearch is enabled.
+ */
+@Service
+@Lazy(false) // Owns a @Scheduled flush and the startup replay, so it must be created eagerly
+public class ProductSearchIndexingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexingService.class);
+
+    @Autowired(required = false) // Absent when Elasticsearch is disabled; indexing is then a no-op
+    private ProductElasticsearchService productElasticsearchService;
+
+    @Autowired
+    private ProductSearchOutboxRepository outboxRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ElasticsearchCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.search.indexing.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Latest pending operation for one product, together with every outbox row it stands for.
+     */
+    private record PendingChange(Operation operation, List<Long> outboxIds, long firstEnqueuedAt) {
+
+        // Combines this change with one that happened after it: the later operation wins, the rows accumulate
+        PendingChange followedBy(PendingChange later) {
+            List<Long> ids = new ArrayList<>(outboxIds.size() + later.outboxIds.size());
+            ids.addAll(outboxIds);
+            ids.addAll(later.outboxIds);
+            return new PendingChange(later.operation, ids, Math.min(firstEnqueuedAt, later.firstEnqueuedAt));
+        }
+    }
+
+    private final ConcurrentHashMap<Long, PendingChange> pending = new ConcurrentHashMap<>();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "product-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    // Products changed while a full reindex is running; replayed against the new index after the alias swap
+    private final Set<Long> capturedChanges = ConcurrentHashMap.newKeySet();
+    private volatile boolean capturing;
+
+    // Metrics
+    private final AtomicLong indexedDocuments = new AtomicLong();
+    private final AtomicLong deletedDocuments = new AtomicLong();
+    private final AtomicLong coalescedChanges = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushDurationMillis;
+    private volatile Date lastFlushAt;
+
+    public void enqueueUpsert(Long productId) {
+        enqueue(productId, Operation.UPSERT);
+    }
+
+    public void enqueueDelete(Long productId) {
+        enqueue(productId, Operation.DELETE);
+    }
+
+    private void enqueue(Long productId, Operation operation) {
+        if (productId == null) {
+            return;
+        }
+        ProductChangedEvent event = new ProductChangedEvent(productId, operation == Operation.DELETE);
+        if (productElasticsearchService == null) {
+            runAfterCommit(() -> eventPublisher.publishEvent(event));
+            return;
+        }
+        ProductSearchOutboxEntry entry = outboxRepository.save(new ProductSearchOutboxEntry(productId, operation));
+        PendingChange change = new PendingChange(operation, List.of(entry.getId()), entry.getCreatedAt().getTime());
+        // On rollback the outbox row disappears with the product change and nothing reaches the index
+        runAfterCommit(() -> {
+            accept(productId, change);
+            eventPublisher.publishEvent(event);
+        });
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void accept(Long productId, PendingChange change) {
+        if (capturing) {
+            capturedChanges.add(productId);
+        }
+        pending.merge(productId, change, (existing, later) -> {
+            coalescedChanges.incrementAndGet();
+            return existing.followedBy(later);
+        });
+        if (pending.size() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Time-based flush threshold; also retries batches that failed on a previous attempt.
+     */
+    @Scheduled(fixedDelayString = "${app.search.indexing.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        // While the read path has tripped the breaker, keep changes queued instead of piling bulk requests on a struggling cluster
+        if (!pending.isEmpty() && !circuitBreaker.isOpen()) {
+            flush();
+        }
+    }
+
+    /**
+     * Drains the queue in batches of at most batch-size products. Stops at the first failed batch,
+     * which is put back on the queue for the next attempt.
+     */
+    public synchronized void flush() {
+        if (productElasticsearchService == null) {
+            return;
+        }
+        while (!pending.isEmpty()) {
+            Map<Long, PendingChange> batch = drainBatch();
+            if (batch.isEmpty() || !flushBatch(batch)) {
+                return;
+            }
+        }
+    }
+
+    private Map<Long, PendingChange> drainBatch() {
+        Map<Long, PendingChange> batch = new LinkedHashMap<>();
+        for (Long productId : pending.keySet()) {
+            if (batch.size() >= batchSize) {
+                break;
+            }
+            PendingChange change = pending.remove(productId);
+            if (change != null) {
+                batch.put(productId, change);
+            }
+        }
+        return batch;
+    }
+
+    private boolean flushBatch(Map<Long, PendingChange> batch) {
+        long start = System.currentTimeMillis();
+        List<Long> upsertIds = new ArrayList<>();
+        Set<Long> deleteIds = new HashSet<>();
+        batch.forEach((productId, change) -> {
+            if (change.operation() == Operation.UPSERT) {
+                upsertIds.add(productId);
+            } else {
+                deleteIds.add(productId);
+            }
+        });
+
+        try {
+            TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+            readOnlyTx.setReadOnly(true);
+            List<ProductElasticsearchDTO> documents = upsertIds.isEmpty()
+                    ? List.of()
+                    : readOnlyTx.execute(status -> loadDocuments(upsertIds));
+            // A product deleted after its upsert was queued must not be resurrected in the index
+            Set<Long> loadedIds = documents.stream().map(ProductElasticsearchDTO::getId).collect(Collectors.toSet());
+            upsertIds.stream().filter(id -> !loadedIds.contains(id)).forEach(deleteIds::add);
+
+            productElasticsearchService.indexDocuments(documents);
+            productElasticsearchService.deleteDocuments(deleteIds);
+
+            List<Long> outboxIds = batch.values().stream()
+                    .flatMap(change -> change.outboxIds().stream())
+                    .collect(Collectors.toList());
+            outboxRepository.deleteAllByIdInBatch(outboxIds);
+
+            indexedDocuments.addAndGet(documents.size());
+            deletedDocuments.addAndGet(deleteIds.size());
+            lastFlushDurationMillis = System.currentTimeMillis() - start;
+            lastFlushAt = new Date();
+            logger.info("Flushed {} product changes to Elasticsearch ({} indexed, {} deleted) in {} ms.",
+                    batch.size(), documents.size(), deleteIds.size(), lastFlushDurationMillis);
+            return true;
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            logger.error("Failed to flush {} product changes to Elasticsearch, will retry: {}", batch.size(), e.getMessage(), e);
+            // Requeue, letting any change that arrived in the meantime take precedence
+            batch.forEach((productId, failed) -> pending.merge(productId, failed, (newer, old) -> old.followedBy(newer)));
+            return false;
+        }
+    }
+
+    /**
+     * Loads and maps the given products to index documents. Must be called inside a transaction.
+     * Products that no longer exist are simply absent from the result.
+     */
+    public List<ProductElasticsearchDTO> loadDocuments(List<Long> productIds) {
+        // Same two-query hydration as the listing pages, so mapping does not lazy-load per product
+        List<Product> products = productRepository.findWithCategoryBrandAndVariantsByIdIn(productIds);
+        productRepository.findWithImagesByIdIn(productIds);
+        return products.stream()
+                .map(productMapper::mapToProductElasticsearchDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Re-queues every change that was committed but never flushed before the last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOutbox() {
+        List<ProductSearchOutboxEntry> entries = outboxRepository.findAllByOrderByIdAsc();
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (productElasticsearchService == null) {
+            logger.warn("{} product search outbox entries pending, but Elasticsearch is disabled. They will be replayed once it is enabled.", entries.size());
+            return;
+        }
+        for (ProductSearchOutboxEntry entry : entries) {
+            accept(entry.getProductId(),
+                    new PendingChange(entry.getOperation(), List.of(entry.getId()), entry.getCreatedAt().getTime()));
+        }
+        logger.info("Replaying {} product search outbox entries ({} distinct products).", entries.size(), pending.size());
+        requestFlush();
+    }
+
+    /**
+     * Starts recording which products change, so a full reindex can catch up on writes it may have missed.
+     */
+    public void startCapturingChanges() {
+        capturedChanges.clear();
+        capturing = true;
+    }
+
+    /**
+     * Stops recording and returns the products that changed since {@link #startCapturingChanges()}.
+     */
+    public Set<Long> stopCapturingChanges() {
+        capturing = false;
+        Set<Long> changed = new HashSet<>(capturedChanges);
+        capturedChanges.clear();
+        return changed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unflushed changes stay in the outbox table and are replayed on the next startup
+        flushExecutor.shutdown();
+    }
+
+    public SearchIndexingStatsDTO getStats() {
+        SearchIndexingStatsDTO stats = new SearchIndexingStatsDTO();
+        long now = System.currentTimeMillis();
+        long oldest = pending.values().stream().mapToLong(PendingChange::firstEnqueuedAt).min().orElse(now);
+        stats.setElasticsearchEnabled(productElasticsearchService != null);
+        stats.setQueueDepth(pending.size());
+        stats.setOldestPendingLagMillis(now - oldest);
+        stats.setIndexedDocuments(indexedDocuments.get());
+        stats.setDeletedDocuments(deletedDocuments.get());
+        stats.setCoalescedChanges(coalescedChanges.get());
+        stats.setFailedFlushes(failedFlushes.get());
+        stats.setLastFlushDurationMillis(lastFlushDurationMillis);
+        stats.setLastFlushAt(lastFlushAt);
+        return stats;
+    }
+}
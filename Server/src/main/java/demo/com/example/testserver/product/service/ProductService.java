@@ -1,9 +1,12 @@
 package demo.com.example.testserver.product.service;
 
+import demo.com.example.testserver.common.dto.CursorPageDTO;
 import demo.com.example.testserver.product.dto.CreateProductRequestDTO;
 import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.dto.ProductFacetsDTO;
 import demo.com.example.testserver.product.dto.CreateProductReviewRequestDTO;
 import demo.com.example.testserver.product.dto.ProductReviewDTO;
+import demo.com.example.testserver.product.dto.ProductReviewPageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import demo.com.example.testserver.product.dto.UpdateProductRequestDTO; // Import Update DTO
@@ -39,6 +42,58 @@ public interface ProductService {
             String sortDir
     );
 
+    /**
+     * Finds products using keyset (seek) pagination instead of OFFSET paging.
+     * Each page seeks past the sort key and ID of the previous page's last row, so the cost of a page
+     * does not grow with scroll depth, and no count query is executed.
+     *
+     * @param size Maximum number of products to return.
+     * @param cursor Continuation token returned by the previous call, or null/blank for the first page.
+     * @param search Optional search keyword.
+     * @param categoryId Optional category ID to filter by.
+     * @param brandId Optional brand ID to filter by.
+     * @param minPrice Optional minimum price filter.
+     * @param maxPrice Optional maximum price filter.
+     * @param minRating Optional minimum average rating filter.
+     * @param sortBy Optional field to sort by (e.g., "name", "price", "createdDate", "rating").
+     * @param sortDir Optional sort direction ("asc" or "desc").
+     * @return A slice of ProductDTOs plus the token for the next slice.
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for a different sort order.
+     */
+    CursorPageDTO<ProductDTO> findProductsByCursor(
+            int size,
+            String cursor,
+            String search,
+            Integer categoryId,
+            Integer brandId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Double minRating,
+            String sortBy,
+            String sortDir
+    );
+
+    /**
+     * Computes the filter sidebar counts (category, brand, price buckets, minimum rating) for a listing search.
+     * Uses Elasticsearch aggregations when available, otherwise a single grouped SQL query.
+     *
+     * @param search Optional search keyword.
+     * @param categoryId Optional category ID to filter by.
+     * @param brandId Optional brand ID to filter by.
+     * @param minPrice Optional minimum price filter.
+     * @param maxPrice Optional maximum price filter.
+     * @param minRating Optional minimum average rating filter.
+     * @return Facet counts over the products matching all given filters.
+     */
+    ProductFacetsDTO findProductFacets(
+            String search,
+            Integer categoryId,
+            Integer brandId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Double minRating
+    );
+
     /**
      * Finds products for admin based on search term, date range, and pagination.
      *
@@ -115,5 +170,18 @@ public interface ProductService {
      */
     ProductReviewDTO addReview(Long productId, CreateProductReviewRequestDTO reviewDTO, String userEmail);
 
+    /**
+     * Lists a product's reviews newest first using keyset pagination.
+     * The first page (no cursor) also carries the review count and rating histogram.
+     *
+     * @param productId The ID of the product.
+     * @param cursor Continuation token from the previous page, or null/blank for the first page.
+     * @param size Maximum number of reviews to return.
+     * @return A page of ProductReviewDTOs with the token for the next page.
+     * @throws jakarta.persistence.EntityNotFoundException if the product is not found.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    ProductReviewPageDTO findReviews(Long productId, String cursor, int size);
+
     // Add other methods as needed
 }
@@ -1,8 +1,11 @@
 package demo.com.example.testserver.product.service;
 
+import demo.com.example.testserver.config.MySqlFullTextFunctionContributor;
 import demo.com.example.testserver.product.model.Product;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,17 +45,23 @@ public class ProductSpecificationBuilder {
                 // Assuming product ID in database is Long. If it's Integer, adjust `Product_.ID` or cast.
                 predicates.add(root.get("id").in(productIdsFromSearch));
             } else if (search != null && !search.trim().isEmpty() && productIdsFromSearch == null) {
-                // For full-text search, we'll use native queries instead (see ProductRepository)
-                // Here we'll only handle simple LIKE searches as a fallback
-                if (!Boolean.TRUE.equals(useFullTextSearch)) {
-                    // Fallback to LIKE search if full-text search is not enabled or will be handled by native query
+                // Both variants match the accent-folded name and description, like Elasticsearch's vn_folding fields,
+                // so "ao thun" also finds "Áo thun"
+                String fullTextQuery = Boolean.TRUE.equals(useFullTextSearch) ? SearchTextNormalizer.toFullTextQuery(search) : null;
+                if (fullTextQuery != null) {
+                    logger.debug("Adding full-text filter on folded name: {}", fullTextQuery);
+                    predicates.add(criteriaBuilder.greaterThan(
+                            criteriaBuilder.function(MySqlFullTextFunctionContributor.FULLTEXT_MATCH, Double.class,
+                                    root.get("searchName"), root.get("searchDescription"), criteriaBuilder.literal(fullTextQuery)),
+                            0.0));
+                } else {
+                    // Full-text search disabled (or every word shorter than the index's token size): LIKE scan
                     logger.debug("Adding database LIKE filter for search term: {}", search);
-                    Predicate nameLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + search.toLowerCase() + "%");
-                    Predicate descriptionLike = criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), "%" + search.toLowerCase() + "%");
+                    String pattern = "%" + SearchTextNormalizer.normalize(search) + "%";
+                    Predicate nameLike = criteriaBuilder.like(root.get("searchName"), pattern);
+                    Predicate descriptionLike = criteriaBuilder.like(root.get("searchDescription"), pattern);
                     predicates.add(criteriaBuilder.or(nameLike, descriptionLike));
                 }
-                // Note: When useFullTextSearch is true, we'll use the native query instead,
-                // so we don't add any predicate here
             }
 
             // Filter by Category
@@ -106,4 +115,36 @@ public class ProductSpecificationBuilder {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Builds the seek predicate for keyset pagination: only rows that sort strictly after
+     * (lastValue, lastId) under "ORDER BY sortField dir, id dir" are matched.
+     * NULL keys follow MySQL ordering semantics (NULLs first in ASC, last in DESC).
+     */
+    @SuppressWarnings("rawtypes")
+    public Specification<Product> seekAfter(String sortField, boolean ascending, Comparable<?> lastValue, Long lastId) {
+        return (root, query, criteriaBuilder) -> {
+            logger.debug("Building seek predicate after ({}, {}) on {} {}", lastValue, lastId, sortField, ascending ? "ASC" : "DESC");
+            Path<Comparable> key = root.get(sortField);
+            Path<Long> id = root.get("id");
+            Predicate idBeyond = ascending ? criteriaBuilder.greaterThan(id, lastId) : criteriaBuilder.lessThan(id, lastId);
+
+            if (lastValue == null) {
+                Predicate nullTie = criteriaBuilder.and(criteriaBuilder.isNull(key), idBeyond);
+                // ASC: the NULL block came first, every non-null key is still ahead. DESC: only the NULL block remains.
+                return ascending ? criteriaBuilder.or(nullTie, criteriaBuilder.isNotNull(key)) : nullTie;
+            }
+
+            Predicate keyBeyond = compare(criteriaBuilder, key, lastValue, ascending);
+            Predicate keyTie = criteriaBuilder.and(criteriaBuilder.equal(key, lastValue), idBeyond);
+            Predicate seek = criteriaBuilder.or(keyBeyond, keyTie);
+            // DESC puts NULL keys at the end, so they are still ahead of any non-null cursor value
+            return ascending ? seek : criteriaBuilder.or(seek, criteriaBuilder.isNull(key));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate compare(CriteriaBuilder criteriaBuilder, Path<Comparable> key, Comparable value, boolean ascending) {
+        return ascending ? criteriaBuilder.greaterThan(key, value) : criteriaBuilder.lessThan(key, value);
+    }
 }
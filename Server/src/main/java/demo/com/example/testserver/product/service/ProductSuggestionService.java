@@ -0,0 +1,111 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.dto.ProductSuggestionsDTO;
+import demo.com.example.testserver.product.dto.SuggestionDTO;
+import demo.com.example.testserver.product.model.Category;
+import demo.com.example.testserver.product.repository.CategoryRepository;
+import demo.com.example.testserver.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Typeahead for the client search box (GET /api/products/suggest).
+ * <p>
+ * Product names come from the Elasticsearch completion suggester when it is available. An in-memory prefix trie over
+ * san_pham.ten_san_pham answers instead when ES is disabled, fails or misses its deadline. Category names are always
+ * served from memory. Both tries are rebuilt at startup and then periodically, so new products show up in the
+ * fallback after at most one refresh interval.
+ */
+@Service
+@Lazy(false) // Builds the tries on startup and refreshes them on a schedule
+public class ProductSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestionService.class);
+
+    private static final int MAX_KEY_LENGTH = 32; // Longer prefixes are matched on their first 32 characters
+
+    @Autowired(required = false) // Make Elasticsearch service optional
+    private ProductElasticsearchService productElasticsearchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Value("${app.search.suggest.max-results:10}")
+    private int maxResults;
+
+    @Value("${app.search.suggest.timeout-ms:150}")
+    private long timeoutMs;
+
+    private volatile SuggestionTrie<SuggestionDTO> productTrie = new SuggestionTrie<>(0, 0);
+    private volatile SuggestionTrie<SuggestionDTO> categoryTrie = new SuggestionTrie<>(0, 0);
+
+    /**
+     * @param query The text typed so far.
+     * @param size  Maximum suggestions per group; capped at app.search.suggest.max-results.
+     */
+    public ProductSuggestionsDTO suggest(String query, int size) {
+        String prefix = SearchTextNormalizer.normalize(query);
+        if (prefix.isEmpty() || size < 1) {
+            return new ProductSuggestionsDTO();
+        }
+        int limit = Math.min(size, maxResults);
+
+        List<SuggestionDTO> products = null;
+        if (productElasticsearchService != null) {
+            products = productElasticsearchService.suggestProducts(prefix, limit, Duration.ofMillis(timeoutMs));
+        }
+        if (products == null) {
+            products = productTrie.find(prefix, limit);
+        }
+        return new ProductSuggestionsDTO(products, categoryTrie.find(prefix, limit));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.search.suggest.refresh-interval-ms:300000}",
+               fixedDelayString = "${app.search.suggest.refresh-interval-ms:300000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            SuggestionTrie<SuggestionDTO> products = new SuggestionTrie<>(maxResults, MAX_KEY_LENGTH);
+            for (ProductRepository.SuggestionRow row : productRepository.findSuggestionRows()) {
+                SuggestionDTO suggestion = new SuggestionDTO(row.getId(), row.getName(), row.getCategoryName(), row.getMainImageUrl());
+                for (String key : SearchTextNormalizer.wordSuffixes(row.getName())) {
+                    products.add(SearchTextNormalizer.normalize(key), suggestion);
+                }
+            }
+
+            SuggestionTrie<SuggestionDTO> categories = new SuggestionTrie<>(maxResults, MAX_KEY_LENGTH);
+            for (Category category : categoryRepository.findAll(Sort.by("name"))) {
+                SuggestionDTO suggestion = new SuggestionDTO(category.getId().longValue(), category.getName(), null, category.getImageUrl());
+                for (String key : SearchTextNormalizer.wordSuffixes(category.getName())) {
+                    categories.add(SearchTextNormalizer.normalize(key), suggestion);
+                }
+            }
+
+            productTrie = products;
+            categoryTrie = categories;
+            logger.info("Suggestion index rebuilt: {} product keys, {} category keys in {} ms.",
+                    products.size(), categories.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to rebuild suggestion index, keeping the previous one: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package demo.com.example.testserver.product.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text normalization shared by every search path (typeahead trie, Elasticsearch suggest inputs, the folded
+ * san_pham.ten_khong_dau / mo_ta_khong_dau columns and the MySQL full-text query), so a keyword is matched the same way whichever
+ * backend answers it. The Elasticsearch side applies the equivalent "vn_folding" analyzer
+ * (elasticsearch/analyzer-settings.json).
+ */
+public final class SearchTextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // ngram_token_size of the FULLTEXT parser; shorter terms are never indexed
+    private static final int MIN_FULL_TEXT_TERM_LENGTH = 2;
+
+    private SearchTextNormalizer() {}
+
+    /**
+     * Folds Vietnamese diacritics (and any other combining marks) to their base letters, maps đ/Đ to d,
+     * lowercases, trims and collapses runs of whitespace into single spaces. Returns "" for null.
+     * E.g. "  Áo  Thun Đỏ " gives "ao thun do".
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        // NFD splits "ộ" into "o" + circumflex + dot below; đ has no decomposition and is mapped by hand
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+        return WHITESPACE.matcher(folded.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The text itself plus every suffix that starts at a word boundary, e.g. "Áo thun nam" gives
+     * "Áo thun nam", "thun nam" and "nam", so typing any word of a name finds it.
+     */
+    public static List<String> wordSuffixes(String text) {
+        List<String> suffixes = new ArrayList<>();
+        if (text == null) {
+            return suffixes;
+        }
+        String collapsed = WHITESPACE.matcher(text.trim()).replaceAll(" ");
+        if (collapsed.isEmpty()) {
+            return suffixes;
+        }
+        suffixes.add(collapsed);
+        for (int i = collapsed.indexOf(' '); i >= 0; i = collapsed.indexOf(' ', i + 1)) {
+            suffixes.add(collapsed.substring(i + 1));
+        }
+        return suffixes;
+    }
+
+    /**
+     * Builds a MySQL BOOLEAN MODE query over ten_khong_dau and mo_ta_khong_dau that requires every word of the keyword, e.g.
+     * "Áo thun-nam" gives "+ao +thun +nam". Operator characters are dropped with the other punctuation.
+     *
+     * @return The query, or null when no word is long enough to be in the full-text index.
+     */
+    public static String toFullTextQuery(String keyword) {
+        List<String> terms = fullTextTerms(keyword);
+        return terms.isEmpty() ? null : "+" + String.join(" +", terms);
+    }
+
+    /**
+     * The folded words of the keyword that the full-text query requires, e.g. "Áo thun-nam" gives ao, thun, nam.
+     * With the ngram parser, MySQL matches each one anywhere in the indexed text, in any order.
+     */
+    public static List<String> fullTextTerms(String keyword) {
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(normalize(keyword))) {
+            if (term.length() >= MIN_FULL_TEXT_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,168 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.product.model.ProductVariant;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Takes stock off product variants with guarded UPDATEs instead of read-check-write in Java: the row is only
+ * decremented if enough stock is left at the moment of the write, so concurrent checkouts of the same variant can
+ * neither oversell nor need a lock held across the order. All lines are sent as one JDBC batch.
+ * Variants flagged hot in the {@link HotStockLedger} are reserved from memory instead.
+ * <p>
+ * Must be called inside the order's transaction: a failed line throws, and the rollback returns the stock taken
+ * by the lines that did succeed. Once it commits, a {@link ProductChangedEvent} is published for every product whose
+ * stock was taken from MySQL (hot variants are published by the ledger when it flushes).
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private static final String RESERVE_SQL = "UPDATE bien_the_san_pham SET so_luong_ton_kho = so_luong_ton_kho - ? "
+            + "WHERE id = ? AND so_luong_ton_kho >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HotStockLedger hotStockLedger;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Reserves the given quantity of every variant.
+     *
+     * @param quantitiesByVariantId Quantity to take per variant ID; quantities must be positive.
+     * @throws EntityNotFoundException  If a variant does not exist.
+     * @throws IllegalArgumentException If a variant has less stock left than requested.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Map<Integer, Integer> quantitiesByVariantId) throws EntityNotFoundException {
+        if (!hotStockLedger.isEnabled()) {
+            reserveRouted(quantitiesByVariantId);
+            return;
+        }
+        // A variant cannot be flagged between the hot-or-not decision and the UPDATE that follows it
+        Lock routingLock = hotStockLedger.routingLock();
+        routingLock.lock();
+        try {
+            reserveRouted(quantitiesByVariantId);
+        } finally {
+            routingLock.unlock();
+        }
+    }
+
+    private void reserveRouted(Map<Integer, Integer> quantitiesByVariantId) {
+        // ID order: two orders sharing variants lock the rows in the same order and cannot deadlock
+        List<Map.Entry<Integer, Integer>> lines = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> line : new TreeMap<>(quantitiesByVariantId).entrySet()) {
+            if (line.getValue() == null || line.getValue() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for ProductVariant ID: " + line.getKey());
+            }
+            // Hot variants first: they fail in memory, before any row is locked
+            if (!reserveHot(line.getKey(), line.getValue())) {
+                lines.add(line);
+            }
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(lines.size());
+        for (Map.Entry<Integer, Integer> line : lines) {
+            batch.add(new Object[]{line.getValue(), line.getKey(), line.getValue()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, batch);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw insufficientStock(lines.get(i).getKey(), lines.get(i).getValue());
+            }
+        }
+        List<Integer> variantIds = lines.stream().map(Map.Entry::getKey).toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishStockChanged(variantIds);
+            }
+        });
+    }
+
+    // After commit, outside the row locks; the order is already placed, so a failure here is only logged
+    private void publishStockChanged(List<Integer> variantIds) {
+        try {
+            String placeholders = String.join(",", Collections.nCopies(variantIds.size(), "?"));
+            List<Long> productIds = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT san_pham_id FROM bien_the_san_pham WHERE id IN (" + placeholders + ")",
+                    Long.class, variantIds.toArray());
+            productIds.forEach(productId -> eventPublisher.publishEvent(new ProductChangedEvent(productId, false)));
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish the stock change of variants {}: {}", variantIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Stock a shopper can still add to a cart: the ledger's count for hot variants (so_luong_ton_kho lags behind
+     * it until the next flush), the variant's own count otherwise.
+     */
+    public int getAvailableStock(ProductVariant variant) {
+        Integer hotStock = hotStockLedger.getAvailable(variant.getId());
+        return hotStock != null ? hotStock : variant.getStockQuantity();
+    }
+
+    // False if the variant is not hot, so the line goes to MySQL
+    private boolean reserveHot(Integer variantId, int quantity) {
+        if (!hotStockLedger.isHot(variantId)) {
+            return false;
+        }
+        HotStockLedger.Reservation reservation;
+        try {
+            reservation = hotStockLedger.reserve(variantId, quantity);
+        } catch (IllegalStateException e) {
+            return false; // Unflagged meanwhile, or flagging it failed
+        }
+        if (reservation == null) {
+            Integer available = hotStockLedger.getAvailable(variantId);
+            throw new IllegalArgumentException("Insufficient stock for ProductVariant ID: " + variantId
+                    + ". Requested: " + quantity + ", Available: " + (available != null ? available : 0));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    hotStockLedger.confirm(reservation);
+                } else {
+                    hotStockLedger.release(reservation);
+                }
+            }
+        });
+        return true;
+    }
+
+    // Only on the failure path: tell a missing variant from one that ran out
+    private RuntimeException insufficientStock(Integer variantId, int requested) {
+        List<Integer> available = jdbcTemplate.queryForList(
+                "SELECT so_luong_ton_kho FROM bien_the_san_pham WHERE id = ?", Integer.class, variantId);
+        if (available.isEmpty()) {
+            return new EntityNotFoundException("ProductVariant not found with ID: " + variantId);
+        }
+        return new IllegalArgumentException("Insufficient stock for ProductVariant ID: " + variantId
+                + ". Requested: " + requested + ", Available: " + available.get(0));
+    }
+}
@@ -0,0 +1,70 @@
+package demo.com.example.testserver.product.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable-after-build prefix trie for typeahead. Every node keeps the best {@code maxResults} values whose key
+ * passes through it, so a lookup costs one walk down the prefix regardless of how many values match.
+ * <p>
+ * Values must be added in descending relevance order: the first values to reach a node are the ones it keeps.
+ * Keys are truncated to {@code maxKeyLength} characters to bound the node count.
+ */
+public class SuggestionTrie<T> {
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>(4);
+        private final List<T> top = new ArrayList<>(2);
+    }
+
+    private final Node<T> root = new Node<>();
+    private final int maxResults;
+    private final int maxKeyLength;
+    private int size;
+
+    public SuggestionTrie(int maxResults, int maxKeyLength) {
+        this.maxResults = maxResults;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    /**
+     * Indexes a value under an already normalized key. The same value may be added under several keys
+     * (e.g. every word suffix of a product name); it is kept at most once per node.
+     */
+    public void add(String key, T value) {
+        Node<T> node = root;
+        int length = Math.min(key.length(), maxKeyLength);
+        for (int i = 0; i < length; i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+            if (node.top.size() < maxResults && !node.top.contains(value)) {
+                node.top.add(value);
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Returns up to {@code limit} values whose key starts with the given normalized prefix, best first.
+     */
+    public List<T> find(String prefix, int limit) {
+        if (prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Node<T> node = root;
+        int length = Math.min(prefix.length(), maxKeyLength);
+        for (int i = 0; i < length && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        return node.top.subList(0, Math.min(limit, node.top.size()));
+    }
+
+    public int size() {
+        return size;
+    }
+}
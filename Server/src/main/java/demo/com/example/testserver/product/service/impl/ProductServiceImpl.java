@@ -1,25 +1,32 @@
 package demo.com.example.testserver.product.service.impl;
 
+import demo.com.example.testserver.common.dto.CursorPageDTO;
 import demo.com.example.testserver.product.dto.CreateProductRequestDTO;
 import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.dto.ProductFacetsDTO;
 import demo.com.example.testserver.product.dto.UpdateProductRequestDTO;
+import demo.com.example.testserver.product.dto.UpdateProductVariantDTO;
 import demo.com.example.testserver.product.dto.CreateProductReviewRequestDTO;
 import demo.com.example.testserver.product.dto.ProductReviewDTO;
+import demo.com.example.testserver.product.dto.ProductReviewPageDTO;
+import demo.com.example.testserver.product.dto.ProductReviewSummaryDTO;
 import demo.com.example.testserver.product.model.Brand;
 import demo.com.example.testserver.product.model.Category;
 import demo.com.example.testserver.product.model.Product;
 import demo.com.example.testserver.product.model.ProductReview;
-import demo.com.example.testserver.product.repository.BrandRepository;
-import demo.com.example.testserver.product.repository.CategoryRepository;
+import demo.com.example.testserver.product.model.ProductVariant;
 import demo.com.example.testserver.product.repository.ProductRepository;
 import demo.com.example.testserver.product.repository.ProductReviewRepository;
 import demo.com.example.testserver.product.service.*;
+import demo.com.example.testserver.product.service.search.ProductSearchCriteria;
+import demo.com.example.testserver.product.service.search.ProductSearchRouter;
 import demo.com.example.testserver.user.model.User;
 import demo.com.example.testserver.user.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -28,13 +35,18 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,14 +54,14 @@ public class ProductServiceImpl implements ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
 
-    @Autowired
-    private ProductRepository productRepository;
+    @Value("${app.product.detail.review-preview-size:5}")
+    private int reviewPreviewSize; // Newest reviews embedded in the product detail response
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private ProductRepository productRepository;
 
     @Autowired
-    private BrandRepository brandRepository;
+    private CatalogReferenceCache catalogReferenceCache;
 
     @Autowired
     private ProductSortBuilder productSortBuilder;
@@ -63,12 +75,33 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private FallbackProductElasticsearchService fallbackProductElasticsearchService; // Inject fallback
 
+    @Autowired
+    private ProductSearchRouter productSearchRouter;
+
     @Autowired
     private ProductMapper productMapper;
 
+    @Autowired
+    private ProductCursorCodec productCursorCodec;
+
+    @Autowired
+    private ProductFacetBuilder productFacetBuilder;
+
+    @Autowired
+    private ProductDetailCache productDetailCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private ProductDenormalizationService productDenormalizationService;
 
+    @Autowired
+    private ProductSearchIndexingService productSearchIndexingService;
+
+    @Autowired
+    private HotStockLedger hotStockLedger;
+
     @Autowired
     private ProductReviewRepository productReviewRepository;
 
@@ -78,45 +111,6 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate; // Added for WebSocket broadcasting
 
-    // Helper method to convert Sort object with entity properties to SQL column names
-    private Sort convertToNativeSort(Sort entitySort) {
-        if (entitySort == null || entitySort.isUnsorted()) {
-            // Default sort for native query if none is provided or if it's unsorted
-            return Sort.by(Sort.Direction.DESC, "ngay_tao");
-        }
-        List<Sort.Order> nativeOrders = entitySort.stream()
-            .map(order -> {
-                String property = order.getProperty();
-                String sqlColumn;
-                switch (property.toLowerCase()) {
-                    case "createddate":
-                    case "newest": // Alias for createdDate
-                        sqlColumn = "ngay_tao";
-                        break;
-                    case "name":
-                        sqlColumn = "ten_san_pham";
-                        break;
-                    case "averagerating":
-                    case "rating": // Alias for averageRating
-                        sqlColumn = "average_rating";
-                        break;
-                    case "variantzeroprice": // Used by ProductSortBuilder for "price"
-                    case "price":
-                        sqlColumn = "variant_zero_price";
-                        break;
-                    // Add other mappings if ProductSortBuilder supports more fields for Product
-                    default:
-                        // Fallback to a default known column if property is not explicitly mapped
-                        // This prevents errors if an unmapped property is somehow passed.
-                        // Alternatively, could throw an exception for unmapped properties.
-                        sqlColumn = "ngay_tao"; // Default fallback column
-                }
-                return order.isAscending() ? Sort.Order.asc(sqlColumn) : Sort.Order.desc(sqlColumn);
-            })
-            .collect(Collectors.toList());
-        return Sort.by(nativeOrders);
-    }
-
     @Override
     public Page<ProductDTO> findProducts(
             Pageable pageable,
@@ -132,160 +126,179 @@ public class ProductServiceImpl implements ProductService {
         logger.info("Finding products with criteria - Search: '{}', CategoryId: {}, BrandId: {}, Price: {}-{}, Rating >= {}, Sort: {} {}, Page: {}",
                 search, categoryId, brandId, minPrice, maxPrice, minRating, sortBy, sortDir, pageable);
 
-        Sort sort = productSortBuilder.buildSort(sortBy, sortDir);
-        Pageable pageRequest = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        Sort.Order primaryOrder = productSortBuilder.buildSort(sortBy, sortDir).iterator().next();
+        ProductSearchCriteria criteria = ProductSearchCriteria.listing(search, categoryId, brandId, minPrice, maxPrice, minRating,
+                primaryOrder.getProperty(), primaryOrder.isAscending());
 
-        List<Long> productIdsFromSearch = null;
-        boolean useFullTextSearch = false;
-
-        if (search != null && !search.trim().isEmpty()) {
-            logger.debug("Performing Elasticsearch search for keyword: {}", search);
-            if (productElasticsearchService != null) {
-                productIdsFromSearch = productElasticsearchService.searchProductIds(search);
-                if (productIdsFromSearch != null && productIdsFromSearch.isEmpty()) {
-                    logger.info("Elasticsearch returned no results for '{}'. Attempting fallback to database search.", search);
-                    productIdsFromSearch = null; // Signal to use DB search
-                    useFullTextSearch = fallbackProductElasticsearchService.isFullTextSearchEnabled(); // Check if Full-Text Search is enabled
-                } else if (productIdsFromSearch == null) {
-                    // This case might indicate an issue with the ES service itself, even if available
-                    logger.warn("Elasticsearch search returned null (possibly an error or timeout) for search term '{}'. Falling back to database search.", search);
-                    useFullTextSearch = fallbackProductElasticsearchService.isFullTextSearchEnabled(); // Check if Full-Text Search is enabled
-                }
-            } else {
-                logger.info("Elasticsearch service is not available. Using fallback for search term: {}", search);
-                productIdsFromSearch = fallbackProductElasticsearchService.searchProductIds(search); // Fallback returns null to trigger DB search
-                useFullTextSearch = fallbackProductElasticsearchService.isFullTextSearchEnabled(); // Check if Full-Text Search is enabled
-            }
+        Page<ProductDTO> page = productSearchRouter.findPage(criteria, pageable);
+        logger.info("Found {} products matching criteria.", page.getTotalElements());
+        return page;
+    }
+
+    @Override
+    public CursorPageDTO<ProductDTO> findProductsByCursor(
+            int size,
+            String cursor,
+            String search,
+            Integer categoryId,
+            Integer brandId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Double minRating,
+            String sortBy,
+            String sortDir
+    ) {
+        logger.info("Finding products by cursor - Search: '{}', CategoryId: {}, BrandId: {}, Price: {}-{}, Rating >= {}, Sort: {} {}, Size: {}, Cursor: {}",
+                search, categoryId, brandId, minPrice, maxPrice, minRating, sortBy, sortDir, size, cursor);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
         }
 
-        // Handle full-text search with native query if needed
-        Page<Product> productPage;
-        if (search != null && !search.trim().isEmpty() && productIdsFromSearch == null && useFullTextSearch) {
-            logger.info("Using native MySQL full-text search for term: {}", search);
-            String searchTermWithWildcard = search + "*"; // Add wildcard for partial matches
-            try {
-                // Convert sort properties to native SQL column names for the native query
-                Sort nativeQuerySort = convertToNativeSort(sort);
-                Pageable nativePageRequest = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), nativeQuerySort);
-                productPage = productRepository.findByFullTextSearch(searchTermWithWildcard, nativePageRequest);
-                logger.debug("Full-text search returned {} results", productPage.getTotalElements());
-            } catch (Exception e) {
-                logger.error("Error executing full-text search: {}", e.getMessage(), e);
-                // Fallback to regular specification if full-text search fails
-                logger.info("Falling back to regular specification search after full-text search error");
-                Specification<Product> spec = productSpecificationBuilder.build(
-                    search, categoryId, brandId, minPrice, maxPrice, minRating, productIdsFromSearch, 
-                    null, null, false, false // Set useFullTextSearch to false to use LIKE instead
-                );
-                productPage = productRepository.findAll(spec, pageRequest);
+        Sort.Order primaryOrder = productSortBuilder.buildSort(sortBy, sortDir).iterator().next();
+        String sortField = primaryOrder.getProperty();
+        boolean ascending = primaryOrder.isAscending();
+
+        ProductCursorCodec.ProductCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = productCursorCodec.decode(cursor);
+            if (!after.sortField().equals(sortField) || after.ascending() != ascending) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order. Restart the listing without a cursor.");
             }
-        } else {
-            // Use standard specification 
-            Specification<Product> spec = productSpecificationBuilder.build(
-                search, categoryId, brandId, minPrice, maxPrice, minRating, productIdsFromSearch, 
-                null, null, false, useFullTextSearch
-            );
-            logger.debug("Executing database query with filters and pagination.");
-            productPage = productRepository.findAll(spec, pageRequest);
         }
 
-        List<ProductDTO> dtos = productPage.getContent().stream()
-                .map(productMapper::mapToProductDTO)
-                .collect(Collectors.toList());
-
-        logger.info("Found {} products matching criteria.", productPage.getTotalElements());
-        return new PageImpl<>(dtos, pageRequest, productPage.getTotalElements());
+        ProductSearchCriteria criteria = ProductSearchCriteria.listing(search, categoryId, brandId, minPrice, maxPrice, minRating,
+                sortField, ascending);
+        CursorPageDTO<ProductDTO> slice = productSearchRouter.findSlice(criteria, after, size);
+        logger.info("Cursor listing returned {} products. Has next: {}", slice.getContent().size(), slice.isHasNext());
+        return slice;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public Page<ProductDTO> findProductsAdmin(String search, Date startDate, Date endDate, Pageable pageable) {
-        logger.info("Admin finding products with criteria - Search: '{}', StartDate: {}, EndDate: {}, Page: {}",
-                search, startDate, endDate, pageable);
-
-        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(Sort.Direction.DESC, "createdDate");
-        // Initialize pageRequest here
-        Pageable pageRequest = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    public ProductFacetsDTO findProductFacets(
+            String search,
+            Integer categoryId,
+            Integer brandId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Double minRating
+    ) {
+        logger.info("Computing facets - Search: '{}', CategoryId: {}, BrandId: {}, Price: {}-{}, Rating >= {}",
+                search, categoryId, brandId, minPrice, maxPrice, minRating);
 
-        List<Long> productIdsFromSearch = null;
-        boolean useFullTextSearch = false;
-        
-        if (search != null && !search.trim().isEmpty()) {
-            logger.debug("Admin: Performing Elasticsearch search for keyword: {}", search);
-            if (productElasticsearchService != null) {
-                productIdsFromSearch = productElasticsearchService.searchProductIds(search);
-                if (productIdsFromSearch != null && productIdsFromSearch.isEmpty()) {
-                    logger.info("Admin: Elasticsearch returned no results for '{}'. Attempting fallback to database search.", search);
-                    productIdsFromSearch = null; // Signal to use DB search
-                    useFullTextSearch = fallbackProductElasticsearchService.isFullTextSearchEnabled(); // Check if Full-Text Search is enabled
-                } else if (productIdsFromSearch == null) {
-                    logger.warn("Admin: Elasticsearch search returned null for search term '{}'. Falling back to database search.", search);
-                    useFullTextSearch = fallbackProductElasticsearchService.isFullTextSearchEnabled(); // Check if Full-Text Search is enabled
-                }
-            } else {
-                logger.info("Admin: Elasticsearch service is not available. Using fallback for search term: {}", search);
-                productIdsFromSearch = fallbackProductElasticsearchService.searchProductIds(search); // Fallback returns null to trigger DB search
-                useFullTextSearch = fallbackProductElasticsearchService.isFullTextSearchEnabled(); // Check if Full-Text Search is enabled
+        if (productElasticsearchService != null) {
+            ProductFacetsDTO facets = productElasticsearchService.searchFacets(search, categoryId, brandId, minPrice, maxPrice, minRating);
+            if (facets != null) {
+                return facets;
             }
+            logger.warn("Elasticsearch facet aggregation failed. Falling back to database facet query.");
         }
 
-        // Handle full-text search with native query if needed
-        Page<Product> productPage;
-        if (search != null && !search.trim().isEmpty() && productIdsFromSearch == null && useFullTextSearch) {
-            logger.info("Admin: Using native MySQL full-text search for term: {}", search);
-            String searchTermWithWildcard = search + "*"; // Add wildcard for partial matches
-            try {
-                // Convert sort properties to native SQL column names for the native query
-                Sort nativeQuerySort = convertToNativeSort(sort); // Use the same conversion
-                Pageable nativePageRequest = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), nativeQuerySort);
-                productPage = productRepository.findByFullTextSearch(searchTermWithWildcard, nativePageRequest);
-                logger.debug("Admin: Full-text search returned {} results", productPage.getTotalElements());
-            } catch (Exception e) {
-                logger.error("Admin: Error executing full-text search: {}", e.getMessage(), e);
-                // Fallback to regular specification if full-text search fails
-                logger.info("Admin: Falling back to regular specification search after full-text search error");
-                Specification<Product> spec = productSpecificationBuilder.build(
-                    search, null, null, null, null, null, productIdsFromSearch, startDate, endDate, false, false // Set useFullTextSearch to false to use LIKE instead
-                );
-                productPage = productRepository.findAll(spec, pageRequest); // Now pageRequest is defined
-            }
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        String fullTextQuery = hasSearch && fallbackProductElasticsearchService.isFullTextSearchEnabled()
+                ? SearchTextNormalizer.toFullTextQuery(search)
+                : null;
+        List<ProductRepository.FacetRow> rows;
+        if (fullTextQuery != null) {
+            rows = productRepository.countFacetsByFullTextSearch(fullTextQuery, categoryId, brandId, minPrice, maxPrice, minRating,
+                    productFacetBuilder.getPriceInterval());
         } else {
-            // Use standard specification 
-            Specification<Product> spec = productSpecificationBuilder.build(
-                search, null, null, null, null, null, productIdsFromSearch, startDate, endDate, false, useFullTextSearch
-            );
-            logger.debug("Executing admin database query with filters and pagination.");
-            productPage = productRepository.findAll(spec, pageRequest); // Now pageRequest is defined
+            String keywordPattern = hasSearch ? "%" + SearchTextNormalizer.normalize(search) + "%" : null;
+            rows = productRepository.countFacets(keywordPattern, categoryId, brandId, minPrice, maxPrice, minRating,
+                    productFacetBuilder.getPriceInterval());
         }
+        return productFacetBuilder.fromRows(rows);
+    }
 
-        List<ProductDTO> dtos = productPage.getContent().stream()
-                .map(productMapper::mapToProductDTO)
-                .collect(Collectors.toList());
+    @Override
+    public Page<ProductDTO> findProductsAdmin(String search, Date startDate, Date endDate, Pageable pageable) {
+        logger.info("Admin finding products with criteria - Search: '{}', StartDate: {}, EndDate: {}, Page: {}",
+                search, startDate, endDate, pageable);
+
+        Sort.Order primaryOrder = pageable.getSort().isSorted()
+                ? pageable.getSort().iterator().next()
+                : Sort.Order.desc("createdDate");
+        ProductSearchCriteria criteria = new ProductSearchCriteria(search, null, null, null, null, null,
+                startDate, endDate, primaryOrder.getProperty(), primaryOrder.isAscending());
 
-        logger.info("Admin search found {} products matching criteria.", productPage.getTotalElements());
-        return new PageImpl<>(dtos, pageRequest, productPage.getTotalElements()); // Now pageRequest is defined
+        Page<ProductDTO> page = productSearchRouter.findPage(criteria, pageable);
+        logger.info("Admin search found {} products matching criteria.", page.getTotalElements());
+        return page;
     }
 
     @Override
-    @Transactional
     public ProductDTO findProductById(Long id) {
         logger.info("Attempting to find product with ID: {}", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Product not found with ID: {}", id);
-                    return new EntityNotFoundException("Product not found with ID: " + id);
-                });
-
-        logger.info("Found product with ID: {}. Mapping to DTO with details.", id);
-        ProductDTO productDTO = productMapper.mapToProductDetailDTO(product); // Use detail mapper to include reviews
-
-        logger.debug("Mapped ProductDTO: ID={}, Name={}, Variants={}, Reviews={}", 
-                     productDTO.getId(), 
-                     productDTO.getName(), 
-                     productDTO.getVariantCount(),
-                     productDTO.getReviews() != null ? productDTO.getReviews().size() : 0);
-
-        return productDTO;
+        // Cache hits are served without opening a transaction or touching the connection pool
+        return productDetailCache.get(id, this::loadProductDetail);
+    }
+
+    // Cache loader for findProductById: maps the product with details inside a read-only transaction
+    private ProductDTO loadProductDetail(Long id) {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        return readOnlyTx.execute(status -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> {
+                        logger.warn("Product not found with ID: {}", id);
+                        return new EntityNotFoundException("Product not found with ID: " + id);
+                    });
+
+            logger.info("Found product with ID: {}. Mapping to DTO with details.", id);
+            ProductDTO productDTO = buildProductDetailDTO(product); // Detail mapping with review preview and summary
+
+            logger.debug("Mapped ProductDTO: ID={}, Name={}, Variants={}, Reviews={}",
+                         productDTO.getId(),
+                         productDTO.getName(),
+                         productDTO.getVariantCount(),
+                         productDTO.getReviews() != null ? productDTO.getReviews().size() : 0);
+
+            return productDTO;
+        });
+    }
+
+    // Detail DTO with only the newest reviews embedded (read from ProductReviewRepository instead of
+    // initializing the product's full review collection) plus the persisted review aggregates
+    private ProductDTO buildProductDetailDTO(Product product) {
+        List<ProductReview> latestReviews = productReviewRepository.findLatestByProductId(
+                product.getId(), PageRequest.of(0, reviewPreviewSize));
+        return productMapper.mapToProductDetailDTO(product, latestReviews, productMapper.mapToReviewSummaryDTO(product));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductReviewPageDTO findReviews(Long productId, String cursor, int size) {
+        logger.info("Finding reviews for product ID: {} - Size: {}, Cursor: {}", productId, size, cursor);
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + productId));
+
+        boolean firstPage = cursor == null || cursor.isBlank();
+        Pageable limit = PageRequest.of(0, size + 1); // One extra row tells whether another page exists
+        List<ProductReview> rows;
+        if (firstPage) {
+            rows = productReviewRepository.findLatestByProductId(productId, limit);
+        } else {
+            Integer beforeId;
+            try {
+                beforeId = Integer.valueOf(cursor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid review cursor: " + cursor);
+            }
+            rows = productReviewRepository.findByProductIdBefore(productId, beforeId, limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<ProductReview> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? String.valueOf(pageRows.get(pageRows.size() - 1).getId()) : null;
+
+        List<ProductReviewDTO> dtos = pageRows.stream()
+                .map(productMapper::toProductReviewDTO)
+                .collect(Collectors.toList());
+        ProductReviewSummaryDTO summary = firstPage ? productMapper.mapToReviewSummaryDTO(product) : null;
+        return new ProductReviewPageDTO(dtos, size, nextCursor, summary);
     }
 
     @Override
@@ -293,10 +306,9 @@ public class ProductServiceImpl implements ProductService {
     public ProductDTO createProduct(CreateProductRequestDTO requestDTO) {
         logger.info("Attempting to create product with name: {}", requestDTO.getName());
 
-        Category category = categoryRepository.findById(requestDTO.getCategoryId().intValue())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + requestDTO.getCategoryId()));
-        Brand brand = brandRepository.findById(requestDTO.getBrandId().intValue())
-                .orElseThrow(() -> new EntityNotFoundException("Brand not found with ID: " + requestDTO.getBrandId()));
+        // Resolved from the reference cache: no lookup query, and the response is mapped without loading them
+        Category category = catalogReferenceCache.getCategoryReference(requestDTO.getCategoryId().intValue());
+        Brand brand = catalogReferenceCache.getBrandReference(requestDTO.getBrandId().intValue());
 
         Product product = productMapper.mapToProductEntity(requestDTO, category, brand);
         if (product == null) {
@@ -312,19 +324,11 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
         logger.info("Product created successfully with ID: {}. Associated variants and images saved via cascade.", savedProduct.getId());
-
-        try {
-            if (productElasticsearchService != null) {
-                productElasticsearchService.saveProduct(savedProduct);
-            } else {
-                fallbackProductElasticsearchService.saveProduct(savedProduct);
-            }
-        } catch (Exception e) {
-            logger.error("Failed to process product {} with Elasticsearch/fallback after creation: {}", savedProduct.getId(), e.getMessage(), e);
-        }
+        productDetailCache.invalidate(savedProduct.getId());
+        productSearchIndexingService.enqueueUpsert(savedProduct.getId()); // Indexed in bulk after commit
 
         Product finalProduct = productRepository.findById(savedProduct.getId()).orElse(savedProduct);
-        return productMapper.mapToProductDetailDTO(finalProduct); // Use detail mapper
+        return buildProductDetailDTO(finalProduct); // Use detail mapper
     }
 
     @Override
@@ -335,28 +339,46 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + productId));
 
-        Category category = categoryRepository.findById(requestDTO.getCategoryId().intValue())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + requestDTO.getCategoryId()));
-        Brand brand = brandRepository.findById(requestDTO.getBrandId().intValue())
-                .orElseThrow(() -> new EntityNotFoundException("Brand not found with ID: " + requestDTO.getBrandId()));
+        // Resolved from the reference cache: no lookup query, and the response is mapped without loading them
+        Category category = catalogReferenceCache.getCategoryReference(requestDTO.getCategoryId().intValue());
+        Brand brand = catalogReferenceCache.getBrandReference(requestDTO.getBrandId().intValue());
+        rejectHotStockEdits(product, requestDTO);
 
         productMapper.updateProductFromDTO(product, requestDTO, category, brand);
 
         Product updatedProduct = productRepository.save(product);
         logger.info("Product updated successfully with ID: {}", updatedProduct.getId());
+        productDetailCache.invalidate(updatedProduct.getId());
+        productSearchIndexingService.enqueueUpsert(updatedProduct.getId()); // Indexed in bulk after commit
 
-        try {
-            if (productElasticsearchService != null) {
-                productElasticsearchService.saveProduct(updatedProduct);
-            } else {
-                fallbackProductElasticsearchService.saveProduct(updatedProduct);
+        Product finalProduct = productRepository.findById(updatedProduct.getId()).orElse(updatedProduct);
+        return buildProductDetailDTO(finalProduct); // Use detail mapper
+    }
+
+    /**
+     * The hot stock ledger owns the stock of a flash-sale variant: a new so_luong_ton_kho written here would be
+     * overwritten by the ledger's next flush, and removing the variant would orphan its ledger entry.
+     */
+    private void rejectHotStockEdits(Product product, UpdateProductRequestDTO requestDTO) {
+        if (!hotStockLedger.isEnabled() || product.getVariants() == null) {
+            return;
+        }
+        Map<Integer, UpdateProductVariantDTO> requested = new HashMap<>();
+        if (requestDTO.getVariants() != null) {
+            requestDTO.getVariants().stream()
+                    .filter(dto -> dto.getId() != null)
+                    .forEach(dto -> requested.put(dto.getId(), dto));
+        }
+        for (ProductVariant variant : product.getVariants()) {
+            if (!hotStockLedger.isHot(variant.getId())) {
+                continue;
+            }
+            UpdateProductVariantDTO dto = requested.get(variant.getId());
+            if (dto == null || !Objects.equals(dto.getStockQuantity(), variant.getStockQuantity())) {
+                throw new IllegalArgumentException("ProductVariant ID: " + variant.getId() + " is in the hot stock ledger; "
+                        + "unflag it (DELETE /api/admin/hot-stock/" + variant.getId() + ") before changing its stock or removing it.");
             }
-        } catch (Exception e) {
-            logger.error("Failed to process product {} with Elasticsearch/fallback after database update: {}", updatedProduct.getId(), e.getMessage(), e);
         }
-
-        Product finalProduct = productRepository.findById(updatedProduct.getId()).orElse(updatedProduct);
-        return productMapper.mapToProductDetailDTO(finalProduct); // Use detail mapper
     }
 
     @Override
@@ -369,16 +391,8 @@ public class ProductServiceImpl implements ProductService {
 
         productRepository.delete(product);
         logger.info("Product deleted successfully with ID: {}", productId);
-
-        try {
-            if (productElasticsearchService != null) {
-                productElasticsearchService.deleteProductById(productId);
-            } else {
-                fallbackProductElasticsearchService.deleteProductById(productId);
-            }
-        } catch (Exception e) {
-            logger.error("Failed to process product {} deletion with Elasticsearch/fallback after database deletion: {}", productId, e.getMessage(), e);
-        }
+        productDetailCache.invalidate(productId);
+        productSearchIndexingService.enqueueDelete(productId); // Removed from the index after commit
     }
 
     @Override
@@ -395,6 +409,7 @@ public class ProductServiceImpl implements ProductService {
         );
 
         Page<Product> productPage = productRepository.findAll(spec, pageRequest);
+        productRepository.fetchListingAssociations(productPage.getContent());
         List<ProductDTO> dtos = productPage.getContent().stream()
                 .map(productMapper::mapToProductDTO) // This will now exclude reviews
                 .collect(Collectors.toList());
@@ -414,6 +429,7 @@ public class ProductServiceImpl implements ProductService {
         );
 
         Page<Product> productPage = productRepository.findAll(spec, pageRequest);
+        productRepository.fetchListingAssociations(productPage.getContent());
         List<ProductDTO> dtos = productPage.getContent().stream()
                 .map(productMapper::mapToProductDTO) // This will now exclude reviews
                 .collect(Collectors.toList());
@@ -470,25 +486,13 @@ public class ProductServiceImpl implements ProductService {
 
         ProductReview savedReview = productReviewRepository.save(review);
         logger.info("Review ID: {} saved for product ID: {}", savedReview.getId(), productId);
+        productDetailCache.invalidate(productId); // Detail DTO embeds reviews and the average rating
 
-        // Update denormalized fields and Elasticsearch
-        // This will re-fetch the product, including the new review in its collection, then calculate average rating.
-        productDenormalizationService.updateDenormalizedFields(productId);
+        // Fold the review into the product's running aggregates with a single UPDATE
+        productDenormalizationService.applyNewReview(productId, savedReview.getRating());
 
-        // Re-fetch the product to get the updated denormalized values for Elasticsearch indexing
-        Product updatedProduct = productRepository.findById(productId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found after denormalization for ID: " + productId));
-
-
-        if (productElasticsearchService != null) {
-            try {
-                productElasticsearchService.saveProduct(updatedProduct);
-                logger.info("Product ID {} re-indexed in Elasticsearch after review addition.", productId);
-            } catch (Exception e) {
-                logger.error("Failed to re-index product ID {} in Elasticsearch after review: {}", productId, e.getMessage(), e);
-                // Continue, as the primary operation (DB save) was successful
-            }
-        }
+        // Re-index with the new average rating once the review is committed; bursts of reviews coalesce into one write
+        productSearchIndexingService.enqueueUpsert(productId);
         
         ProductReviewDTO savedReviewDTO = productMapper.toProductReviewDTO(savedReview);
 
@@ -0,0 +1,97 @@
+package demo.com.example.testserver.product.service.search;
+
+import demo.com.example.testserver.common.dto.CursorPageDTO;
+import demo.com.example.testserver.config.ElasticsearchConnectionCondition;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.dto.elasticsearch.ProductElasticsearchDTO;
+import demo.com.example.testserver.product.service.ElasticsearchCircuitBreaker;
+import demo.com.example.testserver.product.service.ProductCursorCodec;
+import demo.com.example.testserver.product.service.ProductElasticsearchService;
+import demo.com.example.testserver.product.service.ProductMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Answers listings entirely inside Elasticsearch (query, filters, sort, paging) and maps the page from _source,
+ * so no MySQL connection is used. Unavailable while the ES circuit breaker is open.
+ */
+@Component
+@Conditional(ElasticsearchConnectionCondition.class)
+public class ElasticsearchProductSearchEngine implements ProductSearchEngine {
+
+    @Autowired
+    private ProductElasticsearchService productElasticsearchService;
+
+    @Autowired
+    private ElasticsearchCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductCursorCodec productCursorCodec;
+
+    @Value("${app.search.engine.elasticsearch.keyword-cost:10}")
+    private int keywordCost;
+
+    @Value("${app.search.engine.elasticsearch.browse-cost:30}")
+    private int browseCost;
+
+    @Override
+    public String getName() {
+        return "elasticsearch";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return !circuitBreaker.isOpen();
+    }
+
+    @Override
+    public int estimateCost(ProductSearchCriteria criteria) {
+        if (!ProductElasticsearchService.LISTING_SORT_FIELDS.contains(criteria.sortField())) {
+            return UNSUPPORTED;
+        }
+        return criteria.hasKeyword() ? keywordCost : browseCost;
+    }
+
+    @Override
+    public Page<ProductDTO> findPage(ProductSearchCriteria criteria, Pageable pageable) {
+        Page<ProductElasticsearchDTO> hits = productElasticsearchService.searchListing(
+                criteria, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        if (hits == null) {
+            return null;
+        }
+        List<ProductDTO> dtos = hits.getContent().stream()
+                .map(productMapper::mapToProductDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(dtos, pageable, hits.getTotalElements());
+    }
+
+    @Override
+    public CursorPageDTO<ProductDTO> findSlice(ProductSearchCriteria criteria, ProductCursorCodec.ProductCursor after, int size) {
+        List<ProductElasticsearchDTO> hits = productElasticsearchService.searchListingAfter(
+                criteria, after != null ? after.lastValue() : null, after != null ? after.lastId() : null, size + 1);
+        if (hits == null) {
+            return null;
+        }
+        boolean hasNext = hits.size() > size;
+        List<ProductElasticsearchDTO> pageHits = hasNext ? hits.subList(0, size) : hits;
+        String nextCursor = hasNext
+                ? productCursorCodec.encode(getName(), criteria.sortField(), criteria.ascending(), pageHits.get(pageHits.size() - 1))
+                : null;
+        List<ProductDTO> dtos = pageHits.stream()
+                .map(productMapper::mapToProductDTO)
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(dtos, size, nextCursor);
+    }
+}
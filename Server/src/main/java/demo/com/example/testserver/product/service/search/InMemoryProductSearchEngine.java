@@ -0,0 +1,264 @@
+package demo.com.example.testserver.product.service.search;
+
+import demo.com.example.testserver.common.dto.CursorPageDTO;
+import demo.com.example.testserver.product.dto.CatalogIndexStatsDTO;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.model.Product;
+import demo.com.example.testserver.product.repository.ProductRepository;
+import demo.com.example.testserver.product.service.ProductChangedEvent;
+import demo.com.example.testserver.product.service.FallbackProductElasticsearchService;
+import demo.com.example.testserver.product.service.ProductCursorCodec;
+import demo.com.example.testserver.product.service.ProductMapper;
+import demo.com.example.testserver.product.service.SearchTextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Answers listings from an in-process columnar copy of the catalog (ProductCatalogSnapshot), with no database
+ * round-trip. Enabled with app.search.engine.memory.enabled=true.
+ * <p>
+ * The snapshot is loaded on startup in ID-ordered chunks. Committed product writes arrive as
+ * {@link ProductChangedEvent}s and are applied in batches every refresh interval by reloading just those products;
+ * checkouts and hot stock ledger flushes publish them too, so stock is at most one refresh behind. Category and
+ * brand renames bypass the product service and are picked up by the periodic full reload.
+ * <p>
+ * Keywords are matched as MySqlProductSearchEngine matches them, on the folded name and description: every full-text
+ * term when full-text search is enabled, the whole keyword as a LIKE substring otherwise, so the router can send a
+ * keyword listing to either engine and get the same rows.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine.memory.enabled", havingValue = "true")
+@Lazy(false) // Loads the catalog on startup and applies changes on a schedule
+public class InMemoryProductSearchEngine implements ProductSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryProductSearchEngine.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductCursorCodec productCursorCodec;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FallbackProductElasticsearchService fallbackProductElasticsearchService;
+
+    @Value("${app.search.engine.memory.browse-cost:5}")
+    private int browseCost;
+
+    @Value("${app.search.engine.memory.keyword-cost:15}")
+    private int keywordCost;
+
+    @Value("${app.search.engine.memory.load-chunk-size:500}")
+    private int chunkSize;
+
+    private volatile ProductCatalogSnapshot snapshot; // Null until the first load completes
+    private final Set<Long> pendingChanges = ConcurrentHashMap.newKeySet();
+
+    // Metrics
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private final AtomicLong failedRefreshes = new AtomicLong();
+    private volatile long lastReloadDurationMillis;
+    private volatile Date lastReloadAt;
+    private volatile Date lastRefreshAt;
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return snapshot != null;
+    }
+
+    @Override
+    public int estimateCost(ProductSearchCriteria criteria) {
+        if (!ProductCatalogSnapshot.SORT_FIELDS.contains(criteria.sortField())) {
+            return UNSUPPORTED;
+        }
+        return criteria.hasKeyword() ? keywordCost : browseCost;
+    }
+
+    @Override
+    public Page<ProductDTO> findPage(ProductSearchCriteria criteria, Pageable pageable) {
+        ProductCatalogSnapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        int offset = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+        ProductCatalogSnapshot.Result result = current.page(criteria,
+                fallbackProductElasticsearchService.isFullTextSearchEnabled(), offset, pageable.getPageSize());
+        return new PageImpl<>(toDTOs(result.rows()), pageable, result.total());
+    }
+
+    @Override
+    public CursorPageDTO<ProductDTO> findSlice(ProductSearchCriteria criteria, ProductCursorCodec.ProductCursor after, int size) {
+        ProductCatalogSnapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        // Fetch one extra row to learn whether another page exists
+        List<ProductCatalogSnapshot.Row> rows = current.sliceAfter(criteria,
+                fallbackProductElasticsearchService.isFullTextSearchEnabled(),
+                after != null ? after.lastValue() : null, after != null ? after.lastId() : null, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductCatalogSnapshot.Row> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ProductCatalogSnapshot.Row last = pageRows.get(pageRows.size() - 1);
+            nextCursor = productCursorCodec.encode(getName(), criteria.sortField(), criteria.ascending(), last.id(),
+                    current.sortValue(criteria.sortField(), last));
+        }
+        return new CursorPageDTO<>(toDTOs(pageRows), size, nextCursor);
+    }
+
+    private static List<ProductDTO> toDTOs(List<ProductCatalogSnapshot.Row> rows) {
+        return rows.stream().map(ProductCatalogSnapshot.Row::dto).collect(Collectors.toList());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        pendingChanges.add(event.productId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the whole snapshot from the database. Changes committed meanwhile stay pending and are
+     * applied on top by the next refresh.
+     */
+    @Scheduled(initialDelayString = "${app.search.engine.memory.reload-interval-ms:600000}",
+               fixedDelayString = "${app.search.engine.memory.reload-interval-ms:600000}")
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        try {
+            List<ProductCatalogSnapshot.Row> rows = new ArrayList<>();
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = productRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                rows.addAll(loadRows(ids));
+            }
+            ProductCatalogSnapshot loaded = new ProductCatalogSnapshot(rows);
+            snapshot = loaded;
+            lastReloadDurationMillis = System.currentTimeMillis() - start;
+            lastReloadAt = new Date();
+            logger.info("In-memory catalog loaded: {} products, {} categories, {} brands in {} ms.",
+                    loaded.size(), loaded.categoryCount(), loaded.brandCount(), lastReloadDurationMillis);
+        } catch (Exception e) {
+            failedRefreshes.incrementAndGet();
+            logger.error("Failed to load the in-memory catalog, keeping the previous snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies the products changed since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${app.search.engine.memory.refresh-interval-ms:1000}")
+    public synchronized void applyChanges() {
+        ProductCatalogSnapshot current = snapshot;
+        if (current == null || pendingChanges.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = new HashSet<>(pendingChanges);
+        pendingChanges.removeAll(changed);
+        try {
+            List<ProductCatalogSnapshot.Row> loaded = new ArrayList<>();
+            List<Long> ids = new ArrayList<>(changed);
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                loaded.addAll(loadRows(ids.subList(from, Math.min(from + chunkSize, ids.size()))));
+            }
+            snapshot = current.withChanges(changed, loaded); // Missing products were deleted
+            appliedChanges.addAndGet(changed.size());
+            lastRefreshAt = new Date();
+            logger.debug("Applied {} product changes to the in-memory catalog ({} reloaded).", changed.size(), loaded.size());
+        } catch (Exception e) {
+            failedRefreshes.incrementAndGet();
+            pendingChanges.addAll(changed);
+            logger.error("Failed to apply {} product changes to the in-memory catalog, will retry: {}", changed.size(), e.getMessage(), e);
+        }
+    }
+
+    // Same two-query hydration as the listing pages, in a read-only transaction per chunk
+    private List<ProductCatalogSnapshot.Row> loadRows(List<Long> ids) {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        return readOnlyTx.execute(status -> {
+            List<Product> products = productRepository.findWithCategoryBrandAndVariantsByIdIn(ids);
+            productRepository.findWithImagesByIdIn(ids);
+            return products.stream().map(this::toRow).collect(Collectors.toList());
+        });
+    }
+
+    private ProductCatalogSnapshot.Row toRow(Product product) {
+        String searchText = SearchTextNormalizer.normalize(product.getName()) + "\n"
+                + SearchTextNormalizer.normalize(product.getDescription());
+        return new ProductCatalogSnapshot.Row(
+                product.getId(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getBrand() != null ? product.getBrand().getId() : null,
+                ProductCatalogSnapshot.toDateKey(product.getCreatedDate()),
+                ProductCatalogSnapshot.toPriceKey(product.getMinPrice(), RoundingMode.HALF_UP),
+                ProductCatalogSnapshot.toPriceKey(product.getMaxPrice(), RoundingMode.HALF_UP),
+                ProductCatalogSnapshot.toPriceKey(product.getVariantZeroPrice(), RoundingMode.HALF_UP),
+                ProductCatalogSnapshot.toRatingKey(product.getAverageRating()),
+                searchText,
+                productMapper.mapToProductDTO(product));
+    }
+
+    public CatalogIndexStatsDTO getStats() {
+        ProductCatalogSnapshot current = snapshot;
+        CatalogIndexStatsDTO stats = new CatalogIndexStatsDTO();
+        stats.setLoaded(current != null);
+        if (current != null) {
+            stats.setProductCount(current.size());
+            stats.setCategoryCount(current.categoryCount());
+            stats.setBrandCount(current.brandCount());
+            stats.setSnapshotBuiltAt(new Date(current.getBuiltAt()));
+        }
+        stats.setPendingChanges(pendingChanges.size());
+        stats.setAppliedChanges(appliedChanges.get());
+        stats.setFailedRefreshes(failedRefreshes.get());
+        stats.setLastReloadDurationMillis(lastReloadDurationMillis);
+        stats.setLastReloadAt(lastReloadAt);
+        stats.setLastRefreshAt(lastRefreshAt);
+        return stats;
+    }
+}
@@ -0,0 +1,156 @@
+package demo.com.example.testserver.product.service.search;
+
+import demo.com.example.testserver.common.dto.CursorPageDTO;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.model.Product;
+import demo.com.example.testserver.product.repository.ProductRepository;
+import demo.com.example.testserver.product.service.FallbackProductElasticsearchService;
+import demo.com.example.testserver.product.service.ProductCursorCodec;
+import demo.com.example.testserver.product.service.ProductMapper;
+import demo.com.example.testserver.product.service.ProductSpecificationBuilder;
+import demo.com.example.testserver.product.service.SearchTextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers listings from san_pham through JpaSpecificationExecutor. Keywords use the FULLTEXT index on the folded
+ * name and description (fulltext_match) when full-text search is enabled, and the LIKE scan otherwise or if the full-text query
+ * fails. Always available; it is the engine of last resort.
+ */
+@Component
+public class MySqlProductSearchEngine implements ProductSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(MySqlProductSearchEngine.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSpecificationBuilder productSpecificationBuilder;
+
+    @Autowired
+    private FallbackProductElasticsearchService fallbackProductElasticsearchService;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductCursorCodec productCursorCodec;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.engine.mysql.browse-cost:20}")
+    private int browseCost;
+
+    @Value("${app.search.engine.mysql.fulltext-cost:40}")
+    private int fullTextCost;
+
+    @Value("${app.search.engine.mysql.like-cost:80}")
+    private int likeCost;
+
+    @Override
+    public String getName() {
+        return "mysql";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public int estimateCost(ProductSearchCriteria criteria) {
+        if (!criteria.hasKeyword()) {
+            return browseCost;
+        }
+        return usesFullText(criteria) ? fullTextCost : likeCost;
+    }
+
+    @Override
+    public Page<ProductDTO> findPage(ProductSearchCriteria criteria, Pageable pageable) {
+        // ID is the tie-breaker, as in the Elasticsearch sort, so equal keys page deterministically
+        Sort sort = Sort.by(direction(criteria), criteria.sortField()).and(Sort.by(direction(criteria), "id"));
+        Pageable pageRequest = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return withFullTextFallback(criteria, useFullText -> {
+            Page<Product> productPage = productRepository.findAll(buildSpecification(criteria, useFullText), pageRequest);
+            productRepository.fetchListingAssociations(productPage.getContent());
+            List<ProductDTO> dtos = productPage.getContent().stream()
+                    .map(productMapper::mapToProductDTO)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(dtos, pageable, productPage.getTotalElements());
+        });
+    }
+
+    @Override
+    public CursorPageDTO<ProductDTO> findSlice(ProductSearchCriteria criteria, ProductCursorCodec.ProductCursor after, int size) {
+        // ID is the tie-breaker so that the (key, id) pair is unique and the seek never skips or repeats rows
+        Sort seekSort = Sort.by(direction(criteria), criteria.sortField()).and(Sort.by(direction(criteria), "id"));
+        return withFullTextFallback(criteria, useFullText -> {
+            Specification<Product> spec = buildSpecification(criteria, useFullText);
+            if (after != null) {
+                spec = spec.and(productSpecificationBuilder.seekAfter(
+                        criteria.sortField(), criteria.ascending(), after.lastValue(), after.lastId()));
+            }
+            // Fetch one extra row to learn whether another page exists without running a count query
+            List<Product> rows = productRepository.findBy(spec, query -> query.sortBy(seekSort).limit(size + 1).all());
+
+            boolean hasNext = rows.size() > size;
+            List<Product> pageRows = hasNext ? rows.subList(0, size) : rows;
+            String nextCursor = hasNext
+                    ? productCursorCodec.encode(getName(), criteria.sortField(), criteria.ascending(), pageRows.get(pageRows.size() - 1))
+                    : null;
+
+            productRepository.fetchListingAssociations(pageRows);
+            List<ProductDTO> dtos = pageRows.stream()
+                    .map(productMapper::mapToProductDTO)
+                    .collect(Collectors.toList());
+            return new CursorPageDTO<>(dtos, size, nextCursor);
+        });
+    }
+
+    private boolean usesFullText(ProductSearchCriteria criteria) {
+        return fallbackProductElasticsearchService.isFullTextSearchEnabled()
+                && SearchTextNormalizer.toFullTextQuery(criteria.search()) != null;
+    }
+
+    private Specification<Product> buildSpecification(ProductSearchCriteria criteria, boolean useFullText) {
+        return productSpecificationBuilder.build(
+                criteria.search(), criteria.categoryId(), criteria.brandId(), criteria.minPrice(), criteria.maxPrice(),
+                criteria.minRating(), null, criteria.startDate(), criteria.endDate(), false, useFullText);
+    }
+
+    // Runs the query in a read-only transaction; if the full-text variant fails (e.g. the FULLTEXT index is missing),
+    // retries once with the LIKE filter in a fresh transaction, since the failed one is marked rollback-only
+    private <T> T withFullTextFallback(ProductSearchCriteria criteria, Function<Boolean, T> query) {
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        if (criteria.hasKeyword() && usesFullText(criteria)) {
+            try {
+                return readOnlyTx.execute(status -> query.apply(true));
+            } catch (RuntimeException e) {
+                logger.error("Full-text product search failed for {}: {}. Retrying with LIKE.", criteria.describe(), e.getMessage(), e);
+            }
+        }
+        return readOnlyTx.execute(status -> query.apply(false));
+    }
+
+    private static Sort.Direction direction(ProductSearchCriteria criteria) {
+        return criteria.ascending() ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+}
@@ -0,0 +1,355 @@
+package demo.com.example.testserver.product.service.search;
+
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.service.SearchTextNormalizer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable columnar copy of the listing data of every product, used by InMemoryProductSearchEngine.
+ * <p>
+ * Filter and sort keys live in primitive arrays indexed by row (rows are ordered by product ID): prices as
+ * long hundredths, dates as epoch millis, ratings as order-preserving long bits, and NULL as {@link #NULL}, which
+ * sorts first like MySQL does in ascending order. Category and brand filters start from precomputed bitmaps, the
+ * remaining predicates clear bits, and pages are read off a precomputed (key, id) order per sort field.
+ * A change produces a new snapshot; readers never see a partly updated one.
+ */
+final class ProductCatalogSnapshot {
+
+    static final long NULL = Long.MIN_VALUE;
+
+    /**
+     * Sort fields answered from memory. Name order follows the MySQL collation, which is not reproduced here.
+     */
+    static final Set<String> SORT_FIELDS = Set.of("createdDate", "variantZeroPrice", "averageRating");
+
+    // Below this share of matching rows, sorting the matches by rank beats walking the whole precomputed order
+    private static final int SPARSE_MATCH_DIVISOR = 16;
+
+    /**
+     * One product as loaded from the database.
+     *
+     * @param searchText Folded name and description, matched like the MySQL keyword filter.
+     * @param dto        The listing DTO returned as is.
+     */
+    record Row(long id, Integer categoryId, Integer brandId, long createdDate, long minPrice, long maxPrice,
+               long variantZeroPrice, long averageRating, String searchText, ProductDTO dto) {}
+
+    record Result(List<Row> rows, long total) {}
+
+    private final Row[] rows;
+    private final long[] ids;
+    private final long[] createdDates;
+    private final long[] minPrices;
+    private final long[] maxPrices;
+    private final long[] variantZeroPrices;
+    private final long[] averageRatings;
+    private final String[] searchTexts;
+    private final Map<Integer, BitSet> byCategory = new HashMap<>();
+    private final Map<Integer, BitSet> byBrand = new HashMap<>();
+    private final Map<String, int[]> ascendingOrder = new HashMap<>(); // Row indexes sorted by (key, id)
+    private final Map<String, int[]> ranks = new HashMap<>();          // Position of each row in ascendingOrder
+    private final long builtAt = System.currentTimeMillis();
+
+    ProductCatalogSnapshot(Collection<Row> source) {
+        rows = source.toArray(new Row[0]);
+        Arrays.sort(rows, Comparator.comparingLong(Row::id));
+        int size = rows.length;
+        ids = new long[size];
+        createdDates = new long[size];
+        minPrices = new long[size];
+        maxPrices = new long[size];
+        variantZeroPrices = new long[size];
+        averageRatings = new long[size];
+        searchTexts = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            Row row = rows[i];
+            ids[i] = row.id();
+            createdDates[i] = row.createdDate();
+            minPrices[i] = row.minPrice();
+            maxPrices[i] = row.maxPrice();
+            variantZeroPrices[i] = row.variantZeroPrice();
+            averageRatings[i] = row.averageRating();
+            searchTexts[i] = row.searchText();
+            if (row.categoryId() != null) {
+                byCategory.computeIfAbsent(row.categoryId(), id -> new BitSet(size)).set(i);
+            }
+            if (row.brandId() != null) {
+                byBrand.computeIfAbsent(row.brandId(), id -> new BitSet(size)).set(i);
+            }
+        }
+
+        for (String sortField : SORT_FIELDS) {
+            long[] keys = keys(sortField);
+            // Rows are already in ID order and the sort is stable, so equal keys stay ordered by ID
+            int[] order = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.comparingLong(row -> keys[row]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] rank = new int[size];
+            for (int position = 0; position < size; position++) {
+                rank[order[position]] = position;
+            }
+            ascendingOrder.put(sortField, order);
+            ranks.put(sortField, rank);
+        }
+    }
+
+    /**
+     * A new snapshot with the given products replaced. IDs in changedIds that are missing from loaded are removed.
+     */
+    ProductCatalogSnapshot withChanges(Set<Long> changedIds, Collection<Row> loaded) {
+        List<Row> next = new ArrayList<>(rows.length + loaded.size());
+        for (Row row : rows) {
+            if (!changedIds.contains(row.id())) {
+                next.add(row);
+            }
+        }
+        next.addAll(loaded);
+        return new ProductCatalogSnapshot(next);
+    }
+
+    /**
+     * OFFSET page of the matching products in (sortField, id) order.
+     *
+     * @param fullTextSearch Whether MySQL would answer the keyword with full-text search (see {@link #filter}).
+     */
+    Result page(ProductSearchCriteria criteria, boolean fullTextSearch, int offset, int limit) {
+        BitSet matches = filter(criteria, fullTextSearch);
+        int total = matches.cardinality();
+        int start = criteria.ascending() ? 0 : rows.length - 1;
+        return new Result(select(matches, total, criteria, start, offset, limit), total);
+    }
+
+    /**
+     * Up to limit matching products strictly after (lastValue, lastId) in (sortField, id) order.
+     *
+     * @param lastValue Sort key of the cursor as decoded by ProductCursorCodec, or null for a NULL key.
+     * @param lastId    ID of the cursor, or null to start from the beginning.
+     */
+    List<Row> sliceAfter(ProductSearchCriteria criteria, boolean fullTextSearch, Comparable<?> lastValue, Long lastId,
+                         int limit) {
+        BitSet matches = filter(criteria, fullTextSearch);
+        int start;
+        if (lastId == null) {
+            start = criteria.ascending() ? 0 : rows.length - 1;
+        } else {
+            long key = toKey(criteria.sortField(), lastValue);
+            // ASC resumes at the first (key, id) above the cursor, DESC at the last one below it
+            start = criteria.ascending()
+                    ? firstPositionAbove(criteria.sortField(), key, lastId, false)
+                    : firstPositionAbove(criteria.sortField(), key, lastId, true) - 1;
+        }
+        return select(matches, matches.cardinality(), criteria, start, 0, limit);
+    }
+
+    /**
+     * The sort key of a row in the form ProductCursorCodec expects.
+     */
+    Comparable<?> sortValue(String sortField, Row row) {
+        return switch (sortField) {
+            case "createdDate" -> row.createdDate() == NULL ? null : new Date(row.createdDate());
+            case "variantZeroPrice" -> row.variantZeroPrice() == NULL ? null : BigDecimal.valueOf(row.variantZeroPrice(), 2);
+            case "averageRating" -> row.averageRating() == NULL ? null : fromRatingKey(row.averageRating());
+            default -> throw new IllegalArgumentException("Sort field is not supported in memory: " + sortField);
+        };
+    }
+
+    int size() {
+        return rows.length;
+    }
+
+    int categoryCount() {
+        return byCategory.size();
+    }
+
+    int brandCount() {
+        return byBrand.size();
+    }
+
+    long getBuiltAt() {
+        return builtAt;
+    }
+
+    // Keywords match like MySqlProductSearchEngine: with full-text search every term of the full-text query must
+    // occur somewhere in the folded name or description (the ngram index finds terms inside words, in any order),
+    // otherwise the whole folded keyword is one LIKE substring
+    private BitSet filter(ProductSearchCriteria criteria, boolean fullTextSearch) {
+        int size = rows.length;
+        BitSet matches = new BitSet(size);
+        if (criteria.categoryId() != null) {
+            BitSet category = byCategory.get(criteria.categoryId());
+            if (category == null) {
+                return matches;
+            }
+            matches.or(category);
+        } else {
+            matches.set(0, size);
+        }
+        if (criteria.brandId() != null) {
+            BitSet brand = byBrand.get(criteria.brandId());
+            if (brand == null) {
+                matches.clear();
+                return matches;
+            }
+            matches.and(brand);
+        }
+
+        // Same bounds as ProductSpecificationBuilder; a NULL column never satisfies a bound
+        long minPrice = criteria.minPrice() != null ? toPriceKey(criteria.minPrice(), RoundingMode.CEILING) : NULL;
+        long maxPrice = criteria.maxPrice() != null ? toPriceKey(criteria.maxPrice(), RoundingMode.FLOOR) : NULL;
+        long minRating = criteria.minRating() != null ? toRatingKey(criteria.minRating()) : NULL;
+        long startDate = criteria.startDate() != null ? criteria.startDate().getTime() : NULL;
+        long endDate = criteria.endDate() != null ? criteria.endDate().getTime() : NULL;
+        List<String> keywordTerms = null;
+        if (criteria.hasKeyword()) {
+            keywordTerms = fullTextSearch ? SearchTextNormalizer.fullTextTerms(criteria.search()) : List.of();
+            if (keywordTerms.isEmpty()) {
+                keywordTerms = List.of(SearchTextNormalizer.normalize(criteria.search()));
+            }
+        }
+
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            boolean match = (minPrice == NULL || (minPrices[row] != NULL && minPrices[row] >= minPrice))
+                    && (maxPrice == NULL || (maxPrices[row] != NULL && maxPrices[row] <= maxPrice))
+                    && (minRating == NULL || (averageRatings[row] != NULL && averageRatings[row] >= minRating))
+                    && (startDate == NULL || (createdDates[row] != NULL && createdDates[row] >= startDate))
+                    && (endDate == NULL || (createdDates[row] != NULL && createdDates[row] <= endDate))
+                    && (keywordTerms == null || containsAll(searchTexts[row], keywordTerms));
+            if (!match) {
+                matches.clear(row);
+            }
+        }
+        return matches;
+    }
+
+    // Reads matching rows in sort order from position start (inclusive), moving up for ASC and down for DESC
+    private static boolean containsAll(String text, List<String> terms) {
+        for (String term : terms) {
+            if (!text.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Row> select(BitSet matches, int total, ProductSearchCriteria criteria, int start, int skip, int limit) {
+        List<Row> selected = new ArrayList<>(Math.min(limit, total));
+        if (total == 0 || limit <= 0) {
+            return selected;
+        }
+        boolean ascending = criteria.ascending();
+        int[] order = ascendingOrder.get(criteria.sortField());
+
+        if (total < rows.length / SPARSE_MATCH_DIVISOR) {
+            int[] rank = ranks.get(criteria.sortField());
+            int[] matchRanks = new int[total];
+            int count = 0;
+            for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+                int position = rank[row];
+                if (ascending ? position >= start : position <= start) {
+                    matchRanks[count++] = position;
+                }
+            }
+            Arrays.sort(matchRanks, 0, count);
+            for (int i = skip; i < count && selected.size() < limit; i++) {
+                selected.add(rows[order[ascending ? matchRanks[i] : matchRanks[count - 1 - i]]]);
+            }
+            return selected;
+        }
+
+        int step = ascending ? 1 : -1;
+        int toSkip = skip;
+        for (int position = start; position >= 0 && position < order.length && selected.size() < limit; position += step) {
+            int row = order[position];
+            if (!matches.get(row)) {
+                continue;
+            }
+            if (toSkip > 0) {
+                toSkip--;
+                continue;
+            }
+            selected.add(rows[row]);
+        }
+        return selected;
+    }
+
+    // First position in ascending order whose (key, id) is above the given one, or at least equal if inclusive
+    private int firstPositionAbove(String sortField, long key, long id, boolean inclusive) {
+        long[] keys = keys(sortField);
+        int[] order = ascendingOrder.get(sortField);
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int row = order[mid];
+            int cmp = keys[row] != key ? Long.compare(keys[row], key) : Long.compare(ids[row], id);
+            if (cmp > 0 || (inclusive && cmp == 0)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private long[] keys(String sortField) {
+        return switch (sortField) {
+            case "createdDate" -> createdDates;
+            case "variantZeroPrice" -> variantZeroPrices;
+            case "averageRating" -> averageRatings;
+            default -> throw new IllegalArgumentException("Sort field is not supported in memory: " + sortField);
+        };
+    }
+
+    private static long toKey(String sortField, Comparable<?> value) {
+        if (value == null) {
+            return NULL;
+        }
+        return switch (sortField) {
+            case "createdDate" -> ((Date) value).getTime();
+            case "variantZeroPrice" -> toPriceKey((BigDecimal) value, RoundingMode.HALF_UP);
+            case "averageRating" -> toRatingKey((Double) value);
+            default -> throw new IllegalArgumentException("Sort field is not supported in memory: " + sortField);
+        };
+    }
+
+    static long toDateKey(Date date) {
+        return date != null ? date.getTime() : NULL;
+    }
+
+    /**
+     * Price in hundredths (the column scale), so comparisons are exact.
+     */
+    static long toPriceKey(BigDecimal price, RoundingMode rounding) {
+        return price != null ? price.movePointRight(2).setScale(0, rounding).longValueExact() : NULL;
+    }
+
+    /**
+     * Maps a double to a long with the same ordering (flipping the magnitude bits of negatives).
+     */
+    static long toRatingKey(Double rating) {
+        if (rating == null) {
+            return NULL;
+        }
+        long bits = Double.doubleToLongBits(rating == 0.0 ? 0.0 : rating); // -0.0 and 0.0 compare equal in SQL
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static double fromRatingKey(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+}
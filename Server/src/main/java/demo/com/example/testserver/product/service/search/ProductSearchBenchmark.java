@@ -0,0 +1,137 @@
+package demo.com.example.testserver.product.service.search;
+
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.dto.SearchBenchmarkResultDTO;
+import demo.com.example.testserver.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs the same query set against every available engine and reports latency percentiles and hit counts per
+ * engine and query, so the app.search.engine.* costs can be tuned from measurements on the live data set.
+ * Engines are called directly, bypassing the router's fallthrough and metrics.
+ */
+@Component
+public class ProductSearchBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchBenchmark.class);
+
+    private static final int DEFAULT_KEYWORD_COUNT = 5;
+    private static final int KEYWORD_SAMPLE_SIZE = 50; // Names sampled for default keywords; many share a first word
+    private static final int WARMUP_RUNS = 2;
+
+    @Autowired
+    private ProductSearchRouter productSearchRouter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * @param keywords   Keywords to search for; when empty, the first word of a few product names is used.
+     * @param iterations Measured runs per engine and query (after a short warmup).
+     * @param pageSize   Page size of each query.
+     */
+    public List<SearchBenchmarkResultDTO> run(List<String> keywords, int iterations, int pageSize) {
+        List<ProductSearchCriteria> queries = buildQuerySet(keywords);
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        List<SearchBenchmarkResultDTO> results = new ArrayList<>();
+
+        for (ProductSearchCriteria criteria : queries) {
+            List<ProductSearchEngine> plan = productSearchRouter.plan(criteria);
+            for (ProductSearchEngine engine : plan) {
+                results.add(measure(engine, criteria, pageable, iterations, engine == plan.get(0)));
+            }
+        }
+        logger.info("Search benchmark finished: {} queries, {} iterations, {} results.", queries.size(), iterations, results.size());
+        return results;
+    }
+
+    private SearchBenchmarkResultDTO measure(ProductSearchEngine engine, ProductSearchCriteria criteria,
+                                             PageRequest pageable, int iterations, boolean routedFirst) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            runOnce(engine, criteria, pageable);
+        }
+
+        long[] nanos = new long[iterations];
+        int failures = 0;
+        long totalHits = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            Page<ProductDTO> page = runOnce(engine, criteria, pageable);
+            nanos[i] = System.nanoTime() - start;
+            if (page == null) {
+                failures++;
+            } else {
+                totalHits = page.getTotalElements();
+            }
+        }
+        Arrays.sort(nanos);
+
+        SearchBenchmarkResultDTO result = new SearchBenchmarkResultDTO();
+        result.setEngine(engine.getName());
+        result.setQuery(criteria.describe());
+        result.setEstimatedCost(engine.estimateCost(criteria));
+        result.setRoutedFirst(routedFirst);
+        result.setIterations(iterations);
+        result.setFailures(failures);
+        result.setTotalHits(totalHits);
+        result.setMeanMillis(Arrays.stream(nanos).average().orElse(0) / 1_000_000.0);
+        result.setP50Millis(percentile(nanos, 0.50) / 1_000_000.0);
+        result.setP95Millis(percentile(nanos, 0.95) / 1_000_000.0);
+        result.setMaxMillis(nanos[nanos.length - 1] / 1_000_000.0);
+        return result;
+    }
+
+    private Page<ProductDTO> runOnce(ProductSearchEngine engine, ProductSearchCriteria criteria, PageRequest pageable) {
+        try {
+            return engine.findPage(criteria, pageable);
+        } catch (RuntimeException e) {
+            logger.warn("Benchmark query {} failed on '{}': {}", criteria.describe(), engine.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Nearest-rank percentile over sorted samples
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private List<ProductSearchCriteria> buildQuerySet(List<String> keywords) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (keywords != null) {
+            keywords.stream()
+                    .filter(k -> k != null && !k.isBlank())
+                    .map(String::trim)
+                    .forEach(terms::add);
+        }
+        if (terms.isEmpty()) {
+            for (String name : productRepository.findMostReviewedNames(PageRequest.of(0, KEYWORD_SAMPLE_SIZE))) {
+                if (name != null && !name.isBlank()) {
+                    terms.add(name.trim().split("\\s+")[0]);
+                }
+                if (terms.size() >= DEFAULT_KEYWORD_COUNT) {
+                    break;
+                }
+            }
+        }
+
+        List<ProductSearchCriteria> queries = new ArrayList<>();
+        queries.add(ProductSearchCriteria.listing(null, null, null, null, null, null, "createdDate", false));
+        queries.add(ProductSearchCriteria.listing(null, null, null, null, null, null, "variantZeroPrice", true));
+        for (String term : terms) {
+            queries.add(ProductSearchCriteria.listing(term, null, null, null, null, null, "createdDate", false));
+        }
+        return queries;
+    }
+}
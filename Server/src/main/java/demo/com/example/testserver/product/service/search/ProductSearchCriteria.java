@@ -0,0 +1,56 @@
+package demo.com.example.testserver.product.service.search;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * One product listing query, independent of the engine that answers it.
+ *
+ * @param search     Optional keyword.
+ * @param startDate  Optional lower bound on createdDate (admin search).
+ * @param endDate    Optional upper bound on createdDate (admin search).
+ * @param sortField  Entity sort property from ProductSortBuilder (createdDate, variantZeroPrice, averageRating, name).
+ * @param ascending  Sort direction; the product ID is always the tie-breaker in the same direction.
+ */
+public record ProductSearchCriteria(
+        String search,
+        Integer categoryId,
+        Integer brandId,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Double minRating,
+        Date startDate,
+        Date endDate,
+        String sortField,
+        boolean ascending
+) {
+
+    /**
+     * Criteria for the storefront listing and facets (no date range).
+     */
+    public static ProductSearchCriteria listing(String search, Integer categoryId, Integer brandId,
+                                                BigDecimal minPrice, BigDecimal maxPrice, Double minRating,
+                                                String sortField, boolean ascending) {
+        return new ProductSearchCriteria(search, categoryId, brandId, minPrice, maxPrice, minRating,
+                null, null, sortField, ascending);
+    }
+
+    public boolean hasKeyword() {
+        return search != null && !search.trim().isEmpty();
+    }
+
+    /**
+     * Short human-readable form for logs and benchmark reports.
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(hasKeyword() ? "'" + search.trim() + "'" : "(browse)");
+        if (categoryId != null) sb.append(" category=").append(categoryId);
+        if (brandId != null) sb.append(" brand=").append(brandId);
+        if (minPrice != null || maxPrice != null) sb.append(" price=").append(minPrice).append("..").append(maxPrice);
+        if (minRating != null) sb.append(" rating>=").append(minRating);
+        if (startDate != null || endDate != null) sb.append(" created=").append(startDate).append("..").append(endDate);
+        sb.append(" sort=").append(sortField).append(ascending ? " asc" : " desc");
+        return sb.toString();
+    }
+}
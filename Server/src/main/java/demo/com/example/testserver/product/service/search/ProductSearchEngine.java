@@ -0,0 +1,54 @@
+package demo.com.example.testserver.product.service.search;
+
+import demo.com.example.testserver.common.dto.CursorPageDTO;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.service.ProductCursorCodec;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A backend that can answer product listing queries (keyword, filters, sort, paging).
+ * <p>
+ * ProductSearchRouter asks every registered engine for its cost on a query and tries the available ones from
+ * cheapest to most expensive, moving on when an engine returns null. Implementations must produce the same order
+ * for the same criteria (sort key, then product ID) so that page and cursor tokens stay valid across engines.
+ * Name order is the exception, as each engine compares strings its own way: name cursors are pinned to the engine
+ * that issued them (see ProductCursorCodec).
+ */
+public interface ProductSearchEngine {
+
+    /**
+     * Cost returned by {@link #estimateCost} when the engine cannot answer a query at all.
+     */
+    int UNSUPPORTED = -1;
+
+    /**
+     * Stable name used in logs, metrics and benchmark reports.
+     */
+    String getName();
+
+    /**
+     * Whether the engine is currently healthy enough to be tried (e.g. its circuit breaker is closed).
+     */
+    boolean isAvailable();
+
+    /**
+     * Relative cost of answering the query; lower is preferred. {@link #UNSUPPORTED} if it cannot be answered.
+     */
+    int estimateCost(ProductSearchCriteria criteria);
+
+    /**
+     * OFFSET-style page with a total count.
+     *
+     * @return The page, or null if the engine failed so the next engine can be tried.
+     */
+    Page<ProductDTO> findPage(ProductSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Keyset slice after the given position, with the token for the next slice.
+     *
+     * @param after Decoded cursor of the previous slice, or null for the first slice.
+     * @return The slice, or null if the engine failed so the next engine can be tried.
+     */
+    CursorPageDTO<ProductDTO> findSlice(ProductSearchCriteria criteria, ProductCursorCodec.ProductCursor after, int size);
+}
@@ -0,0 +1,166 @@
+package demo.com.example.testserver.product.service.search;
+
+import demo.com.example.testserver.common.dto.CursorPageDTO;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.dto.SearchEngineStatsDTO;
+import demo.com.example.testserver.product.service.ProductCursorCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Single entry point for product listings. For each query it orders the available engines by their estimated cost
+ * and tries them in turn:
+ * <ul>
+ *     <li>a null result or an exception moves on to the next engine;</li>
+ *     <li>an empty first page for a keyword also moves on, because engines match keywords differently (analyzer vs.
+ *     ngram index vs. substring) and the index may lag the database. The empty page is still returned if no later
+ *     engine finds anything.</li>
+ * </ul>
+ */
+@Service
+public class ProductSearchRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchRouter.class);
+
+    @Autowired
+    private List<ProductSearchEngine> engines;
+
+    private final Map<String, EngineMetrics> metrics = new ConcurrentHashMap<>();
+
+    public Page<ProductDTO> findPage(ProductSearchCriteria criteria, Pageable pageable) {
+        return route(criteria, plan(criteria), engine -> engine.findPage(criteria, pageable),
+                page -> pageable.getPageNumber() == 0 && page.getTotalElements() == 0);
+    }
+
+    /**
+     * @param after Decoded cursor of the previous slice, or null for the first slice.
+     * @throws IllegalArgumentException If the cursor may only be continued by an engine that cannot answer now.
+     */
+    public CursorPageDTO<ProductDTO> findSlice(ProductSearchCriteria criteria, ProductCursorCodec.ProductCursor after, int size) {
+        List<ProductSearchEngine> plan = plan(criteria);
+        if (after != null && after.issuer() != null) {
+            // The engines disagree on this order: continuing elsewhere would skip or repeat products
+            plan = plan.stream().filter(engine -> engine.getName().equals(after.issuer())).toList();
+            if (plan.isEmpty()) {
+                throw new IllegalArgumentException("Cursor was issued by the '" + after.issuer()
+                        + "' search engine, which cannot continue it now. Restart the listing without a cursor.");
+            }
+        }
+        return route(criteria, plan, engine -> engine.findSlice(criteria, after, size),
+                slice -> after == null && slice.isEmpty());
+    }
+
+    /**
+     * The engines that would be tried for the query, in order.
+     */
+    public List<ProductSearchEngine> plan(ProductSearchCriteria criteria) {
+        return engines.stream()
+                .filter(ProductSearchEngine::isAvailable)
+                .filter(engine -> engine.estimateCost(criteria) != ProductSearchEngine.UNSUPPORTED)
+                .sorted(Comparator.comparingInt(engine -> engine.estimateCost(criteria)))
+                .collect(Collectors.toList());
+    }
+
+    public List<ProductSearchEngine> getEngines() {
+        return engines;
+    }
+
+    public List<SearchEngineStatsDTO> getStats() {
+        List<SearchEngineStatsDTO> stats = new ArrayList<>();
+        for (ProductSearchEngine engine : engines) {
+            stats.add(metricsFor(engine).toDTO(engine));
+        }
+        return stats;
+    }
+
+    private <T> T route(ProductSearchCriteria criteria, List<ProductSearchEngine> plan, Function<ProductSearchEngine, T> call,
+                        Predicate<T> isEmptyFirstPage) {
+        T emptyResult = null;
+        RuntimeException lastError = null;
+
+        for (ProductSearchEngine engine : plan) {
+            EngineMetrics engineMetrics = metricsFor(engine);
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = call.apply(engine);
+            } catch (RuntimeException e) {
+                engineMetrics.record(System.nanoTime() - start);
+                engineMetrics.failures.incrementAndGet();
+                logger.error("Search engine '{}' failed for {}: {}. Trying the next engine.",
+                        engine.getName(), criteria.describe(), e.getMessage(), e);
+                lastError = e;
+                continue;
+            }
+            engineMetrics.record(System.nanoTime() - start);
+
+            if (result == null) {
+                engineMetrics.failures.incrementAndGet();
+                logger.debug("Search engine '{}' returned no result for {}, trying the next engine.", engine.getName(), criteria.describe());
+                continue;
+            }
+            if (criteria.hasKeyword() && isEmptyFirstPage.test(result)) {
+                engineMetrics.emptyFallthroughs.incrementAndGet();
+                if (emptyResult == null) {
+                    emptyResult = result;
+                }
+                continue;
+            }
+            engineMetrics.answered.incrementAndGet();
+            return result;
+        }
+
+        if (emptyResult != null) {
+            return emptyResult;
+        }
+        if (lastError != null) {
+            throw lastError;
+        }
+        throw new IllegalStateException("No product search engine can answer " + criteria.describe());
+    }
+
+    private EngineMetrics metricsFor(ProductSearchEngine engine) {
+        return metrics.computeIfAbsent(engine.getName(), name -> new EngineMetrics());
+    }
+
+    private static final class EngineMetrics {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong answered = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong emptyFallthroughs = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            calls.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        SearchEngineStatsDTO toDTO(ProductSearchEngine engine) {
+            SearchEngineStatsDTO dto = new SearchEngineStatsDTO(engine.getName(), engine.isAvailable());
+            long callCount = calls.get();
+            dto.setCalls(callCount);
+            dto.setAnswered(answered.get());
+            dto.setFailures(failures.get());
+            dto.setEmptyFallthroughs(emptyFallthroughs.get());
+            dto.setAverageLatencyMillis(callCount == 0 ? 0 : totalNanos.get() / 1_000_000.0 / callCount);
+            dto.setMaxLatencyMillis(maxNanos.get() / 1_000_000);
+            return dto;
+        }
+    }
+}
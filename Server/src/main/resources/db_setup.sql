@@ -11,7 +11,7 @@ CREATE TABLE danh_muc (
     ten_danh_muc VARCHAR(255) NOT NULL UNIQUE,
     hinh_anh VARCHAR(255) NULL, -- URL hoặc đường dẫn ảnh
     ngay_tao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    ngay_cap_nhat TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    ngay_cap_nhat TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ================= Bảng Thương hiệu (Brands) =================
@@ -19,7 +19,7 @@ CREATE TABLE thuong_hieu (
     id INT AUTO_INCREMENT PRIMARY KEY,
     ten_thuong_hieu VARCHAR(255) NOT NULL UNIQUE,
     ngay_tao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    ngay_cap_nhat TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    ngay_cap_nhat TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ================= Bảng Người dùng (Users) =================
@@ -64,20 +64,31 @@ CREATE TABLE danh_sach_dia_chi (
 CREATE TABLE san_pham (
     id INT AUTO_INCREMENT PRIMARY KEY,
     ten_san_pham VARCHAR(255) NOT NULL,
+    ten_khong_dau VARCHAR(255) NULL, -- Tên đã bỏ dấu, chữ thường (SearchTextNormalizer), ứng dụng tự cập nhật khi lưu
     mo_ta TEXT NOT NULL, -- Đảm bảo nhập >= 5 dòng ở application
+    mo_ta_khong_dau TEXT NULL, -- Mô tả đã bỏ dấu, chữ thường (SearchTextNormalizer), ứng dụng tự cập nhật khi lưu
     danh_muc_id INT NOT NULL,
     thuong_hieu_id INT NOT NULL,
     anh_chinh_url VARCHAR(255) NULL, -- Ảnh đại diện chính
     phan_tram_giam_gia DECIMAL(5, 2) NULL DEFAULT NULL, -- Giảm giá riêng cho SP (vd: 10.50 là 10.5%)
     is_enabled BOOLEAN NOT NULL DEFAULT TRUE, -- Cột cho phép bật/tắt sản phẩm
     ngay_tao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    ngay_cap_nhat TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ngay_cap_nhat TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6), -- Micro giây: ETag phân biệt được hai lần sửa trong cùng một giây
     FOREIGN KEY (danh_muc_id) REFERENCES danh_muc(id) ON DELETE RESTRICT ON UPDATE CASCADE,
     FOREIGN KEY (thuong_hieu_id) REFERENCES thuong_hieu(id) ON DELETE RESTRICT ON UPDATE CASCADE,
     min_price DECIMAL(12, 2) NULL DEFAULT NULL,
     max_price DECIMAL(12, 2) NULL DEFAULT NULL,
     average_rating DOUBLE NULL DEFAULT NULL,
     variant_zero_price DECIMAL(12, 2) NULL DEFAULT NULL, -- Giá của biến thể đầu tiên (hoặc mặc định)
+    -- Tổng hợp đánh giá (cập nhật nguyên tử khi thêm đánh giá, đối soát định kỳ bởi job nền)
+    review_count INT NOT NULL DEFAULT 0, -- Tổng số đánh giá (kể cả chỉ bình luận)
+    rating_count INT NOT NULL DEFAULT 0, -- Số đánh giá có chấm sao
+    rating_sum BIGINT NOT NULL DEFAULT 0, -- Tổng số sao
+    rating_1_count INT NOT NULL DEFAULT 0,
+    rating_2_count INT NOT NULL DEFAULT 0,
+    rating_3_count INT NOT NULL DEFAULT 0,
+    rating_4_count INT NOT NULL DEFAULT 0,
+    rating_5_count INT NOT NULL DEFAULT 0,
     CHECK (phan_tram_giam_gia IS NULL OR (phan_tram_giam_gia >= 0 AND phan_tram_giam_gia <= 50.00)) -- Giới hạn % giảm giá
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -105,7 +116,7 @@ CREATE TABLE bien_the_san_pham (
     so_luong_ton_kho INT NOT NULL DEFAULT 0,
     hinh_anh_bien_the_url VARCHAR(255) NULL, -- Ảnh riêng cho biến thể nếu có
     ngay_tao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    ngay_cap_nhat TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ngay_cap_nhat TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
     FOREIGN KEY (san_pham_id) REFERENCES san_pham(id) ON DELETE CASCADE ON UPDATE CASCADE, -- Xóa biến thể nếu sản phẩm bị xóa
     CHECK (phan_tram_giam_gia IS NULL OR (phan_tram_giam_gia >= 0 AND phan_tram_giam_gia <= 50.00)) -- Giới hạn % giảm giá
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -243,6 +254,32 @@ CREATE TABLE tin_nhan (
     CHECK (noi_dung IS NOT NULL OR url_hinh_anh IS NOT NULL) -- Phải có text hoặc ảnh
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ================= Bảng Outbox đồng bộ tìm kiếm (Product Search Outbox) =================
+-- Ghi cùng transaction với thay đổi sản phẩm; xóa sau khi đã đẩy sang Elasticsearch (ProductSearchIndexingService)
+-- Không có FOREIGN KEY tới san_pham vì thao tác DELETE phải còn lại sau khi sản phẩm bị xóa
+CREATE TABLE product_search_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    operation VARCHAR(10) NOT NULL, -- 'UPSERT' hoặc 'DELETE'
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ================= Bảng Outbox email (Email Outbox) =================
+-- Ghi cùng transaction với đơn hàng; worker gửi sau khi commit, thử lại với backoff (EmailOutboxService)
+CREATE TABLE email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email_type VARCHAR(50) NOT NULL, -- Ví dụ: 'ORDER_CONFIRMATION'
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING', -- 'PENDING' hoặc 'DEAD' (hết số lần thử); gửi xong thì xóa dòng
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), -- Mili giây như Date của Java: với TIMESTAMP(0) MySQL làm tròn lên và claim bỏ qua email vừa tạo
+    last_error VARCHAR(1000) NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+CREATE INDEX idx_eo_status_next_attempt ON email_outbox(status, next_attempt_at);
+
 -- Thêm Index cho các cột thường xuyên được sử dụng trong WHERE, JOIN để tăng tốc độ truy vấn
 CREATE INDEX idx_sp_danhmuc ON san_pham(danh_muc_id);
 CREATE INDEX idx_sp_thuonghieu ON san_pham(thuong_hieu_id);
@@ -260,4 +297,78 @@ CREATE INDEX idx_sp_min_price ON san_pham(min_price);
 CREATE INDEX idx_sp_max_price ON san_pham(max_price);
 CREATE INDEX idx_sp_avg_rating ON san_pham(average_rating);
 CREATE INDEX idx_sp_created_date ON san_pham(ngay_tao); -- Thêm nếu chưa có và thường xuyên sắp xếp theo ngày tạo
-CREATE INDEX idx_sp_variant_zero_price ON san_pham(variant_zero_price); -- Index cho giá biến thể đầu tiên
\ No newline at end of file
+CREATE INDEX idx_sp_variant_zero_price ON san_pham(variant_zero_price); -- Index cho giá biến thể đầu tiên
+CREATE INDEX idx_sp_ngay_cap_nhat ON san_pham(ngay_cap_nhat); -- ETag / Last-Modified của danh sách sản phẩm (MAX(ngay_cap_nhat))
+CREATE INDEX idx_btsp_ngay_cap_nhat ON bien_the_san_pham(ngay_cap_nhat);
+
+-- Full-text tìm kiếm không dấu trên tên và mô tả sản phẩm (MATCH(ten_khong_dau, mo_ta_khong_dau) AGAINST(...), xem ProductRepository)
+-- Parser ngram (ngram_token_size mặc định = 2) để từ ngắn như "ao", "do" vẫn được index.
+-- Tắt stopword khi tạo index: danh sách stopword tiếng Anh mặc định ("a", "i"...) sẽ loại mọi ngram chứa các ký tự này.
+SET SESSION innodb_ft_enable_stopword = OFF;
+CREATE FULLTEXT INDEX ft_sp_khong_dau ON san_pham(ten_khong_dau, mo_ta_khong_dau) WITH PARSER ngram;
+SET SESSION innodb_ft_enable_stopword = ON;
+
+-- ================= Migration: cột tổng hợp đánh giá cho database đã tồn tại =================
+-- Chạy một lần trên database cũ; job đối soát (ProductDenormalizationService.reconcileReviewAggregates)
+-- sẽ tính lại giá trị từ danh_gia_san_pham sau khi ứng dụng khởi động.
+-- ALTER TABLE san_pham
+--     ADD COLUMN review_count INT NOT NULL DEFAULT 0,
+--     ADD COLUMN rating_count INT NOT NULL DEFAULT 0,
+--     ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0,
+--     ADD COLUMN rating_1_count INT NOT NULL DEFAULT 0,
+--     ADD COLUMN rating_2_count INT NOT NULL DEFAULT 0,
+--     ADD COLUMN rating_3_count INT NOT NULL DEFAULT 0,
+--     ADD COLUMN rating_4_count INT NOT NULL DEFAULT 0,
+--     ADD COLUMN rating_5_count INT NOT NULL DEFAULT 0;
+
+-- ================= Migration: bảng outbox đồng bộ tìm kiếm cho database đã tồn tại =================
+-- CREATE TABLE product_search_outbox (
+--     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+--     product_id BIGINT NOT NULL,
+--     operation VARCHAR(10) NOT NULL,
+--     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+-- ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ================= Migration: cột tìm kiếm không dấu cho database đã tồn tại =================
+-- ProductDenormalizationService.backfillSearchText điền giá trị cho các dòng cũ khi ứng dụng khởi động.
+-- Elasticsearch: chạy POST /api/admin/search-index/reindex để tạo index mới với analyzer vn_folding.
+-- ALTER TABLE san_pham ADD COLUMN ten_khong_dau VARCHAR(255) NULL AFTER ten_san_pham;
+-- SET SESSION innodb_ft_enable_stopword = OFF;
+-- CREATE FULLTEXT INDEX ft_sp_ten_khong_dau ON san_pham(ten_khong_dau) WITH PARSER ngram;
+-- SET SESSION innodb_ft_enable_stopword = ON;
+
+-- ================= Migration: index cho ETag / Last-Modified của catalog cho database đã tồn tại =================
+-- CREATE INDEX idx_sp_ngay_cap_nhat ON san_pham(ngay_cap_nhat);
+-- CREATE INDEX idx_btsp_ngay_cap_nhat ON bien_the_san_pham(ngay_cap_nhat);
+
+-- ================= Migration: ngay_cap_nhat độ chính xác micro giây (ETag) cho database đã tồn tại =================
+-- ALTER TABLE danh_muc MODIFY ngay_cap_nhat TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+-- ALTER TABLE thuong_hieu MODIFY ngay_cap_nhat TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+-- ALTER TABLE san_pham MODIFY ngay_cap_nhat TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+-- ALTER TABLE bien_the_san_pham MODIFY ngay_cap_nhat TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+-- ================= Migration: bảng outbox email cho database đã tồn tại =================
+-- CREATE TABLE email_outbox (
+--     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+--     email_type VARCHAR(50) NOT NULL, -- Ví dụ: 'ORDER_CONFIRMATION'
+--     recipient VARCHAR(255) NOT NULL,
+--     subject VARCHAR(255) NOT NULL,
+--     body TEXT NOT NULL,
+--     status VARCHAR(10) NOT NULL DEFAULT 'PENDING', -- 'PENDING' hoặc 'DEAD' (hết số lần thử); gửi xong thì xóa dòng
+--     attempts INT NOT NULL DEFAULT 0,
+--     next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+--     last_error VARCHAR(1000) NULL,
+--     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+-- ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+-- CREATE INDEX idx_eo_status_next_attempt ON email_outbox(status, next_attempt_at);
+-- Nếu bảng email_outbox đã được tạo với next_attempt_at TIMESTAMP (không có phần mili giây):
+-- ALTER TABLE email_outbox MODIFY next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+-- ================= Migration: mô tả không dấu trong full-text cho database đã tồn tại =================
+-- Tìm kiếm từ khóa trên MySQL khớp cả mô tả (như Elasticsearch); ProductDenormalizationService.backfillSearchText
+-- điền mo_ta_khong_dau cho các dòng cũ khi ứng dụng khởi động.
+-- ALTER TABLE san_pham ADD COLUMN mo_ta_khong_dau TEXT NULL AFTER mo_ta;
+-- DROP INDEX ft_sp_ten_khong_dau ON san_pham;
+-- SET SESSION innodb_ft_enable_stopword = OFF;
+-- CREATE FULLTEXT INDEX ft_sp_khong_dau ON san_pham(ten_khong_dau, mo_ta_khong_dau) WITH PARSER ngram;
+-- SET SESSION innodb_ft_enable_stopword = ON;
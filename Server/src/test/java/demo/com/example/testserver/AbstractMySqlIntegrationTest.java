@@ -0,0 +1,43 @@
+package demo.com.example.testserver;
+
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Base of the @SpringBootTest classes that run against MySQL initialized from db_setup.sql (the catalog and stock
+ * queries use MySQL-only SQL). Each test class gets its own container, skipped without Docker, and the application
+ * runs without Elasticsearch, the in-memory search engine and HTTPS. Subclasses add their own properties through
+ * {@code @SpringBootTest(properties = ...)}.
+ */
+@TestPropertySource(properties = {
+        "spring.elasticsearch.enabled=false",
+        "app.search.engine.memory.enabled=false",
+        "server.ssl.enabled=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext // The container stops with the test class
+public abstract class AbstractMySqlIntegrationTest {
+
+    @Container
+    protected static final MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8.0.36"))
+            .withDatabaseName("ecommerdb")
+            .withCommand("--character-set-server=utf8mb4", "--collation-server=utf8mb4_unicode_ci")
+            .withInitScript("db_setup.sql");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> mysql.getJdbcUrl() + "?useSSL=false&serverTimezone=Asia/Ho_Chi_Minh");
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+}
@@ -0,0 +1,188 @@
+package demo.com.example.testserver.common.service;
+
+import demo.com.example.testserver.common.service.EmailDispatcher.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * EmailDispatcher against a mocked JavaMailSender, with one sender thread so the send order is observable.
+ * Tests that need mail to stay queued first submit a "blocker" email whose send waits on a latch.
+ */
+class EmailDispatcherTest {
+
+    private static final String BLOCKER = "blocker";
+
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final List<String> sentSubjects = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch blockerSending = new CountDownLatch(1);
+    private final CountDownLatch releaseBlocker = new CountDownLatch(1);
+    private EmailDispatcher dispatcher;
+
+    @AfterEach
+    void stopDispatcher() {
+        releaseBlocker.countDown();
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void newerOtpForSameRecipientCancelsTheQueuedOne() throws Exception {
+        start(1, 1_000_000, 4);
+        CompletableFuture<Void> blocker = blockSender();
+
+        CompletableFuture<Void> firstOtp = dispatcher.submit("User@Example.com", "otp-1", "111111", Priority.OTP);
+        CompletableFuture<Void> secondOtp = dispatcher.submit("user@example.com", "otp-2", "222222", Priority.OTP);
+
+        assertTrue(firstOtp.isCompletedExceptionally());
+        assertThrows(CancellationException.class, firstOtp::get);
+        releaseBlocker.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        secondOtp.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(BLOCKER, "otp-2"), sentSubjects);
+        assertEquals(1, dispatcher.getStats().getCoalescedOtps());
+    }
+
+    @Test
+    void transactionalEmailGoesOutAfterOtpBurst() throws Exception {
+        start(1, 1_000_000, 2);
+        CompletableFuture<Void> blocker = blockSender();
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        results.add(dispatcher.submit("order@example.com", "order", "Order confirmed", Priority.TRANSACTIONAL));
+        for (int i = 1; i <= 4; i++) {
+            results.add(dispatcher.submit("user" + i + "@example.com", "otp-" + i, "OTP " + i, Priority.OTP));
+        }
+        releaseBlocker.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(BLOCKER, "otp-1", "otp-2", "order", "otp-3", "otp-4"), sentSubjects);
+    }
+
+    @Test
+    void partialBatchFailureFailsOnlyTheAffectedEmails() throws Exception {
+        MailSendException rejectedRecipient = new MailSendException("550 Mailbox unavailable");
+        start(3, 1_000_000, 4, messages -> {
+            SimpleMailMessage bad = Arrays.stream(messages)
+                    .filter(message -> message.getTo()[0].startsWith("bad"))
+                    .findFirst().orElse(null);
+            if (bad != null) {
+                throw new MailSendException(Map.of(bad, rejectedRecipient));
+            }
+        });
+        CompletableFuture<Void> blocker = blockSender();
+
+        CompletableFuture<Void> first = dispatcher.submit("first@example.com", "first", "1", Priority.TRANSACTIONAL);
+        CompletableFuture<Void> bad = dispatcher.submit("bad@example.com", "bad", "2", Priority.TRANSACTIONAL);
+        CompletableFuture<Void> last = dispatcher.submit("last@example.com", "last", "3", Priority.TRANSACTIONAL);
+        releaseBlocker.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        first.get(5, TimeUnit.SECONDS);
+        last.get(5, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertSame(rejectedRecipient, failure.getCause());
+        assertEquals(1, dispatcher.getStats().getFailed());
+        assertEquals(3, dispatcher.getStats().getSent()); // The blocker, first and last
+    }
+
+    @Test
+    void sendsNoFasterThanMaxPerSecond() throws Exception {
+        start(1, 5, 4); // Bucket of one token, refilled every 200 ms
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(dispatcher.submit("user" + i + "@example.com", "mail-" + i, "Hello", Priority.TRANSACTIONAL));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // The first goes out at once, the other five wait for a token each
+        assertTrue(elapsedMillis >= 800, "6 emails at 5 per second were sent in " + elapsedMillis + " ms");
+        assertEquals(6, sentSubjects.size());
+    }
+
+    @Test
+    void idleSenderGivesBackItsTokens() throws Exception {
+        start(4, 2, 4);
+        // Each idle round takes the bucket's tokens and waits 500 ms for mail; without giving them back the bucket
+        // would hold at most one token here, and the four emails below would take over a second
+        Thread.sleep(1_200);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(dispatcher.submit("user" + i + "@example.com", "mail-" + i, "Hello", Priority.TRANSACTIONAL));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1_000, "A full bucket of 4 tokens took " + elapsedMillis + " ms to send 4 emails");
+    }
+
+    private interface SendBehaviour {
+        void send(SimpleMailMessage[] messages);
+    }
+
+    private void start(int batchSize, double maxPerSecond, int otpBurst) {
+        start(batchSize, maxPerSecond, otpBurst, messages -> {});
+    }
+
+    private void start(int batchSize, double maxPerSecond, int otpBurst, SendBehaviour behaviour) {
+        doAnswer(invocation -> {
+            SimpleMailMessage[] messages = Arrays.stream(invocation.getArguments())
+                    .map(SimpleMailMessage.class::cast)
+                    .toArray(SimpleMailMessage[]::new);
+            if (BLOCKER.equals(messages[0].getSubject())) {
+                blockerSending.countDown();
+                releaseBlocker.await(10, TimeUnit.SECONDS);
+            } else {
+                behaviour.send(messages);
+            }
+            Arrays.stream(messages).map(SimpleMailMessage::getSubject).forEach(sentSubjects::add);
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatcher = new EmailDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "mailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "shop@example.com");
+        ReflectionTestUtils.setField(dispatcher, "senders", 1);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", batchSize);
+        ReflectionTestUtils.setField(dispatcher, "maxPerSecond", maxPerSecond);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "otpQueueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "otpBurst", otpBurst);
+        dispatcher.start();
+    }
+
+    // Occupies the only sender thread until releaseBlocker, so the emails submitted meanwhile stay queued
+    private CompletableFuture<Void> blockSender() throws InterruptedException {
+        CompletableFuture<Void> blocker = dispatcher.submit("blocker@example.com", BLOCKER, "", Priority.TRANSACTIONAL);
+        assertTrue(blockerSending.await(5, TimeUnit.SECONDS), "The sender never picked up the blocker email");
+        return blocker;
+    }
+}
@@ -0,0 +1,191 @@
+package demo.com.example.testserver.common.service;
+
+import demo.com.example.testserver.AbstractMySqlIntegrationTest;
+import demo.com.example.testserver.common.model.EmailOutboxEntry;
+import demo.com.example.testserver.common.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * EmailOutboxService against MySQL, with the EmailDispatcher mocked as the mail sink: the claim lease keeps a row
+ * away from other workers, a failed send is retried with a doubling backoff, an email is moved to DEAD after
+ * max-attempts, and requeueDead sends it again.
+ * <p>
+ * The scheduled poller is pushed out of the way; the tests call pollDue themselves after making a row due, so the
+ * retries happen when the test says and not when the backoff ends. They keep polling while they wait, since a poll
+ * skips an email whose previous worker has recorded its outcome but not yet let go of it.
+ * <p>
+ * A small-scale version of the loadtest profile's EmailOutboxCheck, which remains for checkout throughput against a
+ * slow, flaky SMTP server.
+ */
+@SpringBootTest(properties = {
+        "app.email.outbox.max-attempts=3",
+        "app.email.outbox.initial-backoff-ms=10000",
+        "app.email.outbox.max-backoff-ms=1800000",
+        "app.email.outbox.lease-ms=60000",
+        "app.email.outbox.send-timeout-ms=5000",
+        "app.email.outbox.poll-interval-ms=3600000"
+})
+class EmailOutboxServiceTest extends AbstractMySqlIntegrationTest {
+
+    private static final long INITIAL_BACKOFF_MILLIS = 10_000;
+    private static final long LEASE_MILLIS = 60_000;
+    private static final long WAIT_MILLIS = 10_000;
+
+    @MockBean
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyOutbox() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void claimLeaseKeepsTheRowFromOtherWorkers() {
+        Long id = outboxRepository.save(new EmailOutboxEntry(EmailTemplates.ORDER_CONFIRMATION,
+                "lease@example.com", "Your Order #1", "Body")).getId();
+        Date now = new Date();
+        Date leaseUntil = new Date(now.getTime() + LEASE_MILLIS);
+
+        assertEquals(1, outboxRepository.claim(id, now, leaseUntil));
+        // A second worker, or the poller, while the first one holds the lease
+        assertEquals(0, outboxRepository.claim(id, new Date(), new Date(System.currentTimeMillis() + LEASE_MILLIS)));
+        assertEquals(List.of(), outboxRepository.findDueIds(new Date(), PageRequest.of(0, 10)));
+        // The first worker never reported back: the row is claimable again once the lease runs out
+        Date afterLease = new Date(leaseUntil.getTime() + 1);
+        assertEquals(1, outboxRepository.claim(id, afterLease, new Date(afterLease.getTime() + LEASE_MILLIS)));
+    }
+
+    @Test
+    void failedSendIsRetriedWithBackoff() {
+        when(emailDispatcher.submit(anyString(), anyString(), anyString(), eq(EmailDispatcher.Priority.TRANSACTIONAL)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new MailSendException("421 Try again later")));
+
+        long firstStart = System.currentTimeMillis();
+        emailOutboxService.enqueueOrderConfirmation("retry@example.com", "Nguyễn Văn A", 101, new BigDecimal("229000"));
+        EmailOutboxEntry entry = awaitEntry(e -> e.getAttempts() == 1);
+        assertEquals(EmailOutboxEntry.Status.PENDING, entry.getStatus());
+        assertTrue(entry.getLastError().contains("421 Try again later"), entry.getLastError());
+        assertBackoff(entry, firstStart, INITIAL_BACKOFF_MILLIS);
+
+        // Not due until the backoff ends
+        emailOutboxService.pollDue();
+        verify(emailDispatcher, times(1)).submit(anyString(), anyString(), anyString(), any());
+
+        long secondStart = System.currentTimeMillis();
+        makeDue(entry.getId());
+        entry = awaitEntry(e -> e.getAttempts() == 2);
+        assertEquals(EmailOutboxEntry.Status.PENDING, entry.getStatus());
+        assertBackoff(entry, secondStart, 2 * INITIAL_BACKOFF_MILLIS);
+    }
+
+    @Test
+    void emailIsDeadAfterMaxAttemptsAndRequeueDeadSendsIt() {
+        when(emailDispatcher.submit(anyString(), anyString(), anyString(), eq(EmailDispatcher.Priority.TRANSACTIONAL)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new MailSendException("550 Mailbox unavailable")));
+
+        emailOutboxService.enqueueOrderConfirmation("dead@example.com", "Trần Thị B", 202, new BigDecimal("459000"));
+        EmailOutboxEntry entry = awaitEntry(e -> e.getAttempts() == 1);
+        for (int attempt = 2; attempt <= 3; attempt++) {
+            int expectedAttempts = attempt;
+            makeDue(entry.getId());
+            entry = awaitEntry(e -> e.getAttempts() == expectedAttempts);
+        }
+        assertEquals(EmailOutboxEntry.Status.DEAD, entry.getStatus());
+        assertEquals(1, outboxRepository.countByStatus(EmailOutboxEntry.Status.DEAD));
+        assertEquals(1, emailOutboxService.getStats().getDeadLettered());
+
+        // A dead email is never picked up by the poller, due or not
+        makeDue(entry.getId());
+        emailOutboxService.pollDue();
+        verify(emailDispatcher, times(3)).submit(anyString(), anyString(), anyString(), any());
+
+        when(emailDispatcher.submit(anyString(), anyString(), anyString(), eq(EmailDispatcher.Priority.TRANSACTIONAL)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        assertEquals(1, emailOutboxService.requeueDead());
+        EmailOutboxEntry requeued = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertEquals(EmailOutboxEntry.Status.PENDING, requeued.getStatus());
+        assertEquals(0, requeued.getAttempts());
+
+        awaitDeleted(entry.getId());
+        verify(emailDispatcher, times(4)).submit(eq("dead@example.com"), anyString(), anyString(), any());
+    }
+
+    // The next attempt is the backoff after the failure, +/-20% jitter, and the failure lies between start and now
+    private static void assertBackoff(EmailOutboxEntry entry, long attemptStart, long backoffMillis) {
+        long nextAttempt = entry.getNextAttemptAt().getTime();
+        long earliest = attemptStart + (long) (backoffMillis * 0.8);
+        long latest = System.currentTimeMillis() + (long) (backoffMillis * 1.2);
+        assertTrue(nextAttempt >= earliest && nextAttempt <= latest,
+                "Next attempt " + (nextAttempt - attemptStart) + " ms after the send, expected about " + backoffMillis + " ms");
+    }
+
+    // Skips the rest of the backoff
+    private void makeDue(Long id) {
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = NOW(3) - INTERVAL 1 SECOND WHERE id = ?", id);
+    }
+
+    // The outbox holds a single row per test; polls until a worker has recorded the expected outcome
+    private EmailOutboxEntry awaitEntry(Predicate<EmailOutboxEntry> condition) {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            emailOutboxService.pollDue();
+            List<EmailOutboxEntry> entries = outboxRepository.findAll();
+            if (entries.size() == 1 && condition.test(entries.get(0))) {
+                return entries.get(0);
+            }
+            sleep();
+        }
+        return fail("The outbox row never reached the expected state: " + outboxRepository.findAll().size() + " row(s)");
+    }
+
+    private void awaitDeleted(Long id) {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (outboxRepository.existsById(id)) {
+            emailOutboxService.pollDue();
+            assertFalse(System.currentTimeMillis() > deadline, "Email " + id + " was never sent");
+            sleep();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package demo.com.example.testserver.order.service;
+
+import demo.com.example.testserver.AbstractMySqlIntegrationTest;
+import demo.com.example.testserver.order.dto.CreateOrderRequestDTO;
+import demo.com.example.testserver.order.dto.OrderDetailRequestDTO;
+import demo.com.example.testserver.product.dto.CreateBrandRequestDTO;
+import demo.com.example.testserver.product.dto.CreateCategoryRequestDTO;
+import demo.com.example.testserver.product.dto.CreateProductRequestDTO;
+import demo.com.example.testserver.product.dto.CreateProductVariantDTO;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import demo.com.example.testserver.product.service.BrandService;
+import demo.com.example.testserver.product.service.CategoryService;
+import demo.com.example.testserver.product.service.HotStockLedger;
+import demo.com.example.testserver.product.service.ProductService;
+import demo.com.example.testserver.user.model.Address;
+import demo.com.example.testserver.user.model.User;
+import demo.com.example.testserver.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads order the same variant at once, with more attempts than stock: exactly the stock is sold, the
+ * variant ends at zero, and every rejection is an "Insufficient stock" one (no deadlocks, lock timeouts or lost
+ * updates). Covers the database path and a variant held by the HotStockLedger.
+ * <p>
+ * A small-scale version of the loadtest profile's StockContentionCheck, which remains for runs with more threads,
+ * stock and a full seeded catalog.
+ */
+@SpringBootTest(properties = {
+        "app.stock.hot-ledger.enabled=true",
+        "spring.mail.host=localhost", // Order confirmations stay in the outbox instead of reaching a real server
+        "spring.mail.port=2525"
+})
+class CheckoutStockContentionTest extends AbstractMySqlIntegrationTest {
+
+    private static final int STOCK = 50;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BrandService brandService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HotStockLedger hotStockLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> customers = new ArrayList<>();
+    private Integer categoryId;
+    private Integer brandId;
+
+    @BeforeAll
+    void seedCustomers() {
+        CreateCategoryRequestDTO category = new CreateCategoryRequestDTO();
+        category.setName("Áo thun");
+        category.setImageUrl("images/categories/test.png");
+        categoryId = categoryService.createCategory(category).getId();
+        CreateBrandRequestDTO brand = new CreateBrandRequestDTO();
+        brand.setName("Coolmate");
+        brandId = brandService.createBrand(brand).getId();
+
+        for (int i = 0; i < THREADS; i++) {
+            User user = new User();
+            user.setEmail("checkout-" + i + "@example.com");
+            user.setFullName("Khách hàng " + i);
+            user.setPassword("not-used");
+            user.setRole(User.UserRole.khach_hang);
+            user.setStatus(User.UserStatus.kich_hoat);
+            user.setCustomerPoints(BigDecimal.ZERO);
+
+            Address address = new Address();
+            address.setRecipientName(user.getFullName());
+            address.setPhoneNumber("09" + String.format("%08d", i));
+            address.setSpecificAddress(i + " Lê Lợi, Quận 1, TP. Hồ Chí Minh");
+            address.setDefault(true);
+            user.addAddress(address);
+            customers.add(userRepository.save(user));
+        }
+    }
+
+    @Test
+    void concurrentCheckoutsSellExactlyTheStock() throws InterruptedException {
+        Integer variantId = createVariant("DB");
+        assertSoldOut(variantId, hammer(variantId));
+    }
+
+    @Test
+    void concurrentCheckoutsOfHotVariantSellExactlyTheStock() throws InterruptedException {
+        Integer variantId = createVariant("HOT");
+        hotStockLedger.flag(variantId);
+        try {
+            Outcome outcome = hammer(variantId);
+            hotStockLedger.flushAll();
+            assertSoldOut(variantId, outcome);
+        } finally {
+            hotStockLedger.unflag(variantId);
+        }
+    }
+
+    private record Outcome(int sold, int outOfStock, List<String> unexpectedErrors) {}
+
+    private Outcome hammer(Integer variantId) throws InterruptedException {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+        List<String> unexpectedErrors = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (User customer : customers) {
+            Integer addressId = customer.getAddresses().get(0).getId();
+            pool.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        orderService.createOrder(customer.getEmail(), singleLineOrder(addressId, variantId));
+                        sold.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        if (e.getMessage() != null && e.getMessage().startsWith("Insufficient stock")) {
+                            outOfStock.incrementAndGet();
+                        } else {
+                            unexpectedErrors.add(e.toString());
+                        }
+                    } catch (RuntimeException e) {
+                        unexpectedErrors.add(e.toString()); // Deadlocks and lock timeouts end up here
+                    }
+                }
+                return null;
+            });
+        }
+        startSignal.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES), "Checkouts did not finish in time");
+        return new Outcome(sold.get(), outOfStock.get(), unexpectedErrors);
+    }
+
+    private void assertSoldOut(Integer variantId, Outcome outcome) {
+        Integer remaining = jdbcTemplate.queryForObject(
+                "SELECT so_luong_ton_kho FROM bien_the_san_pham WHERE id = ?", Integer.class, variantId);
+        Integer orderedQuantity = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(so_luong), 0) FROM chi_tiet_don_hang WHERE bien_the_san_pham_id = ?", Integer.class, variantId);
+
+        assertEquals(List.of(), outcome.unexpectedErrors(), "Only \"Insufficient stock\" rejections are expected");
+        assertEquals(STOCK, outcome.sold());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - STOCK, outcome.outOfStock());
+        assertEquals(0, remaining);
+        assertEquals(STOCK, orderedQuantity);
+    }
+
+    private Integer createVariant(String tag) {
+        CreateProductVariantDTO variant = new CreateProductVariantDTO();
+        variant.setName("Đen / M");
+        variant.setSku("CONTENTION-" + tag);
+        variant.setPrice(new BigDecimal("199000"));
+        variant.setStockQuantity(STOCK);
+
+        CreateProductRequestDTO product = new CreateProductRequestDTO();
+        product.setName("Áo thun tranh chấp " + tag);
+        product.setDescription("Sản phẩm cho kiểm thử đặt hàng đồng thời.");
+        product.setCategoryId(categoryId.longValue());
+        product.setBrandId(brandId.longValue());
+        product.setMainImageUrl("images/products/test_main.png");
+        product.setVariants(List.of(variant));
+        ProductDTO created = productService.createProduct(product);
+        return created.getVariants().get(0).getId();
+    }
+
+    private static CreateOrderRequestDTO singleLineOrder(Integer addressId, Integer variantId) {
+        OrderDetailRequestDTO line = new OrderDetailRequestDTO();
+        line.setProductVariantId(variantId);
+        line.setQuantity(1);
+        CreateOrderRequestDTO order = new CreateOrderRequestDTO();
+        order.setAddressId(addressId);
+        order.setOrderDetails(List.of(line));
+        order.setPaymentMethod("COD");
+        order.setShippingFee(new BigDecimal("30000"));
+        order.setTax(BigDecimal.ZERO);
+        return order;
+    }
+}
@@ -0,0 +1,127 @@
+package demo.com.example.testserver.product.service;
+
+import demo.com.example.testserver.AbstractMySqlIntegrationTest;
+import demo.com.example.testserver.product.dto.CreateBrandRequestDTO;
+import demo.com.example.testserver.product.dto.CreateCategoryRequestDTO;
+import demo.com.example.testserver.product.dto.CreateProductRequestDTO;
+import demo.com.example.testserver.product.dto.CreateProductVariantDTO;
+import demo.com.example.testserver.product.dto.ProductDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Guards the listing fetch path against N+1 queries: a page is hydrated (category, brand, variants, images) with a
+ * fixed number of statements, so a page of 20 products must prepare exactly as many statements as a page of 5.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductListingQueryCountTest extends AbstractMySqlIntegrationTest {
+
+    private static final int PRODUCTS = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BrandService brandService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void seedCatalog() {
+        List<Integer> categoryIds = new ArrayList<>();
+        List<Integer> brandIds = new ArrayList<>();
+        for (String name : List.of("Áo thun", "Quần jean")) {
+            CreateCategoryRequestDTO category = new CreateCategoryRequestDTO();
+            category.setName(name);
+            category.setImageUrl("images/categories/test.png");
+            categoryIds.add(categoryService.createCategory(category).getId());
+        }
+        for (String name : List.of("Coolmate", "Yody")) {
+            CreateBrandRequestDTO brand = new CreateBrandRequestDTO();
+            brand.setName(name);
+            brandIds.add(brandService.createBrand(brand).getId());
+        }
+
+        // Every product is discounted, so the top-discounted listing pages over all of them too
+        for (int i = 0; i < PRODUCTS; i++) {
+            CreateProductRequestDTO product = new CreateProductRequestDTO();
+            product.setName("Sản phẩm " + i);
+            product.setDescription("Sản phẩm kiểm thử số " + i);
+            product.setCategoryId(categoryIds.get(i % categoryIds.size()).longValue());
+            product.setBrandId(brandIds.get(i / 2 % brandIds.size()).longValue());
+            product.setMainImageUrl("images/products/test_main.png");
+            product.setImageUrls(List.of("images/products/test_1.png", "images/products/test_2.png"));
+            product.setDiscountPercentage(new BigDecimal(5 + i));
+
+            List<CreateProductVariantDTO> variants = new ArrayList<>();
+            for (int v = 0; v < 3; v++) {
+                CreateProductVariantDTO variant = new CreateProductVariantDTO();
+                variant.setName("Biến thể " + v);
+                variant.setSku("TEST-" + i + "-" + v);
+                variant.setPrice(new BigDecimal(100_000 + 10_000 * v));
+                variant.setStockQuantity(10);
+                variants.add(variant);
+            }
+            product.setVariants(variants);
+            productService.createProduct(product);
+        }
+    }
+
+    @Test
+    void findProductsUsesFixedStatementCount() {
+        assertConstantStatementCount(size -> productService.findProducts(PageRequest.of(0, size),
+                null, null, null, null, null, null, "createdDate", "desc"));
+    }
+
+    @Test
+    void findTopSellingProductsUsesFixedStatementCount() {
+        assertConstantStatementCount(size -> productService.findTopSellingProducts(PageRequest.of(0, size)));
+    }
+
+    @Test
+    void findTopDiscountedProductsUsesFixedStatementCount() {
+        assertConstantStatementCount(size -> productService.findTopDiscountedProducts(PageRequest.of(0, size)));
+    }
+
+    private void assertConstantStatementCount(IntFunction<Page<ProductDTO>> listing) {
+        long smallPage = countStatements(() -> listing.apply(5), 5);
+        long fullPage = countStatements(() -> listing.apply(PRODUCTS), PRODUCTS);
+        assertEquals(smallPage, fullPage,
+                "A page of " + PRODUCTS + " products prepared more statements than a page of 5: associations are loaded per row");
+    }
+
+    private long countStatements(Supplier<Page<ProductDTO>> listing, int expectedProducts) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Page<ProductDTO> page = listing.get();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedProducts, page.getContent().size());
+        page.getContent().forEach(product -> {
+            assertEquals(3, product.getVariantCount());
+            assertNotNull(product.getCategoryName());
+            assertNotNull(product.getBrandName());
+        });
+        return statements;
+    }
+}